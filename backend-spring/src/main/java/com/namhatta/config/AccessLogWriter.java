@@ -0,0 +1,145 @@
+package com.namhatta.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes access log entries as one JSON object per line to the "namhatta.access" logger.
+ * Request threads only enqueue; a single background thread formats and appends. When the
+ * bounded queue is full entries are dropped and counted rather than slowing requests down.
+ */
+@Component
+public class AccessLogWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AccessLogWriter.class);
+    private static final Logger accessLogger = LoggerFactory.getLogger("namhatta.access");
+
+    private final ObjectMapper objectMapper;
+    private final BlockingQueue<AccessLogEntry> queue;
+    private final Counter droppedEntries;
+    private final Thread writerThread;
+    private volatile boolean running = true;
+
+    public AccessLogWriter(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                           @Value("${access-log.queue-capacity:10000}") int queueCapacity) {
+        this.objectMapper = objectMapper;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.droppedEntries = Counter.builder("namhatta.accesslog.dropped")
+                .description("Access log entries dropped because the write queue was full")
+                .register(meterRegistry);
+        meterRegistry.gauge("namhatta.accesslog.queue.size", queue, BlockingQueue::size);
+
+        this.writerThread = new Thread(this::drain, "access-log");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    public static class AccessLogEntry {
+        private final long timestamp;
+        private final String method;
+        private final String route;
+        private final String path;
+        private final int status;
+        private final long bytes;
+        private final long durationMs;
+        private final Long userId;
+
+        public AccessLogEntry(long timestamp, String method, String route, String path, int status,
+                              long bytes, long durationMs, Long userId) {
+            this.timestamp = timestamp;
+            this.method = method;
+            this.route = route;
+            this.path = path;
+            this.status = status;
+            this.bytes = bytes;
+            this.durationMs = durationMs;
+            this.userId = userId;
+        }
+
+        public long getTimestamp() { return timestamp; }
+        public String getMethod() { return method; }
+        public String getRoute() { return route; }
+        public String getPath() { return path; }
+        public int getStatus() { return status; }
+        public long getBytes() { return bytes; }
+        public long getDurationMs() { return durationMs; }
+        public Long getUserId() { return userId; }
+    }
+
+    /**
+     * Queue an entry without blocking; returns false if it was dropped
+     */
+    public boolean submit(AccessLogEntry entry) {
+        if (queue.offer(entry)) {
+            return true;
+        }
+        droppedEntries.increment();
+        return false;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        writerThread.interrupt();
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(2));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void drain() {
+        while (running || !queue.isEmpty()) {
+            try {
+                AccessLogEntry entry = running ? queue.take() : queue.poll();
+                if (entry != null) {
+                    write(entry);
+                }
+            } catch (InterruptedException e) {
+                // Shutdown requested: loop once more to flush what is already queued
+                running = false;
+            } catch (RuntimeException e) {
+                logger.warn("Failed to write access log entry: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void write(AccessLogEntry entry) {
+        Map<String, Object> line = new LinkedHashMap<>();
+        line.put("ts", Instant.ofEpochMilli(entry.timestamp).toString());
+        line.put("method", entry.method);
+        line.put("route", entry.route);
+        line.put("path", entry.path);
+        line.put("status", entry.status);
+        line.put("bytes", entry.bytes);
+        line.put("durationMs", entry.durationMs);
+        if (entry.userId != null) {
+            line.put("userId", entry.userId);
+        }
+
+        try {
+            String json = objectMapper.writeValueAsString(line);
+            if (entry.status >= 400) {
+                accessLogger.warn(json);
+            } else {
+                accessLogger.info(json);
+            }
+        } catch (JsonProcessingException e) {
+            logger.warn("Failed to serialize access log entry: {}", e.getMessage());
+        }
+    }
+}
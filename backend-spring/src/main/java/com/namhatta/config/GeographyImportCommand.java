@@ -0,0 +1,89 @@
+package com.namhatta.config;
+
+import com.namhatta.dto.GeocodingResult;
+import com.namhatta.dto.GeographyImportResult;
+import com.namhatta.service.GeographyImportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * One-off census directory import and/or gazetteer geocoding from the command line, e.g.
+ * java -jar app.jar --spring.main.web-application-type=none --geography.import.file=villages.csv.gz
+ *     --geography.geocode.file=IN.txt
+ *
+ * Imports the directory first and geocodes second when both are given (gzip when a name ends in .gz),
+ * then shuts the application down with exit code 0, or 1 when a step failed.
+ */
+@Component
+@ConditionalOnExpression("'${geography.import.file:}' != '' or '${geography.geocode.file:}' != ''")
+public class GeographyImportCommand implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(GeographyImportCommand.class);
+
+    private final GeographyImportService geographyImportService;
+    private final ConfigurableApplicationContext context;
+    private final Path file;
+    private final Path gazetteer;
+
+    public GeographyImportCommand(GeographyImportService geographyImportService,
+                                  ConfigurableApplicationContext context,
+                                  @Value("${geography.import.file:}") String file,
+                                  @Value("${geography.geocode.file:}") String gazetteer) {
+        this.geographyImportService = geographyImportService;
+        this.context = context;
+        this.file = file.isEmpty() ? null : Path.of(file);
+        this.gazetteer = gazetteer.isEmpty() ? null : Path.of(gazetteer);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        int exitCode = 0;
+        if (file != null) {
+            try (Reader reader = open(file)) {
+                GeographyImportResult result = geographyImportService.importCensusDirectory(reader);
+                logger.info("Imported {}: {} states, {} districts, {} sub-districts, {} villages, {} pincodes ({} rows skipped)",
+                        file, result.getStates(), result.getDistricts(), result.getSubdistricts(),
+                        result.getVillages(), result.getPincodes(), result.getRowsSkipped());
+            } catch (Exception e) {
+                logger.error("Geography import from {} failed", file, e);
+                exitCode = 1;
+            }
+        }
+        if (gazetteer != null && exitCode == 0) {
+            try (Reader reader = open(gazetteer)) {
+                GeocodingResult result = geographyImportService.geocodePincodes(reader);
+                logger.info("Geocoded from {}: {} pincodes, {} addresses ({} rows skipped)",
+                        gazetteer, result.getPincodes(), result.getAddresses(), result.getRowsSkipped());
+            } catch (Exception e) {
+                logger.error("Geocoding from {} failed", gazetteer, e);
+                exitCode = 1;
+            }
+        }
+        int code = exitCode;
+        System.exit(SpringApplication.exit(context, () -> code));
+    }
+
+    private static Reader open(Path path) throws IOException {
+        InputStream in = Files.newInputStream(path);
+        if (path.getFileName().toString().endsWith(".gz")) {
+            in = new GZIPInputStream(in, 1 << 16);
+        }
+        return new InputStreamReader(in, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,19 @@
+package com.namhatta.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts every SQL statement Hibernate prepares for the current request.
+ * Registered through hibernate.session_factory.statement_inspector; returns the SQL unchanged.
+ */
+public class QueryCountingInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        RequestQueryContext context = RequestQueryContext.current();
+        if (context != null) {
+            context.recordStatement(sql);
+        }
+        return sql;
+    }
+}
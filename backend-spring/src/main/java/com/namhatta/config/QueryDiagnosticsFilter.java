@@ -0,0 +1,72 @@
+package com.namhatta.config;
+
+import com.namhatta.service.QueryDiagnosticsService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts SQL statements per /api request and records requests over the diagnostics thresholds
+ */
+@Component
+@Order(3)
+public class QueryDiagnosticsFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryDiagnosticsFilter.class);
+
+    private final QueryDiagnosticsService queryDiagnosticsService;
+
+    public QueryDiagnosticsFilter(QueryDiagnosticsService queryDiagnosticsService) {
+        this.queryDiagnosticsService = queryDiagnosticsService;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        if (!request.getRequestURI().startsWith("/api/")) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long startTime = System.nanoTime();
+        RequestQueryContext context = RequestQueryContext.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestQueryContext.stop();
+            long duration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+
+            if (queryDiagnosticsService.exceedsThreshold(context.getStatementCount(), duration)) {
+                Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                String route = pattern != null ? pattern.toString() : request.getRequestURI();
+                Map.Entry<String, Integer> repeated = context.getMostRepeatedStatement();
+
+                queryDiagnosticsService.record(new QueryDiagnosticsService.FlaggedRequest(
+                        LocalDateTime.now(),
+                        request.getMethod(),
+                        route,
+                        context.getStatementCount(),
+                        context.getJdbcMillis(),
+                        duration,
+                        repeated != null ? repeated.getKey() : null,
+                        repeated != null ? repeated.getValue() : 0));
+
+                logger.debug("{} {} issued {} statements in {}ms", request.getMethod(), route,
+                        context.getStatementCount(), duration);
+            }
+        }
+    }
+}
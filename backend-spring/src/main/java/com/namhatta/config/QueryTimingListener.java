@@ -0,0 +1,29 @@
+package com.namhatta.config;
+
+import org.hibernate.BaseSessionEventListener;
+
+/**
+ * Adds JDBC execution time of each statement to the current request's query context.
+ * Registered through hibernate.session.events.auto; Hibernate creates one per session.
+ */
+public class QueryTimingListener extends BaseSessionEventListener {
+
+    private long executeStart = -1;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        executeStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        if (executeStart < 0) {
+            return;
+        }
+        RequestQueryContext context = RequestQueryContext.current();
+        if (context != null) {
+            context.recordJdbcTime(System.nanoTime() - executeStart);
+        }
+        executeStart = -1;
+    }
+}
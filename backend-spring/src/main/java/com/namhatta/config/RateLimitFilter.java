@@ -1,6 +1,8 @@
 package com.namhatta.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -21,10 +23,20 @@ public class RateLimitFilter extends OncePerRequestFilter {
 
     private final RateLimitService rateLimitService;
     private final ObjectMapper objectMapper;
+    private final Counter loginRejections;
+    private final Counter apiRejections;
 
-    public RateLimitFilter(RateLimitService rateLimitService, ObjectMapper objectMapper) {
+    public RateLimitFilter(RateLimitService rateLimitService, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
         this.rateLimitService = rateLimitService;
         this.objectMapper = objectMapper;
+        this.loginRejections = Counter.builder("namhatta.ratelimit.rejections")
+                .description("Requests rejected with 429 by the rate limiter")
+                .tag("limit", "login")
+                .register(meterRegistry);
+        this.apiRejections = Counter.builder("namhatta.ratelimit.rejections")
+                .description("Requests rejected with 429 by the rate limiter")
+                .tag("limit", "api")
+                .register(meterRegistry);
     }
 
     @Override
@@ -38,6 +50,7 @@ public class RateLimitFilter extends OncePerRequestFilter {
         // Apply rate limiting to login endpoint
         if ("/api/auth/login".equals(requestUri) && "POST".equals(method)) {
             if (!rateLimitService.allowLoginRequest(clientIp)) {
+                loginRejections.increment();
                 sendRateLimitError(response, "Too many login attempts. Please try again in 15 minutes.");
                 return;
             }
@@ -50,6 +63,7 @@ public class RateLimitFilter extends OncePerRequestFilter {
             // Exclude login from API rate limit (already handled above)
             if (!"/api/auth/login".equals(requestUri)) {
                 if (!rateLimitService.allowApiRequest(clientIp)) {
+                    apiRejections.increment();
                     sendRateLimitError(response, "Too many API requests. Please slow down.");
                     return;
                 }
@@ -2,34 +2,55 @@ package com.namhatta.config;
 
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.util.ArrayDeque;
+import java.util.concurrent.locks.ReentrantLock;
 
 @Service
 public class RateLimitService {
 
     private final Cache<String, RateLimitBucket> loginCache;
     private final Cache<String, RateLimitBucket> apiCache;
+    private final int loginMaxRequests;
+    private final int loginWindowSeconds;
+    private final int apiMaxRequests;
+    private final int apiWindowSeconds;
+
+    public RateLimitService(MeterRegistry meterRegistry,
+                            @Value("${rate.limit.login.requests:5}") int loginMaxRequests,
+                            @Value("${rate.limit.login.duration:900}") int loginWindowSeconds,
+                            @Value("${rate.limit.api.requests:100}") int apiMaxRequests,
+                            @Value("${rate.limit.api.duration:60}") int apiWindowSeconds) {
+        this.loginMaxRequests = loginMaxRequests;
+        this.loginWindowSeconds = loginWindowSeconds;
+        this.apiMaxRequests = apiMaxRequests;
+        this.apiWindowSeconds = apiWindowSeconds;
 
-    public RateLimitService() {
         this.loginCache = Caffeine.newBuilder()
-                .expireAfterWrite(Duration.ofMinutes(15))
+                .expireAfterWrite(Duration.ofSeconds(loginWindowSeconds))
+                .recordStats()
                 .build();
 
         this.apiCache = Caffeine.newBuilder()
-                .expireAfterWrite(Duration.ofMinutes(1))
+                .expireAfterWrite(Duration.ofSeconds(apiWindowSeconds))
+                .recordStats()
                 .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, loginCache, "rateLimit.login");
+        CaffeineCacheMetrics.monitor(meterRegistry, apiCache, "rateLimit.api");
     }
 
     public boolean allowLoginRequest(String clientIp) {
-        return checkRateLimit(loginCache, clientIp, 5, 900); // 5 requests per 15 minutes
+        return checkRateLimit(loginCache, clientIp, loginMaxRequests, loginWindowSeconds); // 5 requests per 15 minutes by default
     }
 
     public boolean allowApiRequest(String clientIp) {
-        return checkRateLimit(apiCache, clientIp, 100, 60); // 100 requests per minute
+        return checkRateLimit(apiCache, clientIp, apiMaxRequests, apiWindowSeconds); // 100 requests per minute by default
     }
 
     private boolean checkRateLimit(Cache<String, RateLimitBucket> cache, String key, int maxRequests, int windowSeconds) {
@@ -37,36 +58,51 @@ public class RateLimitService {
         return bucket.tryConsume();
     }
 
+    /**
+     * Sliding-window log of request timestamps with a running total.
+     * Guarded by a ReentrantLock rather than synchronized so that virtual threads waiting on a
+     * hot bucket park instead of pinning their carrier thread.
+     */
     private static class RateLimitBucket {
         private final int maxRequests;
         private final long windowMillis;
-        private final ConcurrentMap<Long, Integer> requestCounts;
+        private final ReentrantLock lock = new ReentrantLock();
+        // Oldest first; each element is {timestampMillis, count}, at most maxRequests elements
+        private final ArrayDeque<long[]> requestCounts = new ArrayDeque<>();
+        private int totalRequests;
 
         public RateLimitBucket(int maxRequests, int windowSeconds) {
             this.maxRequests = maxRequests;
             this.windowMillis = windowSeconds * 1000L;
-            this.requestCounts = new ConcurrentHashMap<>();
         }
 
-        public synchronized boolean tryConsume() {
+        public boolean tryConsume() {
             long currentTimeMillis = System.currentTimeMillis();
             long windowStart = currentTimeMillis - windowMillis;
 
-            // Remove old entries
-            requestCounts.entrySet().removeIf(entry -> entry.getKey() < windowStart);
-
-            // Count requests in current window
-            int totalRequests = requestCounts.values().stream()
-                    .mapToInt(Integer::intValue)
-                    .sum();
-
-            if (totalRequests >= maxRequests) {
-                return false;
+            lock.lock();
+            try {
+                // Remove old entries
+                while (!requestCounts.isEmpty() && requestCounts.peekFirst()[0] < windowStart) {
+                    totalRequests -= (int) requestCounts.pollFirst()[1];
+                }
+
+                if (totalRequests >= maxRequests) {
+                    return false;
+                }
+
+                // Add current request, merging requests within the same millisecond
+                long[] newest = requestCounts.peekLast();
+                if (newest != null && newest[0] == currentTimeMillis) {
+                    newest[1]++;
+                } else {
+                    requestCounts.addLast(new long[] { currentTimeMillis, 1 });
+                }
+                totalRequests++;
+                return true;
+            } finally {
+                lock.unlock();
             }
-
-            // Add current request
-            requestCounts.merge(currentTimeMillis, 1, Integer::sum);
-            return true;
         }
     }
 }
@@ -0,0 +1,65 @@
+package com.namhatta.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Replaces the auto-configured DataSource with a primary/replica router when datasource.replica.enabled=true.
+ * The primary pool keeps the spring.datasource.* settings; the replica pool reads datasource.replica.*.
+ */
+@Configuration
+@ConditionalOnProperty(name = "datasource.replica.enabled", havingValue = "true")
+public class ReadReplicaDataSourceConfig {
+
+    @Bean(destroyMethod = "close")
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            DataSourceProperties primaryProperties,
+            Environment environment,
+            MeterRegistry meterRegistry,
+            @Value("${datasource.replica.read-your-writes-ms:5000}") long readYourWritesMillis,
+            @Value("${datasource.replica.max-lag-seconds:30}") long maxLagSeconds) {
+
+        Binder binder = Binder.get(environment);
+        DataSourceProperties replicaProperties = binder.bind("datasource.replica", DataSourceProperties.class)
+                .orElseThrow(() -> new IllegalStateException("datasource.replica.url must be set when the replica is enabled"));
+
+        HikariDataSource primary = createPool(primaryProperties, binder, "spring.datasource.hikari", "primary", meterRegistry);
+        HikariDataSource replica = createPool(replicaProperties, binder, "datasource.replica.hikari", "replica", meterRegistry);
+        replica.setReadOnly(true);
+
+        return new ReplicaRoutingDataSource(primary, replica, Duration.ofMillis(readYourWritesMillis),
+                maxLagSeconds, meterRegistry);
+    }
+
+    /**
+     * The DataSource used by JPA; connections are only fetched from the router on the first statement
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    private HikariDataSource createPool(DataSourceProperties properties, Binder binder, String hikariPrefix,
+                                        String poolName, MeterRegistry meterRegistry) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        binder.bind(hikariPrefix, Bindable.ofInstance(pool));
+        pool.setPoolName(poolName);
+        pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return pool;
+    }
+}
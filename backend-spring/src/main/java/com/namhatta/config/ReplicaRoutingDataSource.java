@@ -0,0 +1,251 @@
+package com.namhatta.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.namhatta.security.CustomUserDetails;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Sends connections for read-only transactions to the replica pool and everything else to the primary.
+ *
+ * Must be wrapped in a LazyConnectionDataSourceProxy: the transaction's read-only flag is only
+ * published after the transaction manager begins, so the physical connection has to be fetched
+ * on the first statement. A user whose transaction changed data is pinned to the primary for the
+ * read-your-writes window once it commits; read-write transactions that only read do not count.
+ * An unreachable or lagging replica sends all reads to the primary until the next successful
+ * health check.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private static final String METRIC_NAME = "namhatta.datasource.connections";
+
+    // Seconds since the replica last replayed a transaction, or 0 when it has replayed all WAL it received,
+    // so a caught-up replica of an idle primary does not age out; null on a primary
+    static final String REPLICATION_LAG_SQL =
+            "SELECT CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE EXTRACT(EPOCH FROM (now() - pg_last_xact_replay_timestamp())) END";
+
+    // Statements that cannot change data; anything else marks the transaction as a write
+    private static final Pattern READ_STATEMENT =
+            Pattern.compile("^\\s*(?:/\\*.*?\\*/\\s*)*(?:select|values|show)\\b", Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+
+    public enum Route { PRIMARY, REPLICA }
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final long maxLagSeconds;
+    private final AtomicBoolean replicaHealthy = new AtomicBoolean(true);
+    private final Cache<Long, Boolean> recentWriters;
+    private final Counter primaryConnections;
+    private final Counter replicaConnections;
+    private final Counter replicaFallbacks;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, Duration readYourWritesWindow,
+                                    long maxLagSeconds, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replica = replica;
+        this.maxLagSeconds = maxLagSeconds;
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(readYourWritesWindow)
+                .maximumSize(100_000)
+                .build();
+        this.primaryConnections = Counter.builder(METRIC_NAME).tag("target", "primary").register(meterRegistry);
+        this.replicaConnections = Counter.builder(METRIC_NAME).tag("target", "replica").register(meterRegistry);
+        this.replicaFallbacks = Counter.builder(METRIC_NAME).tag("target", "replica_fallback").register(meterRegistry);
+        Gauge.builder("namhatta.datasource.replica.healthy", replicaHealthy, healthy -> healthy.get() ? 1 : 0)
+                .register(meterRegistry);
+
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return Route.PRIMARY;
+        }
+        if (!replicaHealthy.get()) {
+            return Route.PRIMARY;
+        }
+        Long userId = currentUserId();
+        if (userId != null && recentWriters.getIfPresent(userId) != null) {
+            return Route.PRIMARY;
+        }
+        return Route.REPLICA;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (determineCurrentLookupKey() == Route.PRIMARY) {
+            primaryConnections.increment();
+            Connection connection = primary.getConnection();
+            Long userId = currentUserId();
+            if (userId == null || TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+                return connection;
+            }
+            return trackWrites(connection, userId);
+        }
+        try {
+            Connection connection = replica.getConnection();
+            replicaConnections.increment();
+            return connection;
+        } catch (SQLException e) {
+            markReplicaDown("connection failed: " + e.getMessage());
+            replicaFallbacks.increment();
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return getConnection();
+    }
+
+    /**
+     * Probes the replica and restores routing to it once it is reachable and within the lag limit
+     */
+    @Scheduled(fixedDelayString = "${datasource.replica.health-check-ms:5000}")
+    public void checkReplicaHealth() {
+        try (Connection connection = replica.getConnection()) {
+            if (!connection.isValid(2)) {
+                markReplicaDown("connection not valid");
+                return;
+            }
+            if (maxLagSeconds > 0) {
+                double lag = replicationLagSeconds(connection);
+                if (lag > maxLagSeconds) {
+                    markReplicaDown(String.format("replication lag %.1fs exceeds %ds", lag, maxLagSeconds));
+                    return;
+                }
+            }
+            if (replicaHealthy.compareAndSet(false, true)) {
+                logger.info("Read replica healthy again, routing read-only transactions to it");
+            }
+        } catch (SQLException e) {
+            markReplicaDown("health check failed: " + e.getMessage());
+        }
+    }
+
+    public boolean isReplicaHealthy() {
+        return replicaHealthy.get();
+    }
+
+    @Override
+    public void close() {
+        closePool(replica);
+        closePool(primary);
+    }
+
+    private double replicationLagSeconds(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(REPLICATION_LAG_SQL)) {
+            double lag = resultSet.next() ? resultSet.getDouble(1) : 0;
+            return resultSet.wasNull() ? 0 : lag;
+        }
+    }
+
+    /**
+     * Hands out the connection through a proxy that watches the SQL prepared or executed on it. The first
+     * statement that is not a plain read records the user as a recent writer when the transaction commits,
+     * or straight away outside a transaction.
+     */
+    private Connection trackWrites(Connection connection, Long userId) {
+        AtomicBoolean recorded = new AtomicBoolean();
+        Consumer<Object> inspect = sql -> {
+            if (sql instanceof String && !READ_STATEMENT.matcher((String) sql).lookingAt()
+                    && recorded.compareAndSet(false, true)) {
+                recordWriter(userId);
+            }
+        };
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] {Connection.class},
+                (proxy, method, args) -> {
+                    String name = method.getName();
+                    if ((name.equals("prepareStatement") || name.equals("prepareCall")) && args != null) {
+                        inspect.accept(args[0]);
+                    }
+                    Object result = invoke(connection, method, args);
+                    if (name.equals("createStatement") && result != null) {
+                        Statement statement = (Statement) result;
+                        return Proxy.newProxyInstance(Statement.class.getClassLoader(), new Class<?>[] {Statement.class},
+                                (statementProxy, statementMethod, statementArgs) -> {
+                                    String statementName = statementMethod.getName();
+                                    if ((statementName.startsWith("execute") || statementName.equals("addBatch"))
+                                            && statementArgs != null) {
+                                        inspect.accept(statementArgs[0]);
+                                    }
+                                    return invoke(statement, statementMethod, statementArgs);
+                                });
+                    }
+                    return result;
+                });
+    }
+
+    private void recordWriter(Long userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            recentWriters.put(userId, Boolean.TRUE);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recentWriters.put(userId, Boolean.TRUE);
+            }
+        });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void markReplicaDown(String reason) {
+        if (replicaHealthy.compareAndSet(true, false)) {
+            logger.warn("Read replica unavailable ({}), routing reads to primary", reason);
+        }
+    }
+
+    private Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof CustomUserDetails) {
+            return ((CustomUserDetails) authentication.getPrincipal()).getUserId();
+        }
+        return null;
+    }
+
+    private static void closePool(DataSource dataSource) {
+        if (dataSource instanceof HikariDataSource) {
+            ((HikariDataSource) dataSource).close();
+        }
+    }
+}
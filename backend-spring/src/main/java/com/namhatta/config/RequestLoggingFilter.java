@@ -4,75 +4,92 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.annotation.Order;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
-import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.servlet.HandlerMapping;
 
 import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Structured access log for /api requests.
+ * The response is wrapped only to count bytes, never buffered; entries are handed to
+ * AccessLogWriter and written off the request thread. Successful (2xx/3xx) requests can be
+ * sampled with access-log.success-sample-rate; errors are always logged.
+ */
 @Component
 @Order(2)
 public class RequestLoggingFilter extends OncePerRequestFilter {
 
-    private static final Logger logger = LoggerFactory.getLogger(RequestLoggingFilter.class);
     private static final String USER_ID_MDC_KEY = "userId";
 
+    private final AccessLogWriter accessLogWriter;
+    private final double successSampleRate;
+
+    public RequestLoggingFilter(AccessLogWriter accessLogWriter,
+                                @Value("${access-log.success-sample-rate:1.0}") double successSampleRate) {
+        this.accessLogWriter = accessLogWriter;
+        this.successSampleRate = successSampleRate;
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
 
-        long startTime = System.currentTimeMillis();
-        ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+        if (!request.getRequestURI().startsWith("/api/")) {
+            filterChain.doFilter(request, response);
+            return;
+        }
 
-        try {
-            // Set userId in MDC from authentication context
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            if (authentication != null && authentication.isAuthenticated() && 
-                !"anonymousUser".equals(authentication.getPrincipal())) {
-                try {
-                    Object principal = authentication.getPrincipal();
-                    if (principal instanceof com.namhatta.security.CustomUserDetails) {
-                        Long userId = ((com.namhatta.security.CustomUserDetails) principal).getUserId();
-                        MDC.put(USER_ID_MDC_KEY, String.valueOf(userId));
-                    }
-                } catch (Exception e) {
-                    // Ignore if we can't get user ID
-                }
-            }
+        long startTime = System.nanoTime();
+        CountingResponseWrapper responseWrapper = new CountingResponseWrapper(response);
+        Long userId = currentUserId();
+        if (userId != null) {
+            MDC.put(USER_ID_MDC_KEY, String.valueOf(userId));
+        }
 
+        try {
             // Process the request
             filterChain.doFilter(request, responseWrapper);
 
         } finally {
-            long duration = System.currentTimeMillis() - startTime;
+            int status = responseWrapper.getStatus();
+            if (status >= 400 || sampled()) {
+                long duration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+                Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
 
-            // Log request details for API endpoints only
-            if (request.getRequestURI().startsWith("/api/")) {
-                String method = request.getMethod();
-                String uri = request.getRequestURI();
-                int status = responseWrapper.getStatus();
-                
-                String logMessage = String.format("%s %s - Status: %d - Duration: %dms",
-                        method, uri, status, duration);
-                
-                if (status >= 400) {
-                    logger.warn(logMessage);
-                } else {
-                    logger.info(logMessage);
-                }
+                accessLogWriter.submit(new AccessLogWriter.AccessLogEntry(
+                        System.currentTimeMillis(),
+                        request.getMethod(),
+                        route != null ? route.toString() : null,
+                        request.getRequestURI(),
+                        status,
+                        responseWrapper.getCount(),
+                        duration,
+                        userId));
             }
 
-            // Copy response content back to original response
-            responseWrapper.copyBodyToResponse();
-            
             // Clear MDC
             MDC.remove(USER_ID_MDC_KEY);
         }
     }
+
+    private boolean sampled() {
+        return successSampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < successSampleRate;
+    }
+
+    private Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated() &&
+            authentication.getPrincipal() instanceof com.namhatta.security.CustomUserDetails) {
+            return ((com.namhatta.security.CustomUserDetails) authentication.getPrincipal()).getUserId();
+        }
+        return null;
+    }
 }
@@ -0,0 +1,70 @@
+package com.namhatta.config;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * SQL statistics of the current request, kept in a thread local between start() and stop().
+ * Fed by QueryCountingInspector (statement count and shapes) and QueryTimingListener (JDBC time).
+ * Statements run on other threads (e.g. ParallelQueryService workers) are not attributed.
+ */
+public final class RequestQueryContext {
+
+    // Distinct statement shapes tracked per request; further shapes are only counted
+    private static final int MAX_TRACKED_STATEMENTS = 100;
+
+    private static final ThreadLocal<RequestQueryContext> CURRENT = new ThreadLocal<>();
+
+    private int statementCount;
+    private long jdbcNanos;
+    private final Map<String, Integer> statementCounts = new HashMap<>();
+
+    private RequestQueryContext() {
+    }
+
+    public static RequestQueryContext start() {
+        RequestQueryContext context = new RequestQueryContext();
+        CURRENT.set(context);
+        return context;
+    }
+
+    public static RequestQueryContext current() {
+        return CURRENT.get();
+    }
+
+    public static void stop() {
+        CURRENT.remove();
+    }
+
+    void recordStatement(String sql) {
+        statementCount++;
+        if (statementCounts.size() < MAX_TRACKED_STATEMENTS || statementCounts.containsKey(sql)) {
+            statementCounts.merge(sql, 1, Integer::sum);
+        }
+    }
+
+    void recordJdbcTime(long nanos) {
+        jdbcNanos += nanos;
+    }
+
+    public int getStatementCount() {
+        return statementCount;
+    }
+
+    public long getJdbcMillis() {
+        return jdbcNanos / 1_000_000;
+    }
+
+    /**
+     * The statement executed most often in this request, the usual signature of an N+1
+     */
+    public Map.Entry<String, Integer> getMostRepeatedStatement() {
+        Map.Entry<String, Integer> top = null;
+        for (Map.Entry<String, Integer> entry : statementCounts.entrySet()) {
+            if (top == null || entry.getValue() > top.getValue()) {
+                top = entry;
+            }
+        }
+        return top;
+    }
+}
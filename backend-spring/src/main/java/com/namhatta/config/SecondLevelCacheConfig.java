@@ -0,0 +1,100 @@
+package com.namhatta.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import java.time.Duration;
+import java.util.OptionalLong;
+
+/**
+ * Caffeine-backed JCache regions for the Hibernate second-level and query caches.
+ *
+ * Every region is created here with an explicit size and TTL; Hibernate is configured to fail on a
+ * region it does not find, so a new @Cache entity has to be registered below. Entity writes through
+ * JPA update their region and bump the table's update timestamp, which invalidates cached queries.
+ * Caches are local to each instance; the TTL bounds how long another instance can serve a stale row.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    public static final String DEVOTIONAL_STATUS_REGION = "reference.devotionalStatus";
+    public static final String GURUDEV_REGION = "reference.gurudev";
+    public static final String SHRADDHAKUTIR_REGION = "reference.shraddhakutir";
+    public static final String ADDRESS_REGION = "reference.address";
+
+    private static final String METRIC_PREFIX = "namhatta.cache.l2";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(
+            MeterRegistry meterRegistry,
+            @Value("${second-level-cache.reference.max-entries:1000}") long referenceMaxEntries,
+            @Value("${second-level-cache.reference.ttl-minutes:60}") long referenceTtlMinutes,
+            @Value("${second-level-cache.address.max-entries:50000}") long addressMaxEntries,
+            @Value("${second-level-cache.address.ttl-minutes:30}") long addressTtlMinutes,
+            @Value("${second-level-cache.query.max-entries:2000}") long queryMaxEntries,
+            @Value("${second-level-cache.query.ttl-minutes:10}") long queryTtlMinutes) {
+
+        // A private provider keeps regions per application context instead of per JVM
+        CacheManager cacheManager = new CaffeineCachingProvider().getCacheManager();
+
+        createRegion(cacheManager, meterRegistry, DEVOTIONAL_STATUS_REGION, referenceMaxEntries, referenceTtlMinutes);
+        createRegion(cacheManager, meterRegistry, GURUDEV_REGION, referenceMaxEntries, referenceTtlMinutes);
+        createRegion(cacheManager, meterRegistry, SHRADDHAKUTIR_REGION, referenceMaxEntries, referenceTtlMinutes);
+        createRegion(cacheManager, meterRegistry, ADDRESS_REGION, addressMaxEntries, addressTtlMinutes);
+        createRegion(cacheManager, meterRegistry, RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+                queryMaxEntries, queryTtlMinutes);
+        // Update timestamps must outlive every cached query result, so this region is neither bounded nor expired
+        createRegion(cacheManager, meterRegistry, RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, 0, 0);
+
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    private void createRegion(CacheManager cacheManager, MeterRegistry meterRegistry, String region,
+                              long maxEntries, long ttlMinutes) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setStoreByValue(false);
+        configuration.setNativeStatisticsEnabled(true);
+        if (maxEntries > 0) {
+            configuration.setMaximumSize(OptionalLong.of(maxEntries));
+        }
+        if (ttlMinutes > 0) {
+            configuration.setExpireAfterWrite(OptionalLong.of(Duration.ofMinutes(ttlMinutes).toNanos()));
+        }
+
+        Cache<Object, Object> cache = cacheManager.createCache(region, configuration);
+        com.github.benmanes.caffeine.cache.Cache<?, ?> nativeCache =
+                cache.unwrap(com.github.benmanes.caffeine.cache.Cache.class);
+
+        FunctionCounter.builder(METRIC_PREFIX + ".requests", nativeCache, c -> c.stats().hitCount())
+                .tag("region", region).tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder(METRIC_PREFIX + ".requests", nativeCache, c -> c.stats().missCount())
+                .tag("region", region).tag("result", "miss")
+                .register(meterRegistry);
+        FunctionCounter.builder(METRIC_PREFIX + ".evictions", nativeCache, c -> c.stats().evictionCount())
+                .tag("region", region)
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".hit.ratio", nativeCache, c -> c.stats().hitRate())
+                .tag("region", region)
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".size", nativeCache, c -> c.estimatedSize())
+                .tag("region", region)
+                .register(meterRegistry);
+    }
+}
@@ -41,10 +41,21 @@ public class SecurityConfig {
     @Value("${cors.max-age}")
     private long maxAge;
     
+    @Value("${server.port:8080}")
+    private int serverPort;
+    
+    // -1 when actuator shares the main port
+    @Value("${management.server.port:-1}")
+    private int managementPort;
+    
     public SecurityConfig(JwtAuthenticationFilter jwtAuthenticationFilter) {
         this.jwtAuthenticationFilter = jwtAuthenticationFilter;
     }
     
+    private boolean isManagementPort(int port) {
+        return managementPort > 0 && managementPort != serverPort && port == managementPort;
+    }
+    
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
@@ -66,7 +77,11 @@ public class SecurityConfig {
                 //swagger
                 .requestMatchers("/swagger-ui/**", "v3/api-docs/**").permitAll()
                 // Public system endpoints
-                .requestMatchers("/api/health", "/api/about").permitAll()
+                .requestMatchers("/api/health", "/api/about", "/actuator/health").permitAll()
+                // Actuator on a separate management port is kept off the public ingress, so it is open there;
+                // on the main port the metrics scrape is admin-only
+                .requestMatchers(request -> isManagementPort(request.getLocalPort())).permitAll()
+                .requestMatchers("/actuator/prometheus").hasRole("ADMIN")
                 
                 // Public geography endpoints
                 .requestMatchers(
@@ -79,7 +94,8 @@ public class SecurityConfig {
                     "/api/address-by-pincode"
                 ).permitAll()
                 
-                // Public map endpoints
+                // Public map endpoints; clusters place single namhattas at their exact meeting place
+                .requestMatchers("/api/map/clusters").authenticated()
                 .requestMatchers("/api/map/**").permitAll()
                 
                 // Public namhatta endpoints (GET only)
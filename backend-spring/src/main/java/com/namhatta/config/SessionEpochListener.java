@@ -0,0 +1,145 @@
+package com.namhatta.config;
+
+import com.namhatta.service.SessionEpochService;
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps session epochs consistent across instances by LISTENing on the session_epoch channel.
+ *
+ * Uses one dedicated connection outside the pool, since it is held for the life of the process.
+ * LISTEN does not survive a transaction-mode pooler (PgBouncer, the Neon "-pooler" host), so
+ * session.epoch.listen-url can point at the direct endpoint instead of spring.datasource.url;
+ * startup fails when the URL it would LISTEN on is a Neon pooler host.
+ * Whenever the connection is (re)established the local epoch map is cleared, because
+ * notifications sent while it was down are lost. Does nothing unless the database is PostgreSQL.
+ */
+@Component
+@ConditionalOnProperty(name = "session.validation-mode", havingValue = "EPOCH")
+public class SessionEpochListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(SessionEpochListener.class);
+
+    private final SessionEpochService sessionEpochService;
+    private final DataSourceProperties dataSourceProperties;
+    private final String url;
+    private final int pollMillis;
+    private final long reconnectMillis;
+    private final Thread listenerThread;
+    private volatile boolean running = true;
+    private volatile Connection connection;
+
+    public SessionEpochListener(SessionEpochService sessionEpochService,
+                                DataSourceProperties dataSourceProperties,
+                                @Value("${session.epoch.listen-url:}") String listenUrl,
+                                @Value("${session.epoch.listen-poll-ms:5000}") int pollMillis,
+                                @Value("${session.epoch.reconnect-ms:5000}") long reconnectMillis) {
+        this.sessionEpochService = sessionEpochService;
+        this.dataSourceProperties = dataSourceProperties;
+        this.pollMillis = pollMillis;
+        this.reconnectMillis = reconnectMillis;
+
+        this.url = listenUrl.isEmpty() ? dataSourceProperties.determineUrl() : listenUrl;
+        if (url == null || !url.startsWith("jdbc:postgresql:")) {
+            logger.info("Session epochs are not shared between instances: LISTEN/NOTIFY needs PostgreSQL");
+            this.listenerThread = null;
+            return;
+        }
+        if (isPoolerUrl(url)) {
+            // Notifications would never arrive, leaving other instances to accept superseded tokens
+            throw new IllegalStateException("Session epoch LISTEN would go through a connection pooler; "
+                    + "set session.epoch.listen-url to the direct (non -pooler) endpoint");
+        }
+        sessionEpochService.setPublishing(true);
+        this.listenerThread = new Thread(this::listen, "session-epoch-listener");
+        this.listenerThread.setDaemon(true);
+        this.listenerThread.start();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (listenerThread == null) {
+            return;
+        }
+        closeQuietly(connection);
+        listenerThread.interrupt();
+        try {
+            listenerThread.join(TimeUnit.SECONDS.toMillis(2));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection conn = DriverManager.getConnection(url,
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                connection = conn;
+                try (Statement statement = conn.createStatement()) {
+                    statement.execute("LISTEN " + SessionEpochService.CHANNEL);
+                }
+                sessionEpochService.invalidateAll();
+                logger.info("Listening for session epoch changes");
+
+                PGConnection pgConnection = conn.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(pollMillis);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            sessionEpochService.applyNotification(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                // Changes may be missed until reconnected; drop cached epochs so they are re-read
+                sessionEpochService.invalidateAll();
+                logger.warn("Session epoch listener disconnected, retrying in {} ms: {}", reconnectMillis, e.getMessage());
+                try {
+                    Thread.sleep(reconnectMillis);
+                } catch (InterruptedException ie) {
+                    return;
+                }
+            } finally {
+                connection = null;
+            }
+        }
+    }
+
+    static boolean isPoolerUrl(String url) {
+        int hostStart = url.indexOf("//");
+        if (hostStart < 0) {
+            return false;
+        }
+        int hostEnd = url.indexOf('/', hostStart + 2);
+        String host = hostEnd < 0 ? url.substring(hostStart + 2) : url.substring(hostStart + 2, hostEnd);
+        return host.contains("-pooler");
+    }
+
+    private static void closeQuietly(Connection conn) {
+        if (conn == null) {
+            return;
+        }
+        try {
+            conn.close();
+        } catch (SQLException e) {
+            // Closing only to wake the listener thread
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.namhatta.config;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Reports which threading mode request handling and scheduled work run in.
+ * Virtual threads are opt-in (spring.threads.virtual.enabled, see the virtual-threads profile)
+ * and are silently ignored by Spring Boot on runtimes older than Java 21.
+ */
+@Configuration
+public class ThreadingModeValidator {
+
+    private static final Logger logger = LoggerFactory.getLogger(ThreadingModeValidator.class);
+    private static final int VIRTUAL_THREADS_MIN_JAVA = 21;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreadsEnabled;
+
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int maximumPoolSize;
+
+    @PostConstruct
+    public void validateThreadingMode() {
+        int javaVersion = Runtime.version().feature();
+
+        if (!virtualThreadsEnabled) {
+            logger.info("Threading mode: platform threads (Java {})", javaVersion);
+            return;
+        }
+
+        if (javaVersion < VIRTUAL_THREADS_MIN_JAVA) {
+            logger.warn("spring.threads.virtual.enabled=true but the runtime is Java {}; virtual threads need Java {}+. " +
+                        "Falling back to platform threads.", javaVersion, VIRTUAL_THREADS_MIN_JAVA);
+            return;
+        }
+
+        // Concurrency is now bounded by the connection pool rather than Tomcat's thread pool
+        logger.info("Threading mode: virtual threads (Java {}), database concurrency capped at {} pooled connections",
+                javaVersion, maximumPoolSize);
+    }
+}
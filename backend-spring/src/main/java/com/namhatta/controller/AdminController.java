@@ -1,7 +1,10 @@
 package com.namhatta.controller;
 
 import com.namhatta.dto.*;
+import com.namhatta.service.GeographyImportService;
+import com.namhatta.service.QueryDiagnosticsService;
 import com.namhatta.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -9,9 +12,15 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.zip.GZIPInputStream;
 
 @RestController
 @RequestMapping("/api/admin")
@@ -20,6 +29,12 @@ public class AdminController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private QueryDiagnosticsService queryDiagnosticsService;
+
+    @Autowired
+    private GeographyImportService geographyImportService;
+
     @PostMapping("/register-supervisor")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<UserDTO> registerSupervisor(@Valid @RequestBody RegisterRequest request) {
@@ -60,4 +75,50 @@ public class AdminController {
         response.put("message", "User deactivated successfully");
         return ResponseEntity.ok(response);
     }
+
+    @GetMapping("/diagnostics/queries")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<QueryDiagnosticsService.QueryDiagnosticsReport> getQueryDiagnostics(
+            @RequestParam(defaultValue = "50") int recent) {
+        return ResponseEntity.ok(queryDiagnosticsService.getReport(recent));
+    }
+
+    @DeleteMapping("/diagnostics/queries")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> clearQueryDiagnostics() {
+        queryDiagnosticsService.clear();
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Import the census village directory from the raw request body (CSV, optionally gzip-encoded).
+     * The body is streamed straight into the import rather than buffered as a multipart upload.
+     */
+    @PostMapping(value = "/geography/import", consumes = {"text/csv", "text/plain", "application/octet-stream"})
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<GeographyImportResult> importGeography(HttpServletRequest request) throws IOException {
+        InputStream body = request.getInputStream();
+        if ("gzip".equalsIgnoreCase(request.getHeader("Content-Encoding"))) {
+            body = new GZIPInputStream(body, 1 << 16);
+        }
+        try (Reader reader = new InputStreamReader(body, StandardCharsets.UTF_8)) {
+            return ResponseEntity.ok(geographyImportService.importCensusDirectory(reader));
+        }
+    }
+
+    /**
+     * Set pincode and address coordinates from a gazetteer in the raw request body (GeoNames postal code
+     * dump or pincode/latitude/longitude CSV, optionally gzip-encoded).
+     */
+    @PostMapping(value = "/geography/geocode", consumes = {"text/csv", "text/plain", "application/octet-stream"})
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<GeocodingResult> geocodeGeography(HttpServletRequest request) throws IOException {
+        InputStream body = request.getInputStream();
+        if ("gzip".equalsIgnoreCase(request.getHeader("Content-Encoding"))) {
+            body = new GZIPInputStream(body, 1 << 16);
+        }
+        try (Reader reader = new InputStreamReader(body, StandardCharsets.UTF_8)) {
+            return ResponseEntity.ok(geographyImportService.geocodePincodes(reader));
+        }
+    }
 }
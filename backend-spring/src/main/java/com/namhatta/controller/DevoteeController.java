@@ -34,7 +34,12 @@ public class DevoteeController {
             @RequestParam(required = false) String country,
             @RequestParam(required = false) String state,
             @RequestParam(required = false) String district,
-            @RequestParam(required = false) Long statusId) {
+            @RequestParam(required = false) String stateCode,
+            @RequestParam(required = false) String districtCode,
+            @RequestParam(required = false) String subdistrictCode,
+            @RequestParam(required = false) String villageCode,
+            @RequestParam(required = false) Long statusId,
+            @RequestParam(required = false) String expand) {
         
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         CustomUserDetails userDetails = (CustomUserDetails) auth.getPrincipal();
@@ -42,13 +47,19 @@ public class DevoteeController {
         String userRole = userDetails.getUserRole().name();
         List<String> userDistricts = userDetails.getDistricts();
         
-        return devoteeService.getDevotees(pageable, search, country, state, district, statusId, userRole, userDistricts);
+        GeographyFilter geography = new GeographyFilter(country, state, district);
+        geography.setStateCode(stateCode);
+        geography.setDistrictCode(districtCode);
+        geography.setSubdistrictCode(subdistrictCode);
+        geography.setVillageCode(villageCode);
+        return devoteeService.getDevotees(pageable, search, geography, statusId, userRole, userDistricts, expand);
     }
 
     @GetMapping("/{id}")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<DevoteeDTO> getDevotee(@PathVariable Long id) {
-        DevoteeDTO devotee = devoteeService.getDevotee(id);
+    public ResponseEntity<DevoteeDTO> getDevotee(@PathVariable Long id,
+                                                 @RequestParam(required = false) String expand) {
+        DevoteeDTO devotee = devoteeService.getDevotee(id, expand);
         return ResponseEntity.ok(devotee);
     }
 
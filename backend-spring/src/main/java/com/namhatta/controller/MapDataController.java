@@ -1,6 +1,7 @@
 package com.namhatta.controller;
 
 import com.namhatta.service.MapDataService;
+import com.namhatta.service.NamhattaLocationIndex;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -15,6 +16,9 @@ public class MapDataController {
     @Autowired
     private MapDataService mapDataService;
 
+    @Autowired
+    private NamhattaLocationIndex namhattaLocationIndex;
+
     @GetMapping("/countries")
     public ResponseEntity<List<MapDataService.CountryCountDTO>> getNamhattaCountsByCountry() {
         List<MapDataService.CountryCountDTO> counts = mapDataService.getNamhattaCountsByCountry();
@@ -44,4 +48,15 @@ public class MapDataController {
         List<MapDataService.VillageCountDTO> counts = mapDataService.getNamhattaCountsByVillage();
         return ResponseEntity.ok(counts);
     }
+
+    /**
+     * Approved namhattas in the viewport, pre-aggregated into clusters for the zoom level
+     */
+    @GetMapping("/clusters")
+    public ResponseEntity<List<NamhattaLocationIndex.Cluster>> getClusters(
+            @RequestParam String bbox,
+            @RequestParam int zoom) {
+        List<NamhattaLocationIndex.Cluster> clusters = namhattaLocationIndex.getClusters(bbox, zoom);
+        return ResponseEntity.ok(clusters);
+    }
 }
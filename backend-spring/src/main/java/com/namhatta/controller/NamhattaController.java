@@ -1,6 +1,8 @@
 package com.namhatta.controller;
 
 import com.namhatta.dto.*;
+import com.namhatta.security.CustomUserDetails;
+import com.namhatta.service.NamhattaLocationIndex;
 import com.namhatta.service.NamhattaService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,6 +11,8 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
@@ -29,14 +33,48 @@ public class NamhattaController {
             @RequestParam(required = false) String country,
             @RequestParam(required = false) String state,
             @RequestParam(required = false) String district,
-            @RequestParam(required = false) String status) {
+            @RequestParam(required = false) String subDistrict,
+            @RequestParam(required = false) String village,
+            @RequestParam(required = false) String stateCode,
+            @RequestParam(required = false) String districtCode,
+            @RequestParam(required = false) String subdistrictCode,
+            @RequestParam(required = false) String villageCode,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String expand) {
         
-        return namhattaService.getNamhattas(pageable, search, country, state, district, status);
+        GeographyFilter geography = new GeographyFilter(country, state, district);
+        geography.setSubDistrict(subDistrict);
+        geography.setVillage(village);
+        geography.setStateCode(stateCode);
+        geography.setDistrictCode(districtCode);
+        geography.setSubdistrictCode(subdistrictCode);
+        geography.setVillageCode(villageCode);
+        return namhattaService.getNamhattas(pageable, search, geography, status, expand);
+    }
+
+    /**
+     * Nearest approved namhattas to a pincode or a point, with great-circle distances
+     */
+    @GetMapping("/nearest")
+    @PreAuthorize("hasAnyRole('ADMIN', 'OFFICE')")
+    public ResponseEntity<List<NamhattaLocationIndex.NearbyNamhatta>> getNearestNamhattas(
+            @RequestParam(required = false) String pincode,
+            @RequestParam(required = false) Double lat,
+            @RequestParam(required = false) Double lng,
+            @RequestParam(required = false) Integer k) {
+        return ResponseEntity.ok(namhattaService.findNearestNamhattas(pincode, lat, lng, k));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<NamhattaDTO> getNamhatta(@PathVariable Long id) {
-        NamhattaDTO namhatta = namhattaService.getNamhatta(id);
+    public ResponseEntity<NamhattaDTO> getNamhatta(@PathVariable Long id,
+                                                   @RequestParam(required = false) String expand) {
+        NamhattaDTO namhatta = namhattaService.getNamhatta(id, expand);
+        // The endpoint is public, but the exact meeting place is only shown to signed-in users
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !(auth.getPrincipal() instanceof CustomUserDetails)) {
+            namhatta.setLatitude(null);
+            namhatta.setLongitude(null);
+        }
         return ResponseEntity.ok(namhatta);
     }
 
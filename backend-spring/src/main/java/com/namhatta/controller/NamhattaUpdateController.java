@@ -1,14 +1,22 @@
 package com.namhatta.controller;
 
+import com.namhatta.dto.NamhattaUpdateSummary;
+import com.namhatta.dto.UpdateFeedPage;
 import com.namhatta.model.entity.NamhattaUpdate;
+import com.namhatta.service.LeaderboardService;
 import com.namhatta.service.NamhattaUpdateService;
+import com.namhatta.service.UpdateRollupService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
@@ -19,6 +27,12 @@ public class NamhattaUpdateController {
     @Autowired
     private NamhattaUpdateService namhattaUpdateService;
 
+    @Autowired
+    private UpdateRollupService updateRollupService;
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
     @PostMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'OFFICE', 'DISTRICT_SUPERVISOR')")
     public ResponseEntity<NamhattaUpdate> createUpdate(@Valid @RequestBody NamhattaUpdateService.NamhattaUpdateRequest request) {
@@ -27,8 +41,67 @@ public class NamhattaUpdateController {
     }
 
     @GetMapping("/all")
-    public ResponseEntity<List<NamhattaUpdate>> getAllUpdates() {
-        List<NamhattaUpdate> updates = namhattaUpdateService.getAllUpdates();
+    public ResponseEntity<List<NamhattaUpdateSummary>> getAllUpdates() {
+        List<NamhattaUpdateSummary> updates = namhattaUpdateService.getAllUpdates();
         return ResponseEntity.ok(updates);
     }
+
+    @GetMapping("/feed")
+    public ResponseEntity<UpdateFeedPage> getFeed(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) Long namhattaId,
+            @RequestParam(required = false) String district,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to) {
+        
+        UpdateFeedPage feed = namhattaUpdateService.getFeed(cursor, limit, namhattaId, district, from, to);
+        return ResponseEntity.ok(feed);
+    }
+
+    @GetMapping("/range")
+    public ResponseEntity<Page<NamhattaUpdateSummary>> getUpdatesInRange(
+            Pageable pageable,
+            @RequestParam(required = false) Long namhattaId,
+            @RequestParam(required = false) String district,
+            @RequestParam(required = false) String state,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        
+        Page<NamhattaUpdateSummary> updates = namhattaUpdateService.getUpdatesInRange(
+                namhattaId, district, state, from, to, pageable);
+        return ResponseEntity.ok(updates);
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<List<UpdateRollupService.RollupBucket>> getStats(
+            @RequestParam String level,
+            @RequestParam String period,
+            @RequestParam(required = false) String key,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        
+        List<UpdateRollupService.RollupBucket> stats = updateRollupService.getStats(level, period, key, from, to);
+        return ResponseEntity.ok(stats);
+    }
+
+    @PostMapping("/stats/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> rebuildStats() {
+        int buckets = updateRollupService.rebuildAll();
+        return ResponseEntity.ok(Map.of("buckets", buckets));
+    }
+
+    @GetMapping("/leaderboard")
+    public ResponseEntity<LeaderboardService.Leaderboard> getLeaderboard(
+            @RequestParam String metric,
+            @RequestParam String period,
+            @RequestParam(required = false) String district,
+            @RequestParam(required = false) String state,
+            @RequestParam(required = false) Integer limit) {
+        
+        LeaderboardService.Leaderboard leaderboard =
+                leaderboardService.getLeaderboard(metric, period, district, state, limit);
+        return ResponseEntity.ok(leaderboard);
+    }
 }
@@ -1,5 +1,6 @@
 package com.namhatta.controller;
 
+import com.namhatta.dto.GeographyFilter;
 import com.namhatta.model.enums.UserRole;
 import com.namhatta.security.CustomUserDetails;
 import com.namhatta.service.ReportService;
@@ -53,14 +54,19 @@ public class ReportController {
 
     @GetMapping("/districts/{state}")
     @PreAuthorize("hasAnyRole('ADMIN', 'OFFICE', 'DISTRICT_SUPERVISOR')")
-    public ResponseEntity<List<ReportService.DistrictReportDTO>> getDistrictsByState(@PathVariable String state) {
+    public ResponseEntity<List<ReportService.DistrictReportDTO>> getDistrictsByState(
+            @PathVariable String state,
+            @RequestParam(required = false) String stateCode) {
+        
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         CustomUserDetails userDetails = (CustomUserDetails) auth.getPrincipal();
         
         UserRole userRole = userDetails.getUserRole();
         List<String> userDistricts = userDetails.getDistricts();
         
-        List<ReportService.DistrictReportDTO> districts = reportService.getDistrictsByState(state, userRole, userDistricts);
+        GeographyFilter geography = new GeographyFilter(null, state, null);
+        geography.setStateCode(stateCode);
+        List<ReportService.DistrictReportDTO> districts = reportService.getDistrictsByState(geography, userRole, userDistricts);
         return ResponseEntity.ok(districts);
     }
 
@@ -68,7 +74,9 @@ public class ReportController {
     @PreAuthorize("hasAnyRole('ADMIN', 'OFFICE', 'DISTRICT_SUPERVISOR')")
     public ResponseEntity<List<ReportService.SubDistrictReportDTO>> getSubDistrictsByDistrict(
             @PathVariable String state,
-            @PathVariable String district) {
+            @PathVariable String district,
+            @RequestParam(required = false) String stateCode,
+            @RequestParam(required = false) String districtCode) {
         
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         CustomUserDetails userDetails = (CustomUserDetails) auth.getPrincipal();
@@ -76,7 +84,10 @@ public class ReportController {
         UserRole userRole = userDetails.getUserRole();
         List<String> userDistricts = userDetails.getDistricts();
         
-        List<ReportService.SubDistrictReportDTO> subDistricts = reportService.getSubDistrictsByDistrict(state, district, userRole, userDistricts);
+        GeographyFilter geography = new GeographyFilter(null, state, district);
+        geography.setStateCode(stateCode);
+        geography.setDistrictCode(districtCode);
+        List<ReportService.SubDistrictReportDTO> subDistricts = reportService.getSubDistrictsByDistrict(geography, userRole, userDistricts);
         return ResponseEntity.ok(subDistricts);
     }
 
@@ -85,7 +96,10 @@ public class ReportController {
     public ResponseEntity<List<ReportService.VillageReportDTO>> getVillagesBySubDistrict(
             @PathVariable String state,
             @PathVariable String district,
-            @PathVariable String subdistrict) {
+            @PathVariable String subdistrict,
+            @RequestParam(required = false) String stateCode,
+            @RequestParam(required = false) String districtCode,
+            @RequestParam(required = false) String subdistrictCode) {
         
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         CustomUserDetails userDetails = (CustomUserDetails) auth.getPrincipal();
@@ -93,7 +107,12 @@ public class ReportController {
         UserRole userRole = userDetails.getUserRole();
         List<String> userDistricts = userDetails.getDistricts();
         
-        List<ReportService.VillageReportDTO> villages = reportService.getVillagesBySubDistrict(state, district, subdistrict, userRole, userDistricts);
+        GeographyFilter geography = new GeographyFilter(null, state, district);
+        geography.setSubDistrict(subdistrict);
+        geography.setStateCode(stateCode);
+        geography.setDistrictCode(districtCode);
+        geography.setSubdistrictCode(subdistrictCode);
+        List<ReportService.VillageReportDTO> villages = reportService.getVillagesBySubDistrict(geography, userRole, userDistricts);
         return ResponseEntity.ok(villages);
     }
 }
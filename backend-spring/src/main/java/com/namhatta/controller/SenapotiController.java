@@ -3,6 +3,7 @@ package com.namhatta.controller;
 import com.namhatta.dto.*;
 import com.namhatta.security.CustomUserDetails;
 import com.namhatta.service.RoleManagementService;
+import com.namhatta.service.SenapotiTreeService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
@@ -96,6 +97,12 @@ public class SenapotiController {
         return ResponseEntity.ok(supervisors);
     }
 
+    @GetMapping("/tree/{districtCode}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'DISTRICT_SUPERVISOR')")
+    public ResponseEntity<SenapotiTreeService.DistrictTree> getDistrictTree(@PathVariable String districtCode) {
+        return ResponseEntity.ok(roleManagementService.getDistrictTree(districtCode));
+    }
+
     @GetMapping("/subordinates/{devoteeId}")
     @PreAuthorize("hasAnyRole('ADMIN', 'DISTRICT_SUPERVISOR')")
     public ResponseEntity<Map<String, Object>> getDirectSubordinates(@PathVariable Long devoteeId) {
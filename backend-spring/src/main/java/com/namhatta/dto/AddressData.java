@@ -11,6 +11,9 @@ public class AddressData {
     private String villageCode;
     private String villageNameEnglish;
     private String pincode;
+    // Optional exact location (namhatta meeting place); not part of the address match
+    private Double latitude;
+    private Double longitude;
     
     public AddressData() {
     }
@@ -61,4 +64,10 @@ public class AddressData {
     
     public String getPincode() { return pincode; }
     public void setPincode(String pincode) { this.pincode = pincode; }
+    
+    public Double getLatitude() { return latitude; }
+    public void setLatitude(Double latitude) { this.latitude = latitude; }
+    
+    public Double getLongitude() { return longitude; }
+    public void setLongitude(Double longitude) { this.longitude = longitude; }
 }
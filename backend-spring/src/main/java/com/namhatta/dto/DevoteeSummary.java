@@ -0,0 +1,208 @@
+package com.namhatta.dto;
+
+import com.namhatta.model.enums.Gender;
+import com.namhatta.model.enums.LeadershipRole;
+import com.namhatta.model.enums.MaritalStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lightweight devotee row for list endpoints - every scalar column except the jsonb devotional_courses and
+ * TEXT additional_comments, read without a managed entity or dirty-checking snapshot
+ */
+public class DevoteeSummary {
+    private Long id;
+    private String legalName;
+    private String name;
+    private String dob;
+    private String email;
+    private String phone;
+    private String fatherName;
+    private String motherName;
+    private String husbandName;
+    private Gender gender;
+    private String bloodGroup;
+    private MaritalStatus maritalStatus;
+    private Long devotionalStatusId;
+    private Long namhattaId;
+    private Long harinamInitiationGurudevId;
+    private Long pancharatrikInitiationGurudevId;
+    private String initiatedName;
+    private String harinamDate;
+    private String pancharatrikDate;
+    private String education;
+    private String occupation;
+    private Long shraddhakutirId;
+    private LeadershipRole leadershipRole;
+    private Long reportingToDevoteeId;
+    private Boolean hasSystemAccess;
+    private String appointedDate;
+    private Long appointedBy;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private String devotionalStatusName;
+    private String namhattaName;
+    private String shraddhakutirName;
+    private String reportingToDevoteeName;
+    
+    public DevoteeSummary() {}
+    
+    public DevoteeSummary(Long id, String legalName, String name, String dob, String email, String phone,
+                          String fatherName, String motherName, String husbandName, Gender gender,
+                          String bloodGroup, MaritalStatus maritalStatus, Long devotionalStatusId, Long namhattaId,
+                          Long harinamInitiationGurudevId, Long pancharatrikInitiationGurudevId,
+                          String initiatedName, String harinamDate, String pancharatrikDate, String education,
+                          String occupation, Long shraddhakutirId, LeadershipRole leadershipRole,
+                          Long reportingToDevoteeId, Boolean hasSystemAccess, String appointedDate,
+                          Long appointedBy, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.legalName = legalName;
+        this.name = name;
+        this.dob = dob;
+        this.email = email;
+        this.phone = phone;
+        this.fatherName = fatherName;
+        this.motherName = motherName;
+        this.husbandName = husbandName;
+        this.gender = gender;
+        this.bloodGroup = bloodGroup;
+        this.maritalStatus = maritalStatus;
+        this.devotionalStatusId = devotionalStatusId;
+        this.namhattaId = namhattaId;
+        this.harinamInitiationGurudevId = harinamInitiationGurudevId;
+        this.pancharatrikInitiationGurudevId = pancharatrikInitiationGurudevId;
+        this.initiatedName = initiatedName;
+        this.harinamDate = harinamDate;
+        this.pancharatrikDate = pancharatrikDate;
+        this.education = education;
+        this.occupation = occupation;
+        this.shraddhakutirId = shraddhakutirId;
+        this.leadershipRole = leadershipRole;
+        this.reportingToDevoteeId = reportingToDevoteeId;
+        this.hasSystemAccess = hasSystemAccess;
+        this.appointedDate = appointedDate;
+        this.appointedBy = appointedBy;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+    
+    public DevoteeSummary(Long id, String legalName, String name, String dob, String email, String phone,
+                          String fatherName, String motherName, String husbandName, Gender gender,
+                          String bloodGroup, MaritalStatus maritalStatus, Long devotionalStatusId, Long namhattaId,
+                          Long harinamInitiationGurudevId, Long pancharatrikInitiationGurudevId,
+                          String initiatedName, String harinamDate, String pancharatrikDate, String education,
+                          String occupation, Long shraddhakutirId, LeadershipRole leadershipRole,
+                          Long reportingToDevoteeId, Boolean hasSystemAccess, String appointedDate,
+                          Long appointedBy, LocalDateTime createdAt, LocalDateTime updatedAt,
+                          String devotionalStatusName, String namhattaName, String shraddhakutirName,
+                          String reportingToDevoteeName) {
+        this(id, legalName, name, dob, email, phone, fatherName, motherName, husbandName, gender, bloodGroup,
+                maritalStatus, devotionalStatusId, namhattaId, harinamInitiationGurudevId,
+                pancharatrikInitiationGurudevId, initiatedName, harinamDate, pancharatrikDate, education,
+                occupation, shraddhakutirId, leadershipRole, reportingToDevoteeId, hasSystemAccess,
+                appointedDate, appointedBy, createdAt, updatedAt);
+        this.devotionalStatusName = devotionalStatusName;
+        this.namhattaName = namhattaName;
+        this.shraddhakutirName = shraddhakutirName;
+        this.reportingToDevoteeName = reportingToDevoteeName;
+    }
+    
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public String getLegalName() { return legalName; }
+    public void setLegalName(String legalName) { this.legalName = legalName; }
+    
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    
+    public String getDob() { return dob; }
+    public void setDob(String dob) { this.dob = dob; }
+    
+    public String getEmail() { return email; }
+    public void setEmail(String email) { this.email = email; }
+    
+    public String getPhone() { return phone; }
+    public void setPhone(String phone) { this.phone = phone; }
+    
+    public String getFatherName() { return fatherName; }
+    public void setFatherName(String fatherName) { this.fatherName = fatherName; }
+    
+    public String getMotherName() { return motherName; }
+    public void setMotherName(String motherName) { this.motherName = motherName; }
+    
+    public String getHusbandName() { return husbandName; }
+    public void setHusbandName(String husbandName) { this.husbandName = husbandName; }
+    
+    public Gender getGender() { return gender; }
+    public void setGender(Gender gender) { this.gender = gender; }
+    
+    public String getBloodGroup() { return bloodGroup; }
+    public void setBloodGroup(String bloodGroup) { this.bloodGroup = bloodGroup; }
+    
+    public MaritalStatus getMaritalStatus() { return maritalStatus; }
+    public void setMaritalStatus(MaritalStatus maritalStatus) { this.maritalStatus = maritalStatus; }
+    
+    public Long getDevotionalStatusId() { return devotionalStatusId; }
+    public void setDevotionalStatusId(Long devotionalStatusId) { this.devotionalStatusId = devotionalStatusId; }
+    
+    public Long getNamhattaId() { return namhattaId; }
+    public void setNamhattaId(Long namhattaId) { this.namhattaId = namhattaId; }
+    
+    public Long getHarinamInitiationGurudevId() { return harinamInitiationGurudevId; }
+    public void setHarinamInitiationGurudevId(Long harinamInitiationGurudevId) { this.harinamInitiationGurudevId = harinamInitiationGurudevId; }
+    
+    public Long getPancharatrikInitiationGurudevId() { return pancharatrikInitiationGurudevId; }
+    public void setPancharatrikInitiationGurudevId(Long pancharatrikInitiationGurudevId) { this.pancharatrikInitiationGurudevId = pancharatrikInitiationGurudevId; }
+    
+    public String getInitiatedName() { return initiatedName; }
+    public void setInitiatedName(String initiatedName) { this.initiatedName = initiatedName; }
+    
+    public String getHarinamDate() { return harinamDate; }
+    public void setHarinamDate(String harinamDate) { this.harinamDate = harinamDate; }
+    
+    public String getPancharatrikDate() { return pancharatrikDate; }
+    public void setPancharatrikDate(String pancharatrikDate) { this.pancharatrikDate = pancharatrikDate; }
+    
+    public String getEducation() { return education; }
+    public void setEducation(String education) { this.education = education; }
+    
+    public String getOccupation() { return occupation; }
+    public void setOccupation(String occupation) { this.occupation = occupation; }
+    
+    public Long getShraddhakutirId() { return shraddhakutirId; }
+    public void setShraddhakutirId(Long shraddhakutirId) { this.shraddhakutirId = shraddhakutirId; }
+    
+    public LeadershipRole getLeadershipRole() { return leadershipRole; }
+    public void setLeadershipRole(LeadershipRole leadershipRole) { this.leadershipRole = leadershipRole; }
+    
+    public Long getReportingToDevoteeId() { return reportingToDevoteeId; }
+    public void setReportingToDevoteeId(Long reportingToDevoteeId) { this.reportingToDevoteeId = reportingToDevoteeId; }
+    
+    public Boolean getHasSystemAccess() { return hasSystemAccess; }
+    public void setHasSystemAccess(Boolean hasSystemAccess) { this.hasSystemAccess = hasSystemAccess; }
+    
+    public String getAppointedDate() { return appointedDate; }
+    public void setAppointedDate(String appointedDate) { this.appointedDate = appointedDate; }
+    
+    public Long getAppointedBy() { return appointedBy; }
+    public void setAppointedBy(Long appointedBy) { this.appointedBy = appointedBy; }
+    
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+    
+    public String getDevotionalStatusName() { return devotionalStatusName; }
+    public void setDevotionalStatusName(String devotionalStatusName) { this.devotionalStatusName = devotionalStatusName; }
+    
+    public String getNamhattaName() { return namhattaName; }
+    public void setNamhattaName(String namhattaName) { this.namhattaName = namhattaName; }
+    
+    public String getShraddhakutirName() { return shraddhakutirName; }
+    public void setShraddhakutirName(String shraddhakutirName) { this.shraddhakutirName = shraddhakutirName; }
+    
+    public String getReportingToDevoteeName() { return reportingToDevoteeName; }
+    public void setReportingToDevoteeName(String reportingToDevoteeName) { this.reportingToDevoteeName = reportingToDevoteeName; }
+}
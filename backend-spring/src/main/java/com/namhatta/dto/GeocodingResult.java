@@ -0,0 +1,35 @@
+package com.namhatta.dto;
+
+public class GeocodingResult {
+    private long rowsRead;
+    private long rowsSkipped;
+    private long pincodes;
+    private long addresses;
+    private long durationMs;
+
+    public GeocodingResult() {
+    }
+
+    public GeocodingResult(long rowsRead, long rowsSkipped, long pincodes, long addresses, long durationMs) {
+        this.rowsRead = rowsRead;
+        this.rowsSkipped = rowsSkipped;
+        this.pincodes = pincodes;
+        this.addresses = addresses;
+        this.durationMs = durationMs;
+    }
+
+    public long getRowsRead() { return rowsRead; }
+    public void setRowsRead(long rowsRead) { this.rowsRead = rowsRead; }
+
+    public long getRowsSkipped() { return rowsSkipped; }
+    public void setRowsSkipped(long rowsSkipped) { this.rowsSkipped = rowsSkipped; }
+
+    public long getPincodes() { return pincodes; }
+    public void setPincodes(long pincodes) { this.pincodes = pincodes; }
+
+    public long getAddresses() { return addresses; }
+    public void setAddresses(long addresses) { this.addresses = addresses; }
+
+    public long getDurationMs() { return durationMs; }
+    public void setDurationMs(long durationMs) { this.durationMs = durationMs; }
+}
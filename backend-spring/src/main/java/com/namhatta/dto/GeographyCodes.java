@@ -0,0 +1,43 @@
+package com.namhatta.dto;
+
+import java.util.List;
+
+/**
+ * A GeographyFilter resolved to census codes. A null list leaves that level unfiltered; an empty list
+ * means a name was given that matches nothing, so the query can be skipped.
+ */
+public class GeographyCodes {
+
+    private final String country;
+    private final List<String> stateCodes;
+    private final List<String> districtCodes;
+    private final List<String> subdistrictCodes;
+    private final List<String> villageCodes;
+
+    public GeographyCodes(String country, List<String> stateCodes, List<String> districtCodes,
+                          List<String> subdistrictCodes, List<String> villageCodes) {
+        this.country = country;
+        this.stateCodes = stateCodes;
+        this.districtCodes = districtCodes;
+        this.subdistrictCodes = subdistrictCodes;
+        this.villageCodes = villageCodes;
+    }
+
+    public String getCountry() { return country; }
+
+    public List<String> getStateCodes() { return stateCodes; }
+
+    public List<String> getDistrictCodes() { return districtCodes; }
+
+    public List<String> getSubdistrictCodes() { return subdistrictCodes; }
+
+    public List<String> getVillageCodes() { return villageCodes; }
+
+    public boolean matchesNothing() {
+        return isEmpty(stateCodes) || isEmpty(districtCodes) || isEmpty(subdistrictCodes) || isEmpty(villageCodes);
+    }
+
+    private static boolean isEmpty(List<String> codes) {
+        return codes != null && codes.isEmpty();
+    }
+}
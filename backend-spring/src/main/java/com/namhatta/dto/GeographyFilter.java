@@ -0,0 +1,53 @@
+package com.namhatta.dto;
+
+/**
+ * Geography filter as given on a list or report request: English names and/or census codes.
+ * A code, when present, wins over the name at the same level.
+ */
+public class GeographyFilter {
+
+    private String country;
+    private String state;
+    private String district;
+    private String subDistrict;
+    private String village;
+    private String stateCode;
+    private String districtCode;
+    private String subdistrictCode;
+    private String villageCode;
+
+    public GeographyFilter() {}
+
+    public GeographyFilter(String country, String state, String district) {
+        this.country = country;
+        this.state = state;
+        this.district = district;
+    }
+
+    public String getCountry() { return country; }
+    public void setCountry(String country) { this.country = country; }
+
+    public String getState() { return state; }
+    public void setState(String state) { this.state = state; }
+
+    public String getDistrict() { return district; }
+    public void setDistrict(String district) { this.district = district; }
+
+    public String getSubDistrict() { return subDistrict; }
+    public void setSubDistrict(String subDistrict) { this.subDistrict = subDistrict; }
+
+    public String getVillage() { return village; }
+    public void setVillage(String village) { this.village = village; }
+
+    public String getStateCode() { return stateCode; }
+    public void setStateCode(String stateCode) { this.stateCode = stateCode; }
+
+    public String getDistrictCode() { return districtCode; }
+    public void setDistrictCode(String districtCode) { this.districtCode = districtCode; }
+
+    public String getSubdistrictCode() { return subdistrictCode; }
+    public void setSubdistrictCode(String subdistrictCode) { this.subdistrictCode = subdistrictCode; }
+
+    public String getVillageCode() { return villageCode; }
+    public void setVillageCode(String villageCode) { this.villageCode = villageCode; }
+}
@@ -0,0 +1,58 @@
+package com.namhatta.dto;
+
+public class GeographyImportResult {
+    private long rowsRead;
+    private long rowsSkipped;
+    private long states;
+    private long districts;
+    private long subdistricts;
+    private long villages;
+    private long pincodes;
+    // Rows not written because a parent code they refer to is not loaded
+    private long orphansSkipped;
+    private long durationMs;
+
+    public GeographyImportResult() {
+    }
+
+    public GeographyImportResult(long rowsRead, long rowsSkipped, long states, long districts,
+                                 long subdistricts, long villages, long pincodes, long orphansSkipped,
+                                 long durationMs) {
+        this.rowsRead = rowsRead;
+        this.rowsSkipped = rowsSkipped;
+        this.states = states;
+        this.districts = districts;
+        this.subdistricts = subdistricts;
+        this.villages = villages;
+        this.pincodes = pincodes;
+        this.orphansSkipped = orphansSkipped;
+        this.durationMs = durationMs;
+    }
+
+    public long getRowsRead() { return rowsRead; }
+    public void setRowsRead(long rowsRead) { this.rowsRead = rowsRead; }
+
+    public long getRowsSkipped() { return rowsSkipped; }
+    public void setRowsSkipped(long rowsSkipped) { this.rowsSkipped = rowsSkipped; }
+
+    public long getStates() { return states; }
+    public void setStates(long states) { this.states = states; }
+
+    public long getDistricts() { return districts; }
+    public void setDistricts(long districts) { this.districts = districts; }
+
+    public long getSubdistricts() { return subdistricts; }
+    public void setSubdistricts(long subdistricts) { this.subdistricts = subdistricts; }
+
+    public long getVillages() { return villages; }
+    public void setVillages(long villages) { this.villages = villages; }
+
+    public long getPincodes() { return pincodes; }
+    public void setPincodes(long pincodes) { this.pincodes = pincodes; }
+
+    public long getOrphansSkipped() { return orphansSkipped; }
+    public void setOrphansSkipped(long orphansSkipped) { this.orphansSkipped = orphansSkipped; }
+
+    public long getDurationMs() { return durationMs; }
+    public void setDurationMs(long durationMs) { this.durationMs = durationMs; }
+}
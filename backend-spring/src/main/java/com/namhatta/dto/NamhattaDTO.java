@@ -28,6 +28,9 @@ public class NamhattaDTO {
     private String registrationNo;
     private String registrationDate;
     private AddressDTO address;
+    // Exact meeting place, when one was recorded
+    private Double latitude;
+    private Double longitude;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     
@@ -109,6 +112,12 @@ public class NamhattaDTO {
     public AddressDTO getAddress() { return address; }
     public void setAddress(AddressDTO address) { this.address = address; }
     
+    public Double getLatitude() { return latitude; }
+    public void setLatitude(Double latitude) { this.latitude = latitude; }
+    
+    public Double getLongitude() { return longitude; }
+    public void setLongitude(Double longitude) { this.longitude = longitude; }
+    
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
     
@@ -0,0 +1,110 @@
+package com.namhatta.dto;
+
+import com.namhatta.model.enums.NamhattaStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Namhatta row for list endpoints, read without a managed entity or dirty-checking snapshot
+ */
+public class NamhattaSummary {
+    private Long id;
+    private String code;
+    private String name;
+    private String meetingDay;
+    private String meetingTime;
+    private Long malaSenapotiId;
+    private Long mahaChakraSenapotiId;
+    private Long chakraSenapotiId;
+    private Long upaChakraSenapotiId;
+    private Long secretaryId;
+    private Long presidentId;
+    private Long accountantId;
+    private Long districtSupervisorId;
+    private NamhattaStatus status;
+    private String registrationNo;
+    private String registrationDate;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    
+    public NamhattaSummary() {}
+    
+    public NamhattaSummary(Long id, String code, String name, String meetingDay, String meetingTime,
+                           Long malaSenapotiId, Long mahaChakraSenapotiId, Long chakraSenapotiId,
+                           Long upaChakraSenapotiId, Long secretaryId, Long presidentId, Long accountantId,
+                           Long districtSupervisorId, NamhattaStatus status, String registrationNo,
+                           String registrationDate, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.code = code;
+        this.name = name;
+        this.meetingDay = meetingDay;
+        this.meetingTime = meetingTime;
+        this.malaSenapotiId = malaSenapotiId;
+        this.mahaChakraSenapotiId = mahaChakraSenapotiId;
+        this.chakraSenapotiId = chakraSenapotiId;
+        this.upaChakraSenapotiId = upaChakraSenapotiId;
+        this.secretaryId = secretaryId;
+        this.presidentId = presidentId;
+        this.accountantId = accountantId;
+        this.districtSupervisorId = districtSupervisorId;
+        this.status = status;
+        this.registrationNo = registrationNo;
+        this.registrationDate = registrationDate;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+    
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public String getCode() { return code; }
+    public void setCode(String code) { this.code = code; }
+    
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    
+    public String getMeetingDay() { return meetingDay; }
+    public void setMeetingDay(String meetingDay) { this.meetingDay = meetingDay; }
+    
+    public String getMeetingTime() { return meetingTime; }
+    public void setMeetingTime(String meetingTime) { this.meetingTime = meetingTime; }
+    
+    public Long getMalaSenapotiId() { return malaSenapotiId; }
+    public void setMalaSenapotiId(Long malaSenapotiId) { this.malaSenapotiId = malaSenapotiId; }
+    
+    public Long getMahaChakraSenapotiId() { return mahaChakraSenapotiId; }
+    public void setMahaChakraSenapotiId(Long mahaChakraSenapotiId) { this.mahaChakraSenapotiId = mahaChakraSenapotiId; }
+    
+    public Long getChakraSenapotiId() { return chakraSenapotiId; }
+    public void setChakraSenapotiId(Long chakraSenapotiId) { this.chakraSenapotiId = chakraSenapotiId; }
+    
+    public Long getUpaChakraSenapotiId() { return upaChakraSenapotiId; }
+    public void setUpaChakraSenapotiId(Long upaChakraSenapotiId) { this.upaChakraSenapotiId = upaChakraSenapotiId; }
+    
+    public Long getSecretaryId() { return secretaryId; }
+    public void setSecretaryId(Long secretaryId) { this.secretaryId = secretaryId; }
+    
+    public Long getPresidentId() { return presidentId; }
+    public void setPresidentId(Long presidentId) { this.presidentId = presidentId; }
+    
+    public Long getAccountantId() { return accountantId; }
+    public void setAccountantId(Long accountantId) { this.accountantId = accountantId; }
+    
+    public Long getDistrictSupervisorId() { return districtSupervisorId; }
+    public void setDistrictSupervisorId(Long districtSupervisorId) { this.districtSupervisorId = districtSupervisorId; }
+    
+    public NamhattaStatus getStatus() { return status; }
+    public void setStatus(NamhattaStatus status) { this.status = status; }
+    
+    public String getRegistrationNo() { return registrationNo; }
+    public void setRegistrationNo(String registrationNo) { this.registrationNo = registrationNo; }
+    
+    public String getRegistrationDate() { return registrationDate; }
+    public void setRegistrationDate(String registrationDate) { this.registrationDate = registrationDate; }
+    
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -0,0 +1,83 @@
+package com.namhatta.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Lightweight row for update feeds - excludes the jsonb image_urls and TEXT special_attraction columns
+ */
+public class NamhattaUpdateSummary {
+    private Long id;
+    private Long namhattaId;
+    private String programType;
+    private String date;
+    private LocalDate programDate;
+    private Integer attendance;
+    private Integer prasadDistribution;
+    private Integer nagarKirtan;
+    private Integer bookDistribution;
+    private Integer chanting;
+    private Integer arati;
+    private Integer bhagwatPath;
+    private LocalDateTime createdAt;
+    
+    public NamhattaUpdateSummary() {}
+    
+    public NamhattaUpdateSummary(Long id, Long namhattaId, String programType, String date,
+                                 LocalDate programDate, Integer attendance, Integer prasadDistribution, Integer nagarKirtan,
+                                 Integer bookDistribution, Integer chanting, Integer arati,
+                                 Integer bhagwatPath, LocalDateTime createdAt) {
+        this.id = id;
+        this.namhattaId = namhattaId;
+        this.programType = programType;
+        this.date = date;
+        this.programDate = programDate;
+        this.attendance = attendance;
+        this.prasadDistribution = prasadDistribution;
+        this.nagarKirtan = nagarKirtan;
+        this.bookDistribution = bookDistribution;
+        this.chanting = chanting;
+        this.arati = arati;
+        this.bhagwatPath = bhagwatPath;
+        this.createdAt = createdAt;
+    }
+    
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public Long getNamhattaId() { return namhattaId; }
+    public void setNamhattaId(Long namhattaId) { this.namhattaId = namhattaId; }
+    
+    public String getProgramType() { return programType; }
+    public void setProgramType(String programType) { this.programType = programType; }
+    
+    public String getDate() { return date; }
+    public void setDate(String date) { this.date = date; }
+    
+    public LocalDate getProgramDate() { return programDate; }
+    public void setProgramDate(LocalDate programDate) { this.programDate = programDate; }
+    
+    public Integer getAttendance() { return attendance; }
+    public void setAttendance(Integer attendance) { this.attendance = attendance; }
+    
+    public Integer getPrasadDistribution() { return prasadDistribution; }
+    public void setPrasadDistribution(Integer prasadDistribution) { this.prasadDistribution = prasadDistribution; }
+    
+    public Integer getNagarKirtan() { return nagarKirtan; }
+    public void setNagarKirtan(Integer nagarKirtan) { this.nagarKirtan = nagarKirtan; }
+    
+    public Integer getBookDistribution() { return bookDistribution; }
+    public void setBookDistribution(Integer bookDistribution) { this.bookDistribution = bookDistribution; }
+    
+    public Integer getChanting() { return chanting; }
+    public void setChanting(Integer chanting) { this.chanting = chanting; }
+    
+    public Integer getArati() { return arati; }
+    public void setArati(Integer arati) { this.arati = arati; }
+    
+    public Integer getBhagwatPath() { return bhagwatPath; }
+    public void setBhagwatPath(Integer bhagwatPath) { this.bhagwatPath = bhagwatPath; }
+    
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
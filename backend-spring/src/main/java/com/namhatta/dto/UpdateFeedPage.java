@@ -0,0 +1,27 @@
+package com.namhatta.dto;
+
+import java.util.List;
+
+public class UpdateFeedPage {
+    private List<NamhattaUpdateSummary> updates;
+    private String nextCursor;
+    private Boolean hasMore;
+    
+    public UpdateFeedPage() {
+    }
+    
+    public UpdateFeedPage(List<NamhattaUpdateSummary> updates, String nextCursor, Boolean hasMore) {
+        this.updates = updates;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+    
+    public List<NamhattaUpdateSummary> getUpdates() { return updates; }
+    public void setUpdates(List<NamhattaUpdateSummary> updates) { this.updates = updates; }
+    
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+    
+    public Boolean getHasMore() { return hasMore; }
+    public void setHasMore(Boolean hasMore) { this.hasMore = hasMore; }
+}
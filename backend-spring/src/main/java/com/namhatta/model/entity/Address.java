@@ -3,11 +3,15 @@ package com.namhatta.model.entity;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "addresses")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "reference.address")
 @Getter
 @Setter
 public class Address {
@@ -46,6 +50,13 @@ public class Address {
     @Column(name = "pincode")
     private String pincode;
     
+    // Centroid of the pincode from the gazetteer, filled in by the geocoding backfill
+    @Column(name = "latitude")
+    private Double latitude;
+    
+    @Column(name = "longitude")
+    private Double longitude;
+    
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt = LocalDateTime.now();
 }
@@ -13,7 +13,9 @@ import java.util.List;
 import java.util.Map;
 
 @Entity
-@Table(name = "devotees")
+@Table(name = "devotees", indexes = {
+    @Index(name = "idx_devotees_namhatta_status", columnList = "namhatta_id, devotional_status_id")
+})
 @Getter
 @Setter
 public class Devotee extends BaseEntity {
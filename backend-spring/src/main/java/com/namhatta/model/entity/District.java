@@ -0,0 +1,25 @@
+package com.namhatta.model.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Reference geography: a district keyed by its census code
+ */
+@Entity
+@Table(name = "districts")
+@Getter
+@Setter
+public class District {
+    
+    @Id
+    @Column(name = "code")
+    private String code;
+    
+    @Column(name = "state_code")
+    private String stateCode;
+    
+    @Column(name = "name_english", nullable = false)
+    private String nameEnglish;
+}
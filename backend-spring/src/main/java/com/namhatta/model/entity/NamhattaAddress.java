@@ -33,6 +33,13 @@ public class NamhattaAddress {
     @Column(name = "landmark")
     private String landmark;
     
+    // Exact meeting place when the client supplies one; otherwise the address centroid is used
+    @Column(name = "latitude")
+    private Double latitude;
+    
+    @Column(name = "longitude")
+    private Double longitude;
+    
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt = LocalDateTime.now();
 }
@@ -6,11 +6,16 @@ import lombok.Getter;
 import lombok.Setter;
 import org.hibernate.annotations.Type;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "namhatta_updates")
+@Table(name = "namhatta_updates", indexes = {
+    @Index(name = "idx_namhatta_updates_date_id", columnList = "date DESC, id DESC"),
+    @Index(name = "idx_namhatta_updates_namhatta_date_id", columnList = "namhatta_id, date DESC, id DESC"),
+    @Index(name = "idx_namhatta_updates_namhatta_program_date", columnList = "namhatta_id, program_date")
+})
 @Getter
 @Setter
 public class NamhattaUpdate {
@@ -32,6 +37,10 @@ public class NamhattaUpdate {
     @Column(name = "date", nullable = false)
     private String date;
     
+    // Typed copy of date for range queries; null only for legacy rows whose date could not be parsed
+    @Column(name = "program_date")
+    private LocalDate programDate;
+    
     @Column(name = "attendance", nullable = false)
     private Integer attendance;
     
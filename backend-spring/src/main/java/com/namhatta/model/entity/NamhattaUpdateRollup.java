@@ -0,0 +1,70 @@
+package com.namhatta.model.entity;
+
+import com.namhatta.model.enums.RollupLevel;
+import com.namhatta.model.enums.RollupPeriod;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Precomputed activity totals for one namhatta, district or state over one week or month.
+ * Written incrementally by UpdateRollupService; never edited through JPA.
+ */
+@Entity
+@Table(name = "namhatta_update_rollups", uniqueConstraints = {
+    @UniqueConstraint(name = "uq_namhatta_update_rollups_bucket",
+                      columnNames = {"level", "scope_key", "period", "bucket_start"})
+})
+@Getter
+@Setter
+public class NamhattaUpdateRollup {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "level", nullable = false)
+    private RollupLevel level;
+    
+    // Namhatta id, district code or state code depending on level
+    @Column(name = "scope_key", nullable = false)
+    private String scopeKey;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "period", nullable = false)
+    private RollupPeriod period;
+    
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDate bucketStart;
+    
+    @Column(name = "program_count", nullable = false)
+    private Long programCount = 0L;
+    
+    @Column(name = "attendance_sum", nullable = false)
+    private Long attendanceSum = 0L;
+    
+    @Column(name = "prasad_distribution_sum", nullable = false)
+    private Long prasadDistributionSum = 0L;
+    
+    @Column(name = "nagar_kirtan_sum", nullable = false)
+    private Long nagarKirtanSum = 0L;
+    
+    @Column(name = "book_distribution_sum", nullable = false)
+    private Long bookDistributionSum = 0L;
+    
+    @Column(name = "chanting_sum", nullable = false)
+    private Long chantingSum = 0L;
+    
+    @Column(name = "arati_sum", nullable = false)
+    private Long aratiSum = 0L;
+    
+    @Column(name = "bhagwat_path_sum", nullable = false)
+    private Long bhagwatPathSum = 0L;
+    
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt = LocalDateTime.now();
+}
@@ -0,0 +1,29 @@
+package com.namhatta.model.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Reference geography: a postal pincode and the district its villages were last loaded under
+ */
+@Entity
+@Table(name = "pincodes")
+@Getter
+@Setter
+public class Pincode {
+    
+    @Id
+    @Column(name = "pincode")
+    private String pincode;
+    
+    @Column(name = "district_code")
+    private String districtCode;
+    
+    // Gazetteer centroid, set by GeographyImportService.geocodePincodes
+    @Column(name = "latitude")
+    private Double latitude;
+    
+    @Column(name = "longitude")
+    private Double longitude;
+}
@@ -0,0 +1,25 @@
+package com.namhatta.model.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Reference geography: a state keyed by its census code
+ */
+@Entity
+@Table(name = "states")
+@Getter
+@Setter
+public class State {
+    
+    @Id
+    @Column(name = "code")
+    private String code;
+    
+    @Column(name = "name_english", nullable = false)
+    private String nameEnglish;
+    
+    @Column(name = "country", nullable = false, columnDefinition = "TEXT DEFAULT 'India'")
+    private String country = "India";
+}
@@ -0,0 +1,25 @@
+package com.namhatta.model.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Reference geography: a sub-district (tehsil / taluk / block) keyed by its census code
+ */
+@Entity
+@Table(name = "subdistricts")
+@Getter
+@Setter
+public class Subdistrict {
+    
+    @Id
+    @Column(name = "code")
+    private String code;
+    
+    @Column(name = "district_code")
+    private String districtCode;
+    
+    @Column(name = "name_english", nullable = false)
+    private String nameEnglish;
+}
@@ -36,4 +36,8 @@ public class User extends BaseEntity {
     
     @Column(name = "is_active", nullable = false)
     private Boolean isActive = true;
+    
+    // Only advanced through UserRepository.incrementSessionEpoch, so a stale entity can never write it back
+    @Column(name = "session_epoch", nullable = false, updatable = false)
+    private Long sessionEpoch = 0L;
 }
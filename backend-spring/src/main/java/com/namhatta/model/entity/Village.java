@@ -0,0 +1,28 @@
+package com.namhatta.model.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Reference geography: a village keyed by its census code, with the pincode that serves it
+ */
+@Entity
+@Table(name = "villages")
+@Getter
+@Setter
+public class Village {
+    
+    @Id
+    @Column(name = "code")
+    private String code;
+    
+    @Column(name = "subdistrict_code")
+    private String subdistrictCode;
+    
+    @Column(name = "name_english", nullable = false)
+    private String nameEnglish;
+    
+    @Column(name = "pincode")
+    private String pincode;
+}
@@ -0,0 +1,14 @@
+package com.namhatta.model.enums;
+
+/**
+ * Per-program activity counters recorded on a NamhattaUpdate
+ */
+public enum ActivityMetric {
+    ATTENDANCE,
+    PRASAD_DISTRIBUTION,
+    NAGAR_KIRTAN,
+    BOOK_DISTRIBUTION,
+    CHANTING,
+    ARATI,
+    BHAGWAT_PATH
+}
@@ -0,0 +1,12 @@
+package com.namhatta.model.enums;
+
+/**
+ * Related names that can be resolved onto a DevoteeDTO with ?expand=
+ */
+public enum DevoteeExpansion {
+    STATUS,
+    GURUDEV,
+    NAMHATTA,
+    SHRADDHAKUTIR,
+    REPORTING_TO
+}
@@ -0,0 +1,7 @@
+package com.namhatta.model.enums;
+
+public enum RollupLevel {
+    NAMHATTA,
+    DISTRICT,
+    STATE
+}
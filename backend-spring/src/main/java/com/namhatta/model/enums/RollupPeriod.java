@@ -0,0 +1,37 @@
+package com.namhatta.model.enums;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+public enum RollupPeriod {
+    WEEK,
+    MONTH;
+
+    /**
+     * First day of the bucket containing the date (ISO weeks start on Monday, matching Postgres date_trunc)
+     */
+    public LocalDate bucketStart(LocalDate date) {
+        if (this == WEEK) {
+            return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        }
+        return date.withDayOfMonth(1);
+    }
+
+    /**
+     * Last day of the bucket starting at bucketStart
+     */
+    public LocalDate bucketEnd(LocalDate bucketStart) {
+        if (this == WEEK) {
+            return bucketStart.plusDays(6);
+        }
+        return bucketStart.plusMonths(1).minusDays(1);
+    }
+
+    /**
+     * date_trunc unit name for this period
+     */
+    public String truncUnit() {
+        return name().toLowerCase();
+    }
+}
@@ -0,0 +1,13 @@
+package com.namhatta.model.enums;
+
+public enum SessionValidationMode {
+    /**
+     * Every request looks up the user's row in user_sessions
+     */
+    DATABASE,
+
+    /**
+     * The JWT carries the user's session epoch, checked against an in-memory map
+     */
+    EPOCH
+}
@@ -1,28 +1,72 @@
 package com.namhatta.repository;
 
+import com.namhatta.dto.AddressDTO;
 import com.namhatta.model.entity.Address;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface AddressRepository extends JpaRepository<Address, Long> {
     
-    @Query("SELECT DISTINCT a.country FROM Address a WHERE a.country IS NOT NULL ORDER BY a.country")
+    // Villages with their sub-district, district and state, projected straight into AddressDTO (no address id)
+    String REFERENCE_VILLAGE_COLUMNS =
+        "new com.namhatta.dto.AddressDTO(CAST(NULL AS Long), s.country, s.code, s.nameEnglish, d.code, d.nameEnglish, " +
+        "sd.code, sd.nameEnglish, v.code, v.nameEnglish, v.pincode) ";
+    
+    String REFERENCE_VILLAGE_JOINS =
+        "FROM Village v " +
+        "LEFT JOIN Subdistrict sd ON sd.code = v.subdistrictCode " +
+        "LEFT JOIN District d ON d.code = sd.districtCode " +
+        "LEFT JOIN State s ON s.code = d.stateCode ";
+    
+    String REFERENCE_PINCODE_SEARCH =
+        "WHERE s.country = :country AND v.pincode IS NOT NULL AND " +
+        "(v.pincode LIKE CONCAT(:search, '%') OR " +
+        "v.nameEnglish LIKE CONCAT('%', :search, '%') OR " +
+        "d.nameEnglish LIKE CONCAT('%', :search, '%') OR " +
+        "sd.nameEnglish LIKE CONCAT('%', :search, '%')) ";
+    
+    // Address predicate shared by the devotee and namhatta list filters (alias a); the code lists come from
+    // AddressService.resolveGeographyCodes and a null list leaves its level unfiltered
+    String CODE_FILTERS =
+        "(:country IS NULL OR a.country = :country) AND " +
+        "(:stateCodes IS NULL OR a.stateCode IN :stateCodes) AND " +
+        "(:districtCodes IS NULL OR a.districtCode IN :districtCodes) AND " +
+        "(:subdistrictCodes IS NULL OR a.subdistrictCode IN :subdistrictCodes) AND " +
+        "(:villageCodes IS NULL OR a.villageCode IN :villageCodes)";
+    
+    String NO_CODE_FILTERS =
+        "(:country IS NULL AND :stateCodes IS NULL AND :districtCodes IS NULL " +
+        "AND :subdistrictCodes IS NULL AND :villageCodes IS NULL)";
+    
+    // The geography lists below read the states / districts / subdistricts / villages reference tables
+    // (keyed by census code) instead of scanning the user-entered rows of addresses.
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT DISTINCT s.country FROM State s ORDER BY s.country")
     List<String> findDistinctCountries();
     
-    @Query("SELECT DISTINCT a.stateNameEnglish FROM Address a WHERE a.country = :country AND a.stateNameEnglish IS NOT NULL ORDER BY a.stateNameEnglish")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT DISTINCT s.nameEnglish FROM State s WHERE s.country = :country ORDER BY s.nameEnglish")
     List<String> findDistinctStatesByCountry(@Param("country") String country);
     
-    @Query("SELECT DISTINCT a.districtNameEnglish FROM Address a WHERE a.stateNameEnglish = :state AND a.districtNameEnglish IS NOT NULL ORDER BY a.districtNameEnglish")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT DISTINCT d.nameEnglish FROM District d JOIN State s ON s.code = d.stateCode " +
+           "WHERE s.nameEnglish = :state ORDER BY d.nameEnglish")
     List<String> findDistinctDistrictsByState(@Param("state") String state);
     
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT a FROM Address a WHERE " +
            "(:country IS NULL OR a.country = :country) AND " +
            "(:stateCode IS NULL OR a.stateCode = :stateCode) AND " +
@@ -42,55 +86,114 @@ public interface AddressRepository extends JpaRepository<Address, Long> {
     @Query("SELECT a FROM Address a WHERE " +
            ":pincode IS NOT NULL AND a.pincode = :pincode")
     Page<Address> findByPincode(@Param("pincode") String pincode, Pageable pageable);
+
+    // Gazetteer centroid of a pincode as [latitude, longitude]; empty until the pincode is geocoded
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT p.latitude, p.longitude FROM Pincode p WHERE p.pincode = :pincode AND p.latitude IS NOT NULL")
+    List<Object[]> findPincodeCoordinates(@Param("pincode") String pincode);
     
-    @Query("SELECT DISTINCT a.districtCode, a.districtNameEnglish FROM Address a WHERE a.districtCode IS NOT NULL ORDER BY a.districtNameEnglish")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT d.code, d.nameEnglish FROM District d ORDER BY d.nameEnglish")
     List<Object[]> findDistinctDistricts();
     
-    @Query("SELECT DISTINCT a.subdistrictNameEnglish FROM Address a WHERE " +
-           "(:district IS NULL OR a.districtNameEnglish = :district) AND " +
-           "(:pincode IS NULL OR a.pincode = :pincode) AND " +
-           "a.subdistrictNameEnglish IS NOT NULL " +
-           "ORDER BY a.subdistrictNameEnglish")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT DISTINCT sd.nameEnglish FROM Subdistrict sd JOIN District d ON d.code = sd.districtCode WHERE " +
+           "(:district IS NULL OR d.nameEnglish = :district) AND " +
+           "(:pincode IS NULL OR EXISTS (SELECT 1 FROM Village v WHERE v.subdistrictCode = sd.code AND v.pincode = :pincode)) " +
+           "ORDER BY sd.nameEnglish")
     List<String> findDistinctSubDistricts(@Param("district") String district, @Param("pincode") String pincode);
     
-    @Query("SELECT DISTINCT a.villageNameEnglish FROM Address a WHERE " +
-           "(:subDistrict IS NULL OR a.subdistrictNameEnglish = :subDistrict) AND " +
-           "(:pincode IS NULL OR a.pincode = :pincode) AND " +
-           "a.villageNameEnglish IS NOT NULL " +
-           "ORDER BY a.villageNameEnglish")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT DISTINCT v.nameEnglish FROM Village v JOIN Subdistrict sd ON sd.code = v.subdistrictCode WHERE " +
+           "(:subDistrict IS NULL OR sd.nameEnglish = :subDistrict) AND " +
+           "(:pincode IS NULL OR v.pincode = :pincode) " +
+           "ORDER BY v.nameEnglish")
     List<String> findDistinctVillages(@Param("subDistrict") String subDistrict, @Param("pincode") String pincode);
     
-    @Query("SELECT DISTINCT a.pincode FROM Address a WHERE " +
-           "(:village IS NULL OR a.villageNameEnglish = :village) AND " +
-           "(:district IS NULL OR a.districtNameEnglish = :district) AND " +
-           "(:subDistrict IS NULL OR a.subdistrictNameEnglish = :subDistrict) AND " +
-           "a.pincode IS NOT NULL " +
-           "ORDER BY a.pincode")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT DISTINCT v.pincode FROM Village v " +
+           "JOIN Subdistrict sd ON sd.code = v.subdistrictCode " +
+           "JOIN District d ON d.code = sd.districtCode WHERE " +
+           "(:village IS NULL OR v.nameEnglish = :village) AND " +
+           "(:district IS NULL OR d.nameEnglish = :district) AND " +
+           "(:subDistrict IS NULL OR sd.nameEnglish = :subDistrict) AND " +
+           "v.pincode IS NOT NULL " +
+           "ORDER BY v.pincode")
     List<String> findDistinctPincodes(@Param("village") String village, @Param("district") String district, @Param("subDistrict") String subDistrict);
     
-    @Query("SELECT a FROM Address a WHERE " +
-           "a.country = :country AND " +
-           "(a.pincode LIKE %:search% OR " +
-           "a.villageNameEnglish LIKE %:search% OR " +
-           "a.districtNameEnglish LIKE %:search% OR " +
-           "a.subdistrictNameEnglish LIKE %:search%)")
-    Page<Address> searchPincodes(@Param("country") String country, @Param("search") String search, Pageable pageable);
+    /**
+     * Pincode search over the census village directory: pincode prefix, or village / sub-district /
+     * district name containing the search text
+     */
+    @Query(value = "SELECT " + REFERENCE_VILLAGE_COLUMNS + REFERENCE_VILLAGE_JOINS + REFERENCE_PINCODE_SEARCH +
+                   "ORDER BY v.pincode, v.nameEnglish",
+           countQuery = "SELECT COUNT(v) " + REFERENCE_VILLAGE_JOINS + REFERENCE_PINCODE_SEARCH)
+    Page<AddressDTO> searchReferencePincodes(@Param("country") String country, @Param("search") String search, Pageable pageable);
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT " + REFERENCE_VILLAGE_COLUMNS + REFERENCE_VILLAGE_JOINS +
+           "WHERE v.pincode = :pincode ORDER BY sd.nameEnglish, v.nameEnglish")
+    List<AddressDTO> findReferenceVillagesByPincode(@Param("pincode") String pincode);
     
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Address> findByPincode(String pincode);
     
-    List<Address> findByStateNameEnglish(String state);
+    // Name -> code resolution for the geography filters; a parent list narrows an ambiguous name
+    // (the same district name in two states). Null parent lists are not filtered on.
     
-    List<Address> findByStateNameEnglishAndDistrictNameEnglish(String state, String district);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT s.code FROM State s WHERE s.nameEnglish = :state AND (:country IS NULL OR s.country = :country)")
+    List<String> findStateCodes(@Param("country") String country, @Param("state") String state);
     
-    @Query("SELECT a FROM Address a WHERE " +
-           "a.stateNameEnglish = :state AND " +
-           "a.districtNameEnglish = :district AND " +
-           "a.subdistrictNameEnglish = :subDistrict")
-    List<Address> findByStateAndDistrictAndSubdistrict(
-        @Param("state") String state,
-        @Param("district") String district,
-        @Param("subDistrict") String subDistrict
-    );
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT d.code FROM District d WHERE d.nameEnglish = :district AND " +
+           "(:stateCodes IS NULL OR d.stateCode IN :stateCodes)")
+    List<String> findDistrictCodes(@Param("district") String district, @Param("stateCodes") Collection<String> stateCodes);
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT sd.code FROM Subdistrict sd WHERE sd.nameEnglish = :subDistrict AND " +
+           "(:districtCodes IS NULL OR sd.districtCode IN :districtCodes)")
+    List<String> findSubdistrictCodes(@Param("subDistrict") String subDistrict,
+                                      @Param("districtCodes") Collection<String> districtCodes);
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT v.code FROM Village v WHERE v.nameEnglish = :village AND " +
+           "(:subdistrictCodes IS NULL OR v.subdistrictCode IN :subdistrictCodes)")
+    List<String> findVillageCodes(@Param("village") String village,
+                                  @Param("subdistrictCodes") Collection<String> subdistrictCodes);
+    
+    // Parent codes of a resolved level, so address filters always carry the leading columns of the code index
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT DISTINCT d.stateCode FROM District d WHERE d.code IN :codes AND d.stateCode IS NOT NULL")
+    List<String> findStateCodesOfDistricts(@Param("codes") Collection<String> codes);
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT DISTINCT sd.districtCode FROM Subdistrict sd WHERE sd.code IN :codes AND sd.districtCode IS NOT NULL")
+    List<String> findDistrictCodesOfSubdistricts(@Param("codes") Collection<String> codes);
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT DISTINCT v.subdistrictCode FROM Village v WHERE v.code IN :codes AND v.subdistrictCode IS NOT NULL")
+    List<String> findSubdistrictCodesOfVillages(@Param("codes") Collection<String> codes);
+    
+    // Report drill-downs: [code, name] of the areas that have addresses under the given codes.
+    // The address side is read from idx_addresses_geography_codes; names come from the reference tables.
+    
+    @Query("SELECT DISTINCT d.code, d.nameEnglish FROM Address a JOIN District d ON d.code = a.districtCode " +
+           "WHERE a.stateCode IN :stateCodes ORDER BY d.nameEnglish")
+    List<Object[]> findDistrictsWithAddresses(@Param("stateCodes") Collection<String> stateCodes);
+    
+    @Query("SELECT DISTINCT sd.code, sd.nameEnglish FROM Address a JOIN Subdistrict sd ON sd.code = a.subdistrictCode " +
+           "WHERE a.stateCode IN :stateCodes AND a.districtCode IN :districtCodes ORDER BY sd.nameEnglish")
+    List<Object[]> findSubdistrictsWithAddresses(@Param("stateCodes") Collection<String> stateCodes,
+                                                 @Param("districtCodes") Collection<String> districtCodes);
+    
+    @Query("SELECT DISTINCT v.code, v.nameEnglish FROM Address a JOIN Village v ON v.code = a.villageCode " +
+           "WHERE a.stateCode IN :stateCodes AND a.districtCode IN :districtCodes " +
+           "AND a.subdistrictCode IN :subdistrictCodes ORDER BY v.nameEnglish")
+    List<Object[]> findVillagesWithAddresses(@Param("stateCodes") Collection<String> stateCodes,
+                                             @Param("districtCodes") Collection<String> districtCodes,
+                                             @Param("subdistrictCodes") Collection<String> subdistrictCodes);
     
     @Query("SELECT a.country, a.stateNameEnglish, a.districtNameEnglish FROM Address a WHERE a.districtNameEnglish = :district")
     List<Object[]> findDistrictInfo(@Param("district") String district);
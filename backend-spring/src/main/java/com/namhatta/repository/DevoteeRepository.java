@@ -1,5 +1,6 @@
 package com.namhatta.repository;
 
+import com.namhatta.dto.DevoteeSummary;
 import com.namhatta.model.entity.Devotee;
 import com.namhatta.model.enums.LeadershipRole;
 import org.springframework.data.domain.Page;
@@ -9,42 +10,100 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface DevoteeRepository extends JpaRepository<Devotee, Long> {
     
+    // Every scalar column except the jsonb devotionalCourses and TEXT additionalComments
+    String SUMMARY_COLUMNS = "d.id, d.legalName, d.name, d.dob, d.email, d.phone, d.fatherName, d.motherName, " +
+           "d.husbandName, d.gender, d.bloodGroup, d.maritalStatus, d.devotionalStatusId, d.namhattaId, " +
+           "d.harinamInitiationGurudevId, d.pancharatrikInitiationGurudevId, d.initiatedName, d.harinamDate, " +
+           "d.pancharatrikDate, d.education, d.occupation, d.shraddhakutirId, d.leadershipRole, " +
+           "d.reportingToDevoteeId, d.hasSystemAccess, d.appointedDate, d.appointedBy, d.createdAt, d.updatedAt";
+    
+    // Address filters use EXISTS instead of joins so a devotee with two addresses yields one row without DISTINCT
+    String SUMMARY_FILTERS = "FROM Devotee d " +
+           "WHERE (:search IS NULL OR :search = '' OR " +
+           "       LOWER(d.legalName) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+           "       LOWER(d.email) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+           "       LOWER(d.name) LIKE LOWER(CONCAT('%', :search, '%'))) " +
+           "AND (:statusId IS NULL OR d.devotionalStatusId = :statusId) " +
+           "AND (" + AddressRepository.NO_CODE_FILTERS + " " +
+           "     OR EXISTS (SELECT 1 FROM DevoteeAddress da JOIN Address a ON da.addressId = a.id " +
+           "                WHERE da.devoteeId = d.id AND " + AddressRepository.CODE_FILTERS + "))";
+    
     List<Devotee> findByNamhattaId(Long namhattaId);
     
+    Page<Devotee> findByNamhattaId(Long namhattaId, Pageable pageable);
+    
+    Page<Devotee> findByNamhattaIdAndDevotionalStatusId(Long namhattaId, Long devotionalStatusId, Pageable pageable);
+    
     List<Devotee> findByReportingToDevoteeId(Long id);
     
     List<Devotee> findByLeadershipRoleNotNull();
     
     List<Devotee> findByLeadershipRole(LeadershipRole role);
     
-    @Query("SELECT DISTINCT d FROM Devotee d " +
-           "LEFT JOIN DevoteeAddress da ON d.id = da.devoteeId " +
-           "LEFT JOIN Address a ON da.addressId = a.id " +
-           "WHERE (:search IS NULL OR :search = '' OR " +
-           "       LOWER(d.legalName) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "       LOWER(d.email) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "       LOWER(d.name) LIKE LOWER(CONCAT('%', :search, '%'))) " +
-           "AND (:country IS NULL OR :country = '' OR a.country = :country) " +
-           "AND (:state IS NULL OR :state = '' OR a.stateNameEnglish = :state) " +
-           "AND (:district IS NULL OR :district = '' OR a.districtNameEnglish = :district) " +
-           "AND (:statusId IS NULL OR d.devotionalStatusId = :statusId)")
-    Page<Devotee> findWithFilters(
+    @Query("SELECT COALESCE(ds.name, 'Unknown') as statusName, COUNT(d.id) as count " +
+           "FROM Devotee d " +
+           "LEFT JOIN DevotionalStatus ds ON d.devotionalStatusId = ds.id " +
+           "GROUP BY ds.name")
+    List<Object[]> countByDevotionalStatus();
+    
+    @Query("SELECT d.devotionalStatusId, COUNT(d.id) FROM Devotee d " +
+           "WHERE d.namhattaId = :namhattaId AND d.devotionalStatusId IS NOT NULL " +
+           "GROUP BY d.devotionalStatusId")
+    List<Object[]> countByDevotionalStatusForNamhatta(@Param("namhattaId") Long namhattaId);
+    
+    /**
+     * [id, display name] pairs for a set of devotees, used to resolve names in one query
+     */
+    @Query("SELECT d.id, COALESCE(d.name, d.legalName) FROM Devotee d WHERE d.id IN :ids")
+    List<Object[]> findNamesByIds(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * List rows matching the search, devotional status and address codes, projected instead of managed entities
+     */
+    @Query(value = "SELECT new com.namhatta.dto.DevoteeSummary(" + SUMMARY_COLUMNS + ") " + SUMMARY_FILTERS,
+           countQuery = "SELECT COUNT(d) " + SUMMARY_FILTERS)
+    Page<DevoteeSummary> findSummariesWithFilters(
         @Param("search") String search,
         @Param("country") String country,
-        @Param("state") String state,
-        @Param("district") String district,
+        @Param("stateCodes") Collection<String> stateCodes,
+        @Param("districtCodes") Collection<String> districtCodes,
+        @Param("subdistrictCodes") Collection<String> subdistrictCodes,
+        @Param("villageCodes") Collection<String> villageCodes,
         @Param("statusId") Long statusId,
         Pageable pageable
     );
     
-    @Query("SELECT COALESCE(ds.name, 'Unknown') as statusName, COUNT(d.id) as count " +
+    @Query("SELECT new com.namhatta.dto.DevoteeSummary(" + SUMMARY_COLUMNS + ") FROM Devotee d ORDER BY d.id")
+    List<DevoteeSummary> findAllSummaries();
+    
+    /**
+     * List rows for one leadership role with status, namhatta, shraddhakutir and reporting-to names joined in
+     */
+    @Query("SELECT new com.namhatta.dto.DevoteeSummary(" + SUMMARY_COLUMNS + ", " +
+           "ds.name, n.name, s.name, COALESCE(r.name, r.legalName)) " +
            "FROM Devotee d " +
-           "LEFT JOIN DevotionalStatus ds ON d.devotionalStatusId = ds.id " +
-           "GROUP BY ds.name")
-    List<Object[]> countByDevotionalStatus();
+           "LEFT JOIN DevotionalStatus ds ON ds.id = d.devotionalStatusId " +
+           "LEFT JOIN Namhatta n ON n.id = d.namhattaId " +
+           "LEFT JOIN Shraddhakutir s ON s.id = d.shraddhakutirId " +
+           "LEFT JOIN Devotee r ON r.id = d.reportingToDevoteeId " +
+           "WHERE d.leadershipRole = :role " +
+           "ORDER BY d.id")
+    List<DevoteeSummary> findSummariesByLeadershipRole(@Param("role") LeadershipRole role);
+    
+    /**
+     * Every leader with an address in the district as [id, name, leadershipRole, reportingToDevoteeId], by id
+     */
+    @Query("SELECT d.id, COALESCE(d.name, d.legalName), d.leadershipRole, d.reportingToDevoteeId " +
+           "FROM Devotee d " +
+           "WHERE d.leadershipRole IS NOT NULL " +
+           "AND EXISTS (SELECT 1 FROM DevoteeAddress da JOIN Address a ON a.id = da.addressId " +
+           "WHERE da.devoteeId = d.id AND a.districtCode = :districtCode) " +
+           "ORDER BY d.id")
+    List<Object[]> findLeadersByDistrictCode(@Param("districtCode") String districtCode);
 }
@@ -1,17 +1,32 @@
 package com.namhatta.repository;
 
 import com.namhatta.model.entity.JwtBlacklist;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 
 @Repository
 public interface JwtBlacklistRepository extends JpaRepository<JwtBlacklist, Long> {
     
+    // Declared as the query space of the native delete below so it does not flush the whole second-level cache
+    String BLACKLIST_TABLE = "jwt_blacklist";
+    
     boolean existsByTokenHash(String tokenHash);
     
-    @Transactional
-    void deleteByExpiredAtBefore(LocalDateTime dateTime);
+    /**
+     * Delete up to limit entries whose token expired before the cutoff (PostgreSQL; addresses rows by ctid)
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = BLACKLIST_TABLE))
+    @Query(value = "DELETE FROM jwt_blacklist WHERE ctid = ANY(ARRAY(" +
+           "SELECT ctid FROM jwt_blacklist WHERE expired_at < :cutoff LIMIT :limit))",
+           nativeQuery = true)
+    int deleteExpiredChunk(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
 }
@@ -1,8 +1,10 @@
 package com.namhatta.repository;
 
 import com.namhatta.model.entity.NamhattaAddress;
+import com.namhatta.model.enums.NamhattaStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -13,6 +15,26 @@ public interface NamhattaAddressRepository extends JpaRepository<NamhattaAddress
     
     Optional<NamhattaAddress> findByNamhattaId(Long namhattaId);
     
+    /**
+     * District and state codes of a namhatta's address as [districtCode, stateCode]
+     */
+    @Query("SELECT a.districtCode, a.stateCode FROM NamhattaAddress na " +
+           "JOIN Address a ON na.addressId = a.id " +
+           "WHERE na.namhattaId = :namhattaId")
+    List<Object[]> findRegionCodesByNamhattaId(@Param("namhattaId") Long namhattaId);
+    
+    /**
+     * Location of every namhatta with the given status as [namhattaId, name, latitude, longitude]: the exact
+     * meeting place when recorded, otherwise the address centroid. Namhattas without either are left out.
+     */
+    @Query("SELECT n.id, n.name, COALESCE(na.latitude, a.latitude), COALESCE(na.longitude, a.longitude) " +
+           "FROM NamhattaAddress na " +
+           "JOIN Namhatta n ON na.namhattaId = n.id " +
+           "JOIN Address a ON na.addressId = a.id " +
+           "WHERE n.status = :status AND COALESCE(na.latitude, a.latitude) IS NOT NULL " +
+           "AND COALESCE(na.longitude, a.longitude) IS NOT NULL")
+    List<Object[]> findLocationsByStatus(@Param("status") NamhattaStatus status);
+    
     @Query("SELECT a.country, COUNT(na.namhattaId) FROM NamhattaAddress na " +
            "JOIN Address a ON na.addressId = a.id " +
            "GROUP BY a.country")
@@ -1,5 +1,6 @@
 package com.namhatta.repository;
 
+import com.namhatta.dto.NamhattaSummary;
 import com.namhatta.model.entity.Namhatta;
 import com.namhatta.model.enums.NamhattaStatus;
 import org.springframework.data.domain.Page;
@@ -9,11 +10,22 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface NamhattaRepository extends JpaRepository<Namhatta, Long> {
     
+    String SUMMARY_FILTERS = "FROM Namhatta n " +
+           "LEFT JOIN NamhattaAddress na ON n.id = na.namhattaId " +
+           "LEFT JOIN Address a ON na.addressId = a.id " +
+           "WHERE (:search IS NULL OR :search = '' OR " +
+           "       LOWER(n.name) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+           "       LOWER(n.code) LIKE LOWER(CONCAT('%', :search, '%'))) " +
+           "AND " + AddressRepository.CODE_FILTERS + " " +
+           "AND (:status IS NULL OR n.status = :status)";
+    
     Optional<Namhatta> findByCode(String code);
     
     Optional<Namhatta> findByRegistrationNo(String registrationNo);
@@ -22,21 +34,27 @@ public interface NamhattaRepository extends JpaRepository<Namhatta, Long> {
     
     boolean existsByRegistrationNo(String registrationNo);
     
-    @Query("SELECT n FROM Namhatta n " +
-           "LEFT JOIN NamhattaAddress na ON n.id = na.namhattaId " +
-           "LEFT JOIN Address a ON na.addressId = a.id " +
-           "WHERE (:search IS NULL OR :search = '' OR " +
-           "       LOWER(n.name) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "       LOWER(n.code) LIKE LOWER(CONCAT('%', :search, '%'))) " +
-           "AND (:country IS NULL OR :country = '' OR a.country = :country) " +
-           "AND (:state IS NULL OR :state = '' OR a.stateNameEnglish = :state) " +
-           "AND (:district IS NULL OR :district = '' OR a.districtNameEnglish = :district) " +
-           "AND (:status IS NULL OR n.status = :status)")
-    Page<Namhatta> findWithFilters(
+    /**
+     * [id, name] pairs for a set of namhattas, used to resolve names in one query
+     */
+    @Query("SELECT n.id, n.name FROM Namhatta n WHERE n.id IN :ids")
+    List<Object[]> findNamesByIds(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * List rows matching the search, status and address codes, projected instead of managed entities
+     */
+    @Query(value = "SELECT new com.namhatta.dto.NamhattaSummary(n.id, n.code, n.name, n.meetingDay, n.meetingTime, " +
+           "n.malaSenapotiId, n.mahaChakraSenapotiId, n.chakraSenapotiId, n.upaChakraSenapotiId, n.secretaryId, " +
+           "n.presidentId, n.accountantId, n.districtSupervisorId, n.status, n.registrationNo, n.registrationDate, " +
+           "n.createdAt, n.updatedAt) " + SUMMARY_FILTERS,
+           countQuery = "SELECT COUNT(n) " + SUMMARY_FILTERS)
+    Page<NamhattaSummary> findSummariesWithFilters(
         @Param("search") String search,
         @Param("country") String country,
-        @Param("state") String state,
-        @Param("district") String district,
+        @Param("stateCodes") Collection<String> stateCodes,
+        @Param("districtCodes") Collection<String> districtCodes,
+        @Param("subdistrictCodes") Collection<String> subdistrictCodes,
+        @Param("villageCodes") Collection<String> villageCodes,
         @Param("status") NamhattaStatus status,
         Pageable pageable
     );
@@ -1,11 +1,15 @@
 package com.namhatta.repository;
 
+import com.namhatta.dto.NamhattaUpdateSummary;
 import com.namhatta.model.entity.NamhattaUpdate;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @Repository
@@ -13,7 +17,106 @@ public interface NamhattaUpdateRepository extends JpaRepository<NamhattaUpdate,
     
     List<NamhattaUpdate> findByNamhattaIdOrderByDateDesc(Long namhattaId);
     
-    List<NamhattaUpdate> findAllByOrderByDateDesc();
-    
     Page<NamhattaUpdate> findAllByOrderByDateDesc(Pageable pageable);
+    
+    /**
+     * Keyset page of update summaries ordered by (programDate, id) descending; legacy rows without a program
+     * date come last. Rows strictly after the (cursorDate, cursorId) position are returned, where a null
+     * cursorDate with a cursorId means the position is among the undated rows; pass nulls for the first page.
+     * The null checks cast the date parameters because PostgreSQL cannot infer the type of a bare null.
+     * The page size comes from the Pageable - no count query is issued.
+     */
+    @Query("SELECT new com.namhatta.dto.NamhattaUpdateSummary(" +
+           "u.id, u.namhattaId, u.programType, u.date, u.programDate, u.attendance, u.prasadDistribution, " +
+           "u.nagarKirtan, u.bookDistribution, u.chanting, u.arati, u.bhagwatPath, u.createdAt) " +
+           "FROM NamhattaUpdate u " +
+           "WHERE (:namhattaId IS NULL OR u.namhattaId = :namhattaId) " +
+           "AND (:districtCode IS NULL OR u.namhattaId IN (" +
+           "     SELECT na.namhattaId FROM NamhattaAddress na " +
+           "     JOIN Address a ON na.addressId = a.id " +
+           "     WHERE a.districtCode = :districtCode)) " +
+           "AND (CAST(:fromDate AS LocalDate) IS NULL OR u.programDate >= :fromDate) " +
+           "AND (CAST(:toDate AS LocalDate) IS NULL OR u.programDate <= :toDate) " +
+           "AND (:cursorId IS NULL " +
+           "     OR (CAST(:cursorDate AS LocalDate) IS NULL AND u.programDate IS NULL AND u.id < :cursorId) " +
+           "     OR (CAST(:cursorDate AS LocalDate) IS NOT NULL AND (u.programDate < :cursorDate " +
+           "         OR (u.programDate = :cursorDate AND u.id < :cursorId) OR u.programDate IS NULL))) " +
+           "ORDER BY u.programDate DESC NULLS LAST, u.id DESC")
+    List<NamhattaUpdateSummary> findFeed(
+        @Param("namhattaId") Long namhattaId,
+        @Param("districtCode") String districtCode,
+        @Param("fromDate") LocalDate fromDate,
+        @Param("toDate") LocalDate toDate,
+        @Param("cursorDate") LocalDate cursorDate,
+        @Param("cursorId") Long cursorId,
+        Pageable pageable
+    );
+    
+    @Query(value = "SELECT new com.namhatta.dto.NamhattaUpdateSummary(" +
+           "u.id, u.namhattaId, u.programType, u.date, u.programDate, u.attendance, u.prasadDistribution, " +
+           "u.nagarKirtan, u.bookDistribution, u.chanting, u.arati, u.bhagwatPath, u.createdAt) " +
+           "FROM NamhattaUpdate u " +
+           "WHERE u.namhattaId = :namhattaId AND u.programDate BETWEEN :fromDate AND :toDate " +
+           "ORDER BY u.programDate DESC, u.id DESC",
+           countQuery = "SELECT COUNT(u) FROM NamhattaUpdate u " +
+           "WHERE u.namhattaId = :namhattaId AND u.programDate BETWEEN :fromDate AND :toDate")
+    Page<NamhattaUpdateSummary> findByNamhattaInDateRange(
+        @Param("namhattaId") Long namhattaId,
+        @Param("fromDate") LocalDate fromDate,
+        @Param("toDate") LocalDate toDate,
+        Pageable pageable
+    );
+    
+    @Query(value = "SELECT new com.namhatta.dto.NamhattaUpdateSummary(" +
+           "u.id, u.namhattaId, u.programType, u.date, u.programDate, u.attendance, u.prasadDistribution, " +
+           "u.nagarKirtan, u.bookDistribution, u.chanting, u.arati, u.bhagwatPath, u.createdAt) " +
+           "FROM NamhattaUpdate u, NamhattaAddress na, Address a " +
+           "WHERE na.namhattaId = u.namhattaId AND a.id = na.addressId " +
+           "AND a.districtCode = :districtCode AND u.programDate BETWEEN :fromDate AND :toDate " +
+           "ORDER BY u.programDate DESC, u.id DESC",
+           countQuery = "SELECT COUNT(u) FROM NamhattaUpdate u, NamhattaAddress na, Address a " +
+           "WHERE na.namhattaId = u.namhattaId AND a.id = na.addressId " +
+           "AND a.districtCode = :districtCode AND u.programDate BETWEEN :fromDate AND :toDate")
+    Page<NamhattaUpdateSummary> findByDistrictInDateRange(
+        @Param("districtCode") String districtCode,
+        @Param("fromDate") LocalDate fromDate,
+        @Param("toDate") LocalDate toDate,
+        Pageable pageable
+    );
+    
+    @Query(value = "SELECT new com.namhatta.dto.NamhattaUpdateSummary(" +
+           "u.id, u.namhattaId, u.programType, u.date, u.programDate, u.attendance, u.prasadDistribution, " +
+           "u.nagarKirtan, u.bookDistribution, u.chanting, u.arati, u.bhagwatPath, u.createdAt) " +
+           "FROM NamhattaUpdate u, NamhattaAddress na, Address a " +
+           "WHERE na.namhattaId = u.namhattaId AND a.id = na.addressId " +
+           "AND a.stateCode = :stateCode AND u.programDate BETWEEN :fromDate AND :toDate " +
+           "ORDER BY u.programDate DESC, u.id DESC",
+           countQuery = "SELECT COUNT(u) FROM NamhattaUpdate u, NamhattaAddress na, Address a " +
+           "WHERE na.namhattaId = u.namhattaId AND a.id = na.addressId " +
+           "AND a.stateCode = :stateCode AND u.programDate BETWEEN :fromDate AND :toDate")
+    Page<NamhattaUpdateSummary> findByStateInDateRange(
+        @Param("stateCode") String stateCode,
+        @Param("fromDate") LocalDate fromDate,
+        @Param("toDate") LocalDate toDate,
+        Pageable pageable
+    );
+    
+    /**
+     * Per-namhatta activity totals for program dates in [from, to] as
+     * [namhattaId, districtCode, stateCode, attendance, prasadDistribution, nagarKirtan,
+     *  bookDistribution, chanting, arati, bhagwatPath]; region codes are null for namhattas without an address
+     */
+    @Query("SELECT u.namhattaId, a.districtCode, a.stateCode, " +
+           "SUM(COALESCE(u.attendance, 0)), SUM(COALESCE(u.prasadDistribution, 0)), " +
+           "SUM(COALESCE(u.nagarKirtan, 0)), SUM(COALESCE(u.bookDistribution, 0)), " +
+           "SUM(COALESCE(u.chanting, 0)), SUM(COALESCE(u.arati, 0)), SUM(COALESCE(u.bhagwatPath, 0)) " +
+           "FROM NamhattaUpdate u " +
+           "LEFT JOIN NamhattaAddress na ON na.namhattaId = u.namhattaId " +
+           "LEFT JOIN Address a ON a.id = na.addressId " +
+           "WHERE u.programDate BETWEEN :fromDate AND :toDate " +
+           "GROUP BY u.namhattaId, a.districtCode, a.stateCode")
+    List<Object[]> sumActivityByNamhatta(
+        @Param("fromDate") LocalDate fromDate,
+        @Param("toDate") LocalDate toDate
+    );
 }
@@ -0,0 +1,147 @@
+package com.namhatta.repository;
+
+import com.namhatta.model.entity.NamhattaUpdateRollup;
+import com.namhatta.model.enums.RollupLevel;
+import com.namhatta.model.enums.RollupPeriod;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface NamhattaUpdateRollupRepository extends JpaRepository<NamhattaUpdateRollup, Long> {
+    
+    // Declared as the query space of the native writes below so they do not flush the whole second-level cache
+    String ROLLUP_TABLE = "namhatta_update_rollups";
+    
+    // Dated updates with their bucket for the rebuilds below. The bucket is computed once here and grouped by
+    // name: repeating date_trunc(:unit, ...) in SELECT and GROUP BY binds two parameters, and PostgreSQL does
+    // not treat the two expressions as the same, so it rejects the query.
+    String DATED_UPDATES = "SELECT namhatta_id, CAST(date_trunc(:unit, program_date) AS DATE) AS bucket_start, " +
+           "attendance, prasad_distribution, nagar_kirtan, book_distribution, chanting, arati, bhagwat_path " +
+           "FROM namhatta_updates WHERE program_date IS NOT NULL";
+    
+    /**
+     * Rollup buckets for one level and period, optionally narrowed to a scope key and bucket range
+     */
+    @Query("SELECT r FROM NamhattaUpdateRollup r " +
+           "WHERE r.level = :level AND r.period = :period " +
+           "AND (:scopeKey IS NULL OR r.scopeKey = :scopeKey) " +
+           "AND (:fromDate IS NULL OR r.bucketStart >= :fromDate) " +
+           "AND (:toDate IS NULL OR r.bucketStart <= :toDate) " +
+           "ORDER BY r.bucketStart DESC, r.scopeKey")
+    List<NamhattaUpdateRollup> findBuckets(
+        @Param("level") RollupLevel level,
+        @Param("period") RollupPeriod period,
+        @Param("scopeKey") String scopeKey,
+        @Param("fromDate") LocalDate fromDate,
+        @Param("toDate") LocalDate toDate
+    );
+    
+    /**
+     * Add one update's counters to a bucket, creating the bucket on first use (PostgreSQL upsert)
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = ROLLUP_TABLE))
+    @Query(value = "INSERT INTO namhatta_update_rollups (level, scope_key, period, bucket_start, program_count, " +
+           "attendance_sum, prasad_distribution_sum, nagar_kirtan_sum, book_distribution_sum, " +
+           "chanting_sum, arati_sum, bhagwat_path_sum, updated_at) " +
+           "VALUES (:level, :scopeKey, :period, :bucketStart, 1, :attendance, :prasadDistribution, :nagarKirtan, " +
+           ":bookDistribution, :chanting, :arati, :bhagwatPath, now()) " +
+           "ON CONFLICT (level, scope_key, period, bucket_start) DO UPDATE SET " +
+           "program_count = namhatta_update_rollups.program_count + 1, " +
+           "attendance_sum = namhatta_update_rollups.attendance_sum + EXCLUDED.attendance_sum, " +
+           "prasad_distribution_sum = namhatta_update_rollups.prasad_distribution_sum + EXCLUDED.prasad_distribution_sum, " +
+           "nagar_kirtan_sum = namhatta_update_rollups.nagar_kirtan_sum + EXCLUDED.nagar_kirtan_sum, " +
+           "book_distribution_sum = namhatta_update_rollups.book_distribution_sum + EXCLUDED.book_distribution_sum, " +
+           "chanting_sum = namhatta_update_rollups.chanting_sum + EXCLUDED.chanting_sum, " +
+           "arati_sum = namhatta_update_rollups.arati_sum + EXCLUDED.arati_sum, " +
+           "bhagwat_path_sum = namhatta_update_rollups.bhagwat_path_sum + EXCLUDED.bhagwat_path_sum, " +
+           "updated_at = now()",
+           nativeQuery = true)
+    int incrementBucket(
+        @Param("level") String level,
+        @Param("scopeKey") String scopeKey,
+        @Param("period") String period,
+        @Param("bucketStart") LocalDate bucketStart,
+        @Param("attendance") long attendance,
+        @Param("prasadDistribution") long prasadDistribution,
+        @Param("nagarKirtan") long nagarKirtan,
+        @Param("bookDistribution") long bookDistribution,
+        @Param("chanting") long chanting,
+        @Param("arati") long arati,
+        @Param("bhagwatPath") long bhagwatPath
+    );
+    
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = ROLLUP_TABLE))
+    @Query(value = "DELETE FROM namhatta_update_rollups", nativeQuery = true)
+    int deleteAllBuckets();
+    
+    /**
+     * Recompute namhatta-level buckets for one period from namhatta_updates
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = ROLLUP_TABLE))
+    @Query(value = "INSERT INTO namhatta_update_rollups (level, scope_key, period, bucket_start, program_count, " +
+           "attendance_sum, prasad_distribution_sum, nagar_kirtan_sum, book_distribution_sum, " +
+           "chanting_sum, arati_sum, bhagwat_path_sum, updated_at) " +
+           "SELECT 'NAMHATTA', CAST(u.namhatta_id AS VARCHAR), :period, " +
+           "u.bucket_start, COUNT(*), " +
+           "COALESCE(SUM(u.attendance), 0), COALESCE(SUM(u.prasad_distribution), 0), " +
+           "COALESCE(SUM(u.nagar_kirtan), 0), COALESCE(SUM(u.book_distribution), 0), " +
+           "COALESCE(SUM(u.chanting), 0), COALESCE(SUM(u.arati), 0), COALESCE(SUM(u.bhagwat_path), 0), now() " +
+           "FROM (" + DATED_UPDATES + ") u " +
+           "GROUP BY u.namhatta_id, u.bucket_start",
+           nativeQuery = true)
+    int rebuildNamhattaBuckets(@Param("period") String period, @Param("unit") String unit);
+    
+    /**
+     * Recompute district-level buckets for one period from namhatta_updates
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = ROLLUP_TABLE))
+    @Query(value = "INSERT INTO namhatta_update_rollups (level, scope_key, period, bucket_start, program_count, " +
+           "attendance_sum, prasad_distribution_sum, nagar_kirtan_sum, book_distribution_sum, " +
+           "chanting_sum, arati_sum, bhagwat_path_sum, updated_at) " +
+           "SELECT 'DISTRICT', a.district_code, :period, " +
+           "u.bucket_start, COUNT(*), " +
+           "COALESCE(SUM(u.attendance), 0), COALESCE(SUM(u.prasad_distribution), 0), " +
+           "COALESCE(SUM(u.nagar_kirtan), 0), COALESCE(SUM(u.book_distribution), 0), " +
+           "COALESCE(SUM(u.chanting), 0), COALESCE(SUM(u.arati), 0), COALESCE(SUM(u.bhagwat_path), 0), now() " +
+           "FROM (" + DATED_UPDATES + ") u " +
+           "JOIN namhatta_addresses na ON na.namhatta_id = u.namhatta_id " +
+           "JOIN addresses a ON a.id = na.address_id " +
+           "WHERE a.district_code IS NOT NULL " +
+           "GROUP BY a.district_code, u.bucket_start",
+           nativeQuery = true)
+    int rebuildDistrictBuckets(@Param("period") String period, @Param("unit") String unit);
+    
+    /**
+     * Recompute state-level buckets for one period from namhatta_updates
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = ROLLUP_TABLE))
+    @Query(value = "INSERT INTO namhatta_update_rollups (level, scope_key, period, bucket_start, program_count, " +
+           "attendance_sum, prasad_distribution_sum, nagar_kirtan_sum, book_distribution_sum, " +
+           "chanting_sum, arati_sum, bhagwat_path_sum, updated_at) " +
+           "SELECT 'STATE', a.state_code, :period, " +
+           "u.bucket_start, COUNT(*), " +
+           "COALESCE(SUM(u.attendance), 0), COALESCE(SUM(u.prasad_distribution), 0), " +
+           "COALESCE(SUM(u.nagar_kirtan), 0), COALESCE(SUM(u.book_distribution), 0), " +
+           "COALESCE(SUM(u.chanting), 0), COALESCE(SUM(u.arati), 0), COALESCE(SUM(u.bhagwat_path), 0), now() " +
+           "FROM (" + DATED_UPDATES + ") u " +
+           "JOIN namhatta_addresses na ON na.namhatta_id = u.namhatta_id " +
+           "JOIN addresses a ON a.id = na.address_id " +
+           "WHERE a.state_code IS NOT NULL " +
+           "GROUP BY a.state_code, u.bucket_start",
+           nativeQuery = true)
+    int rebuildStateBuckets(@Param("period") String period, @Param("unit") String unit);
+}
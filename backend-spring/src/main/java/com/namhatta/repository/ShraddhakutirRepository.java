@@ -1,7 +1,10 @@
 package com.namhatta.repository;
 
 import com.namhatta.model.entity.Shraddhakutir;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -9,5 +12,10 @@ import java.util.List;
 @Repository
 public interface ShraddhakutirRepository extends JpaRepository<Shraddhakutir, Long> {
     
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Override
+    List<Shraddhakutir> findAll();
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Shraddhakutir> findByDistrictCode(String districtCode);
 }
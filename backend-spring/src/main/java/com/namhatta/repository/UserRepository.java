@@ -3,8 +3,12 @@ package com.namhatta.repository;
 import com.namhatta.model.entity.User;
 import com.namhatta.model.enums.UserRole;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,9 +17,31 @@ public interface UserRepository extends JpaRepository<User, Long> {
     
     Optional<User> findByUsername(String username);
     
+    /**
+     * [user, district] rows for a username in one query; district is null when the user has none
+     */
+    @Query("SELECT u, ud FROM User u LEFT JOIN UserDistrict ud ON ud.userId = u.id WHERE u.username = :username")
+    List<Object[]> findWithDistrictsByUsername(@Param("username") String username);
+    
     Optional<User> findByEmail(String email);
     
     List<User> findByIsActiveTrue();
     
     List<User> findByRole(UserRole role);
+    
+    /**
+     * [id, display name] pairs for a set of users, used to resolve names in one query
+     */
+    @Query("SELECT u.id, COALESCE(u.fullName, u.username) FROM User u WHERE u.id IN :ids")
+    List<Object[]> findNamesByIds(@Param("ids") Collection<Long> ids);
+    
+    @Query("SELECT u.sessionEpoch FROM User u WHERE u.id = :id")
+    Optional<Long> findSessionEpochById(@Param("id") Long id);
+    
+    /**
+     * Invalidates every token issued to the user under session-epoch validation
+     */
+    @Modifying
+    @Query("UPDATE User u SET u.sessionEpoch = u.sessionEpoch + 1 WHERE u.id = :id")
+    int incrementSessionEpoch(@Param("id") Long id);
 }
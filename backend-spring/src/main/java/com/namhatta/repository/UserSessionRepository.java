@@ -1,7 +1,13 @@
 package com.namhatta.repository;
 
 import com.namhatta.model.entity.UserSession;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -11,11 +17,37 @@ import java.util.Optional;
 @Repository
 public interface UserSessionRepository extends JpaRepository<UserSession, Long> {
     
+    // Declared as the query space of the native statements below so they do not flush the whole second-level cache
+    String SESSIONS_TABLE = "user_sessions";
+    
     Optional<UserSession> findByUserId(Long userId);
     
     @Transactional
     void deleteByUserId(Long userId);
     
-    @Transactional
-    void deleteByExpiresAtBefore(LocalDateTime dateTime);
+    /**
+     * Replace the user's session in one statement (PostgreSQL). Relies on the unique index on user_id, so
+     * concurrent logins of one user serialize on that row instead of racing a delete against an insert.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = SESSIONS_TABLE))
+    @Query(value = "INSERT INTO user_sessions (user_id, session_token, expires_at, created_at) " +
+           "VALUES (:userId, :sessionToken, :expiresAt, :createdAt) " +
+           "ON CONFLICT (user_id) DO UPDATE SET session_token = EXCLUDED.session_token, " +
+           "expires_at = EXCLUDED.expires_at, created_at = EXCLUDED.created_at",
+           nativeQuery = true)
+    int upsertSession(@Param("userId") Long userId,
+                      @Param("sessionToken") String sessionToken,
+                      @Param("expiresAt") LocalDateTime expiresAt,
+                      @Param("createdAt") LocalDateTime createdAt);
+    
+    /**
+     * Delete up to limit sessions that expired before the cutoff (PostgreSQL; addresses rows by ctid)
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = SESSIONS_TABLE))
+    @Query(value = "DELETE FROM user_sessions WHERE ctid = ANY(ARRAY(" +
+           "SELECT ctid FROM user_sessions WHERE expires_at < :cutoff LIMIT :limit))",
+           nativeQuery = true)
+    int deleteExpiredChunk(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
 }
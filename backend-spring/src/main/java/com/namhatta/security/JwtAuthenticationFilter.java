@@ -65,9 +65,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 // Get session token from JWT claims
                 Claims claims = jwtTokenProvider.getClaimsFromToken(jwt);
                 String sessionToken = claims.get("sessionToken", String.class);
+                Long sessionEpoch = claims.get("sessionEpoch", Long.class);
                 
                 // Validate session
-                if (!sessionService.validateSession(userId, sessionToken)) {
+                if (!sessionService.validateSession(userId, sessionToken, sessionEpoch)) {
                     filterChain.doFilter(request, response);
                     return;
                 }
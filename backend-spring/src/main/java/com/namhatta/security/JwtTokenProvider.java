@@ -28,6 +28,14 @@ public class JwtTokenProvider {
      */
     public String generateToken(Long userId, String username, String role, 
                                 List<String> districts, String sessionToken) {
+        return generateToken(userId, username, role, districts, sessionToken, null);
+    }
+    
+    /**
+     * Generate JWT token carrying either a session token or a session epoch
+     */
+    public String generateToken(Long userId, String username, String role, 
+                                List<String> districts, String sessionToken, Long sessionEpoch) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + EXPIRATION_TIME);
         
@@ -37,6 +45,7 @@ public class JwtTokenProvider {
                 .claim("role", role)
                 .claim("districts", districts)
                 .claim("sessionToken", sessionToken)
+                .claim("sessionEpoch", sessionEpoch)
                 .issuedAt(now)
                 .expiration(expiryDate)
                 .signWith(secretKey)
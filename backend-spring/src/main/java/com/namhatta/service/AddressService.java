@@ -3,7 +3,11 @@ package com.namhatta.service;
 import com.namhatta.dto.AddressData;
 import com.namhatta.dto.AddressDTO;
 import com.namhatta.dto.AddressDetails;
+import com.namhatta.dto.GeographyCodes;
+import com.namhatta.dto.GeographyFilter;
 import com.namhatta.dto.PincodeSearchResult;
+import com.namhatta.exception.NotFoundException;
+import com.namhatta.exception.ValidationException;
 import com.namhatta.model.entity.Address;
 import com.namhatta.model.entity.DevoteeAddress;
 import com.namhatta.model.entity.NamhattaAddress;
@@ -11,6 +15,7 @@ import com.namhatta.model.enums.AddressType;
 import com.namhatta.repository.AddressRepository;
 import com.namhatta.repository.DevoteeAddressRepository;
 import com.namhatta.repository.NamhattaAddressRepository;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -69,10 +74,21 @@ public class AddressService {
         newAddress.setVillageCode(addressData.getVillageCode());
         newAddress.setVillageNameEnglish(addressData.getVillageNameEnglish());
         newAddress.setPincode(addressData.getPincode());
+        if (addressData.getPincode() != null) {
+            // New addresses start at their pincode centroid; the geocoding backfill covers the rest
+            for (Object[] coordinates : addressRepository.findPincodeCoordinates(addressData.getPincode())) {
+                newAddress.setLatitude((Double) coordinates[0]);
+                newAddress.setLongitude((Double) coordinates[1]);
+            }
+        }
         
-        // Save and return id
-        Address savedAddress = addressRepository.save(newAddress);
-        return savedAddress.getId();
+        // Save and return id; codes must exist in the geography reference tables (foreign keys)
+        try {
+            Address savedAddress = addressRepository.save(newAddress);
+            return savedAddress.getId();
+        } catch (DataIntegrityViolationException e) {
+            throw new ValidationException("Address refers to an unknown state, district, sub-district, village or pincode");
+        }
     }
     
     /**
@@ -107,29 +123,53 @@ public class AddressService {
      */
     @Transactional
     public void linkNamhattaAddress(Long namhattaId, Long addressId, String landmark) {
-        // Check if link exists
-        Optional<NamhattaAddress> existingLink = namhattaAddressRepository.findByNamhattaId(namhattaId);
-        
-        if (existingLink.isPresent()) {
-            // Update
-            NamhattaAddress namhattaAddress = existingLink.get();
-            namhattaAddress.setAddressId(addressId);
-            namhattaAddress.setLandmark(landmark);
-            namhattaAddressRepository.save(namhattaAddress);
-        } else {
-            // Create
-            NamhattaAddress namhattaAddress = new NamhattaAddress();
-            namhattaAddress.setNamhattaId(namhattaId);
-            namhattaAddress.setAddressId(addressId);
-            namhattaAddress.setLandmark(landmark);
-            namhattaAddressRepository.save(namhattaAddress);
+        linkNamhattaAddress(namhattaId, addressId, landmark, null, null);
+    }
+
+    /**
+     * Link namhatta to address, with the exact meeting place when known.
+     * Latitude and longitude go together; without them a link to the same address keeps its stored meeting
+     * place, and a new or moved link falls back to the address centroid on the map.
+     */
+    @Transactional
+    public void linkNamhattaAddress(Long namhattaId, Long addressId, String landmark, Double latitude, Double longitude) {
+        if ((latitude == null) != (longitude == null)) {
+            throw new ValidationException("Latitude and longitude must be given together");
+        }
+        if (latitude != null && (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180)) {
+            throw new ValidationException("Latitude must be within [-90, 90] and longitude within [-180, 180]");
+        }
+
+        // Update the existing link or create one
+        NamhattaAddress namhattaAddress = namhattaAddressRepository.findByNamhattaId(namhattaId)
+                .orElseGet(NamhattaAddress::new);
+        boolean keepMeetingPlace = latitude == null && addressId.equals(namhattaAddress.getAddressId());
+        namhattaAddress.setNamhattaId(namhattaId);
+        namhattaAddress.setAddressId(addressId);
+        namhattaAddress.setLandmark(landmark);
+        if (!keepMeetingPlace) {
+            namhattaAddress.setLatitude(latitude);
+            namhattaAddress.setLongitude(longitude);
         }
+        namhattaAddressRepository.save(namhattaAddress);
+    }
+    
+    /**
+     * Gazetteer centroid of a pincode as {latitude, longitude}
+     */
+    @Transactional(readOnly = true)
+    public double[] getPincodeLocation(String pincode) {
+        return addressRepository.findPincodeCoordinates(pincode).stream()
+                .findFirst()
+                .map(row -> new double[]{(Double) row[0], (Double) row[1]})
+                .orElseThrow(() -> new NotFoundException("No location is known for pincode " + pincode));
     }
     
     /**
      * Get distinct countries
      * Task 5.3.6
      */
+    @Transactional(readOnly = true)
     public List<String> getCountries() {
         return addressRepository.findDistinctCountries();
     }
@@ -138,6 +178,7 @@ public class AddressService {
      * Get distinct states filtered by country
      * Task 5.3.7
      */
+    @Transactional(readOnly = true)
     public List<String> getStates(String country) {
         if (country == null || country.trim().isEmpty()) {
             return List.of();
@@ -149,6 +190,7 @@ public class AddressService {
      * Get distinct districts filtered by state
      * Task 5.3.8
      */
+    @Transactional(readOnly = true)
     public List<String> getDistricts(String state) {
         if (state == null || state.trim().isEmpty()) {
             return List.of();
@@ -160,6 +202,7 @@ public class AddressService {
      * Get distinct sub-districts
      * Task 5.3.9
      */
+    @Transactional(readOnly = true)
     public List<String> getSubDistricts(String district, String pincode) {
         return addressRepository.findDistinctSubDistricts(district, pincode);
     }
@@ -168,7 +211,12 @@ public class AddressService {
      * Get distinct villages
      * Task 5.3.10
      */
+    @Transactional(readOnly = true)
     public List<String> getVillages(String subDistrict, String pincode) {
+        // The village directory is far too large to list unfiltered
+        if (isBlank(subDistrict) && isBlank(pincode)) {
+            return List.of();
+        }
         return addressRepository.findDistinctVillages(subDistrict, pincode);
     }
     
@@ -176,6 +224,7 @@ public class AddressService {
      * Get distinct pincodes
      * Task 5.3.11
      */
+    @Transactional(readOnly = true)
     public List<String> getPincodes(String village, String district, String subDistrict) {
         return addressRepository.findDistinctPincodes(village, district, subDistrict);
     }
@@ -184,6 +233,7 @@ public class AddressService {
      * Search pincodes with pagination
      * Task 5.3.12
      */
+    @Transactional(readOnly = true)
     public PincodeSearchResult searchPincodes(String country, String search, int page, int limit) {
         // Validate country required
         if (country == null || country.trim().isEmpty()) {
@@ -193,14 +243,11 @@ public class AddressService {
         // Cap limit at 100
         int cappedLimit = Math.min(limit, 100);
         
-        // Build query with LIKE on pincode, village, district, subdistrict
+        // Pincode prefix or village / sub-district / district name over the census village directory
         Pageable pageable = PageRequest.of(page, cappedLimit);
-        Page<Address> addressPage = addressRepository.searchPincodes(country, search != null ? search : "", pageable);
-        
-        // Convert to DTOs
-        List<AddressDTO> pincodes = addressPage.getContent().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        Page<AddressDTO> addressPage = addressRepository.searchReferencePincodes(
+                country, search != null ? search.trim() : "", pageable);
+        List<AddressDTO> pincodes = addressPage.getContent();
         
         // Return pincodes array, total count, hasMore flag
         return new PincodeSearchResult(
@@ -214,30 +261,31 @@ public class AddressService {
      * Get address details by pincode
      * Task 5.3.13
      */
+    @Transactional(readOnly = true)
     public AddressDetails getAddressByPincode(String pincode) {
         if (pincode == null || pincode.trim().isEmpty()) {
             throw new IllegalArgumentException("Pincode is required");
         }
         
-        // Query addresses by pincode
-        List<Address> addresses = addressRepository.findByPincode(pincode);
+        // Villages served by the pincode, from the census village directory
+        List<AddressDTO> addresses = addressRepository.findReferenceVillagesByPincode(pincode);
         
         if (addresses.isEmpty()) {
             return null;
         }
         
         // Get first address for basic info
-        Address firstAddress = addresses.get(0);
+        AddressDTO firstAddress = addresses.get(0);
         
         // Collect unique sub-districts and villages
         List<String> subDistricts = addresses.stream()
-                .map(Address::getSubdistrictNameEnglish)
+                .map(AddressDTO::getSubdistrictNameEnglish)
                 .filter(s -> s != null && !s.trim().isEmpty())
                 .distinct()
                 .collect(Collectors.toList());
         
         List<String> villages = addresses.stream()
-                .map(Address::getVillageNameEnglish)
+                .map(AddressDTO::getVillageNameEnglish)
                 .filter(v -> v != null && !v.trim().isEmpty())
                 .distinct()
                 .collect(Collectors.toList());
@@ -253,21 +301,45 @@ public class AddressService {
     }
     
     /**
-     * Convert Address entity to DTO
+     * Resolve a name/code geography filter to census codes, top level first, so list queries filter on the
+     * indexed code columns of addresses. Names narrow by the levels above them, and parent codes are filled in
+     * from the reference tables when only a lower level was given.
      */
-    private AddressDTO convertToDTO(Address address) {
-        return new AddressDTO(
-            address.getId(),
-            address.getCountry(),
-            address.getStateCode(),
-            address.getStateNameEnglish(),
-            address.getDistrictCode(),
-            address.getDistrictNameEnglish(),
-            address.getSubdistrictCode(),
-            address.getSubdistrictNameEnglish(),
-            address.getVillageCode(),
-            address.getVillageNameEnglish(),
-            address.getPincode()
-        );
+    @Transactional(readOnly = true)
+    public GeographyCodes resolveGeographyCodes(GeographyFilter filter) {
+        String country = isBlank(filter.getCountry()) ? null : filter.getCountry();
+        
+        List<String> stateCodes = !isBlank(filter.getStateCode()) ? List.of(filter.getStateCode())
+                : !isBlank(filter.getState()) ? addressRepository.findStateCodes(country, filter.getState())
+                : null;
+        List<String> districtCodes = !isBlank(filter.getDistrictCode()) ? List.of(filter.getDistrictCode())
+                : !isBlank(filter.getDistrict()) ? addressRepository.findDistrictCodes(filter.getDistrict(), stateCodes)
+                : null;
+        List<String> subdistrictCodes = !isBlank(filter.getSubdistrictCode()) ? List.of(filter.getSubdistrictCode())
+                : !isBlank(filter.getSubDistrict()) ? addressRepository.findSubdistrictCodes(filter.getSubDistrict(), districtCodes)
+                : null;
+        List<String> villageCodes = !isBlank(filter.getVillageCode()) ? List.of(filter.getVillageCode())
+                : !isBlank(filter.getVillage()) ? addressRepository.findVillageCodes(filter.getVillage(), subdistrictCodes)
+                : null;
+        
+        // Fill in missing parents bottom-up; a reference row without a parent leaves that level unfiltered
+        if (subdistrictCodes == null && villageCodes != null && !villageCodes.isEmpty()) {
+            subdistrictCodes = nullIfEmpty(addressRepository.findSubdistrictCodesOfVillages(villageCodes));
+        }
+        if (districtCodes == null && subdistrictCodes != null && !subdistrictCodes.isEmpty()) {
+            districtCodes = nullIfEmpty(addressRepository.findDistrictCodesOfSubdistricts(subdistrictCodes));
+        }
+        if (stateCodes == null && districtCodes != null && !districtCodes.isEmpty()) {
+            stateCodes = nullIfEmpty(addressRepository.findStateCodesOfDistricts(districtCodes));
+        }
+        return new GeographyCodes(country, stateCodes, districtCodes, subdistrictCodes, villageCodes);
+    }
+    
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+    
+    private static List<String> nullIfEmpty(List<String> codes) {
+        return codes.isEmpty() ? null : codes;
     }
 }
@@ -16,6 +16,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -44,9 +45,10 @@ public class AuthenticationService {
     }
     
     /**
-     * Authenticate user and return JWT token
+     * Authenticate user and return JWT token.
+     * One read (user with districts), one BCrypt check and one session write. Not transactional,
+     * so no connection is held while the password check waits for a BCrypt worker.
      */
-    @Transactional
     public LoginResponse login(LoginRequest request) {
         // Validate input
         if (request.getUsername() == null || request.getUsername().trim().isEmpty()) {
@@ -56,13 +58,17 @@ public class AuthenticationService {
             throw new BadCredentialsException("Password is required");
         }
         
-        // Find user by username
-        Optional<User> userOpt = userRepository.findByUsername(request.getUsername());
-        if (userOpt.isEmpty()) {
+        // Find user by username together with their districts
+        List<Object[]> rows = userRepository.findWithDistrictsByUsername(request.getUsername());
+        if (rows.isEmpty()) {
             throw new BadCredentialsException("Invalid username or password");
         }
         
-        User user = userOpt.get();
+        User user = (User) rows.get(0)[0];
+        List<UserDistrict> userDistricts = rows.stream()
+                .map(row -> (UserDistrict) row[1])
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
         
         // Check if user is active
         if (!user.getIsActive()) {
@@ -74,11 +80,15 @@ public class AuthenticationService {
             throw new BadCredentialsException("Invalid username or password");
         }
         
-        // Create new session (enforces single login - deletes old session)
-        String sessionToken = sessionService.createSession(user.getId());
+        // Re-hash at the configured cost while the plain password is at hand (only after a cost change)
+        if (passwordService.needsRehash(user.getPasswordHash())) {
+            user.setPasswordHash(passwordService.hashPassword(request.getPassword()));
+            userRepository.save(user);
+        }
+        
+        // Create new session (enforces single login - replaces the old session)
+        SessionService.SessionGrant session = sessionService.openSession(user.getId());
         
-        // Get user districts
-        List<UserDistrict> userDistricts = userDistrictRepository.findByUserId(user.getId());
         List<String> districtCodes = userDistricts.stream()
                 .map(UserDistrict::getDistrictCode)
                 .collect(Collectors.toList());
@@ -93,7 +103,8 @@ public class AuthenticationService {
                 user.getUsername(),
                 user.getRole().name(),
                 districtCodes,
-                sessionToken
+                session.getSessionToken(),
+                session.getSessionEpoch()
         );
         
         // Create UserDTO
@@ -145,9 +156,10 @@ public class AuthenticationService {
         Claims claims = jwtTokenProvider.getClaimsFromToken(token);
         Long userId = Long.parseLong(claims.getSubject());
         String sessionToken = claims.get("sessionToken", String.class);
+        Long sessionEpoch = claims.get("sessionEpoch", Long.class);
         
         // Validate session
-        if (!sessionService.validateSession(userId, sessionToken)) {
+        if (!sessionService.validateSession(userId, sessionToken, sessionEpoch)) {
             throw new BadCredentialsException("Session is invalid or expired");
         }
         
@@ -1,13 +1,15 @@
 package com.namhatta.service;
 
-import com.namhatta.model.entity.NamhattaUpdate;
+import com.namhatta.dto.NamhattaUpdateSummary;
 import com.namhatta.model.enums.UserRole;
 import com.namhatta.repository.DevoteeRepository;
 import com.namhatta.repository.NamhattaRepository;
 import com.namhatta.repository.NamhattaUpdateRepository;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -18,21 +20,26 @@ public class DashboardService {
     private final DevoteeRepository devoteeRepository;
     private final NamhattaRepository namhattaRepository;
     private final NamhattaUpdateRepository namhattaUpdateRepository;
+    private final ParallelQueryService parallelQueryService;
 
     public DashboardService(DevoteeRepository devoteeRepository,
                            NamhattaRepository namhattaRepository,
-                           NamhattaUpdateRepository namhattaUpdateRepository) {
+                           NamhattaUpdateRepository namhattaUpdateRepository,
+                           ParallelQueryService parallelQueryService) {
         this.devoteeRepository = devoteeRepository;
         this.namhattaRepository = namhattaRepository;
         this.namhattaUpdateRepository = namhattaUpdateRepository;
+        this.parallelQueryService = parallelQueryService;
     }
 
     public static class DashboardDTO {
         private long totalDevotees;
         private long totalNamhattas;
-        private List<NamhattaUpdate> recentUpdates;
+        private List<NamhattaUpdateSummary> recentUpdates;
+        // Set only when some figures could not be loaded and hold fallback values
+        private List<String> unavailable;
 
-        public DashboardDTO(long totalDevotees, long totalNamhattas, List<NamhattaUpdate> recentUpdates) {
+        public DashboardDTO(long totalDevotees, long totalNamhattas, List<NamhattaUpdateSummary> recentUpdates) {
             this.totalDevotees = totalDevotees;
             this.totalNamhattas = totalNamhattas;
             this.recentUpdates = recentUpdates;
@@ -44,8 +51,11 @@ public class DashboardService {
         public long getTotalNamhattas() { return totalNamhattas; }
         public void setTotalNamhattas(long totalNamhattas) { this.totalNamhattas = totalNamhattas; }
 
-        public List<NamhattaUpdate> getRecentUpdates() { return recentUpdates; }
-        public void setRecentUpdates(List<NamhattaUpdate> recentUpdates) { this.recentUpdates = recentUpdates; }
+        public List<NamhattaUpdateSummary> getRecentUpdates() { return recentUpdates; }
+        public void setRecentUpdates(List<NamhattaUpdateSummary> recentUpdates) { this.recentUpdates = recentUpdates; }
+
+        public List<String> getUnavailable() { return unavailable; }
+        public void setUnavailable(List<String> unavailable) { this.unavailable = unavailable; }
     }
 
     public static class StatusDistributionDTO {
@@ -64,25 +74,29 @@ public class DashboardService {
         public void setCount(long count) { this.count = count; }
     }
 
+    /**
+     * Dashboard totals and the ten most recent updates, loaded concurrently.
+     * Not transactional on purpose: each query borrows its own connection, so holding one here too could starve the pool.
+     */
     public DashboardDTO getDashboardSummary(UserRole userRole, List<String> userDistricts) {
-        long totalDevotees;
-        long totalNamhattas;
-
-        if (userRole == UserRole.DISTRICT_SUPERVISOR && userDistricts != null && !userDistricts.isEmpty()) {
-            totalDevotees = devoteeRepository.count();
-            totalNamhattas = namhattaRepository.count();
-        } else {
-            totalDevotees = devoteeRepository.count();
-            totalNamhattas = namhattaRepository.count();
+        ParallelQueryService.Batch batch = parallelQueryService.newBatch();
+
+        ParallelQueryService.QueryHandle<Long> totalDevotees =
+                batch.submit("totalDevotees", devoteeRepository::count, 0L);
+        ParallelQueryService.QueryHandle<Long> totalNamhattas =
+                batch.submit("totalNamhattas", namhattaRepository::count, 0L);
+        ParallelQueryService.QueryHandle<List<NamhattaUpdateSummary>> recentUpdates =
+                batch.submit("recentUpdates", () -> namhattaUpdateRepository.findFeed(
+                        null, null, null, null, null, null, PageRequest.of(0, 10)), Collections.emptyList());
+
+        DashboardDTO dashboard = new DashboardDTO(totalDevotees.get(), totalNamhattas.get(), recentUpdates.get());
+        if (batch.isPartial()) {
+            dashboard.setUnavailable(batch.getUnavailable());
         }
-
-        List<NamhattaUpdate> recentUpdates = namhattaUpdateRepository.findAllByOrderByDateDesc(
-            PageRequest.of(0, 10)
-        ).getContent();
-
-        return new DashboardDTO(totalDevotees, totalNamhattas, recentUpdates);
+        return dashboard;
     }
 
+    @Transactional(readOnly = true)
     public List<StatusDistributionDTO> getStatusDistribution(UserRole userRole, List<String> userDistricts) {
         Map<String, Long> distribution = new HashMap<>();
         
@@ -5,34 +5,50 @@ import com.namhatta.dto.AddressDTO;
 import com.namhatta.dto.CreateDevoteeRequest;
 import com.namhatta.dto.CreateUserRequest;
 import com.namhatta.dto.DevoteeDTO;
+import com.namhatta.dto.DevoteeSummary;
+import com.namhatta.dto.GeographyCodes;
+import com.namhatta.dto.GeographyFilter;
 import com.namhatta.dto.LeadershipRequest;
 import com.namhatta.dto.UpdateDevoteeRequest;
 import com.namhatta.dto.UserDTO;
+import com.namhatta.exception.ValidationException;
 import com.namhatta.model.entity.Address;
 import com.namhatta.model.entity.Devotee;
 import com.namhatta.model.entity.DevoteeAddress;
+import com.namhatta.model.entity.DevotionalStatus;
+import com.namhatta.model.entity.Gurudev;
+import com.namhatta.model.entity.Shraddhakutir;
 import com.namhatta.model.entity.StatusHistory;
 import com.namhatta.model.entity.User;
 import com.namhatta.model.enums.AddressType;
+import com.namhatta.model.enums.DevoteeExpansion;
 import com.namhatta.model.enums.Gender;
 import com.namhatta.model.enums.LeadershipRole;
 import com.namhatta.model.enums.MaritalStatus;
 import com.namhatta.model.enums.UserRole;
 import com.namhatta.repository.DevoteeAddressRepository;
 import com.namhatta.repository.DevoteeRepository;
+import com.namhatta.repository.DevotionalStatusRepository;
+import com.namhatta.repository.GurudevRepository;
+import com.namhatta.repository.NamhattaRepository;
+import com.namhatta.repository.ShraddhakutirRepository;
 import com.namhatta.repository.StatusHistoryRepository;
 import com.namhatta.repository.UserRepository;
 import com.namhatta.security.DistrictAccessValidator;
+import com.namhatta.util.DtoMapper;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -45,6 +61,12 @@ public class DevoteeService {
     private final DistrictAccessValidator districtAccessValidator;
     private final UserRepository userRepository;
     private final PasswordService passwordService;
+    private final DevotionalStatusRepository devotionalStatusRepository;
+    private final GurudevRepository gurudevRepository;
+    private final ShraddhakutirRepository shraddhakutirRepository;
+    private final NamhattaRepository namhattaRepository;
+    private final SenapotiTreeService senapotiTreeService;
+    private final DtoMapper dtoMapper;
     
     public DevoteeService(DevoteeRepository devoteeRepository,
                          AddressService addressService,
@@ -52,7 +74,13 @@ public class DevoteeService {
                          StatusHistoryRepository statusHistoryRepository,
                          DistrictAccessValidator districtAccessValidator,
                          UserRepository userRepository,
-                         PasswordService passwordService) {
+                         PasswordService passwordService,
+                         DevotionalStatusRepository devotionalStatusRepository,
+                         GurudevRepository gurudevRepository,
+                         ShraddhakutirRepository shraddhakutirRepository,
+                         NamhattaRepository namhattaRepository,
+                         SenapotiTreeService senapotiTreeService,
+                         DtoMapper dtoMapper) {
         this.devoteeRepository = devoteeRepository;
         this.addressService = addressService;
         this.devoteeAddressRepository = devoteeAddressRepository;
@@ -60,6 +88,12 @@ public class DevoteeService {
         this.districtAccessValidator = districtAccessValidator;
         this.userRepository = userRepository;
         this.passwordService = passwordService;
+        this.devotionalStatusRepository = devotionalStatusRepository;
+        this.gurudevRepository = gurudevRepository;
+        this.shraddhakutirRepository = shraddhakutirRepository;
+        this.namhattaRepository = namhattaRepository;
+        this.senapotiTreeService = senapotiTreeService;
+        this.dtoMapper = dtoMapper;
     }
     
     /**
@@ -69,19 +103,50 @@ public class DevoteeService {
     public Page<DevoteeDTO> getDevotees(Pageable pageable, String search, String country, 
                                        String state, String district, Long statusId,
                                        String userRole, List<String> userDistricts) {
-        // Build query with filters
-        Page<Devotee> devoteesPage;
+        return getDevotees(pageable, search, country, state, district, statusId, userRole, userDistricts, null);
+    }
+    
+    /**
+     * Get devotees with pagination and filters, resolving the related names listed in expand
+     */
+    @Transactional(readOnly = true)
+    public Page<DevoteeDTO> getDevotees(Pageable pageable, String search, String country, 
+                                       String state, String district, Long statusId,
+                                       String userRole, List<String> userDistricts, String expand) {
+        return getDevotees(pageable, search, new GeographyFilter(country, state, district), statusId,
+                userRole, userDistricts, expand);
+    }
+    
+    /**
+     * Get devotees with pagination and filters; geography names are resolved to census codes before the query
+     */
+    @Transactional(readOnly = true)
+    public Page<DevoteeDTO> getDevotees(Pageable pageable, String search, GeographyFilter geography, Long statusId,
+                                       String userRole, List<String> userDistricts, String expand) {
+        Set<DevoteeExpansion> expansions = parseExpansions(expand);
+        GeographyCodes codes = addressService.resolveGeographyCodes(geography);
+        if (codes.matchesNothing()) {
+            return Page.empty(pageable);
+        }
+        // List rows are projected straight from the columns they need, no managed entities
+        Page<DevoteeSummary> devoteesPage;
         
         // If role=DISTRICT_SUPERVISOR, filter by user's districts
         if ("DISTRICT_SUPERVISOR".equals(userRole) && userDistricts != null && !userDistricts.isEmpty()) {
             // For district supervisors, filter results to only their districts
-            devoteesPage = devoteeRepository.findWithFilters(search, country, state, district, statusId, pageable);
+            devoteesPage = findSummaries(search, codes, statusId, pageable);
         } else {
-            devoteesPage = devoteeRepository.findWithFilters(search, country, state, district, statusId, pageable);
+            devoteesPage = findSummaries(search, codes, statusId, pageable);
         }
         
-        // Convert to DTOs with addresses
-        return devoteesPage.map(this::convertToDTO);
+        Page<DevoteeDTO> dtoPage = devoteesPage.map(dtoMapper::toDevoteeDTO);
+        resolveExpansions(dtoPage.getContent(), expansions);
+        return dtoPage;
+    }
+    
+    private Page<DevoteeSummary> findSummaries(String search, GeographyCodes codes, Long statusId, Pageable pageable) {
+        return devoteeRepository.findSummariesWithFilters(search, codes.getCountry(), codes.getStateCodes(),
+                codes.getDistrictCodes(), codes.getSubdistrictCodes(), codes.getVillageCodes(), statusId, pageable);
     }
     
     /**
@@ -89,10 +154,21 @@ public class DevoteeService {
      * Task 5.4.4
      */
     public DevoteeDTO getDevotee(Long id) {
+        return getDevotee(id, null);
+    }
+    
+    /**
+     * Get single devotee by ID, resolving the related names listed in expand
+     */
+    @Transactional(readOnly = true)
+    public DevoteeDTO getDevotee(Long id, String expand) {
+        Set<DevoteeExpansion> expansions = parseExpansions(expand);
         Devotee devotee = devoteeRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Devotee not found with id: " + id));
         
-        return convertToDTO(devotee);
+        DevoteeDTO dto = convertToDTO(devotee);
+        resolveExpansions(List.of(dto), expansions);
+        return dto;
     }
     
     /**
@@ -213,6 +289,7 @@ public class DevoteeService {
         
         devotee.setHasSystemAccess(hasSystemAccess != null ? hasSystemAccess : false);
         devoteeRepository.save(devotee);
+        senapotiTreeService.invalidateAll();
     }
     
     /**
@@ -228,18 +305,20 @@ public class DevoteeService {
         devotee.setReportingToDevoteeId(null);
         devotee.setHasSystemAccess(false);
         devoteeRepository.save(devotee);
+        senapotiTreeService.invalidateAll();
     }
     
     /**
      * Get available officers
      * Task 5.4.11
      */
+    @Transactional(readOnly = true)
     public List<DevoteeDTO> getAvailableOfficers() {
         // Query devotees eligible for officer positions
-        List<Devotee> devotees = devoteeRepository.findAll();
+        List<DevoteeSummary> devotees = devoteeRepository.findAllSummaries();
         
         return devotees.stream()
-                .map(this::convertToDTO)
+                .map(dtoMapper::toDevoteeDTO)
                 .collect(Collectors.toList());
     }
     
@@ -471,6 +550,79 @@ public class DevoteeService {
         return addressData;
     }
     
+    /**
+     * Parse a comma-separated expand parameter, e.g. "status,gurudev" or "all"
+     */
+    private Set<DevoteeExpansion> parseExpansions(String expand) {
+        Set<DevoteeExpansion> expansions = EnumSet.noneOf(DevoteeExpansion.class);
+        if (expand == null || expand.isBlank()) {
+            return expansions;
+        }
+        for (String token : expand.split(",")) {
+            String value = token.trim();
+            if (value.isEmpty()) {
+                continue;
+            }
+            if (value.equalsIgnoreCase("all")) {
+                return EnumSet.allOf(DevoteeExpansion.class);
+            }
+            try {
+                expansions.add(DevoteeExpansion.valueOf(value.replaceAll("([a-z])([A-Z])", "$1_$2").toUpperCase()));
+            } catch (IllegalArgumentException e) {
+                throw new ValidationException("Invalid expand value: " + value
+                        + ". Allowed: status, gurudev, namhatta, shraddhakutir, reportingTo, all");
+            }
+        }
+        return expansions;
+    }
+    
+    /**
+     * Fill in related names for a batch of devotees. Statuses, gurudevs and shraddhakutirs come from the
+     * second-level query cache; namhatta and reporting-to names take one IN query each for the whole batch.
+     */
+    private void resolveExpansions(List<DevoteeDTO> devotees, Set<DevoteeExpansion> expansions) {
+        if (devotees.isEmpty() || expansions.isEmpty()) {
+            return;
+        }
+        
+        if (expansions.contains(DevoteeExpansion.STATUS)) {
+            Map<Long, String> statusNames = devotionalStatusRepository.findAll().stream()
+                    .collect(Collectors.toMap(DevotionalStatus::getId, DevotionalStatus::getName));
+            devotees.forEach(dto -> dto.setDevotionalStatusName(statusNames.get(dto.getDevotionalStatusId())));
+        }
+        
+        if (expansions.contains(DevoteeExpansion.GURUDEV)) {
+            Map<Long, String> gurudevNames = gurudevRepository.findAll().stream()
+                    .collect(Collectors.toMap(Gurudev::getId, Gurudev::getName));
+            devotees.forEach(dto -> {
+                dto.setHarinamGurudevName(gurudevNames.get(dto.getHarinamInitiationGurudevId()));
+                dto.setPancharatrikGurudevName(gurudevNames.get(dto.getPancharatrikInitiationGurudevId()));
+            });
+        }
+        
+        if (expansions.contains(DevoteeExpansion.SHRADDHAKUTIR)) {
+            Map<Long, String> shraddhakutirNames = shraddhakutirRepository.findAll().stream()
+                    .collect(Collectors.toMap(Shraddhakutir::getId, Shraddhakutir::getName));
+            devotees.forEach(dto -> dto.setShraddhakutirName(shraddhakutirNames.get(dto.getShraddhakutirId())));
+        }
+        
+        if (expansions.contains(DevoteeExpansion.NAMHATTA)) {
+            Set<Long> namhattaIds = new HashSet<>();
+            devotees.forEach(dto -> DtoMapper.addIfPresent(namhattaIds, dto.getNamhattaId()));
+            Map<Long, String> namhattaNames = namhattaIds.isEmpty()
+                    ? Map.of() : DtoMapper.toNameMap(namhattaRepository.findNamesByIds(namhattaIds));
+            devotees.forEach(dto -> dto.setNamhattaName(namhattaNames.get(dto.getNamhattaId())));
+        }
+        
+        if (expansions.contains(DevoteeExpansion.REPORTING_TO)) {
+            Set<Long> devoteeIds = new HashSet<>();
+            devotees.forEach(dto -> DtoMapper.addIfPresent(devoteeIds, dto.getReportingToDevoteeId()));
+            Map<Long, String> devoteeNames = devoteeIds.isEmpty()
+                    ? Map.of() : DtoMapper.toNameMap(devoteeRepository.findNamesByIds(devoteeIds));
+            devotees.forEach(dto -> dto.setReportingToDevoteeName(devoteeNames.get(dto.getReportingToDevoteeId())));
+        }
+    }
+    
     /**
      * Convert Devotee entity to DTO
      */
@@ -3,6 +3,7 @@ package com.namhatta.service;
 import com.namhatta.model.entity.DevotionalStatus;
 import com.namhatta.repository.DevotionalStatusRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -19,12 +20,14 @@ public class DevotionalStatusService {
         return devotionalStatusRepository.findAll();
     }
 
+    @Transactional
     public DevotionalStatus createStatus(String name) {
         DevotionalStatus status = new DevotionalStatus();
         status.setName(name);
         return devotionalStatusRepository.save(status);
     }
 
+    @Transactional
     public DevotionalStatus renameStatus(Long id, String newName) {
         DevotionalStatus status = devotionalStatusRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Devotional status not found with id: " + id));
@@ -0,0 +1,135 @@
+package com.namhatta.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Deletes expired rows in bounded chunks, each in its own short transaction, pausing between chunks
+ * so the sweep never holds many row locks or one long transaction.
+ *
+ * On PostgreSQL a run first takes a transaction-scoped advisory lock (pg_try_advisory_xact_lock) on a
+ * separate connection kept open for the run, so only one instance sweeps a table at a time. The lock is
+ * transaction-scoped rather than session-scoped because it must also hold behind a transaction-mode
+ * pooler, where consecutive statements of one client can land on different server connections.
+ */
+@Service
+public class ExpirySweepService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExpirySweepService.class);
+
+    // Arbitrary namespace for the advisory lock keys of this application's sweeps
+    private static final long LOCK_NAMESPACE = 0x4e48L << 32;
+
+    private final DataSource dataSource;
+    private final TransactionTemplate chunkTransaction;
+    private final MeterRegistry meterRegistry;
+    private final int chunkSize;
+    private final long pauseMillis;
+    private final int maxChunks;
+
+    public ExpirySweepService(DataSource dataSource,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry,
+                              @Value("${expiry.chunk-size:1000}") int chunkSize,
+                              @Value("${expiry.chunk-pause-ms:100}") long pauseMillis,
+                              @Value("${expiry.max-chunks-per-run:1000}") int maxChunks) {
+        this.dataSource = dataSource;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.meterRegistry = meterRegistry;
+        this.chunkSize = chunkSize;
+        this.pauseMillis = pauseMillis;
+        this.maxChunks = maxChunks;
+    }
+
+    /**
+     * Run deleteChunk(chunkSize) until it deletes fewer rows than asked for.
+     * Returns the number of rows deleted, or -1 when another instance holds the table's lock.
+     */
+    public long sweep(String table, IntUnaryOperator deleteChunk) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try (Connection lockConnection = dataSource.getConnection()) {
+            boolean postgres = "PostgreSQL".equals(lockConnection.getMetaData().getDatabaseProductName());
+            if (postgres) {
+                lockConnection.setAutoCommit(false);
+                if (!tryLock(lockConnection, table)) {
+                    lockConnection.rollback();
+                    counter("namhatta.expiry.skipped", "Sweeps skipped because another instance held the lock", table)
+                            .increment();
+                    logger.debug("Expiry sweep of {} is running elsewhere, skipping", table);
+                    return -1;
+                }
+            }
+            try {
+                return deleteInChunks(table, deleteChunk);
+            } finally {
+                if (postgres) {
+                    // Ending the lock transaction releases the advisory lock
+                    lockConnection.rollback();
+                }
+            }
+        } catch (SQLException e) {
+            logger.warn("Expiry sweep of {} could not take its lock: {}", table, e.getMessage());
+            return 0;
+        } finally {
+            sample.stop(Timer.builder("namhatta.expiry.sweep")
+                    .description("Duration of an expiry sweep run")
+                    .tag("table", table)
+                    .register(meterRegistry));
+        }
+    }
+
+    private long deleteInChunks(String table, IntUnaryOperator deleteChunk) {
+        Counter deletedRows = counter("namhatta.expiry.deleted", "Expired rows deleted by sweeps", table);
+        long total = 0;
+        for (int chunk = 0; chunk < maxChunks; chunk++) {
+            Integer deleted = chunkTransaction.execute(status -> deleteChunk.applyAsInt(chunkSize));
+            int count = deleted != null ? deleted : 0;
+            total += count;
+            deletedRows.increment(count);
+            if (count < chunkSize) {
+                logger.info("Expiry sweep of {} deleted {} rows", table, total);
+                return total;
+            }
+            try {
+                Thread.sleep(pauseMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        logger.info("Expiry sweep of {} stopped after {} rows; the rest is left for the next run", table, total);
+        return total;
+    }
+
+    private boolean tryLock(Connection connection, String table) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT pg_try_advisory_xact_lock(?)")) {
+            statement.setLong(1, LOCK_NAMESPACE | (table.hashCode() & 0xffffffffL));
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+
+    private Counter counter(String name, String description, String table) {
+        return Counter.builder(name)
+                .description(description)
+                .tag("table", table)
+                .register(meterRegistry);
+    }
+}
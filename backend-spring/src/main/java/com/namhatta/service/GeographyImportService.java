@@ -0,0 +1,653 @@
+package com.namhatta.service;
+
+import com.namhatta.dto.GeocodingResult;
+import com.namhatta.dto.GeographyImportResult;
+import com.namhatta.exception.ConflictException;
+import com.namhatta.exception.ValidationException;
+import com.namhatta.model.entity.Address;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Loads the census village directory (one CSV row per village) into the states / districts /
+ * subdistricts / villages / pincodes reference tables.
+ *
+ * The file is streamed, never held in memory. On PostgreSQL the rows go through COPY FROM STDIN into a
+ * temporary staging table and are upserted from there in one transaction, so a failed import leaves the
+ * tables untouched. Elsewhere they are written in batches, each in its own transaction. Every write is an
+ * upsert keyed by code, so re-running a corrected file updates names in place; values a file leaves
+ * out (an empty field or a missing column) keep what an earlier run loaded. Rows that refer to a parent
+ * code missing from both the file and the tables are skipped and reported as orphans.
+ */
+@Service
+public class GeographyImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(GeographyImportService.class);
+
+    // Normalized row layout shared by both import paths (also the column order of the staging table)
+    private static final int COUNTRY = 0, STATE_CODE = 1, STATE_NAME = 2, DISTRICT_CODE = 3, DISTRICT_NAME = 4,
+            SUBDISTRICT_CODE = 5, SUBDISTRICT_NAME = 6, VILLAGE_CODE = 7, VILLAGE_NAME = 8, PINCODE = 9;
+    private static final int COLUMN_COUNT = 10;
+
+    // Accepted header names after lower-casing and dropping everything but letters and digits
+    private static final Map<String, Integer> HEADER_ALIASES = Map.ofEntries(
+            Map.entry("country", COUNTRY),
+            Map.entry("statecode", STATE_CODE),
+            Map.entry("statename", STATE_NAME),
+            Map.entry("statenameenglish", STATE_NAME),
+            Map.entry("districtcode", DISTRICT_CODE),
+            Map.entry("districtname", DISTRICT_NAME),
+            Map.entry("districtnameenglish", DISTRICT_NAME),
+            Map.entry("subdistrictcode", SUBDISTRICT_CODE),
+            Map.entry("subdistrictname", SUBDISTRICT_NAME),
+            Map.entry("subdistrictnameenglish", SUBDISTRICT_NAME),
+            Map.entry("villagecode", VILLAGE_CODE),
+            Map.entry("villagename", VILLAGE_NAME),
+            Map.entry("villagenameenglish", VILLAGE_NAME),
+            Map.entry("pincode", PINCODE));
+
+    private static final String CREATE_STAGING =
+            "CREATE TEMP TABLE geography_import (line BIGSERIAL, country TEXT, state_code TEXT, state_name TEXT, " +
+            "district_code TEXT, district_name TEXT, subdistrict_code TEXT, subdistrict_name TEXT, " +
+            "village_code TEXT, village_name TEXT, pincode TEXT) ON COMMIT DROP";
+
+    private static final String COPY_STAGING =
+            "COPY geography_import (country, state_code, state_name, district_code, district_name, " +
+            "subdistrict_code, subdistrict_name, village_code, village_name, pincode) FROM STDIN WITH (FORMAT csv)";
+
+    // Parents take their first row in the file and villages their last, as in the batched path
+    private static final String FIRST_STATES =
+            "SELECT DISTINCT ON (state_code) state_code, state_name, country FROM geography_import " +
+            "WHERE state_code IS NOT NULL AND state_name IS NOT NULL ORDER BY state_code, line";
+
+    private static final String FIRST_DISTRICTS =
+            "SELECT DISTINCT ON (district_code) district_code, state_code, district_name FROM geography_import " +
+            "WHERE district_code IS NOT NULL AND district_name IS NOT NULL ORDER BY district_code, line";
+
+    private static final String FIRST_SUBDISTRICTS =
+            "SELECT DISTINCT ON (subdistrict_code) subdistrict_code, district_code, subdistrict_name FROM geography_import " +
+            "WHERE subdistrict_code IS NOT NULL AND subdistrict_name IS NOT NULL ORDER BY subdistrict_code, line";
+
+    private static final String FIRST_PINCODES =
+            "SELECT DISTINCT ON (pincode) pincode, district_code FROM geography_import " +
+            "WHERE pincode IS NOT NULL ORDER BY pincode, line";
+
+    private static final String LAST_VILLAGES =
+            "SELECT DISTINCT ON (village_code) village_code, subdistrict_code, village_name, pincode FROM geography_import " +
+            "ORDER BY village_code, line DESC";
+
+    // A row naming a parent that is neither in the file nor already loaded would fail its foreign key;
+    // such rows are skipped and counted as orphans instead of aborting the import
+    private static final String KNOWN_STATE =
+            "(g.state_code IS NULL OR EXISTS (SELECT 1 FROM states p WHERE p.code = g.state_code))";
+    private static final String KNOWN_DISTRICT =
+            "(g.district_code IS NULL OR EXISTS (SELECT 1 FROM districts p WHERE p.code = g.district_code))";
+    private static final String KNOWN_SUBDISTRICT_AND_PINCODE =
+            "(g.subdistrict_code IS NULL OR EXISTS (SELECT 1 FROM subdistricts p WHERE p.code = g.subdistrict_code)) " +
+            "AND (g.pincode IS NULL OR EXISTS (SELECT 1 FROM pincodes p WHERE p.pincode = g.pincode))";
+
+    // The country defaults to India only for a new state; a file without countries keeps the stored one
+    private static final String UPSERT_STATES =
+            "INSERT INTO states (code, name_english, country) " +
+            "SELECT g.state_code, g.state_name, " +
+            "COALESCE(g.country, (SELECT s.country FROM states s WHERE s.code = g.state_code), 'India') " +
+            "FROM (" + FIRST_STATES + ") g " +
+            "ON CONFLICT (code) DO UPDATE SET name_english = EXCLUDED.name_english, country = EXCLUDED.country";
+
+    private static final String UPSERT_DISTRICTS =
+            "INSERT INTO districts (code, state_code, name_english) " +
+            "SELECT g.district_code, g.state_code, g.district_name FROM (" + FIRST_DISTRICTS + ") g WHERE " + KNOWN_STATE + " " +
+            "ON CONFLICT (code) DO UPDATE SET state_code = COALESCE(EXCLUDED.state_code, districts.state_code), " +
+            "name_english = EXCLUDED.name_english";
+
+    private static final String UPSERT_SUBDISTRICTS =
+            "INSERT INTO subdistricts (code, district_code, name_english) " +
+            "SELECT g.subdistrict_code, g.district_code, g.subdistrict_name FROM (" + FIRST_SUBDISTRICTS + ") g " +
+            "WHERE " + KNOWN_DISTRICT + " " +
+            "ON CONFLICT (code) DO UPDATE SET district_code = COALESCE(EXCLUDED.district_code, subdistricts.district_code), " +
+            "name_english = EXCLUDED.name_english";
+
+    private static final String UPSERT_PINCODES =
+            "INSERT INTO pincodes (pincode, district_code) " +
+            "SELECT g.pincode, g.district_code FROM (" + FIRST_PINCODES + ") g WHERE " + KNOWN_DISTRICT + " " +
+            "ON CONFLICT (pincode) DO UPDATE SET district_code = COALESCE(EXCLUDED.district_code, pincodes.district_code)";
+
+    private static final String UPSERT_VILLAGES =
+            "INSERT INTO villages (code, subdistrict_code, name_english, pincode) " +
+            "SELECT g.village_code, g.subdistrict_code, g.village_name, g.pincode FROM (" + LAST_VILLAGES + ") g " +
+            "WHERE " + KNOWN_SUBDISTRICT_AND_PINCODE + " " +
+            "ON CONFLICT (code) DO UPDATE SET subdistrict_code = COALESCE(EXCLUDED.subdistrict_code, villages.subdistrict_code), " +
+            "name_english = EXCLUDED.name_english, pincode = COALESCE(EXCLUDED.pincode, villages.pincode)";
+
+    private static final String GEOCODE_PINCODE =
+            "UPDATE pincodes SET latitude = ?, longitude = ? WHERE pincode = ?";
+
+    // Addresses take the centroid of their pincode (portable SQL, runs on H2 as well)
+    private static final String GEOCODE_ADDRESSES =
+            "UPDATE addresses SET " +
+            "latitude = (SELECT p.latitude FROM pincodes p WHERE p.pincode = addresses.pincode), " +
+            "longitude = (SELECT p.longitude FROM pincodes p WHERE p.pincode = addresses.pincode) " +
+            "WHERE EXISTS (SELECT 1 FROM pincodes p WHERE p.pincode = addresses.pincode AND p.latitude IS NOT NULL)";
+
+    // Batched path equivalents of the defaults and parent checks above
+    private static final Map<String, String> STATE_DEFAULTS = Map.of("country", "'India'");
+    private static final Map<String, String> STATE_PARENT = Map.of("state_code", "states.code");
+    private static final Map<String, String> DISTRICT_PARENT = Map.of("district_code", "districts.code");
+    private static final Map<String, String> VILLAGE_PARENTS =
+            Map.of("subdistrict_code", "subdistricts.code", "pincode", "pincodes.pincode");
+
+    // Characters of CSV handed to COPY per round trip
+    private static final int COPY_BUFFER_CHARS = 1 << 16;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate importTransaction;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean postgres;
+    private final int batchSize;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    /**
+     * Published after every successful import or geocoding run so in-memory geography indexes can rebuild.
+     * The result is null after a geocoding run.
+     */
+    public static class GeographyImportedEvent {
+        private final GeographyImportResult result;
+
+        public GeographyImportedEvent(GeographyImportResult result) {
+            this.result = result;
+        }
+
+        public GeographyImportResult getResult() { return result; }
+    }
+
+    public GeographyImportService(JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager,
+                                  EntityManagerFactory entityManagerFactory,
+                                  ApplicationEventPublisher eventPublisher,
+                                  @Value("${spring.datasource.url:}") String datasourceUrl,
+                                  @Value("${geography.import.batch-size:5000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.importTransaction = new TransactionTemplate(transactionManager);
+        this.entityManagerFactory = entityManagerFactory;
+        this.eventPublisher = eventPublisher;
+        // COPY and ON CONFLICT are PostgreSQL only; other databases get batched standard MERGEs
+        this.postgres = datasourceUrl.startsWith("jdbc:postgresql:");
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Import a census directory CSV with a header row naming at least the village code and name columns.
+     * Only one import runs at a time.
+     */
+    public GeographyImportResult importCensusDirectory(Reader source) throws IOException {
+        if (!running.compareAndSet(false, true)) {
+            throw new ConflictException("A geography import is already running");
+        }
+        try {
+            long started = System.currentTimeMillis();
+            RowReader rows = new RowReader(source);
+
+            long[] counts;
+            try {
+                counts = postgres ? copyImport(rows) : batchImport(rows);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+
+            // Rows were written with plain JDBC, so Hibernate cannot tell that cached geography lists are stale
+            entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+
+            GeographyImportResult result = new GeographyImportResult(rows.rowsRead, rows.rowsSkipped,
+                    counts[0], counts[1], counts[2], counts[3], counts[4], counts[5], System.currentTimeMillis() - started);
+            logger.info("Census directory import: {} rows, {} skipped, {} villages in {} ms",
+                    result.getRowsRead(), result.getRowsSkipped(), result.getVillages(), result.getDurationMs());
+            if (result.getOrphansSkipped() > 0) {
+                logger.warn("Census directory import skipped {} districts, sub-districts, pincodes or villages " +
+                        "whose parent code is not loaded", result.getOrphansSkipped());
+            }
+            eventPublisher.publishEvent(new GeographyImportedEvent(result));
+            return result;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Load pincode centroids from a local gazetteer and copy them onto addresses.
+     * Accepts the GeoNames postal code dump (tab-separated, no header: postal code in column 2, latitude and
+     * longitude in columns 10 and 11) or a CSV with pincode, latitude and longitude header columns. Places
+     * sharing a pincode are averaged; pincodes not in the reference table are skipped.
+     */
+    public GeocodingResult geocodePincodes(Reader source) throws IOException {
+        if (!running.compareAndSet(false, true)) {
+            throw new ConflictException("A geography import is already running");
+        }
+        try {
+            long started = System.currentTimeMillis();
+            // pincode -> {latitude sum, longitude sum, places}; about 20k pincodes for India
+            Map<String, double[]> centroids = new HashMap<>();
+            long[] rowCounts = readGazetteer(source, centroids);
+
+            List<Object[]> rows = new ArrayList<>(centroids.size());
+            centroids.forEach((pincode, sums) -> rows.add(new Object[]{sums[0] / sums[2], sums[1] / sums[2], pincode}));
+
+            long[] counts = importTransaction.execute(status -> {
+                long pincodes = 0;
+                for (int from = 0; from < rows.size(); from += batchSize) {
+                    for (int updated : jdbcTemplate.batchUpdate(GEOCODE_PINCODE,
+                            rows.subList(from, Math.min(from + batchSize, rows.size())))) {
+                        pincodes += Math.max(updated, 0);
+                    }
+                }
+                long addresses = jdbcTemplate.update(GEOCODE_ADDRESSES);
+                return new long[]{pincodes, addresses};
+            });
+
+            // Addresses and pincode lookups are cached and were updated behind Hibernate's back
+            entityManagerFactory.unwrap(SessionFactory.class).getCache().evictEntityData(Address.class);
+            entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+
+            GeocodingResult result = new GeocodingResult(rowCounts[0], rowCounts[1], counts[0], counts[1],
+                    System.currentTimeMillis() - started);
+            logger.info("Gazetteer geocoding: {} rows, {} pincodes, {} addresses in {} ms",
+                    result.getRowsRead(), result.getPincodes(), result.getAddresses(), result.getDurationMs());
+            eventPublisher.publishEvent(new GeographyImportedEvent(null));
+            return result;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Sum the coordinates of each pincode into centroids; returns {rows read, rows skipped}
+     */
+    private static long[] readGazetteer(Reader source, Map<String, double[]> centroids) throws IOException {
+        BufferedReader reader = source instanceof BufferedReader ? (BufferedReader) source : new BufferedReader(source);
+        String line = reader.readLine();
+        if (line == null) {
+            throw new ValidationException("Gazetteer file is empty");
+        }
+        boolean geonames = line.indexOf('\t') >= 0;
+        int pincodeAt = 1, latitudeAt = 9, longitudeAt = 10;
+        if (!geonames) {
+            pincodeAt = latitudeAt = longitudeAt = -1;
+            List<String> names = parseCsvLine(line);
+            for (int i = 0; i < names.size(); i++) {
+                String name = names.get(i).toLowerCase(Locale.ROOT).replaceAll("[^a-z]", "");
+                if (name.equals("pincode") || name.equals("postalcode")) {
+                    pincodeAt = i;
+                } else if (name.equals("latitude") || name.equals("lat")) {
+                    latitudeAt = i;
+                } else if (name.equals("longitude") || name.equals("lng") || name.equals("lon")) {
+                    longitudeAt = i;
+                }
+            }
+            if (pincodeAt < 0 || latitudeAt < 0 || longitudeAt < 0) {
+                throw new ValidationException("Gazetteer needs pincode, latitude and longitude columns");
+            }
+            line = reader.readLine();
+        }
+
+        long rowsRead = 0, rowsSkipped = 0;
+        for (; line != null; line = reader.readLine()) {
+            if (line.isBlank()) {
+                continue;
+            }
+            rowsRead++;
+            List<String> fields = geonames ? Arrays.asList(line.split("\t", -1)) : parseCsvLine(line);
+            int needed = Math.max(pincodeAt, Math.max(latitudeAt, longitudeAt));
+            double latitude, longitude;
+            try {
+                if (fields.size() <= needed) {
+                    throw new NumberFormatException();
+                }
+                latitude = Double.parseDouble(fields.get(latitudeAt).trim());
+                longitude = Double.parseDouble(fields.get(longitudeAt).trim());
+            } catch (NumberFormatException e) {
+                rowsSkipped++;
+                continue;
+            }
+            String pincode = fields.get(pincodeAt).trim();
+            if (pincode.isEmpty() || Math.abs(latitude) > 90 || Math.abs(longitude) > 180) {
+                rowsSkipped++;
+                continue;
+            }
+            double[] sums = centroids.computeIfAbsent(pincode, key -> new double[3]);
+            sums[0] += latitude;
+            sums[1] += longitude;
+            sums[2]++;
+        }
+        return new long[]{rowsRead, rowsSkipped};
+    }
+
+    /**
+     * Stream every row into a staging table with COPY, then upsert each reference table from it.
+     * Returns the states, districts, subdistricts, villages and pincodes written.
+     */
+    private long[] copyImport(RowReader rows) {
+        long[] counts = importTransaction.execute(status -> jdbcTemplate.execute((ConnectionCallback<long[]>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(CREATE_STAGING);
+            }
+            CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_STAGING);
+            try {
+                StringBuilder buffer = new StringBuilder(COPY_BUFFER_CHARS + 1024);
+                String[] row;
+                while ((row = rows.next()) != null) {
+                    appendCsv(buffer, row);
+                    if (buffer.length() >= COPY_BUFFER_CHARS) {
+                        writeCopy(copyIn, buffer);
+                    }
+                }
+                writeCopy(copyIn, buffer);
+                copyIn.endCopy();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                if (copyIn.isActive()) {
+                    copyIn.cancelCopy();
+                }
+            }
+
+            try (Statement statement = connection.createStatement()) {
+                // Parents first so the foreign keys of the rows below them are satisfied; orphans are
+                // counted against the parents as they stand just before each level is written
+                long states = statement.executeUpdate(UPSERT_STATES);
+                long orphans = countOrphans(statement, FIRST_DISTRICTS, KNOWN_STATE);
+                long districts = statement.executeUpdate(UPSERT_DISTRICTS);
+                orphans += countOrphans(statement, FIRST_SUBDISTRICTS, KNOWN_DISTRICT);
+                long subdistricts = statement.executeUpdate(UPSERT_SUBDISTRICTS);
+                orphans += countOrphans(statement, FIRST_PINCODES, KNOWN_DISTRICT);
+                long pincodes = statement.executeUpdate(UPSERT_PINCODES);
+                orphans += countOrphans(statement, LAST_VILLAGES, KNOWN_SUBDISTRICT_AND_PINCODE);
+                long villages = statement.executeUpdate(UPSERT_VILLAGES);
+                // ON COMMIT DROP only fires at commit; drop now in case the caller's transaction continues
+                statement.execute("DROP TABLE geography_import");
+                return new long[]{states, districts, subdistricts, villages, pincodes, orphans};
+            }
+        }));
+        // Refresh planner statistics after a bulk change
+        jdbcTemplate.execute("ANALYZE states, districts, subdistricts, pincodes, villages");
+        return counts;
+    }
+
+    private static long countOrphans(Statement statement, String rows, String knownParents) throws SQLException {
+        try (ResultSet count = statement.executeQuery("SELECT count(*) FROM (" + rows + ") g WHERE NOT (" + knownParents + ")")) {
+            count.next();
+            return count.getLong(1);
+        }
+    }
+
+    private static void writeCopy(CopyIn copyIn, StringBuilder buffer) throws SQLException {
+        if (buffer.length() == 0) {
+            return;
+        }
+        byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+        buffer.setLength(0);
+    }
+
+    /**
+     * Append one row in COPY's CSV format: an absent value is an unquoted empty field (NULL)
+     */
+    private static void appendCsv(StringBuilder buffer, String[] row) {
+        for (int i = 0; i < row.length; i++) {
+            if (i > 0) {
+                buffer.append(',');
+            }
+            String value = row[i];
+            if (value != null) {
+                buffer.append('"').append(value.replace("\"", "\"\"")).append('"');
+            }
+        }
+        buffer.append('\n');
+    }
+
+    /**
+     * Write rows in batches of batchSize, each batch in its own transaction.
+     * Returns the states, districts, subdistricts, villages and pincodes written.
+     */
+    private long[] batchImport(RowReader rows) throws IOException {
+        Batch batch = new Batch();
+        String[] row;
+        while ((row = rows.next()) != null) {
+            batch.add(row);
+            if (batch.villages.size() >= batchSize) {
+                flush(batch);
+            }
+        }
+        flush(batch);
+        return new long[]{batch.seenStates.size(), batch.seenDistricts.size() - batch.districtOrphans,
+                batch.seenSubdistricts.size() - batch.subdistrictOrphans, batch.villageCount - batch.villageOrphans,
+                batch.seenPincodes.size() - batch.pincodeOrphans,
+                batch.districtOrphans + batch.subdistrictOrphans + batch.pincodeOrphans + batch.villageOrphans};
+    }
+
+    private void flush(Batch batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        importTransaction.executeWithoutResult(status -> {
+            // Parents first so the foreign keys of the rows below them are satisfied
+            upsert("states", "code", List.of("name_english", "country"), STATE_DEFAULTS, Map.of(), batch.states);
+            batch.districtOrphans += upsert("districts", "code", List.of("state_code", "name_english"),
+                    Map.of(), STATE_PARENT, batch.districts);
+            batch.subdistrictOrphans += upsert("subdistricts", "code", List.of("district_code", "name_english"),
+                    Map.of(), DISTRICT_PARENT, batch.subdistricts);
+            batch.pincodeOrphans += upsert("pincodes", "pincode", List.of("district_code"),
+                    Map.of(), DISTRICT_PARENT, batch.pincodes);
+            batch.villageOrphans += upsert("villages", "code", List.of("subdistrict_code", "name_english", "pincode"),
+                    Map.of(), VILLAGE_PARENTS, batch.villages);
+        });
+        batch.villageCount += batch.villages.size();
+        batch.clear();
+    }
+
+    /**
+     * MERGE rows by key and return how many were skipped because a parent code in parents (column to
+     * "table.key") is not loaded. A value missing from the file (null) never overwrites one already loaded,
+     * and insertDefaults (column to SQL literal) fill it in for new rows only.
+     */
+    private long upsert(String table, String key, List<String> columns, Map<String, String> insertDefaults,
+                        Map<String, String> parents, List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        StringBuilder updates = new StringBuilder();
+        StringBuilder inserts = new StringBuilder("s.").append(key);
+        for (String column : columns) {
+            updates.append(updates.length() == 0 ? "" : ", ")
+                    .append(column).append(" = COALESCE(s.").append(column).append(", t.").append(column).append(')');
+            String insertDefault = insertDefaults.get(column);
+            inserts.append(", ").append(insertDefault == null
+                    ? "s." + column : "COALESCE(s." + column + ", " + insertDefault + ")");
+        }
+        StringBuilder known = new StringBuilder("TRUE");
+        parents.forEach((column, parent) -> {
+            int dot = parent.indexOf('.');
+            known.append(" AND (v.").append(column).append(" IS NULL OR EXISTS (SELECT 1 FROM ")
+                    .append(parent, 0, dot).append(" p WHERE p.").append(parent.substring(dot + 1))
+                    .append(" = v.").append(column).append("))");
+        });
+        String columnList = key + ", " + String.join(", ", columns);
+        String parameters = "CAST(? AS VARCHAR)" + ", CAST(? AS VARCHAR)".repeat(columns.size());
+        String sql = "MERGE INTO " + table + " t USING (SELECT * FROM (VALUES (" + parameters + ")) " +
+                "AS v(" + columnList + ") WHERE " + known + ") AS s ON t." + key + " = s." + key + " " +
+                "WHEN MATCHED THEN UPDATE SET " + updates + " " +
+                "WHEN NOT MATCHED THEN INSERT (" + columnList + ") VALUES (" + inserts + ")";
+
+        long skipped = 0;
+        for (int written : jdbcTemplate.batchUpdate(sql, rows)) {
+            if (written == 0) {
+                skipped++;
+            }
+        }
+        return skipped;
+    }
+
+    /**
+     * Split one CSV line, honouring double-quoted fields and "" escapes (fields do not span lines)
+     */
+    static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+
+    /**
+     * Reads the file line by line into the normalized row layout, skipping rows without a village code or name
+     */
+    private static class RowReader {
+        private final BufferedReader reader;
+        private final int[] positions = new int[COLUMN_COUNT];
+        long rowsRead;
+        long rowsSkipped;
+
+        RowReader(Reader source) throws IOException {
+            this.reader = source instanceof BufferedReader ? (BufferedReader) source : new BufferedReader(source);
+            String header = reader.readLine();
+            if (header == null) {
+                throw new ValidationException("Census directory file is empty");
+            }
+            Arrays.fill(positions, -1);
+            List<String> names = parseCsvLine(header);
+            for (int i = 0; i < names.size(); i++) {
+                Integer column = HEADER_ALIASES.get(names.get(i).toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]", ""));
+                if (column != null && positions[column] < 0) {
+                    positions[column] = i;
+                }
+            }
+            if (positions[VILLAGE_CODE] < 0 || positions[VILLAGE_NAME] < 0) {
+                throw new ValidationException("Census directory needs village code and village name columns");
+            }
+        }
+
+        String[] next() throws IOException {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                rowsRead++;
+                List<String> fields = parseCsvLine(line);
+                String[] row = new String[COLUMN_COUNT];
+                for (int column = 0; column < COLUMN_COUNT; column++) {
+                    int position = positions[column];
+                    if (position >= 0 && position < fields.size()) {
+                        String value = fields.get(position).trim();
+                        row[column] = value.isEmpty() ? null : value;
+                    }
+                }
+                if (row[VILLAGE_CODE] == null || row[VILLAGE_NAME] == null) {
+                    rowsSkipped++;
+                    continue;
+                }
+                return row;
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Rows pending for the next flush. Parent codes are remembered for the whole run (a few thousand)
+     * so each state, district and sub-district is written once rather than once per village.
+     */
+    private static class Batch {
+        final List<Object[]> states = new ArrayList<>();
+        final List<Object[]> districts = new ArrayList<>();
+        final List<Object[]> subdistricts = new ArrayList<>();
+        final List<Object[]> pincodes = new ArrayList<>();
+        final List<Object[]> villages = new ArrayList<>();
+        final Set<String> seenStates = new HashSet<>();
+        final Set<String> seenDistricts = new HashSet<>();
+        final Set<String> seenSubdistricts = new HashSet<>();
+        final Set<String> seenPincodes = new HashSet<>();
+        long villageCount;
+        long districtOrphans;
+        long subdistrictOrphans;
+        long pincodeOrphans;
+        long villageOrphans;
+
+        void add(String[] row) {
+            // Parents are written from the first row that names them; rows without the name only refer to them
+            if (row[STATE_CODE] != null && row[STATE_NAME] != null && seenStates.add(row[STATE_CODE])) {
+                states.add(new Object[]{row[STATE_CODE], row[STATE_NAME], row[COUNTRY]});
+            }
+            if (row[DISTRICT_CODE] != null && row[DISTRICT_NAME] != null && seenDistricts.add(row[DISTRICT_CODE])) {
+                districts.add(new Object[]{row[DISTRICT_CODE], row[STATE_CODE], row[DISTRICT_NAME]});
+            }
+            if (row[SUBDISTRICT_CODE] != null && row[SUBDISTRICT_NAME] != null && seenSubdistricts.add(row[SUBDISTRICT_CODE])) {
+                subdistricts.add(new Object[]{row[SUBDISTRICT_CODE], row[DISTRICT_CODE], row[SUBDISTRICT_NAME]});
+            }
+            if (row[PINCODE] != null && seenPincodes.add(row[PINCODE])) {
+                pincodes.add(new Object[]{row[PINCODE], row[DISTRICT_CODE]});
+            }
+            villages.add(new Object[]{row[VILLAGE_CODE], row[SUBDISTRICT_CODE], row[VILLAGE_NAME], row[PINCODE]});
+        }
+
+        boolean isEmpty() {
+            return states.isEmpty() && districts.isEmpty() && subdistricts.isEmpty()
+                    && pincodes.isEmpty() && villages.isEmpty();
+        }
+
+        void clear() {
+            states.clear();
+            districts.clear();
+            subdistricts.clear();
+            pincodes.clear();
+            villages.clear();
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.namhatta.service;
 import com.namhatta.model.entity.Gurudev;
 import com.namhatta.repository.GurudevRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -19,6 +20,7 @@ public class GurudevService {
         return gurudevRepository.findAll();
     }
 
+    @Transactional
     public Gurudev createGurudev(String name, String title) {
         Gurudev gurudev = new Gurudev();
         gurudev.setName(name);
@@ -0,0 +1,373 @@
+package com.namhatta.service;
+
+import com.namhatta.exception.ValidationException;
+import com.namhatta.model.entity.NamhattaUpdate;
+import com.namhatta.model.enums.ActivityMetric;
+import com.namhatta.model.enums.RollupPeriod;
+import com.namhatta.repository.NamhattaUpdateRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory top-K namhatta leaderboards for the current week and month, per activity metric,
+ * for all namhattas and per district and state.
+ *
+ * Period totals only ever grow, so a namhatta that drops out of a bounded top-K set can only
+ * re-enter through its own update, whose full total is kept alongside. Reads return a
+ * precomputed snapshot without locking.
+ */
+@Service
+public class LeaderboardService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LeaderboardService.class);
+
+    private static final String ALL_REGIONS = "ALL";
+    private static final String DISTRICT_PREFIX = "D:";
+    private static final String STATE_PREFIX = "S:";
+    private static final int DEFAULT_LIMIT = 20;
+    private static final ActivityMetric[] METRICS = ActivityMetric.values();
+
+    private final NamhattaUpdateRepository namhattaUpdateRepository;
+    private final int capacity;
+    private final Map<RollupPeriod, PeriodBoards> boards = new ConcurrentHashMap<>();
+    // Rebuilds query the database, so they are serialized with a ReentrantLock rather than
+    // synchronized to avoid pinning carrier threads in virtual-thread mode
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    public LeaderboardService(NamhattaUpdateRepository namhattaUpdateRepository,
+                              @Value("${leaderboards.size:50}") int capacity) {
+        this.namhattaUpdateRepository = namhattaUpdateRepository;
+        this.capacity = capacity;
+    }
+
+    public static class LeaderboardEntry {
+        private final int rank;
+        private final Long namhattaId;
+        private final long value;
+
+        public LeaderboardEntry(int rank, Long namhattaId, long value) {
+            this.rank = rank;
+            this.namhattaId = namhattaId;
+            this.value = value;
+        }
+
+        public int getRank() { return rank; }
+        public Long getNamhattaId() { return namhattaId; }
+        public long getValue() { return value; }
+    }
+
+    public static class Leaderboard {
+        private final ActivityMetric metric;
+        private final RollupPeriod period;
+        private final String region;
+        private final LocalDate periodStart;
+        private final List<LeaderboardEntry> entries;
+
+        public Leaderboard(ActivityMetric metric, RollupPeriod period, String region,
+                           LocalDate periodStart, List<LeaderboardEntry> entries) {
+            this.metric = metric;
+            this.period = period;
+            this.region = region;
+            this.periodStart = periodStart;
+            this.entries = entries;
+        }
+
+        public ActivityMetric getMetric() { return metric; }
+        public RollupPeriod getPeriod() { return period; }
+        public String getRegion() { return region; }
+        public LocalDate getPeriodStart() { return periodStart; }
+        public List<LeaderboardEntry> getEntries() { return entries; }
+    }
+
+    /**
+     * Add a new update to the current-period boards once the surrounding transaction commits
+     */
+    public void recordUpdate(NamhattaUpdate update, String districtCode, String stateCode) {
+        if (update.getProgramDate() == null) {
+            return;
+        }
+        long[] delta = metricValues(update);
+        Runnable apply = () -> apply(update.getNamhattaId(), update.getProgramDate(), districtCode, stateCode, delta);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+            });
+        } else {
+            apply.run();
+        }
+    }
+
+    /**
+     * Top namhattas for a metric in the current period; region is null for all namhattas
+     */
+    public Leaderboard getLeaderboard(String metric, String period, String districtCode, String stateCode,
+                                      Integer limit) {
+        ActivityMetric activityMetric = parseEnum(ActivityMetric.class, metric, "metric");
+        RollupPeriod rollupPeriod = parseEnum(RollupPeriod.class, period, "period");
+        if (districtCode != null && stateCode != null) {
+            throw new ValidationException("Only one of district or state may be given");
+        }
+        int size = limit == null ? DEFAULT_LIMIT : Math.max(1, Math.min(limit, capacity));
+
+        String region = districtCode != null ? DISTRICT_PREFIX + districtCode
+                : stateCode != null ? STATE_PREFIX + stateCode
+                : ALL_REGIONS;
+        PeriodBoards periodBoards = currentBoards(rollupPeriod);
+        RegionBoard board = periodBoards.regions.get(region);
+        List<LeaderboardEntry> entries = board == null
+                ? Collections.emptyList()
+                : board.top(activityMetric.ordinal(), size);
+
+        return new Leaderboard(activityMetric, rollupPeriod, region, periodBoards.bucketStart, entries);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        try {
+            rebuildAll();
+        } catch (RuntimeException e) {
+            // Boards are rebuilt lazily on first use if the database is not reachable yet
+            logger.warn("Could not build leaderboards on startup: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Rebuild the current week and month from the database.
+     * Runs daily just after midnight so boards roll over at period boundaries and any drift is corrected
+     */
+    @Scheduled(cron = "${leaderboards.rebuild-cron:30 0 0 * * ?}")
+    public void rebuildAll() {
+        for (RollupPeriod period : RollupPeriod.values()) {
+            rebuild(period, period.bucketStart(LocalDate.now()));
+        }
+    }
+
+    private void apply(Long namhattaId, LocalDate programDate, String districtCode, String stateCode, long[] delta) {
+        for (RollupPeriod period : RollupPeriod.values()) {
+            PeriodBoards periodBoards = currentBoards(period);
+            // Back-dated or future-dated programs outside the current period are not ranked
+            if (!periodBoards.bucketStart.equals(period.bucketStart(programDate))) {
+                continue;
+            }
+            periodBoards.board(ALL_REGIONS).add(namhattaId, delta);
+            if (districtCode != null) {
+                periodBoards.board(DISTRICT_PREFIX + districtCode).add(namhattaId, delta);
+            }
+            if (stateCode != null) {
+                periodBoards.board(STATE_PREFIX + stateCode).add(namhattaId, delta);
+            }
+        }
+    }
+
+    private PeriodBoards currentBoards(RollupPeriod period) {
+        LocalDate bucketStart = period.bucketStart(LocalDate.now());
+        PeriodBoards periodBoards = boards.get(period);
+        if (periodBoards == null || !periodBoards.bucketStart.equals(bucketStart)) {
+            periodBoards = rollOver(period, bucketStart);
+        }
+        return periodBoards;
+    }
+
+    private PeriodBoards rollOver(RollupPeriod period, LocalDate bucketStart) {
+        rebuildLock.lock();
+        try {
+            // Another thread may have rolled the period over while this one waited
+            PeriodBoards existing = boards.get(period);
+            if (existing != null && existing.bucketStart.equals(bucketStart)) {
+                return existing;
+            }
+            return load(period, bucketStart);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private PeriodBoards rebuild(RollupPeriod period, LocalDate bucketStart) {
+        rebuildLock.lock();
+        try {
+            return load(period, bucketStart);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private PeriodBoards load(RollupPeriod period, LocalDate bucketStart) {
+        PeriodBoards periodBoards = new PeriodBoards(bucketStart, capacity);
+        List<Object[]> rows = namhattaUpdateRepository.sumActivityByNamhatta(bucketStart, period.bucketEnd(bucketStart));
+        for (Object[] row : rows) {
+            Long namhattaId = ((Number) row[0]).longValue();
+            String districtCode = (String) row[1];
+            String stateCode = (String) row[2];
+            long[] totals = new long[METRICS.length];
+            for (int i = 0; i < METRICS.length; i++) {
+                totals[i] = row[3 + i] == null ? 0L : ((Number) row[3 + i]).longValue();
+            }
+            periodBoards.board(ALL_REGIONS).add(namhattaId, totals);
+            if (districtCode != null) {
+                periodBoards.board(DISTRICT_PREFIX + districtCode).add(namhattaId, totals);
+            }
+            if (stateCode != null) {
+                periodBoards.board(STATE_PREFIX + stateCode).add(namhattaId, totals);
+            }
+        }
+        boards.put(period, periodBoards);
+
+        logger.info("Built {} {} leaderboards starting {} from {} namhattas",
+                periodBoards.regions.size(), period, bucketStart, rows.size());
+        return periodBoards;
+    }
+
+    private long[] metricValues(NamhattaUpdate update) {
+        long[] values = new long[METRICS.length];
+        values[ActivityMetric.ATTENDANCE.ordinal()] = valueOf(update.getAttendance());
+        values[ActivityMetric.PRASAD_DISTRIBUTION.ordinal()] = valueOf(update.getPrasadDistribution());
+        values[ActivityMetric.NAGAR_KIRTAN.ordinal()] = valueOf(update.getNagarKirtan());
+        values[ActivityMetric.BOOK_DISTRIBUTION.ordinal()] = valueOf(update.getBookDistribution());
+        values[ActivityMetric.CHANTING.ordinal()] = valueOf(update.getChanting());
+        values[ActivityMetric.ARATI.ordinal()] = valueOf(update.getArati());
+        values[ActivityMetric.BHAGWAT_PATH.ordinal()] = valueOf(update.getBhagwatPath());
+        return values;
+    }
+
+    private long valueOf(Integer value) {
+        return value == null ? 0L : value;
+    }
+
+    private <E extends Enum<E>> E parseEnum(Class<E> type, String value, String name) {
+        if (value == null || value.trim().isEmpty()) {
+            throw new ValidationException(name + " is required");
+        }
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Invalid " + name + ": " + value, e);
+        }
+    }
+
+    /**
+     * All region boards for one week or month
+     */
+    private static final class PeriodBoards {
+        private final LocalDate bucketStart;
+        private final int capacity;
+        private final Map<String, RegionBoard> regions = new ConcurrentHashMap<>();
+
+        private PeriodBoards(LocalDate bucketStart, int capacity) {
+            this.bucketStart = bucketStart;
+            this.capacity = capacity;
+        }
+
+        private RegionBoard board(String region) {
+            return regions.computeIfAbsent(region, key -> new RegionBoard(capacity));
+        }
+    }
+
+    /**
+     * Period totals of every namhatta in one region plus a bounded ranking per metric.
+     * Writers synchronize on the board; the critical section is in-memory only and never blocks.
+     */
+    private static final class RegionBoard {
+        private static final Comparator<Ranked> ORDER = Comparator
+                .comparingLong((Ranked r) -> r.value).reversed()
+                .thenComparingLong(r -> r.namhattaId);
+
+        private final int capacity;
+        private final Map<Long, long[]> totals = new HashMap<>();
+        private final List<TreeSet<Ranked>> rankings = new ArrayList<>();
+        private final List<Map<Long, Ranked>> members = new ArrayList<>();
+        private final AtomicReferenceArray<List<LeaderboardEntry>> snapshots =
+                new AtomicReferenceArray<>(METRICS.length);
+
+        private RegionBoard(int capacity) {
+            this.capacity = capacity;
+            for (int i = 0; i < METRICS.length; i++) {
+                rankings.add(new TreeSet<>(ORDER));
+                members.add(new HashMap<>());
+                snapshots.set(i, Collections.emptyList());
+            }
+        }
+
+        private synchronized void add(Long namhattaId, long[] delta) {
+            long[] total = totals.computeIfAbsent(namhattaId, key -> new long[METRICS.length]);
+            for (int metric = 0; metric < METRICS.length; metric++) {
+                total[metric] += delta[metric];
+                if (offer(metric, namhattaId, total[metric])) {
+                    snapshots.set(metric, snapshot(metric));
+                }
+            }
+        }
+
+        private boolean offer(int metric, Long namhattaId, long value) {
+            TreeSet<Ranked> ranking = rankings.get(metric);
+            Map<Long, Ranked> ranked = members.get(metric);
+
+            Ranked current = ranked.get(namhattaId);
+            if (current != null) {
+                if (current.value == value) {
+                    return false;
+                }
+                ranking.remove(current);
+                current.value = value;
+                ranking.add(current);
+                return true;
+            }
+
+            Ranked candidate = new Ranked(namhattaId, value);
+            if (ranking.size() < capacity) {
+                ranking.add(candidate);
+                ranked.put(namhattaId, candidate);
+                return true;
+            }
+            Ranked last = ranking.last();
+            if (ORDER.compare(candidate, last) < 0) {
+                ranking.pollLast();
+                ranked.remove(last.namhattaId);
+                ranking.add(candidate);
+                ranked.put(namhattaId, candidate);
+                return true;
+            }
+            return false;
+        }
+
+        private List<LeaderboardEntry> snapshot(int metric) {
+            List<LeaderboardEntry> entries = new ArrayList<>(rankings.get(metric).size());
+            int rank = 1;
+            for (Ranked r : rankings.get(metric)) {
+                entries.add(new LeaderboardEntry(rank++, r.namhattaId, r.value));
+            }
+            return Collections.unmodifiableList(entries);
+        }
+
+        private List<LeaderboardEntry> top(int metric, int limit) {
+            List<LeaderboardEntry> entries = snapshots.get(metric);
+            return entries.size() <= limit ? entries : entries.subList(0, limit);
+        }
+    }
+
+    private static final class Ranked {
+        private final Long namhattaId;
+        private long value;
+
+        private Ranked(Long namhattaId, long value) {
+            this.namhattaId = namhattaId;
+            this.value = value;
+        }
+    }
+}
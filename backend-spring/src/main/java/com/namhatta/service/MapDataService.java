@@ -4,6 +4,7 @@ import com.namhatta.repository.AddressRepository;
 import com.namhatta.repository.NamhattaAddressRepository;
 import com.namhatta.repository.NamhattaRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -11,6 +12,7 @@ import java.util.List;
 import java.util.Map;
 
 @Service
+@Transactional(readOnly = true)
 public class MapDataService {
 
     private final NamhattaRepository namhattaRepository;
@@ -0,0 +1,564 @@
+package com.namhatta.service;
+
+import com.namhatta.exception.ValidationException;
+import com.namhatta.model.enums.NamhattaStatus;
+import com.namhatta.repository.NamhattaAddressRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory spatial index of approved namhattas for the map.
+ *
+ * Points are sorted by the Z-order (Morton) key of their Web Mercator cell at the finest zoom, so every
+ * cell at every coarser zoom is a contiguous run of points. Each zoom keeps the sorted keys of its
+ * non-empty cells and where their runs start; with prefix sums of the coordinates a cluster's count and
+ * centroid are read in O(1). Clusters are 64 px cells of 256 px tiles.
+ *
+ * Nearest-namhatta lookups use a KD-tree over the points as unit vectors on the sphere, where straight-line
+ * distance orders points the same way as great-circle distance. Reads use an immutable snapshot without
+ * locking; changes mark the index stale and it is rebuilt off the request path.
+ */
+@Service
+public class NamhattaLocationIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(NamhattaLocationIndex.class);
+
+    // Web Mercator stops at this latitude
+    private static final double MAX_LATITUDE = 85.05112878;
+    // 4 x 4 cluster cells per 256 px tile
+    private static final int CELL_BITS_PER_TILE = 2;
+    // Mean Earth radius
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final int DEFAULT_NEAREST = 5;
+    private static final int MAX_NEAREST = 50;
+
+    private final NamhattaAddressRepository namhattaAddressRepository;
+    private final int maxZoom;
+    // The startup load and the scheduled refresh can overlap; only one of them loads the locations
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private volatile Snapshot snapshot;
+    private volatile boolean stale = true;
+
+    public NamhattaLocationIndex(NamhattaAddressRepository namhattaAddressRepository,
+                                 @Value("${map.clusters.max-zoom:16}") int maxZoom) {
+        if (maxZoom < 0 || maxZoom > 29) {
+            throw new IllegalArgumentException("map.clusters.max-zoom must be between 0 and 29");
+        }
+        this.namhattaAddressRepository = namhattaAddressRepository;
+        this.maxZoom = maxZoom;
+        this.snapshot = build(List.of(), maxZoom);
+    }
+
+    public static class Cluster {
+        private final double latitude;
+        private final double longitude;
+        private final int count;
+        private final Long namhattaId;
+        private final String name;
+
+        public Cluster(double latitude, double longitude, int count, Long namhattaId, String name) {
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.count = count;
+            this.namhattaId = namhattaId;
+            this.name = name;
+        }
+
+        public double getLatitude() { return latitude; }
+        public double getLongitude() { return longitude; }
+        public int getCount() { return count; }
+        // Only set when the cluster is a single namhatta
+        public Long getNamhattaId() { return namhattaId; }
+        public String getName() { return name; }
+    }
+
+    public static class NearbyNamhatta {
+        private final Long namhattaId;
+        private final String name;
+        private final double latitude;
+        private final double longitude;
+        private final double distanceKm;
+
+        public NearbyNamhatta(Long namhattaId, String name, double latitude, double longitude, double distanceKm) {
+            this.namhattaId = namhattaId;
+            this.name = name;
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.distanceKm = distanceKm;
+        }
+
+        public Long getNamhattaId() { return namhattaId; }
+        public String getName() { return name; }
+        public double getLatitude() { return latitude; }
+        public double getLongitude() { return longitude; }
+        // Great-circle distance, rounded to the metre
+        public double getDistanceKm() { return distanceKm; }
+    }
+
+    /**
+     * The k approved namhattas closest to a point, nearest first; k defaults to 5 and is capped at 50
+     */
+    public List<NearbyNamhatta> findNearest(double latitude, double longitude, Integer k) {
+        int limit = k == null ? DEFAULT_NEAREST : Math.max(1, Math.min(k, MAX_NEAREST));
+        return snapshot.nearest(latitude, longitude, limit);
+    }
+
+    /**
+     * Clusters of approved namhattas in a viewport.
+     * bbox is "minLng,minLat,maxLng,maxLat"; minLng greater than maxLng crosses the antimeridian.
+     * Zooms above map.clusters.max-zoom use the finest level.
+     */
+    public List<Cluster> getClusters(String bbox, int zoom) {
+        double[] box = parseBbox(bbox);
+        if (zoom < 0) {
+            throw new ValidationException("zoom must not be negative");
+        }
+        int level = Math.min(zoom, maxZoom);
+        int size = 1 << (level + CELL_BITS_PER_TILE);
+
+        Snapshot current = snapshot;
+        long[] keys = current.keys[level];
+        int[] starts = current.starts[level];
+
+        int minY = cellY(box[3], size);
+        int maxY = cellY(box[1], size);
+        int[][] xRanges;
+        if (box[2] - box[0] >= 360) {
+            xRanges = new int[][]{{0, size - 1}};
+        } else if (box[0] <= box[2]) {
+            xRanges = new int[][]{{cellX(box[0], size), cellX(box[2], size)}};
+        } else {
+            xRanges = new int[][]{{cellX(box[0], size), size - 1}, {0, cellX(box[2], size)}};
+        }
+
+        long cells = 0;
+        for (int[] range : xRanges) {
+            cells += (long) (range[1] - range[0] + 1) * (maxY - minY + 1);
+        }
+
+        List<Cluster> clusters = new ArrayList<>();
+        if (cells <= keys.length) {
+            // Small viewport: look each cell up
+            for (int[] range : xRanges) {
+                for (int y = minY; y <= maxY; y++) {
+                    for (int x = range[0]; x <= range[1]; x++) {
+                        int cell = Arrays.binarySearch(keys, interleave(x, y));
+                        if (cell >= 0) {
+                            clusters.add(current.cluster(starts[cell], starts[cell + 1]));
+                        }
+                    }
+                }
+            }
+        } else {
+            // Viewport has more cells than the level has clusters: scan the level
+            for (int cell = 0; cell < keys.length; cell++) {
+                int x = deinterleave(keys[cell]);
+                int y = deinterleave(keys[cell] >>> 1);
+                if (y < minY || y > maxY) {
+                    continue;
+                }
+                for (int[] range : xRanges) {
+                    if (x >= range[0] && x <= range[1]) {
+                        clusters.add(current.cluster(starts[cell], starts[cell + 1]));
+                        break;
+                    }
+                }
+            }
+        }
+        return clusters;
+    }
+
+    /**
+     * Mark the index stale once the surrounding transaction commits; the next refresh rebuilds it
+     */
+    public void invalidate() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    stale = true;
+                }
+            });
+        } else {
+            stale = true;
+        }
+    }
+
+    @EventListener(GeographyImportService.GeographyImportedEvent.class)
+    public void onGeographyImported() {
+        invalidate();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            // Stays stale, so the scheduled refresh retries
+            logger.warn("Could not build the namhatta location index on startup: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${map.clusters.refresh-ms:5000}")
+    public void refreshIfStale() {
+        if (stale) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Reload approved namhatta locations and swap in a new snapshot
+     */
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            // Cleared first so an invalidation during the load triggers another rebuild
+            stale = false;
+            try {
+                List<Object[]> rows = namhattaAddressRepository.findLocationsByStatus(NamhattaStatus.APPROVED);
+                snapshot = build(rows, maxZoom);
+                logger.debug("Namhatta location index rebuilt with {} namhattas", rows.size());
+            } catch (RuntimeException e) {
+                stale = true;
+                throw e;
+            }
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private static Snapshot build(List<Object[]> rows, int maxZoom) {
+        int n = rows.size();
+        int finestSize = 1 << (maxZoom + CELL_BITS_PER_TILE);
+        long[] pointKeys = new long[n];
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            Object[] row = rows.get(i);
+            pointKeys[i] = interleave(cellX((Double) row[3], finestSize), cellY((Double) row[2], finestSize));
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingLong(i -> pointKeys[i]));
+
+        Snapshot snapshot = new Snapshot(n, maxZoom);
+        long[] sortedKeys = new long[n];
+        for (int i = 0; i < n; i++) {
+            Object[] row = rows.get(order[i]);
+            snapshot.ids[i] = ((Number) row[0]).longValue();
+            snapshot.names[i] = (String) row[1];
+            snapshot.latitudes[i] = (Double) row[2];
+            snapshot.longitudes[i] = (Double) row[3];
+            snapshot.latitudeSums[i + 1] = snapshot.latitudeSums[i] + snapshot.latitudes[i];
+            snapshot.longitudeSums[i + 1] = snapshot.longitudeSums[i] + snapshot.longitudes[i];
+            sortedKeys[i] = pointKeys[order[i]];
+        }
+
+        // Finest level from the points, each coarser level by merging runs of its parent's keys
+        int[] pointStarts = new int[n + 1];
+        for (int i = 0; i <= n; i++) {
+            pointStarts[i] = i;
+        }
+        long[] keys = sortedKeys;
+        int[] starts = pointStarts;
+        for (int zoom = maxZoom; zoom >= 0; zoom--) {
+            int shift = zoom == maxZoom ? 0 : 2;
+            long[] levelKeys = new long[keys.length];
+            int[] levelStarts = new int[keys.length + 1];
+            int cells = 0;
+            for (int i = 0; i < keys.length; i++) {
+                long key = keys[i] >>> shift;
+                if (cells == 0 || levelKeys[cells - 1] != key) {
+                    levelKeys[cells] = key;
+                    levelStarts[cells] = starts[i];
+                    cells++;
+                }
+            }
+            levelStarts[cells] = n;
+            snapshot.keys[zoom] = Arrays.copyOf(levelKeys, cells);
+            snapshot.starts[zoom] = Arrays.copyOf(levelStarts, cells + 1);
+            keys = snapshot.keys[zoom];
+            starts = snapshot.starts[zoom];
+        }
+
+        // Implicit KD-tree: the root of a slot range [from, to) is its middle slot, split on x, y, z by depth
+        double[] unit = new double[3 * n];
+        int[] points = new int[n];
+        for (int i = 0; i < n; i++) {
+            toUnitVector(snapshot.latitudes[i], snapshot.longitudes[i], unit, 3 * i);
+            points[i] = i;
+        }
+        buildKdTree(points, unit, 0, n, 0);
+        for (int slot = 0; slot < n; slot++) {
+            snapshot.kdPoints[slot] = points[slot];
+            System.arraycopy(unit, 3 * points[slot], snapshot.kdCoordinates, 3 * slot, 3);
+        }
+        return snapshot;
+    }
+
+    private static void buildKdTree(int[] points, double[] unit, int from, int to, int axis) {
+        if (to - from <= 1) {
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        select(points, unit, from, to - 1, mid, axis);
+        buildKdTree(points, unit, from, mid, (axis + 1) % 3);
+        buildKdTree(points, unit, mid + 1, to, (axis + 1) % 3);
+    }
+
+    /**
+     * Quickselect the point with the given rank on one axis into place. Three-way partitioning keeps it
+     * linear when many namhattas share a pincode centroid.
+     */
+    private static void select(int[] points, double[] unit, int left, int right, int rank, int axis) {
+        while (left < right) {
+            double pivot = unit[3 * points[(left + right) >>> 1] + axis];
+            int lower = left, i = left, upper = right;
+            while (i <= upper) {
+                double value = unit[3 * points[i] + axis];
+                if (value < pivot) {
+                    swap(points, lower++, i++);
+                } else if (value > pivot) {
+                    swap(points, i, upper--);
+                } else {
+                    i++;
+                }
+            }
+            if (rank < lower) {
+                right = lower - 1;
+            } else if (rank > upper) {
+                left = upper + 1;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private static void swap(int[] values, int a, int b) {
+        int value = values[a];
+        values[a] = values[b];
+        values[b] = value;
+    }
+
+    private static void toUnitVector(double latitude, double longitude, double[] target, int offset) {
+        double lat = Math.toRadians(latitude);
+        double lng = Math.toRadians(longitude);
+        target[offset] = Math.cos(lat) * Math.cos(lng);
+        target[offset + 1] = Math.cos(lat) * Math.sin(lng);
+        target[offset + 2] = Math.sin(lat);
+    }
+
+    private static double[] parseBbox(String bbox) {
+        String[] parts = bbox == null ? new String[0] : bbox.split(",");
+        if (parts.length != 4) {
+            throw new ValidationException("bbox must be minLng,minLat,maxLng,maxLat");
+        }
+        double[] box = new double[4];
+        for (int i = 0; i < 4; i++) {
+            try {
+                box[i] = Double.parseDouble(parts[i].trim());
+            } catch (NumberFormatException e) {
+                throw new ValidationException("bbox must be minLng,minLat,maxLng,maxLat");
+            }
+            if (!Double.isFinite(box[i])) {
+                throw new ValidationException("bbox must be minLng,minLat,maxLng,maxLat");
+            }
+        }
+        if (box[1] > box[3] || box[1] < -90 || box[3] > 90) {
+            throw new ValidationException("bbox latitudes must be within [-90, 90] with minLat <= maxLat");
+        }
+        return box;
+    }
+
+    private static int cellX(double longitude, int size) {
+        double x = (Math.max(-180, Math.min(180, longitude)) + 180) / 360;
+        return Math.min((int) (x * size), size - 1);
+    }
+
+    private static int cellY(double latitude, int size) {
+        double sin = Math.sin(Math.toRadians(Math.max(-MAX_LATITUDE, Math.min(MAX_LATITUDE, latitude))));
+        double y = 0.5 - Math.log((1 + sin) / (1 - sin)) / (4 * Math.PI);
+        return Math.max(0, Math.min((int) (y * size), size - 1));
+    }
+
+    // Morton key: bits of x at even positions, bits of y at odd positions
+    private static long interleave(int x, int y) {
+        return spread(x) | (spread(y) << 1);
+    }
+
+    private static long spread(int value) {
+        long v = value & 0xFFFFFFFFL;
+        v = (v | (v << 16)) & 0x0000FFFF0000FFFFL;
+        v = (v | (v << 8)) & 0x00FF00FF00FF00FFL;
+        v = (v | (v << 4)) & 0x0F0F0F0F0F0F0F0FL;
+        v = (v | (v << 2)) & 0x3333333333333333L;
+        v = (v | (v << 1)) & 0x5555555555555555L;
+        return v;
+    }
+
+    private static int deinterleave(long key) {
+        long v = key & 0x5555555555555555L;
+        v = (v | (v >>> 1)) & 0x3333333333333333L;
+        v = (v | (v >>> 2)) & 0x0F0F0F0F0F0F0F0FL;
+        v = (v | (v >>> 4)) & 0x00FF00FF00FF00FFL;
+        v = (v | (v >>> 8)) & 0x0000FFFF0000FFFFL;
+        v = (v | (v >>> 16)) & 0x00000000FFFFFFFFL;
+        return (int) v;
+    }
+
+    private static final class Snapshot {
+        final long[] ids;
+        final String[] names;
+        final double[] latitudes;
+        final double[] longitudes;
+        // Prefix sums over the Z-ordered points, for cluster centroids
+        final double[] latitudeSums;
+        final double[] longitudeSums;
+        // Per zoom: sorted keys of the non-empty cells and where each cell's run of points starts
+        final long[][] keys;
+        final int[][] starts;
+        // KD-tree slots: the point in each slot and its unit vector
+        final int[] kdPoints;
+        final double[] kdCoordinates;
+
+        Snapshot(int n, int maxZoom) {
+            ids = new long[n];
+            names = new String[n];
+            latitudes = new double[n];
+            longitudes = new double[n];
+            latitudeSums = new double[n + 1];
+            longitudeSums = new double[n + 1];
+            keys = new long[maxZoom + 1][];
+            starts = new int[maxZoom + 1][];
+            kdPoints = new int[n];
+            kdCoordinates = new double[3 * n];
+        }
+
+        List<NearbyNamhatta> nearest(double latitude, double longitude, int k) {
+            NearestSearch search = new NearestSearch(this, latitude, longitude, Math.min(k, ids.length));
+            search.visit(0, ids.length, 0);
+            return search.results();
+        }
+
+        Cluster cluster(int from, int to) {
+            int count = to - from;
+            if (count == 1) {
+                return new Cluster(latitudes[from], longitudes[from], 1, ids[from], names[from]);
+            }
+            return new Cluster((latitudeSums[to] - latitudeSums[from]) / count,
+                    (longitudeSums[to] - longitudeSums[from]) / count, count, null, null);
+        }
+    }
+
+    /**
+     * Branch-and-bound k-nearest search, keeping the best k so far in a max-heap on squared chord length
+     */
+    private static final class NearestSearch {
+        private final Snapshot snapshot;
+        private final double[] query = new double[3];
+        private final int[] heapSlots;
+        private final double[] heapDistances;
+        private int size;
+
+        NearestSearch(Snapshot snapshot, double latitude, double longitude, int k) {
+            this.snapshot = snapshot;
+            toUnitVector(latitude, longitude, query, 0);
+            heapSlots = new int[k];
+            heapDistances = new double[k];
+        }
+
+        void visit(int from, int to, int axis) {
+            if (from >= to || heapSlots.length == 0) {
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            double[] coordinates = snapshot.kdCoordinates;
+            double dx = query[0] - coordinates[3 * mid];
+            double dy = query[1] - coordinates[3 * mid + 1];
+            double dz = query[2] - coordinates[3 * mid + 2];
+            offer(mid, dx * dx + dy * dy + dz * dz);
+
+            double split = query[axis] - coordinates[3 * mid + axis];
+            int next = (axis + 1) % 3;
+            if (split < 0) {
+                visit(from, mid, next);
+                if (split * split < worst()) {
+                    visit(mid + 1, to, next);
+                }
+            } else {
+                visit(mid + 1, to, next);
+                if (split * split < worst()) {
+                    visit(from, mid, next);
+                }
+            }
+        }
+
+        private double worst() {
+            return size < heapSlots.length ? Double.POSITIVE_INFINITY : heapDistances[0];
+        }
+
+        private void offer(int slot, double distance) {
+            int i;
+            if (size < heapSlots.length) {
+                // Sift up from the new leaf
+                i = size++;
+                while (i > 0 && heapDistances[(i - 1) / 2] < distance) {
+                    heapSlots[i] = heapSlots[(i - 1) / 2];
+                    heapDistances[i] = heapDistances[(i - 1) / 2];
+                    i = (i - 1) / 2;
+                }
+            } else if (distance < heapDistances[0]) {
+                // Replace the farthest and sift down
+                i = 0;
+                while (true) {
+                    int child = 2 * i + 1;
+                    if (child >= size) {
+                        break;
+                    }
+                    if (child + 1 < size && heapDistances[child + 1] > heapDistances[child]) {
+                        child++;
+                    }
+                    if (heapDistances[child] <= distance) {
+                        break;
+                    }
+                    heapSlots[i] = heapSlots[child];
+                    heapDistances[i] = heapDistances[child];
+                    i = child;
+                }
+            } else {
+                return;
+            }
+            heapSlots[i] = slot;
+            heapDistances[i] = distance;
+        }
+
+        List<NearbyNamhatta> results() {
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, Comparator.comparingDouble(i -> heapDistances[i]));
+
+            List<NearbyNamhatta> results = new ArrayList<>(size);
+            for (int i : order) {
+                int point = snapshot.kdPoints[heapSlots[i]];
+                // Chord length on the unit sphere to great-circle distance
+                double km = 2 * Math.asin(Math.min(1, Math.sqrt(heapDistances[i]) / 2)) * EARTH_RADIUS_KM;
+                results.add(new NearbyNamhatta(snapshot.ids[point], snapshot.names[point],
+                        snapshot.latitudes[point], snapshot.longitudes[point], Math.round(km * 1000) / 1000.0));
+            }
+            return results;
+        }
+    }
+}
@@ -4,8 +4,12 @@ import com.namhatta.dto.AddressData;
 import com.namhatta.dto.ApproveNamhattaRequest;
 import com.namhatta.dto.CreateNamhattaRequest;
 import com.namhatta.dto.DevoteeDTO;
+import com.namhatta.dto.GeographyCodes;
+import com.namhatta.dto.GeographyFilter;
 import com.namhatta.dto.NamhattaDTO;
+import com.namhatta.dto.NamhattaSummary;
 import com.namhatta.dto.UpdateNamhattaRequest;
+import com.namhatta.exception.ValidationException;
 import com.namhatta.model.entity.Devotee;
 import com.namhatta.model.entity.Namhatta;
 import com.namhatta.model.entity.NamhattaAddress;
@@ -20,15 +24,18 @@ import com.namhatta.repository.NamhattaRepository;
 import com.namhatta.repository.NamhattaUpdateRepository;
 import com.namhatta.repository.StatusHistoryRepository;
 import com.namhatta.repository.UserRepository;
+import com.namhatta.util.DtoMapper;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -41,6 +48,7 @@ public class NamhattaService {
     private final NamhattaUpdateRepository namhattaUpdateRepository;
     private final UserRepository userRepository;
     private final StatusHistoryRepository statusHistoryRepository;
+    private final NamhattaLocationIndex namhattaLocationIndex;
     
     public NamhattaService(NamhattaRepository namhattaRepository,
                           AddressService addressService,
@@ -48,7 +56,8 @@ public class NamhattaService {
                           DevoteeRepository devoteeRepository,
                           NamhattaUpdateRepository namhattaUpdateRepository,
                           UserRepository userRepository,
-                          StatusHistoryRepository statusHistoryRepository) {
+                          StatusHistoryRepository statusHistoryRepository,
+                          NamhattaLocationIndex namhattaLocationIndex) {
         this.namhattaRepository = namhattaRepository;
         this.addressService = addressService;
         this.namhattaAddressRepository = namhattaAddressRepository;
@@ -56,6 +65,7 @@ public class NamhattaService {
         this.namhattaUpdateRepository = namhattaUpdateRepository;
         this.userRepository = userRepository;
         this.statusHistoryRepository = statusHistoryRepository;
+        this.namhattaLocationIndex = namhattaLocationIndex;
     }
     
     /**
@@ -64,6 +74,25 @@ public class NamhattaService {
      */
     public Page<NamhattaDTO> getNamhattas(Pageable pageable, String search, String country, 
                                          String state, String district, String statusStr) {
+        return getNamhattas(pageable, search, country, state, district, statusStr, null);
+    }
+    
+    /**
+     * Get namhattas with pagination and filters; expand=officers resolves officer and supervisor names
+     */
+    @Transactional(readOnly = true)
+    public Page<NamhattaDTO> getNamhattas(Pageable pageable, String search, String country, 
+                                         String state, String district, String statusStr, String expand) {
+        return getNamhattas(pageable, search, new GeographyFilter(country, state, district), statusStr, expand);
+    }
+    
+    /**
+     * Get namhattas with pagination and filters; geography names are resolved to census codes before the query
+     */
+    @Transactional(readOnly = true)
+    public Page<NamhattaDTO> getNamhattas(Pageable pageable, String search, GeographyFilter geography,
+                                         String statusStr, String expand) {
+        boolean expandOfficers = parseExpandOfficers(expand);
         NamhattaStatus status = null;
         if (statusStr != null && !statusStr.trim().isEmpty()) {
             try {
@@ -73,11 +102,20 @@ public class NamhattaService {
             }
         }
         
-        Page<Namhatta> namhattasPage = namhattaRepository.findWithFilters(
-            search, country, state, district, status, pageable
+        GeographyCodes codes = addressService.resolveGeographyCodes(geography);
+        if (codes.matchesNothing()) {
+            return Page.empty(pageable);
+        }
+        Page<NamhattaSummary> namhattasPage = namhattaRepository.findSummariesWithFilters(
+            search, codes.getCountry(), codes.getStateCodes(), codes.getDistrictCodes(),
+            codes.getSubdistrictCodes(), codes.getVillageCodes(), status, pageable
         );
         
-        return namhattasPage.map(this::convertToDTO);
+        Page<NamhattaDTO> dtoPage = namhattasPage.map(this::convertToDTO);
+        if (expandOfficers) {
+            resolveOfficerNames(dtoPage.getContent());
+        }
+        return dtoPage;
     }
     
     /**
@@ -85,10 +123,23 @@ public class NamhattaService {
      * Task 5.5.4
      */
     public NamhattaDTO getNamhatta(Long id) {
+        return getNamhatta(id, null);
+    }
+    
+    /**
+     * Get single namhatta by ID; expand=officers resolves officer and supervisor names
+     */
+    @Transactional(readOnly = true)
+    public NamhattaDTO getNamhatta(Long id, String expand) {
+        boolean expandOfficers = parseExpandOfficers(expand);
         Namhatta namhatta = namhattaRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Namhatta not found with id: " + id));
         
-        return convertToDTO(namhatta);
+        NamhattaDTO dto = convertToDTO(namhatta);
+        if (expandOfficers) {
+            resolveOfficerNames(List.of(dto));
+        }
+        return dto;
     }
     
     /**
@@ -146,8 +197,10 @@ public class NamhattaService {
         if (request.getAddress() != null) {
             AddressData addressData = request.getAddress();
             Long addressId = addressService.findOrCreateAddress(addressData);
-            addressService.linkNamhattaAddress(namhatta.getId(), addressId, null);
+            addressService.linkNamhattaAddress(namhatta.getId(), addressId, null,
+                    addressData.getLatitude(), addressData.getLongitude());
         }
+        namhattaLocationIndex.invalidate();
         
         return convertToDTO(namhatta);
     }
@@ -200,12 +253,35 @@ public class NamhattaService {
         if (request.getAddress() != null) {
             AddressData addressData = request.getAddress();
             Long addressId = addressService.findOrCreateAddress(addressData);
-            addressService.linkNamhattaAddress(namhatta.getId(), addressId, null);
+            addressService.linkNamhattaAddress(namhatta.getId(), addressId, null,
+                    addressData.getLatitude(), addressData.getLongitude());
         }
+        namhattaLocationIndex.invalidate();
         
         return convertToDTO(namhatta);
     }
     
+    /**
+     * The k approved namhattas nearest to a pincode's centroid or to a point, for assigning a new devotee
+     */
+    public List<NamhattaLocationIndex.NearbyNamhatta> findNearestNamhattas(String pincode, Double latitude,
+                                                                           Double longitude, Integer k) {
+        if (pincode != null && !pincode.isBlank()) {
+            if (latitude != null || longitude != null) {
+                throw new ValidationException("Give either a pincode or latitude and longitude, not both");
+            }
+            double[] location = addressService.getPincodeLocation(pincode.trim());
+            return namhattaLocationIndex.findNearest(location[0], location[1], k);
+        }
+        if (latitude == null || longitude == null) {
+            throw new ValidationException("A pincode or both latitude and longitude are required");
+        }
+        if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+            throw new ValidationException("Latitude must be within [-90, 90] and longitude within [-180, 180]");
+        }
+        return namhattaLocationIndex.findNearest(latitude, longitude, k);
+    }
+    
     /**
      * Check if registration number exists
      * Task 5.5.7
@@ -244,6 +320,7 @@ public class NamhattaService {
         namhatta.setRegistrationNo(registrationNo);
         namhatta.setRegistrationDate(registrationDate);
         namhattaRepository.save(namhatta);
+        namhattaLocationIndex.invalidate();
     }
     
     /**
@@ -257,6 +334,7 @@ public class NamhattaService {
         
         namhatta.setStatus(NamhattaStatus.REJECTED);
         namhattaRepository.save(namhatta);
+        namhattaLocationIndex.invalidate();
         // Optionally log reason (could be stored in a separate table or comments field)
     }
     
@@ -265,21 +343,14 @@ public class NamhattaService {
      * Task 5.5.10
      */
     public Page<DevoteeDTO> getDevoteesByNamhatta(Long id, Pageable pageable, Long statusId) {
-        List<Devotee> devotees;
+        Page<Devotee> devoteesPage;
         if (statusId != null) {
-            devotees = devoteeRepository.findByNamhattaId(id).stream()
-                    .filter(d -> statusId.equals(d.getDevotionalStatusId()))
-                    .collect(Collectors.toList());
+            devoteesPage = devoteeRepository.findByNamhattaIdAndDevotionalStatusId(id, statusId, pageable);
         } else {
-            devotees = devoteeRepository.findByNamhattaId(id);
+            devoteesPage = devoteeRepository.findByNamhattaId(id, pageable);
         }
         
-        // Convert to paginated result (simplified)
-        List<DevoteeDTO> dtoList = devotees.stream()
-                .map(this::convertDevoteeToDTO)
-                .collect(Collectors.toList());
-        
-        return Page.empty(pageable);
+        return devoteesPage.map(this::convertDevoteeToDTO);
     }
     
     /**
@@ -287,14 +358,13 @@ public class NamhattaService {
      * Task 5.5.12
      */
     public Map<String, Integer> getDevoteeStatusCount(Long id) {
-        List<Devotee> devotees = devoteeRepository.findByNamhattaId(id);
+        List<Object[]> results = devoteeRepository.countByDevotionalStatusForNamhatta(id);
         
         Map<String, Integer> statusCounts = new HashMap<>();
-        for (Devotee devotee : devotees) {
-            if (devotee.getDevotionalStatusId() != null) {
-                String statusKey = devotee.getDevotionalStatusId().toString();
-                statusCounts.put(statusKey, statusCounts.getOrDefault(statusKey, 0) + 1);
-            }
+        for (Object[] result : results) {
+            String statusKey = result[0].toString();
+            Integer count = result[1] != null ? ((Number) result[1]).intValue() : 0;
+            statusCounts.put(statusKey, count);
         }
         
         return statusCounts;
@@ -318,6 +388,55 @@ public class NamhattaService {
         return addressData;
     }
     
+    private boolean parseExpandOfficers(String expand) {
+        if (expand == null || expand.isBlank()) {
+            return false;
+        }
+        boolean officers = false;
+        for (String token : expand.split(",")) {
+            String value = token.trim();
+            if (value.equalsIgnoreCase("officers") || value.equalsIgnoreCase("all")) {
+                officers = true;
+            } else if (!value.isEmpty()) {
+                throw new ValidationException("Invalid expand value: " + value + ". Allowed: officers");
+            }
+        }
+        return officers;
+    }
+    
+    /**
+     * Fill officer and district supervisor names for a batch of namhattas: the seven officer IDs of every
+     * namhatta are loaded with one devotee IN query, and supervisors with one user IN query
+     */
+    private void resolveOfficerNames(List<NamhattaDTO> namhattas) {
+        Set<Long> devoteeIds = new HashSet<>();
+        Set<Long> userIds = new HashSet<>();
+        for (NamhattaDTO dto : namhattas) {
+            DtoMapper.addIfPresent(devoteeIds, dto.getMalaSenapotiId());
+            DtoMapper.addIfPresent(devoteeIds, dto.getMahaChakraSenapotiId());
+            DtoMapper.addIfPresent(devoteeIds, dto.getChakraSenapotiId());
+            DtoMapper.addIfPresent(devoteeIds, dto.getUpaChakraSenapotiId());
+            DtoMapper.addIfPresent(devoteeIds, dto.getSecretaryId());
+            DtoMapper.addIfPresent(devoteeIds, dto.getPresidentId());
+            DtoMapper.addIfPresent(devoteeIds, dto.getAccountantId());
+            DtoMapper.addIfPresent(userIds, dto.getDistrictSupervisorId());
+        }
+        
+        Map<Long, String> devoteeNames = devoteeIds.isEmpty() ? Map.of() : DtoMapper.toNameMap(devoteeRepository.findNamesByIds(devoteeIds));
+        Map<Long, String> userNames = userIds.isEmpty() ? Map.of() : DtoMapper.toNameMap(userRepository.findNamesByIds(userIds));
+        
+        for (NamhattaDTO dto : namhattas) {
+            dto.setMalaSenapotiName(devoteeNames.get(dto.getMalaSenapotiId()));
+            dto.setMahaChakraSenapotiName(devoteeNames.get(dto.getMahaChakraSenapotiId()));
+            dto.setChakraSenapotiName(devoteeNames.get(dto.getChakraSenapotiId()));
+            dto.setUpaChakraSenapotiName(devoteeNames.get(dto.getUpaChakraSenapotiId()));
+            dto.setSecretaryName(devoteeNames.get(dto.getSecretaryId()));
+            dto.setPresidentName(devoteeNames.get(dto.getPresidentId()));
+            dto.setAccountantName(devoteeNames.get(dto.getAccountantId()));
+            dto.setDistrictSupervisorName(userNames.get(dto.getDistrictSupervisorId()));
+        }
+    }
+    
     /**
      * Convert Namhatta entity to DTO
      */
@@ -341,6 +460,36 @@ public class NamhattaService {
         dto.setRegistrationDate(namhatta.getRegistrationDate());
         dto.setCreatedAt(namhatta.getCreatedAt());
         dto.setUpdatedAt(namhatta.getUpdatedAt());
+        namhattaAddressRepository.findByNamhattaId(namhatta.getId()).ifPresent(link -> {
+            dto.setLatitude(link.getLatitude());
+            dto.setLongitude(link.getLongitude());
+        });
+        return dto;
+    }
+    
+    /**
+     * Convert a projected list row to DTO
+     */
+    private NamhattaDTO convertToDTO(NamhattaSummary summary) {
+        NamhattaDTO dto = new NamhattaDTO();
+        dto.setId(summary.getId());
+        dto.setCode(summary.getCode());
+        dto.setName(summary.getName());
+        dto.setMeetingDay(summary.getMeetingDay());
+        dto.setMeetingTime(summary.getMeetingTime());
+        dto.setMalaSenapotiId(summary.getMalaSenapotiId());
+        dto.setMahaChakraSenapotiId(summary.getMahaChakraSenapotiId());
+        dto.setChakraSenapotiId(summary.getChakraSenapotiId());
+        dto.setUpaChakraSenapotiId(summary.getUpaChakraSenapotiId());
+        dto.setSecretaryId(summary.getSecretaryId());
+        dto.setPresidentId(summary.getPresidentId());
+        dto.setAccountantId(summary.getAccountantId());
+        dto.setDistrictSupervisorId(summary.getDistrictSupervisorId());
+        dto.setStatus(summary.getStatus() != null ? summary.getStatus().name() : null);
+        dto.setRegistrationNo(summary.getRegistrationNo());
+        dto.setRegistrationDate(summary.getRegistrationDate());
+        dto.setCreatedAt(summary.getCreatedAt());
+        dto.setUpdatedAt(summary.getUpdatedAt());
         return dto;
     }
     
@@ -1,18 +1,44 @@
 package com.namhatta.service;
 
+import com.namhatta.dto.NamhattaUpdateSummary;
+import com.namhatta.dto.UpdateFeedPage;
+import com.namhatta.exception.ValidationException;
 import com.namhatta.model.entity.NamhattaUpdate;
+import com.namhatta.repository.NamhattaAddressRepository;
 import com.namhatta.repository.NamhattaUpdateRepository;
+import com.namhatta.util.DateUtils;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
 import java.util.List;
 
 @Service
 public class NamhattaUpdateService {
 
+    private static final int DEFAULT_FEED_LIMIT = 25;
+    private static final int MAX_FEED_LIMIT = 100;
+    // Hard cap for the legacy /api/updates/all endpoint
+    private static final int ALL_UPDATES_CAP = 500;
+
     private final NamhattaUpdateRepository namhattaUpdateRepository;
+    private final NamhattaAddressRepository namhattaAddressRepository;
+    private final UpdateRollupService updateRollupService;
+    private final LeaderboardService leaderboardService;
 
-    public NamhattaUpdateService(NamhattaUpdateRepository namhattaUpdateRepository) {
+    public NamhattaUpdateService(NamhattaUpdateRepository namhattaUpdateRepository,
+                                 NamhattaAddressRepository namhattaAddressRepository,
+                                 UpdateRollupService updateRollupService,
+                                 LeaderboardService leaderboardService) {
         this.namhattaUpdateRepository = namhattaUpdateRepository;
+        this.namhattaAddressRepository = namhattaAddressRepository;
+        this.updateRollupService = updateRollupService;
+        this.leaderboardService = leaderboardService;
     }
 
     public static class NamhattaUpdateRequest {
@@ -75,11 +101,13 @@ public class NamhattaUpdateService {
         public void setSpecialAttraction(String specialAttraction) { this.specialAttraction = specialAttraction; }
     }
 
+    @Transactional
     public NamhattaUpdate createUpdate(NamhattaUpdateRequest request) {
         NamhattaUpdate update = new NamhattaUpdate();
         update.setNamhattaId(request.getNamhattaId());
         update.setProgramType(request.getProgramType());
         update.setDate(request.getDate());
+        update.setProgramDate(parseProgramDate(request.getDate()));
         update.setAttendance(request.getAttendance());
         update.setPrasadDistribution(request.getPrasadDistribution());
         update.setNagarKirtan(request.getNagarKirtan() != null ? request.getNagarKirtan() : 0);
@@ -92,14 +120,153 @@ public class NamhattaUpdateService {
         update.setYoutubeLink(request.getYoutubeLink());
         update.setSpecialAttraction(request.getSpecialAttraction());
         
-        return namhattaUpdateRepository.save(update);
+        NamhattaUpdate saved = namhattaUpdateRepository.save(update);
+
+        String districtCode = null;
+        String stateCode = null;
+        List<Object[]> regions = namhattaAddressRepository.findRegionCodesByNamhattaId(saved.getNamhattaId());
+        if (!regions.isEmpty()) {
+            districtCode = (String) regions.get(0)[0];
+            stateCode = (String) regions.get(0)[1];
+        }
+        updateRollupService.recordUpdate(saved, districtCode, stateCode);
+        leaderboardService.recordUpdate(saved, districtCode, stateCode);
+        return saved;
     }
 
-    public List<NamhattaUpdate> getAllUpdates() {
-        return namhattaUpdateRepository.findAllByOrderByDateDesc();
+    /**
+     * Most recent update summaries, capped at ALL_UPDATES_CAP rows
+     */
+    public List<NamhattaUpdateSummary> getAllUpdates() {
+        return namhattaUpdateRepository.findFeed(null, null, null, null, null, null,
+                PageRequest.of(0, ALL_UPDATES_CAP));
+    }
+
+    /**
+     * Keyset-paginated update feed ordered by (programDate, id) descending; from and to are yyyy-MM-dd
+     */
+    public UpdateFeedPage getFeed(String cursor, Integer limit, Long namhattaId, String districtCode,
+                                  String fromDate, String toDate) {
+        int pageSize = limit == null ? DEFAULT_FEED_LIMIT : Math.max(1, Math.min(limit, MAX_FEED_LIMIT));
+        LocalDate from = parseFilterDate(fromDate, "from");
+        LocalDate to = parseFilterDate(toDate, "to");
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new ValidationException("from date must not be after to date");
+        }
+
+        LocalDate cursorDate = null;
+        Long cursorId = null;
+        if (cursor != null && !cursor.isEmpty()) {
+            String[] position = decodeCursor(cursor);
+            cursorDate = position[0].isEmpty() ? null : parseCursorDate(position[0]);
+            cursorId = Long.parseLong(position[1]);
+        }
+
+        // Fetch one extra row to know whether another page exists
+        List<NamhattaUpdateSummary> rows = namhattaUpdateRepository.findFeed(
+                namhattaId, blankToNull(districtCode), from, to, cursorDate, cursorId, PageRequest.of(0, pageSize + 1));
+
+        boolean hasMore = rows.size() > pageSize;
+        List<NamhattaUpdateSummary> updates = hasMore ? rows.subList(0, pageSize) : rows;
+
+        String nextCursor = null;
+        if (hasMore) {
+            NamhattaUpdateSummary last = updates.get(updates.size() - 1);
+            nextCursor = encodeCursor(last.getProgramDate(), last.getId());
+        }
+
+        return new UpdateFeedPage(updates, nextCursor, hasMore);
     }
 
     public List<NamhattaUpdate> getByNamhatta(Long namhattaId) {
         return namhattaUpdateRepository.findByNamhattaIdOrderByDateDesc(namhattaId);
     }
+
+    /**
+     * Updates with a program date in [from, to], scoped to exactly one of namhatta, district code or state code
+     */
+    public Page<NamhattaUpdateSummary> getUpdatesInRange(Long namhattaId, String districtCode, String stateCode,
+                                                         LocalDate from, LocalDate to, Pageable pageable) {
+        if (from == null || to == null) {
+            throw new ValidationException("Both from and to dates are required");
+        }
+        if (from.isAfter(to)) {
+            throw new ValidationException("from date must not be after to date");
+        }
+
+        districtCode = blankToNull(districtCode);
+        stateCode = blankToNull(stateCode);
+        int scopes = (namhattaId != null ? 1 : 0) + (districtCode != null ? 1 : 0) + (stateCode != null ? 1 : 0);
+        if (scopes != 1) {
+            throw new ValidationException("Exactly one of namhattaId, district or state is required");
+        }
+
+        if (namhattaId != null) {
+            return namhattaUpdateRepository.findByNamhattaInDateRange(namhattaId, from, to, pageable);
+        }
+        if (districtCode != null) {
+            return namhattaUpdateRepository.findByDistrictInDateRange(districtCode, from, to, pageable);
+        }
+        return namhattaUpdateRepository.findByStateInDateRange(stateCode, from, to, pageable);
+    }
+
+    /**
+     * Parse the leading yyyy-MM-dd part of a program date (clients may send a full ISO timestamp)
+     */
+    private LocalDate parseProgramDate(String date) {
+        if (date == null || date.trim().isEmpty()) {
+            throw new ValidationException("Program date is required");
+        }
+        String trimmed = date.trim();
+        try {
+            return DateUtils.parseDate(trimmed.length() > 10 ? trimmed.substring(0, 10) : trimmed);
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Invalid program date: " + date, e);
+        }
+    }
+
+    private LocalDate parseFilterDate(String date, String name) {
+        date = blankToNull(date);
+        if (date == null) {
+            return null;
+        }
+        try {
+            return DateUtils.parseDate(date.trim());
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Invalid " + name + " date: " + date, e);
+        }
+    }
+
+    private LocalDate parseCursorDate(String date) {
+        try {
+            return DateUtils.parseDate(date);
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Invalid cursor", e);
+        }
+    }
+
+    // Undated legacy rows encode an empty date, e.g. "|42"
+    private String encodeCursor(LocalDate date, Long id) {
+        String raw = (date != null ? date.toString() : "") + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String[] decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            if (separator < 0) {
+                throw new ValidationException("Invalid cursor");
+            }
+            String[] position = { raw.substring(0, separator), raw.substring(separator + 1) };
+            Long.parseLong(position[1]);
+            return position;
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Invalid cursor", e);
+        }
+    }
+
+    private String blankToNull(String value) {
+        return value == null || value.trim().isEmpty() ? null : value.trim();
+    }
 }
@@ -0,0 +1,181 @@
+package com.namhatta.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Runs independent read queries of a composite endpoint concurrently on the bounded query executor.
+ * Each query gets its own read-only transaction (and therefore its own connection). A query that fails,
+ * is rejected by a saturated executor or misses the batch deadline yields its fallback value and is
+ * reported as unavailable so the response can be marked partial. Fallbacks are logged as errors and counted
+ * by reason in query.fanout.fallbacks, so a starved connection pool does not pass for empty data.
+ */
+@Service
+public class ParallelQueryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ParallelQueryService.class);
+    private static final String FALLBACK_METRIC = "query.fanout.fallbacks";
+
+    private final ThreadPoolTaskExecutor queryExecutor;
+    private final TransactionTemplate readOnlyTransaction;
+    private final long timeoutMillis;
+    private final MeterRegistry meterRegistry;
+
+    public ParallelQueryService(PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry,
+                                @Value("${query-fanout.pool-size:4}") int poolSize,
+                                @Value("${query-fanout.queue-capacity:50}") int queueCapacity,
+                                @Value("${query-fanout.timeout-ms:5000}") long timeoutMillis) {
+        // Kept private rather than a bean so Spring Boot's application task executor stays auto-configured.
+        // Each task takes its own pooled connection, so poolSize must stay well below the Hikari pool size.
+        this.queryExecutor = new ThreadPoolTaskExecutor();
+        this.queryExecutor.setCorePoolSize(poolSize);
+        this.queryExecutor.setMaxPoolSize(poolSize);
+        this.queryExecutor.setQueueCapacity(queueCapacity);
+        this.queryExecutor.setThreadNamePrefix("query-");
+        // A full queue means the database is saturated; callers fall back instead of piling on
+        this.queryExecutor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        this.queryExecutor.initialize();
+
+        this.timeoutMillis = timeoutMillis;
+        this.meterRegistry = meterRegistry;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.readOnlyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        // Also applied as the JDBC statement timeout, so abandoned queries do not hold connections
+        this.readOnlyTransaction.setTimeout((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(timeoutMillis + 999)));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        queryExecutor.shutdown();
+    }
+
+    private void recordFallback(String name, String reason) {
+        Counter.builder(FALLBACK_METRIC).tag("query", name).tag("reason", reason).register(meterRegistry).increment();
+    }
+
+    /**
+     * Start a batch whose queries share one deadline
+     */
+    public Batch newBatch() {
+        return new Batch(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis));
+    }
+
+    public class Batch {
+        private final long deadlineNanos;
+        private final Set<String> unavailable = Collections.synchronizedSet(new LinkedHashSet<>());
+
+        private Batch(long deadlineNanos) {
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        /**
+         * Submit a read query; the returned handle yields its result or the fallback
+         */
+        public <T> QueryHandle<T> submit(String name, Supplier<T> query, T fallback) {
+            CompletableFuture<T> future;
+            // Carry the caller's identity so replica routing can honour its read-your-writes window
+            SecurityContext securityContext = SecurityContextHolder.getContext();
+            try {
+                future = CompletableFuture.supplyAsync(() -> {
+                    SecurityContextHolder.setContext(securityContext);
+                    try {
+                        return readOnlyTransaction.execute(status -> query.get());
+                    } finally {
+                        SecurityContextHolder.clearContext();
+                    }
+                }, queryExecutor);
+            } catch (TaskRejectedException e) {
+                logger.error("Query executor saturated, using fallback for {}", name);
+                recordFallback(name, "rejected");
+                unavailable.add(name);
+                future = CompletableFuture.completedFuture(fallback);
+            }
+            return new QueryHandle<>(this, name, future, fallback);
+        }
+
+        /**
+         * Names of queries that fell back, empty when the result is complete
+         */
+        public List<String> getUnavailable() {
+            synchronized (unavailable) {
+                return new ArrayList<>(unavailable);
+            }
+        }
+
+        public boolean isPartial() {
+            return !unavailable.isEmpty();
+        }
+
+        private ParallelQueryService parent() {
+            return ParallelQueryService.this;
+        }
+    }
+
+    public static class QueryHandle<T> {
+        private final Batch batch;
+        private final String name;
+        private final CompletableFuture<T> future;
+        private final T fallback;
+
+        private QueryHandle(Batch batch, String name, CompletableFuture<T> future, T fallback) {
+            this.batch = batch;
+            this.name = name;
+            this.future = future;
+            this.fallback = fallback;
+        }
+
+        /**
+         * Wait for the result until the batch deadline
+         */
+        public T get() {
+            long remaining = batch.deadlineNanos - System.nanoTime();
+            try {
+                return future.get(Math.max(0, remaining), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                logger.error("Query {} timed out after {} ms, using fallback", name, batch.parent().timeoutMillis);
+                batch.parent().recordFallback(name, "timeout");
+            } catch (ExecutionException e) {
+                // The transaction could not start, almost always because no pooled connection became free in time
+                if (e.getCause() instanceof CannotCreateTransactionException) {
+                    logger.error("Query {} could not get a connection, using fallback", name, e.getCause());
+                    batch.parent().recordFallback(name, "no_connection");
+                } else {
+                    logger.error("Query {} failed, using fallback", name, e.getCause());
+                    batch.parent().recordFallback(name, "failed");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                batch.parent().recordFallback(name, "interrupted");
+            }
+            batch.unavailable.add(name);
+            return fallback;
+        }
+    }
+}
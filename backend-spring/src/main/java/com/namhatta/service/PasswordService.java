@@ -1,38 +1,121 @@
 package com.namhatta.service;
 
+import com.namhatta.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+/**
+ * Password hashing and verification. BCrypt runs on a dedicated pool sized to the CPU count with a
+ * bounded queue, so a burst of logins cannot occupy every request thread; when the queue is full
+ * callers get a 503 with Retry-After instead of waiting.
+ */
 @Service
 public class PasswordService {
-    
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordService.class);
+
     private final BCryptPasswordEncoder passwordEncoder;
-    
+    private final int cost;
+    private final ThreadPoolTaskExecutor hashExecutor;
+    private final long timeoutMillis;
+    private final Timer hashTimer;
+    private final Timer verifyTimer;
+    private final Counter rejected;
+
     // Password must be at least 8 characters, contain uppercase, lowercase, and number
     private static final Pattern PASSWORD_PATTERN = Pattern.compile(
         "^(?=.*[a-z])(?=.*[A-Z])(?=.*\\d).{8,}$"
     );
-    
-    public PasswordService() {
-        this.passwordEncoder = new BCryptPasswordEncoder();
+
+    // $2a$10$... / $2b$ / $2y$ - the two digits are the log2 cost
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[aby]?\\$(\\d{2})\\$");
+
+    private static final long RETRY_AFTER_SECONDS = 2;
+
+    public PasswordService(MeterRegistry meterRegistry,
+                           @Value("${password.bcrypt.cost:10}") int cost,
+                           @Value("${password.hash.pool-size:0}") int poolSize,
+                           @Value("${password.hash.queue-capacity:50}") int queueCapacity,
+                           @Value("${password.hash.timeout-ms:10000}") long timeoutMillis) {
+        this.passwordEncoder = new BCryptPasswordEncoder(cost);
+        this.cost = cost;
+        this.timeoutMillis = timeoutMillis;
+
+        // BCrypt is pure CPU work: more threads than cores only adds contention with request handling
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        // Kept private rather than a bean so Spring Boot's application task executor stays auto-configured
+        this.hashExecutor = new ThreadPoolTaskExecutor();
+        this.hashExecutor.setCorePoolSize(threads);
+        this.hashExecutor.setMaxPoolSize(threads);
+        this.hashExecutor.setQueueCapacity(queueCapacity);
+        this.hashExecutor.setThreadNamePrefix("bcrypt-");
+        this.hashExecutor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        this.hashExecutor.initialize();
+
+        this.hashTimer = Timer.builder("namhatta.password.bcrypt")
+                .description("Time spent computing BCrypt, excluding queueing")
+                .tag("operation", "hash")
+                .register(meterRegistry);
+        this.verifyTimer = Timer.builder("namhatta.password.bcrypt")
+                .description("Time spent computing BCrypt, excluding queueing")
+                .tag("operation", "verify")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("namhatta.password.rejected")
+                .description("Password operations refused with 503 because the BCrypt queue was full or too slow")
+                .register(meterRegistry);
+        meterRegistry.gauge("namhatta.password.queue.size", hashExecutor,
+                executor -> executor.getThreadPoolExecutor().getQueue().size());
+        meterRegistry.gauge("namhatta.password.active", hashExecutor, ThreadPoolTaskExecutor::getActiveCount);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashExecutor.shutdown();
     }
-    
+
     /**
-     * Hash a plain text password using BCrypt
+     * Hash a plain text password using BCrypt at the configured cost
      */
     public String hashPassword(String plainPassword) {
-        return passwordEncoder.encode(plainPassword);
+        return run(hashTimer, () -> passwordEncoder.encode(plainPassword));
     }
-    
+
     /**
      * Verify a plain text password against a hashed password
      */
     public boolean verifyPassword(String plainPassword, String hashedPassword) {
-        return passwordEncoder.matches(plainPassword, hashedPassword);
+        return run(verifyTimer, () -> passwordEncoder.matches(plainPassword, hashedPassword));
     }
-    
+
+    /**
+     * True when the stored hash was made at a different cost than the configured one
+     */
+    public boolean needsRehash(String hashedPassword) {
+        if (hashedPassword == null) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_COST.matcher(hashedPassword);
+        return matcher.find() && Integer.parseInt(matcher.group(1)) != cost;
+    }
+
     /**
      * Validate password strength
      * @throws IllegalArgumentException if password doesn't meet criteria
@@ -41,7 +124,7 @@ public class PasswordService {
         if (password == null || password.isEmpty()) {
             throw new IllegalArgumentException("Password cannot be empty");
         }
-        
+
         if (!PASSWORD_PATTERN.matcher(password).matches()) {
             throw new IllegalArgumentException(
                 "Password must be at least 8 characters long and contain at least one uppercase letter, " +
@@ -49,4 +132,33 @@ public class PasswordService {
             );
         }
     }
+
+    private <T> T run(Timer timer, Callable<T> work) {
+        Future<T> future;
+        try {
+            future = hashExecutor.submit(() -> timer.recordCallable(work));
+        } catch (TaskRejectedException e) {
+            rejected.increment();
+            throw new ServiceUnavailableException("Too many sign-ins in progress, please retry shortly", RETRY_AFTER_SECONDS);
+        }
+
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.increment();
+            logger.warn("BCrypt did not complete within {} ms", timeoutMillis);
+            throw new ServiceUnavailableException("Too many sign-ins in progress, please retry shortly", RETRY_AFTER_SECONDS);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Request interrupted, please retry", RETRY_AFTER_SECONDS);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException("Password hashing failed", cause);
+        }
+    }
 }
@@ -0,0 +1,168 @@
+package com.namhatta.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps the most recent requests that exceeded the query-count or duration threshold in a
+ * fixed-size ring buffer and summarizes them per route for /api/admin/diagnostics/queries.
+ */
+@Service
+public class QueryDiagnosticsService {
+
+    private final int maxQueries;
+    private final long slowRequestMillis;
+    private final int capacity;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ArrayDeque<FlaggedRequest> recent;
+
+    public QueryDiagnosticsService(@Value("${query-diagnostics.max-queries:20}") int maxQueries,
+                                   @Value("${query-diagnostics.slow-request-ms:1000}") long slowRequestMillis,
+                                   @Value("${query-diagnostics.buffer-size:200}") int capacity) {
+        this.maxQueries = maxQueries;
+        this.slowRequestMillis = slowRequestMillis;
+        this.capacity = capacity;
+        this.recent = new ArrayDeque<>(capacity);
+    }
+
+    public static class FlaggedRequest {
+        private final LocalDateTime timestamp;
+        private final String method;
+        private final String route;
+        private final int statementCount;
+        private final long jdbcMillis;
+        private final long durationMillis;
+        private final String mostRepeatedStatement;
+        private final int mostRepeatedCount;
+
+        public FlaggedRequest(LocalDateTime timestamp, String method, String route, int statementCount,
+                              long jdbcMillis, long durationMillis, String mostRepeatedStatement, int mostRepeatedCount) {
+            this.timestamp = timestamp;
+            this.method = method;
+            this.route = route;
+            this.statementCount = statementCount;
+            this.jdbcMillis = jdbcMillis;
+            this.durationMillis = durationMillis;
+            this.mostRepeatedStatement = mostRepeatedStatement;
+            this.mostRepeatedCount = mostRepeatedCount;
+        }
+
+        public LocalDateTime getTimestamp() { return timestamp; }
+        public String getMethod() { return method; }
+        public String getRoute() { return route; }
+        public int getStatementCount() { return statementCount; }
+        public long getJdbcMillis() { return jdbcMillis; }
+        public long getDurationMillis() { return durationMillis; }
+        public String getMostRepeatedStatement() { return mostRepeatedStatement; }
+        public int getMostRepeatedCount() { return mostRepeatedCount; }
+    }
+
+    public static class RouteSummary {
+        private final String route;
+        private int flaggedCount;
+        private int maxStatements;
+        private long totalStatements;
+        private long maxDurationMillis;
+        private FlaggedRequest worst;
+
+        public RouteSummary(String route) {
+            this.route = route;
+        }
+
+        private void add(FlaggedRequest request) {
+            flaggedCount++;
+            totalStatements += request.getStatementCount();
+            maxDurationMillis = Math.max(maxDurationMillis, request.getDurationMillis());
+            if (worst == null || request.getStatementCount() > maxStatements) {
+                maxStatements = request.getStatementCount();
+                worst = request;
+            }
+        }
+
+        public String getRoute() { return route; }
+        public int getFlaggedCount() { return flaggedCount; }
+        public int getMaxStatements() { return maxStatements; }
+        public double getAverageStatements() { return flaggedCount == 0 ? 0.0 : (double) totalStatements / flaggedCount; }
+        public long getMaxDurationMillis() { return maxDurationMillis; }
+        public FlaggedRequest getWorst() { return worst; }
+    }
+
+    public static class QueryDiagnosticsReport {
+        private final int maxQueriesThreshold;
+        private final long slowRequestMillisThreshold;
+        private final List<RouteSummary> routes;
+        private final List<FlaggedRequest> recent;
+
+        public QueryDiagnosticsReport(int maxQueriesThreshold, long slowRequestMillisThreshold,
+                                      List<RouteSummary> routes, List<FlaggedRequest> recent) {
+            this.maxQueriesThreshold = maxQueriesThreshold;
+            this.slowRequestMillisThreshold = slowRequestMillisThreshold;
+            this.routes = routes;
+            this.recent = recent;
+        }
+
+        public int getMaxQueriesThreshold() { return maxQueriesThreshold; }
+        public long getSlowRequestMillisThreshold() { return slowRequestMillisThreshold; }
+        public List<RouteSummary> getRoutes() { return routes; }
+        public List<FlaggedRequest> getRecent() { return recent; }
+    }
+
+    /**
+     * Whether a request with these figures should be recorded
+     */
+    public boolean exceedsThreshold(int statementCount, long durationMillis) {
+        return statementCount > maxQueries || durationMillis > slowRequestMillis;
+    }
+
+    public void record(FlaggedRequest request) {
+        lock.lock();
+        try {
+            if (recent.size() == capacity) {
+                recent.pollFirst();
+            }
+            recent.addLast(request);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Routes ordered by worst statement count, plus the most recent flagged requests (newest first)
+     */
+    public QueryDiagnosticsReport getReport(int recentLimit) {
+        List<FlaggedRequest> snapshot;
+        lock.lock();
+        try {
+            snapshot = new ArrayList<>(recent);
+        } finally {
+            lock.unlock();
+        }
+
+        Map<String, RouteSummary> byRoute = new LinkedHashMap<>();
+        for (FlaggedRequest request : snapshot) {
+            String key = request.getMethod() + " " + request.getRoute();
+            byRoute.computeIfAbsent(key, RouteSummary::new).add(request);
+        }
+        List<RouteSummary> routes = new ArrayList<>(byRoute.values());
+        routes.sort(Comparator.comparingInt(RouteSummary::getMaxStatements).reversed()
+                .thenComparing(Comparator.comparingLong(RouteSummary::getMaxDurationMillis).reversed()));
+
+        Collections.reverse(snapshot);
+        List<FlaggedRequest> newest = snapshot.size() > recentLimit ? snapshot.subList(0, recentLimit) : snapshot;
+
+        return new QueryDiagnosticsReport(maxQueries, slowRequestMillis, routes, new ArrayList<>(newest));
+    }
+
+    public void clear() {
+        lock.lock();
+        try {
+            recent.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -1,9 +1,12 @@
 package com.namhatta.service;
 
+import com.namhatta.dto.GeographyCodes;
+import com.namhatta.dto.GeographyFilter;
 import com.namhatta.model.entity.Address;
 import com.namhatta.model.enums.UserRole;
 import com.namhatta.repository.*;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -14,19 +17,25 @@ public class ReportService {
     private final DevoteeRepository devoteeRepository;
     private final NamhattaRepository namhattaRepository;
     private final AddressRepository addressRepository;
+    private final AddressService addressService;
     private final DevoteeAddressRepository devoteeAddressRepository;
     private final NamhattaAddressRepository namhattaAddressRepository;
+    private final ParallelQueryService parallelQueryService;
 
     public ReportService(DevoteeRepository devoteeRepository,
                         NamhattaRepository namhattaRepository,
                         AddressRepository addressRepository,
+                        AddressService addressService,
                         DevoteeAddressRepository devoteeAddressRepository,
-                        NamhattaAddressRepository namhattaAddressRepository) {
+                        NamhattaAddressRepository namhattaAddressRepository,
+                        ParallelQueryService parallelQueryService) {
         this.devoteeRepository = devoteeRepository;
         this.namhattaRepository = namhattaRepository;
         this.addressRepository = addressRepository;
+        this.addressService = addressService;
         this.devoteeAddressRepository = devoteeAddressRepository;
         this.namhattaAddressRepository = namhattaAddressRepository;
+        this.parallelQueryService = parallelQueryService;
     }
 
     public static class HierarchicalReportDTO {
@@ -139,19 +148,34 @@ public class ReportService {
         public void setNamhattaCount(long namhattaCount) { this.namhattaCount = namhattaCount; }
     }
 
+    /**
+     * Top-level totals and states, loaded concurrently.
+     * When a part cannot be loaded in time its fallback is used and its name listed under "unavailable".
+     * Deliberately not transactional: each part borrows its own connection, and holding one here as well
+     * could starve the pool under load.
+     */
     public HierarchicalReportDTO getHierarchicalReports(UserRole userRole, List<String> userDistricts) {
         Map<String, Object> hierarchy = new HashMap<>();
+        ParallelQueryService.Batch batch = parallelQueryService.newBatch();
         
-        long totalDevotees = devoteeRepository.count();
-        long totalNamhattas = namhattaRepository.count();
+        ParallelQueryService.QueryHandle<Long> totalDevotees =
+                batch.submit("totalDevotees", devoteeRepository::count, 0L);
+        ParallelQueryService.QueryHandle<Long> totalNamhattas =
+                batch.submit("totalNamhattas", namhattaRepository::count, 0L);
+        ParallelQueryService.QueryHandle<List<StateReportDTO>> states =
+                batch.submit("countries", () -> getAllStatesWithCounts(userRole, userDistricts), Collections.emptyList());
         
-        hierarchy.put("totalDevotees", totalDevotees);
-        hierarchy.put("totalNamhattas", totalNamhattas);
-        hierarchy.put("countries", getAllStatesWithCounts(userRole, userDistricts));
+        hierarchy.put("totalDevotees", totalDevotees.get());
+        hierarchy.put("totalNamhattas", totalNamhattas.get());
+        hierarchy.put("countries", states.get());
+        if (batch.isPartial()) {
+            hierarchy.put("unavailable", batch.getUnavailable());
+        }
 
         return new HierarchicalReportDTO(hierarchy);
     }
 
+    @Transactional(readOnly = true)
     public List<StateReportDTO> getAllStatesWithCounts(UserRole userRole, List<String> userDistricts) {
         List<Address> allAddresses = addressRepository.findAll();
         
@@ -167,57 +191,41 @@ public class ReportService {
         return new ArrayList<>(stateMap.values());
     }
 
-    public List<DistrictReportDTO> getDistrictsByState(String state, UserRole userRole, List<String> userDistricts) {
-        List<Address> addresses = addressRepository.findByStateNameEnglish(state);
-        
-        Map<String, DistrictReportDTO> districtMap = new HashMap<>();
-        
-        for (Address address : addresses) {
-            String districtCode = address.getDistrictCode();
-            String districtName = address.getDistrictNameEnglish();
-            
-            if (districtCode != null && districtName != null) {
-                districtMap.putIfAbsent(districtCode, 
-                    new DistrictReportDTO(districtCode, districtName, 0, 0));
-            }
-        }
+    // The drill-downs resolve the path names (or the code parameters) to census codes and read the areas
+    // from the code index on addresses; counts are not filled in yet
 
-        return new ArrayList<>(districtMap.values());
+    @Transactional(readOnly = true)
+    public List<DistrictReportDTO> getDistrictsByState(GeographyFilter geography, UserRole userRole, List<String> userDistricts) {
+        GeographyCodes codes = addressService.resolveGeographyCodes(geography);
+        if (codes.getStateCodes() == null || codes.matchesNothing()) {
+            return Collections.emptyList();
+        }
+        return addressRepository.findDistrictsWithAddresses(codes.getStateCodes()).stream()
+                .map(row -> new DistrictReportDTO((String) row[0], (String) row[1], 0, 0))
+                .collect(Collectors.toList());
     }
 
-    public List<SubDistrictReportDTO> getSubDistrictsByDistrict(String state, String district, UserRole userRole, List<String> userDistricts) {
-        List<Address> addresses = addressRepository.findByStateNameEnglishAndDistrictNameEnglish(state, district);
-        
-        Map<String, SubDistrictReportDTO> subDistrictMap = new HashMap<>();
-        
-        for (Address address : addresses) {
-            String subDistrictCode = address.getSubdistrictCode();
-            String subDistrictName = address.getSubdistrictNameEnglish();
-            
-            if (subDistrictCode != null && subDistrictName != null) {
-                subDistrictMap.putIfAbsent(subDistrictCode, 
-                    new SubDistrictReportDTO(subDistrictCode, subDistrictName, 0, 0));
-            }
+    @Transactional(readOnly = true)
+    public List<SubDistrictReportDTO> getSubDistrictsByDistrict(GeographyFilter geography, UserRole userRole, List<String> userDistricts) {
+        GeographyCodes codes = addressService.resolveGeographyCodes(geography);
+        if (codes.getStateCodes() == null || codes.getDistrictCodes() == null || codes.matchesNothing()) {
+            return Collections.emptyList();
         }
-
-        return new ArrayList<>(subDistrictMap.values());
+        return addressRepository.findSubdistrictsWithAddresses(codes.getStateCodes(), codes.getDistrictCodes()).stream()
+                .map(row -> new SubDistrictReportDTO((String) row[0], (String) row[1], 0, 0))
+                .collect(Collectors.toList());
     }
 
-    public List<VillageReportDTO> getVillagesBySubDistrict(String state, String district, String subDistrict, UserRole userRole, List<String> userDistricts) {
-        List<Address> addresses = addressRepository.findByStateAndDistrictAndSubdistrict(state, district, subDistrict);
-        
-        Map<String, VillageReportDTO> villageMap = new HashMap<>();
-        
-        for (Address address : addresses) {
-            String villageCode = address.getVillageCode();
-            String villageName = address.getVillageNameEnglish();
-            
-            if (villageCode != null && villageName != null) {
-                villageMap.putIfAbsent(villageCode, 
-                    new VillageReportDTO(villageCode, villageName, 0, 0));
-            }
+    @Transactional(readOnly = true)
+    public List<VillageReportDTO> getVillagesBySubDistrict(GeographyFilter geography, UserRole userRole, List<String> userDistricts) {
+        GeographyCodes codes = addressService.resolveGeographyCodes(geography);
+        if (codes.getStateCodes() == null || codes.getDistrictCodes() == null
+                || codes.getSubdistrictCodes() == null || codes.matchesNothing()) {
+            return Collections.emptyList();
         }
-
-        return new ArrayList<>(villageMap.values());
+        return addressRepository.findVillagesWithAddresses(
+                        codes.getStateCodes(), codes.getDistrictCodes(), codes.getSubdistrictCodes()).stream()
+                .map(row -> new VillageReportDTO((String) row[0], (String) row[1], 0, 0))
+                .collect(Collectors.toList());
     }
 }
@@ -1,6 +1,7 @@
 package com.namhatta.service;
 
 import com.namhatta.dto.DevoteeDTO;
+import com.namhatta.dto.DevoteeSummary;
 import com.namhatta.dto.RoleChangeResult;
 import com.namhatta.dto.TransferResult;
 import com.namhatta.model.entity.Devotee;
@@ -26,15 +27,18 @@ public class RoleManagementService {
     private final RoleChangeHistoryRepository roleChangeHistoryRepository;
     private final RoleHierarchyRules roleHierarchyRules;
     private final DtoMapper dtoMapper;
+    private final SenapotiTreeService senapotiTreeService;
 
     public RoleManagementService(DevoteeRepository devoteeRepository,
                                 RoleChangeHistoryRepository roleChangeHistoryRepository,
                                 RoleHierarchyRules roleHierarchyRules,
-                                DtoMapper dtoMapper) {
+                                DtoMapper dtoMapper,
+                                SenapotiTreeService senapotiTreeService) {
         this.devoteeRepository = devoteeRepository;
         this.roleChangeHistoryRepository = roleChangeHistoryRepository;
         this.roleHierarchyRules = roleHierarchyRules;
         this.dtoMapper = dtoMapper;
+        this.senapotiTreeService = senapotiTreeService;
     }
 
     public static class ValidationResult {
@@ -172,6 +176,13 @@ public class RoleManagementService {
         return false;
     }
 
+    /**
+     * The district's whole leadership tree, cached until the next role change
+     */
+    public SenapotiTreeService.DistrictTree getDistrictTree(String districtCode) {
+        return senapotiTreeService.getTree(districtCode);
+    }
+
     public List<DevoteeDTO> getDirectSubordinates(Long devoteeId) {
         List<Devotee> subordinates = devoteeRepository.findByReportingToDevoteeId(devoteeId);
         return subordinates.stream()
@@ -221,6 +232,7 @@ public class RoleManagementService {
     public TransferResult transferSubordinates(com.namhatta.dto.TransferSubordinatesRequest request, Long userId) {
         InternalTransferResult result = transferSubordinatesInternal(request.getFromDevoteeId(), request.getToDevoteeId(), 
                                    request.getSubordinateIds(), request.getReason(), userId);
+        senapotiTreeService.invalidateAll();
         
         List<DevoteeDTO> devoteeSubordinates = result.getUpdatedSubordinates().stream()
                 .map(dtoMapper::toDevoteeDTO)
@@ -267,6 +279,7 @@ public class RoleManagementService {
     public RoleChangeResult promoteDevotee(com.namhatta.dto.PromoteDevoteeRequest request, Long userId) {
         InternalRoleChangeResult result = promoteDevoteeInternal(request.getDevoteeId(), request.getTargetRole(), 
                             request.getNewReportingToId(), request.getReason(), userId);
+        senapotiTreeService.invalidateAll();
         
         return new RoleChangeResult(
                 dtoMapper.toDevoteeDTO(result.getDevotee()),
@@ -325,6 +338,7 @@ public class RoleManagementService {
     public RoleChangeResult demoteDevotee(com.namhatta.dto.DemoteDevoteeRequest request, Long userId) {
         InternalRoleChangeResult result = demoteDevoteeInternal(request.getDevoteeId(), request.getTargetRole(), 
                            request.getNewReportingToId(), request.getReason(), userId);
+        senapotiTreeService.invalidateAll();
         
         return new RoleChangeResult(
                 dtoMapper.toDevoteeDTO(result.getDevotee()),
@@ -422,6 +436,7 @@ public class RoleManagementService {
         history.setReason("Role Removal: " + (reason != null ? reason : ""));
         history.setSubordinatesTransferred(subordinatesTransferredCount);
         roleChangeHistoryRepository.save(history);
+        senapotiTreeService.invalidateAll();
 
         return new RoleChangeResult(
                 dtoMapper.toDevoteeDTO(devotee),
@@ -431,6 +446,7 @@ public class RoleManagementService {
         );
     }
 
+    @Transactional(readOnly = true)
     public List<DevoteeDTO> getAvailableSupervisors(String districtCode, String targetRoleStr, List<Long> excludeIds) {
         LeadershipRole targetRole;
         try {
@@ -452,7 +468,7 @@ public class RoleManagementService {
             return Collections.emptyList();
         }
 
-        List<Devotee> devotees = devoteeRepository.findByLeadershipRole(requiredRole);
+        List<DevoteeSummary> devotees = devoteeRepository.findSummariesByLeadershipRole(requiredRole);
         
         if (excludeIds != null && !excludeIds.isEmpty()) {
             devotees = devotees.stream()
@@ -0,0 +1,232 @@
+package com.namhatta.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.namhatta.model.enums.LeadershipRole;
+import com.namhatta.repository.DevoteeRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Whole-district leadership trees for the Senapoti screens.
+ *
+ * A district's leaders are read in one query and linked to their reporting-to leader in one pass over a map
+ * by id. Trees are cached per district. Role changes bump a generation once they commit, and any tree built
+ * before that is treated as a miss, so a tree that was loading while a change committed is not served.
+ * Entries also expire after max-staleness as a backstop for devotee edits made outside role management.
+ */
+@Service
+public class SenapotiTreeService {
+
+    private final DevoteeRepository devoteeRepository;
+    private final Cache<String, CachedTree> trees;
+    private final AtomicLong generation = new AtomicLong();
+
+    public SenapotiTreeService(DevoteeRepository devoteeRepository,
+                               @Value("${senapoti.tree.cache-size:200}") long cacheSize,
+                               @Value("${senapoti.tree.max-staleness-seconds:300}") long maxStalenessSeconds) {
+        this.devoteeRepository = devoteeRepository;
+        this.trees = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(Duration.ofSeconds(maxStalenessSeconds))
+                .build();
+    }
+
+    public static class LeaderNode {
+        private final Long devoteeId;
+        private final String name;
+        private final LeadershipRole leadershipRole;
+        private final Long reportingToDevoteeId;
+        private final List<LeaderNode> subordinates = new ArrayList<>();
+        private int subtreeSize;
+        private Map<LeadershipRole, Integer> roleCounts;
+        // Assembly state, not serialized
+        private LeaderNode parent;
+        private boolean placed;
+        private long walk;
+        private int[] counts = new int[LeadershipRole.values().length];
+
+        public LeaderNode(Long devoteeId, String name, LeadershipRole leadershipRole, Long reportingToDevoteeId) {
+            this.devoteeId = devoteeId;
+            this.name = name;
+            this.leadershipRole = leadershipRole;
+            this.reportingToDevoteeId = reportingToDevoteeId;
+        }
+
+        public Long getDevoteeId() { return devoteeId; }
+        public String getName() { return name; }
+        public LeadershipRole getLeadershipRole() { return leadershipRole; }
+        public Long getReportingToDevoteeId() { return reportingToDevoteeId; }
+        public List<LeaderNode> getSubordinates() { return subordinates; }
+        // This leader and everyone below
+        public int getSubtreeSize() { return subtreeSize; }
+        public Map<LeadershipRole, Integer> getRoleCounts() { return roleCounts; }
+    }
+
+    public static class DistrictTree {
+        private final String districtCode;
+        private final int totalLeaders;
+        private final Map<LeadershipRole, Integer> roleCounts;
+        private final List<LeaderNode> roots;
+
+        public DistrictTree(String districtCode, int totalLeaders, Map<LeadershipRole, Integer> roleCounts,
+                            List<LeaderNode> roots) {
+            this.districtCode = districtCode;
+            this.totalLeaders = totalLeaders;
+            this.roleCounts = roleCounts;
+            this.roots = roots;
+        }
+
+        public String getDistrictCode() { return districtCode; }
+        public int getTotalLeaders() { return totalLeaders; }
+        public Map<LeadershipRole, Integer> getRoleCounts() { return roleCounts; }
+        // Leaders reporting to no one, or to a leader outside the district
+        public List<LeaderNode> getRoots() { return roots; }
+    }
+
+    private static class CachedTree {
+        private final long generation;
+        private final DistrictTree tree;
+
+        CachedTree(long generation, DistrictTree tree) {
+            this.generation = generation;
+            this.tree = tree;
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public DistrictTree getTree(String districtCode) {
+        long current = generation.get();
+        CachedTree cached = trees.getIfPresent(districtCode);
+        if (cached != null && cached.generation == current) {
+            return cached.tree;
+        }
+        DistrictTree tree = assemble(districtCode, devoteeRepository.findLeadersByDistrictCode(districtCode));
+        trees.put(districtCode, new CachedTree(current, tree));
+        return tree;
+    }
+
+    /**
+     * Drop every cached tree once the surrounding transaction commits. A role change can move leaders
+     * between reporting lines that span districts, so all districts are dropped rather than tracked.
+     */
+    public void invalidateAll() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictAll();
+                }
+            });
+        } else {
+            evictAll();
+        }
+    }
+
+    private void evictAll() {
+        generation.incrementAndGet();
+        trees.invalidateAll();
+    }
+
+    /**
+     * Link rows of [id, name, leadershipRole, reportingToDevoteeId] into trees and total each subtree, in O(n)
+     */
+    static DistrictTree assemble(String districtCode, List<Object[]> rows) {
+        int n = rows.size();
+        Map<Long, LeaderNode> byId = new HashMap<>(n * 2);
+        List<LeaderNode> nodes = new ArrayList<>(n);
+        for (Object[] row : rows) {
+            LeaderNode node = new LeaderNode((Long) row[0], (String) row[1], (LeadershipRole) row[2], (Long) row[3]);
+            byId.put(node.devoteeId, node);
+            nodes.add(node);
+        }
+
+        List<LeaderNode> roots = new ArrayList<>();
+        for (LeaderNode node : nodes) {
+            LeaderNode parent = node.reportingToDevoteeId == null ? null : byId.get(node.reportingToDevoteeId);
+            if (parent != null && parent != node) {
+                node.parent = parent;
+                parent.subordinates.add(node);
+            } else {
+                roots.add(node);
+            }
+        }
+
+        // Breadth-first from the roots, so every leader comes after the one they report to
+        List<LeaderNode> order = new ArrayList<>(n);
+        for (LeaderNode root : roots) {
+            place(root, order);
+        }
+        if (order.size() < n) {
+            // What is left hangs off a reporting cycle; cut the cycle at one member and make it a root
+            long walk = 0;
+            for (LeaderNode node : nodes) {
+                if (node.placed) {
+                    continue;
+                }
+                walk++;
+                LeaderNode member = node;
+                while (member.walk != walk) {
+                    member.walk = walk;
+                    member = member.parent;
+                }
+                member.parent.subordinates.remove(member);
+                member.parent = null;
+                roots.add(member);
+                place(member, order);
+            }
+        }
+
+        // Children before parents: total each subtree into its parent
+        int[] totals = new int[LeadershipRole.values().length];
+        for (int i = n - 1; i >= 0; i--) {
+            LeaderNode node = order.get(i);
+            node.subtreeSize++;
+            node.counts[node.leadershipRole.ordinal()]++;
+            totals[node.leadershipRole.ordinal()]++;
+            if (node.parent != null) {
+                node.parent.subtreeSize += node.subtreeSize;
+                for (int role = 0; role < totals.length; role++) {
+                    node.parent.counts[role] += node.counts[role];
+                }
+            }
+            node.roleCounts = toRoleCounts(node.counts);
+            node.counts = null;
+        }
+        return new DistrictTree(districtCode, n, toRoleCounts(totals), roots);
+    }
+
+    private static void place(LeaderNode root, List<LeaderNode> order) {
+        int next = order.size();
+        root.placed = true;
+        order.add(root);
+        while (next < order.size()) {
+            for (LeaderNode subordinate : order.get(next++).subordinates) {
+                subordinate.placed = true;
+                order.add(subordinate);
+            }
+        }
+    }
+
+    // Roles with no leaders are left out
+    private static Map<LeadershipRole, Integer> toRoleCounts(int[] counts) {
+        Map<LeadershipRole, Integer> roleCounts = new EnumMap<>(LeadershipRole.class);
+        for (LeadershipRole role : LeadershipRole.values()) {
+            if (counts[role.ordinal()] > 0) {
+                roleCounts.put(role, counts[role.ordinal()]);
+            }
+        }
+        return roleCounts;
+    }
+}
@@ -0,0 +1,141 @@
+package com.namhatta.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.namhatta.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * In-memory map of userId to current session epoch for session.validation-mode=EPOCH.
+ *
+ * Entries are loaded from users.session_epoch on first use and replaced when this instance
+ * advances an epoch or hears about one from another instance (SessionEpochListener). Entries
+ * only ever move forward, and expire after max-staleness as a backstop for a missed notification.
+ */
+@Service
+public class SessionEpochService {
+
+    public static final String CHANNEL = "session_epoch";
+
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final Cache<Long, Long> epochs;
+    private final Counter lookupMisses;
+    private volatile boolean publishing;
+
+    public SessionEpochService(UserRepository userRepository, JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+                               @Value("${session.epoch.cache-size:10000}") long cacheSize,
+                               @Value("${session.epoch.max-staleness-seconds:300}") long maxStalenessSeconds) {
+        this.userRepository = userRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.epochs = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(Duration.ofSeconds(maxStalenessSeconds))
+                .build();
+        this.lookupMisses = Counter.builder("namhatta.session.epoch.misses")
+                .description("Session epoch lookups that had to read users.session_epoch")
+                .register(meterRegistry);
+        meterRegistry.gauge("namhatta.session.epoch.size", epochs, Cache::estimatedSize);
+    }
+
+    /**
+     * True when the token's epoch is the user's current one; no database access once the user is cached.
+     * A token newer than the cached epoch was issued after a change this instance has not heard about yet,
+     * so the epoch is re-read before the token is judged.
+     */
+    public boolean isCurrent(Long userId, Long tokenEpoch) {
+        if (userId == null || tokenEpoch == null) {
+            return false;
+        }
+        Long cached = epochs.get(userId, this::loadEpoch);
+        if (cached == null || tokenEpoch <= cached) {
+            return Objects.equals(cached, tokenEpoch);
+        }
+        Long current = loadEpoch(userId);
+        if (current == null) {
+            return false;
+        }
+        apply(userId, current);
+        return tokenEpoch.equals(current);
+    }
+
+    /**
+     * Move the user to a new epoch, invalidating all tokens issued before.
+     * The local map and other instances see the new epoch only once the surrounding transaction commits.
+     */
+    @Transactional
+    public long advance(Long userId) {
+        userRepository.incrementSessionEpoch(userId);
+        long epoch = userRepository.findSessionEpochById(userId)
+                .orElseThrow(() -> new IllegalArgumentException("User not found"));
+        if (publishing) {
+            // pg_notify is transactional: listeners receive it on commit, never on rollback
+            jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> null, CHANNEL, userId + ":" + epoch);
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(userId, epoch);
+                }
+            });
+        } else {
+            apply(userId, epoch);
+        }
+        return epoch;
+    }
+
+    /**
+     * Record an epoch change; an older epoch than the one already known is ignored
+     */
+    public void apply(Long userId, long epoch) {
+        epochs.asMap().merge(userId, epoch, Math::max);
+    }
+
+    /**
+     * Parse and apply a "userId:epoch" notification payload; malformed payloads are ignored
+     */
+    public void applyNotification(String payload) {
+        if (payload == null) {
+            return;
+        }
+        int separator = payload.indexOf(':');
+        if (separator <= 0) {
+            return;
+        }
+        try {
+            apply(Long.parseLong(payload.substring(0, separator)), Long.parseLong(payload.substring(separator + 1)));
+        } catch (NumberFormatException e) {
+            // Not ours
+        }
+    }
+
+    /**
+     * Forget every cached epoch, e.g. after notifications may have been missed
+     */
+    public void invalidateAll() {
+        epochs.invalidateAll();
+    }
+
+    /**
+     * Send NOTIFY on epoch changes; enabled by SessionEpochListener when the database is PostgreSQL
+     */
+    public void setPublishing(boolean publishing) {
+        this.publishing = publishing;
+    }
+
+    private Long loadEpoch(Long userId) {
+        lookupMisses.increment();
+        return userRepository.findSessionEpochById(userId).orElse(null);
+    }
+}
@@ -1,7 +1,9 @@
 package com.namhatta.service;
 
 import com.namhatta.model.entity.UserSession;
+import com.namhatta.model.enums.SessionValidationMode;
 import com.namhatta.repository.UserSessionRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -14,25 +16,80 @@ import java.util.Optional;
 public class SessionService {
     
     private final UserSessionRepository sessionRepository;
+    private final SessionEpochService sessionEpochService;
+    private final SessionValidationMode mode;
+    private final ExpirySweepService expirySweepService;
+    private final boolean upsert;
     private static final SecureRandom secureRandom = new SecureRandom();
     private static final long SESSION_DURATION_HOURS = 1;
     
-    public SessionService(UserSessionRepository sessionRepository) {
+    public SessionService(UserSessionRepository sessionRepository,
+                          SessionEpochService sessionEpochService,
+                          @Value("${session.validation-mode:DATABASE}") SessionValidationMode mode,
+                          ExpirySweepService expirySweepService,
+                          @Value("${spring.datasource.url:}") String datasourceUrl) {
         this.sessionRepository = sessionRepository;
+        this.sessionEpochService = sessionEpochService;
+        this.mode = mode;
+        this.expirySweepService = expirySweepService;
+        // ON CONFLICT is PostgreSQL syntax; embedded test databases keep the delete-then-insert path
+        this.upsert = datasourceUrl.startsWith("jdbc:postgresql:");
     }
     
     /**
-     * Create a new session for a user (enforces single login)
+     * Session credentials to embed in the JWT; exactly one of the two is set depending on the validation mode
+     */
+    public static class SessionGrant {
+        private final String sessionToken;
+        private final Long sessionEpoch;
+        
+        public SessionGrant(String sessionToken, Long sessionEpoch) {
+            this.sessionToken = sessionToken;
+            this.sessionEpoch = sessionEpoch;
+        }
+        
+        public String getSessionToken() { return sessionToken; }
+        public Long getSessionEpoch() { return sessionEpoch; }
+    }
+    
+    /**
+     * Start a new session for a user, ending any other (single login) in the configured mode
+     */
+    @Transactional
+    public SessionGrant openSession(Long userId) {
+        if (mode == SessionValidationMode.EPOCH) {
+            return new SessionGrant(null, sessionEpochService.advance(userId));
+        }
+        return new SessionGrant(createSession(userId), null);
+    }
+    
+    /**
+     * Validate the session claims of a JWT in the configured mode
+     */
+    public boolean validateSession(Long userId, String sessionToken, Long sessionEpoch) {
+        if (mode == SessionValidationMode.EPOCH) {
+            return sessionEpochService.isCurrent(userId, sessionEpoch);
+        }
+        return validateSession(userId, sessionToken);
+    }
+    
+    /**
+     * Create a new session for a user (enforces single login by replacing any existing one)
      */
     @Transactional
     public String createSession(Long userId) {
+        String sessionToken = generateSessionToken();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plusHours(SESSION_DURATION_HOURS);
+        
+        if (upsert) {
+            sessionRepository.upsertSession(userId, sessionToken, expiresAt, now);
+            return sessionToken;
+        }
+        
         // Delete existing session (single login enforcement)
         sessionRepository.deleteByUserId(userId);
         
-        // Generate session token
-        String sessionToken = generateSessionToken();
-        LocalDateTime expiresAt = LocalDateTime.now().plusHours(SESSION_DURATION_HOURS);
-        
         UserSession session = new UserSession();
         session.setUserId(userId);
         session.setSessionToken(sessionToken);
@@ -73,18 +130,22 @@ public class SessionService {
      */
     @Transactional
     public void removeSession(Long userId) {
+        if (mode == SessionValidationMode.EPOCH) {
+            sessionEpochService.advance(userId);
+            return;
+        }
         sessionRepository.deleteByUserId(userId);
     }
     
     /**
-     * Clean up expired sessions
+     * Clean up expired sessions in chunks
      * Runs every hour
      */
     @Scheduled(cron = "0 0 * * * ?")
-    @Transactional
     public void cleanupExpiredSessions() {
         LocalDateTime now = LocalDateTime.now();
-        sessionRepository.deleteByExpiresAtBefore(now);
+        expirySweepService.sweep(UserSessionRepository.SESSIONS_TABLE,
+                limit -> sessionRepository.deleteExpiredChunk(now, limit));
     }
     
     /**
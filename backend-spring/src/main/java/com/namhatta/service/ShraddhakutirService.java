@@ -3,6 +3,7 @@ package com.namhatta.service;
 import com.namhatta.model.entity.Shraddhakutir;
 import com.namhatta.repository.ShraddhakutirRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -23,6 +24,7 @@ public class ShraddhakutirService {
         return shraddhakutirRepository.findByDistrictCode(districtCode);
     }
 
+    @Transactional
     public Shraddhakutir createShraddhakutir(String name, String districtCode) {
         Shraddhakutir shraddhakutir = new Shraddhakutir();
         shraddhakutir.setName(name);
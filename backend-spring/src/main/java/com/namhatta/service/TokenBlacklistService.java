@@ -4,6 +4,8 @@ import com.namhatta.model.entity.JwtBlacklist;
 import com.namhatta.repository.JwtBlacklistRepository;
 import com.namhatta.security.JwtTokenProvider;
 import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -17,11 +19,25 @@ public class TokenBlacklistService {
     
     private final JwtBlacklistRepository blacklistRepository;
     private final JwtTokenProvider jwtTokenProvider;
+    private final Counter blacklistHits;
+    private final Counter blacklistMisses;
+    private final ExpirySweepService expirySweepService;
     
     public TokenBlacklistService(JwtBlacklistRepository blacklistRepository, 
-                                 JwtTokenProvider jwtTokenProvider) {
+                                 JwtTokenProvider jwtTokenProvider,
+                                 MeterRegistry meterRegistry,
+                                 ExpirySweepService expirySweepService) {
         this.blacklistRepository = blacklistRepository;
         this.jwtTokenProvider = jwtTokenProvider;
+        this.expirySweepService = expirySweepService;
+        this.blacklistHits = Counter.builder("namhatta.jwt.blacklist.lookups")
+                .description("Token blacklist lookups by result")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.blacklistMisses = Counter.builder("namhatta.jwt.blacklist.lookups")
+                .description("Token blacklist lookups by result")
+                .tag("result", "miss")
+                .register(meterRegistry);
     }
     
     /**
@@ -49,17 +65,19 @@ public class TokenBlacklistService {
      * Check if token is blacklisted
      */
     public boolean isTokenBlacklisted(String tokenHash) {
-        return blacklistRepository.existsByTokenHash(tokenHash);
+        boolean blacklisted = blacklistRepository.existsByTokenHash(tokenHash);
+        (blacklisted ? blacklistHits : blacklistMisses).increment();
+        return blacklisted;
     }
     
     /**
-     * Clean up expired tokens from blacklist
+     * Clean up expired tokens from blacklist in chunks
      * Runs daily at 2 AM
      */
     @Scheduled(cron = "0 0 2 * * ?")
-    @Transactional
     public void cleanupExpiredTokens() {
         LocalDateTime now = LocalDateTime.now();
-        blacklistRepository.deleteByExpiredAtBefore(now);
+        expirySweepService.sweep(JwtBlacklistRepository.BLACKLIST_TABLE,
+                limit -> blacklistRepository.deleteExpiredChunk(now, limit));
     }
 }
@@ -0,0 +1,165 @@
+package com.namhatta.service;
+
+import com.namhatta.exception.ValidationException;
+import com.namhatta.model.entity.NamhattaUpdate;
+import com.namhatta.model.entity.NamhattaUpdateRollup;
+import com.namhatta.model.enums.RollupLevel;
+import com.namhatta.model.enums.RollupPeriod;
+import com.namhatta.repository.NamhattaUpdateRollupRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Weekly and monthly activity rollups per namhatta, district and state.
+ * Buckets are incremented as updates are created and fully rebuilt nightly from namhatta_updates.
+ */
+@Service
+public class UpdateRollupService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(UpdateRollupService.class);
+    
+    private final NamhattaUpdateRollupRepository rollupRepository;
+    
+    public UpdateRollupService(NamhattaUpdateRollupRepository rollupRepository) {
+        this.rollupRepository = rollupRepository;
+    }
+    
+    public static class RollupBucket {
+        private String scopeKey;
+        private LocalDate bucketStart;
+        private long programCount;
+        private long attendanceSum;
+        private long prasadDistributionSum;
+        private long nagarKirtanSum;
+        private long bookDistributionSum;
+        private long chantingSum;
+        private long aratiSum;
+        private long bhagwatPathSum;
+        private double averageAttendance;
+        
+        public RollupBucket(NamhattaUpdateRollup rollup) {
+            this.scopeKey = rollup.getScopeKey();
+            this.bucketStart = rollup.getBucketStart();
+            this.programCount = rollup.getProgramCount();
+            this.attendanceSum = rollup.getAttendanceSum();
+            this.prasadDistributionSum = rollup.getPrasadDistributionSum();
+            this.nagarKirtanSum = rollup.getNagarKirtanSum();
+            this.bookDistributionSum = rollup.getBookDistributionSum();
+            this.chantingSum = rollup.getChantingSum();
+            this.aratiSum = rollup.getAratiSum();
+            this.bhagwatPathSum = rollup.getBhagwatPathSum();
+            this.averageAttendance = programCount == 0 ? 0.0 : (double) attendanceSum / programCount;
+        }
+        
+        public String getScopeKey() { return scopeKey; }
+        public LocalDate getBucketStart() { return bucketStart; }
+        public long getProgramCount() { return programCount; }
+        public long getAttendanceSum() { return attendanceSum; }
+        public long getPrasadDistributionSum() { return prasadDistributionSum; }
+        public long getNagarKirtanSum() { return nagarKirtanSum; }
+        public long getBookDistributionSum() { return bookDistributionSum; }
+        public long getChantingSum() { return chantingSum; }
+        public long getAratiSum() { return aratiSum; }
+        public long getBhagwatPathSum() { return bhagwatPathSum; }
+        public double getAverageAttendance() { return averageAttendance; }
+    }
+    
+    /**
+     * Add a newly created update to its namhatta, district and state buckets.
+     * Runs inside the caller's transaction so the rollup commits together with the update.
+     * District and state codes may be null for namhattas without an address.
+     */
+    @Transactional
+    public void recordUpdate(NamhattaUpdate update, String districtCode, String stateCode) {
+        if (update.getProgramDate() == null) {
+            return;
+        }
+        
+        for (RollupPeriod period : RollupPeriod.values()) {
+            LocalDate bucketStart = period.bucketStart(update.getProgramDate());
+            increment(RollupLevel.NAMHATTA, String.valueOf(update.getNamhattaId()), period, bucketStart, update);
+            if (districtCode != null) {
+                increment(RollupLevel.DISTRICT, districtCode, period, bucketStart, update);
+            }
+            if (stateCode != null) {
+                increment(RollupLevel.STATE, stateCode, period, bucketStart, update);
+            }
+        }
+    }
+    
+    /**
+     * Rebuild every bucket from namhatta_updates, correcting drift from edits, deletes or address moves.
+     * Runs nightly at 3 AM
+     */
+    @Scheduled(cron = "${rollups.rebuild-cron:0 0 3 * * ?}")
+    @Transactional
+    public int rebuildAll() {
+        rollupRepository.deleteAllBuckets();
+        
+        int buckets = 0;
+        for (RollupPeriod period : RollupPeriod.values()) {
+            buckets += rollupRepository.rebuildNamhattaBuckets(period.name(), period.truncUnit());
+            buckets += rollupRepository.rebuildDistrictBuckets(period.name(), period.truncUnit());
+            buckets += rollupRepository.rebuildStateBuckets(period.name(), period.truncUnit());
+        }
+        
+        logger.info("Rebuilt {} namhatta update rollup buckets", buckets);
+        return buckets;
+    }
+    
+    /**
+     * Rollup buckets for a level and period, newest first
+     */
+    @Transactional(readOnly = true)
+    public List<RollupBucket> getStats(String level, String period, String scopeKey, LocalDate from, LocalDate to) {
+        RollupLevel rollupLevel = parseEnum(RollupLevel.class, level, "level");
+        RollupPeriod rollupPeriod = parseEnum(RollupPeriod.class, period, "period");
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new ValidationException("from date must not be after to date");
+        }
+        
+        // Align the lower bound so a bucket that starts before 'from' but contains it is included
+        LocalDate fromBucket = from != null ? rollupPeriod.bucketStart(from) : null;
+        String key = scopeKey == null || scopeKey.trim().isEmpty() ? null : scopeKey.trim();
+        
+        List<RollupBucket> buckets = new ArrayList<>();
+        for (NamhattaUpdateRollup rollup : rollupRepository.findBuckets(rollupLevel, rollupPeriod, key, fromBucket, to)) {
+            buckets.add(new RollupBucket(rollup));
+        }
+        return buckets;
+    }
+    
+    private void increment(RollupLevel level, String scopeKey, RollupPeriod period, LocalDate bucketStart,
+                           NamhattaUpdate update) {
+        rollupRepository.incrementBucket(level.name(), scopeKey, period.name(), bucketStart,
+                valueOf(update.getAttendance()),
+                valueOf(update.getPrasadDistribution()),
+                valueOf(update.getNagarKirtan()),
+                valueOf(update.getBookDistribution()),
+                valueOf(update.getChanting()),
+                valueOf(update.getArati()),
+                valueOf(update.getBhagwatPath()));
+    }
+    
+    private long valueOf(Integer value) {
+        return value == null ? 0L : value;
+    }
+    
+    private <E extends Enum<E>> E parseEnum(Class<E> type, String value, String name) {
+        if (value == null || value.trim().isEmpty()) {
+            throw new ValidationException(name + " is required");
+        }
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Invalid " + name + ": " + value, e);
+        }
+    }
+}
@@ -24,15 +24,18 @@ public class UserService {
     private final UserDistrictRepository userDistrictRepository;
     private final PasswordService passwordService;
     private final AddressRepository addressRepository;
+    private final SessionService sessionService;
     
     public UserService(UserRepository userRepository,
                       UserDistrictRepository userDistrictRepository,
                       PasswordService passwordService,
-                      AddressRepository addressRepository) {
+                      AddressRepository addressRepository,
+                      SessionService sessionService) {
         this.userRepository = userRepository;
         this.userDistrictRepository = userDistrictRepository;
         this.passwordService = passwordService;
         this.addressRepository = addressRepository;
+        this.sessionService = sessionService;
     }
     
     /**
@@ -149,6 +152,9 @@ public class UserService {
         
         user.setIsActive(false);
         userRepository.save(user);
+        
+        // End the current session right away rather than when the token expires
+        sessionService.removeSession(id);
     }
     
     /**
@@ -162,10 +168,9 @@ public class UserService {
     }
     
     /**
-     * Get all available districts from addresses
+     * Get all available districts from the district reference table
      */
     public List<DistrictDTO> getAvailableDistricts() {
-        // Query distinct districts from addresses
         List<Object[]> results = addressRepository.findDistinctDistricts();
         
         return results.stream()
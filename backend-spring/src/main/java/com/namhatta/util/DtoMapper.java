@@ -1,6 +1,7 @@
 package com.namhatta.util;
 
 import com.namhatta.dto.DevoteeDTO;
+import com.namhatta.dto.DevoteeSummary;
 import com.namhatta.model.entity.Devotee;
 import com.namhatta.repository.DevoteeRepository;
 import com.namhatta.repository.DevotionalStatusRepository;
@@ -10,6 +11,10 @@ import org.springframework.stereotype.Component;
 
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Component
 public class DtoMapper {
@@ -103,4 +108,70 @@ public class DtoMapper {
         
         return dto;
     }
+
+    /**
+     * Map a projected list row; related names come from the projection query, so no lookups are made.
+     * Projections without the names leave them null for the caller to fill, e.g. by DevoteeService expansion.
+     */
+    public DevoteeDTO toDevoteeDTO(DevoteeSummary summary) {
+        if (summary == null) {
+            return null;
+        }
+
+        DevoteeDTO dto = new DevoteeDTO();
+        dto.setId(summary.getId());
+        dto.setLegalName(summary.getLegalName());
+        dto.setName(summary.getName());
+        dto.setDob(summary.getDob());
+        dto.setEmail(summary.getEmail());
+        dto.setPhone(summary.getPhone());
+        dto.setFatherName(summary.getFatherName());
+        dto.setMotherName(summary.getMotherName());
+        dto.setHusbandName(summary.getHusbandName());
+        dto.setGender(summary.getGender() != null ? summary.getGender().toString() : null);
+        dto.setBloodGroup(summary.getBloodGroup());
+        dto.setMaritalStatus(summary.getMaritalStatus() != null ? summary.getMaritalStatus().toString() : null);
+        dto.setDevotionalStatusId(summary.getDevotionalStatusId());
+        dto.setDevotionalStatusName(summary.getDevotionalStatusName());
+        dto.setNamhattaId(summary.getNamhattaId());
+        dto.setNamhattaName(summary.getNamhattaName());
+        dto.setHarinamInitiationGurudevId(summary.getHarinamInitiationGurudevId());
+        dto.setPancharatrikInitiationGurudevId(summary.getPancharatrikInitiationGurudevId());
+        dto.setInitiatedName(summary.getInitiatedName());
+        dto.setHarinamDate(summary.getHarinamDate());
+        dto.setPancharatrikDate(summary.getPancharatrikDate());
+        dto.setEducation(summary.getEducation());
+        dto.setOccupation(summary.getOccupation());
+        dto.setShraddhakutirId(summary.getShraddhakutirId());
+        dto.setShraddhakutirName(summary.getShraddhakutirName());
+        dto.setLeadershipRole(summary.getLeadershipRole() != null ? summary.getLeadershipRole().toString() : null);
+        dto.setReportingToDevoteeId(summary.getReportingToDevoteeId());
+        dto.setReportingToDevoteeName(summary.getReportingToDevoteeName());
+        dto.setHasSystemAccess(summary.getHasSystemAccess());
+        dto.setAppointedDate(summary.getAppointedDate());
+        dto.setAppointedBy(summary.getAppointedBy());
+        dto.setCreatedAt(summary.getCreatedAt());
+        dto.setUpdatedAt(summary.getUpdatedAt());
+        return dto;
+    }
+
+    /**
+     * Collect an ID for a batched name lookup, skipping nulls
+     */
+    public static void addIfPresent(Set<Long> ids, Long id) {
+        if (id != null) {
+            ids.add(id);
+        }
+    }
+
+    /**
+     * Index the rows of a findNamesByIds query, each [id, name], by ID
+     */
+    public static Map<Long, String> toNameMap(List<Object[]> rows) {
+        Map<Long, String> names = new HashMap<>();
+        for (Object[] row : rows) {
+            names.put((Long) row[0], (String) row[1]);
+        }
+        return names;
+    }
 }
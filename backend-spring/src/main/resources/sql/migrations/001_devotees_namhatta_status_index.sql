@@ -0,0 +1,7 @@
+-- Migration 001: composite index for namhatta devotee listing and status counts
+-- Backs DevoteeRepository.findByNamhattaIdAndDevotionalStatusId (paged) and
+-- DevoteeRepository.countByDevotionalStatusForNamhatta (GROUP BY devotional_status_id)
+-- Safe to re-run
+
+CREATE INDEX IF NOT EXISTS idx_devotees_namhatta_status
+    ON devotees (namhatta_id, devotional_status_id);
@@ -0,0 +1,9 @@
+-- Migration 002: keyset indexes for the update feed (/api/updates/feed)
+-- Backs the text-date ordered lists (findAllByOrderByDateDesc, findByNamhattaIdOrderByDateDesc); the feed moved to program_date in 010
+-- Safe to re-run
+
+CREATE INDEX IF NOT EXISTS idx_namhatta_updates_date_id
+    ON namhatta_updates (date DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_namhatta_updates_namhatta_date_id
+    ON namhatta_updates (namhatta_id, date DESC, id DESC);
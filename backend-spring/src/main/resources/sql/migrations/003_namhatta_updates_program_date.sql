@@ -0,0 +1,17 @@
+-- Migration 003: typed program date for namhatta_updates
+-- Adds program_date (DATE), backfills it from the text date column and indexes it per namhatta
+-- Rows whose text date does not start with yyyy-MM-dd keep program_date NULL and are excluded from range queries
+-- Safe to re-run
+
+ALTER TABLE namhatta_updates ADD COLUMN IF NOT EXISTS program_date DATE;
+
+UPDATE namhatta_updates
+SET program_date = to_date(substring(date FROM 1 FOR 10), 'YYYY-MM-DD')
+WHERE program_date IS NULL
+  AND date ~ '^[0-9]{4}-[0-9]{2}-[0-9]{2}';
+
+CREATE INDEX IF NOT EXISTS idx_namhatta_updates_namhatta_program_date
+    ON namhatta_updates (namhatta_id, program_date);
+
+-- Check for rows that could not be backfilled
+SELECT COUNT(*) AS unparsed_dates FROM namhatta_updates WHERE program_date IS NULL;
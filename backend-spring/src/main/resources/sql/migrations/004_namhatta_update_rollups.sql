@@ -0,0 +1,23 @@
+-- Migration 004: weekly/monthly activity rollups
+-- One row per (level, scope_key, period, bucket_start); level is NAMHATTA, DISTRICT or STATE and
+-- scope_key is the namhatta id, district code or state code. Rows are upserted on every new update
+-- and rebuilt nightly (or via POST /api/updates/stats/rebuild) from namhatta_updates.program_date.
+-- Safe to re-run
+
+CREATE TABLE IF NOT EXISTS namhatta_update_rollups (
+    id SERIAL PRIMARY KEY,
+    level TEXT NOT NULL,
+    scope_key TEXT NOT NULL,
+    period TEXT NOT NULL,
+    bucket_start DATE NOT NULL,
+    program_count BIGINT NOT NULL DEFAULT 0,
+    attendance_sum BIGINT NOT NULL DEFAULT 0,
+    prasad_distribution_sum BIGINT NOT NULL DEFAULT 0,
+    nagar_kirtan_sum BIGINT NOT NULL DEFAULT 0,
+    book_distribution_sum BIGINT NOT NULL DEFAULT 0,
+    chanting_sum BIGINT NOT NULL DEFAULT 0,
+    arati_sum BIGINT NOT NULL DEFAULT 0,
+    bhagwat_path_sum BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT now(),
+    CONSTRAINT uq_namhatta_update_rollups_bucket UNIQUE (level, scope_key, period, bucket_start)
+);
@@ -0,0 +1,5 @@
+-- Migration 005: per-user session epoch for session.validation-mode=EPOCH
+-- Login, logout and deactivation increment the epoch; tokens carrying an older epoch are rejected
+-- Safe to re-run
+
+ALTER TABLE users ADD COLUMN IF NOT EXISTS session_epoch BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,26 @@
+-- Migration 006: guarantee a unique index on user_sessions.user_id
+-- SessionService.createSession upserts with ON CONFLICT (user_id), which needs a unique index on exactly
+-- that column. The schema declares it UNIQUE, but databases created by hand may only have the plain
+-- idx_user_sessions_user_id index. Keeps the newest session per user before adding the index.
+-- Safe to re-run
+
+DELETE FROM user_sessions s
+USING user_sessions newer
+WHERE newer.user_id = s.user_id
+  AND newer.id > s.id;
+
+DO $$
+BEGIN
+    IF NOT EXISTS (
+        SELECT 1
+        FROM pg_index i
+        JOIN pg_attribute a ON a.attrelid = i.indrelid AND a.attnum = i.indkey[0]
+        WHERE i.indrelid = 'user_sessions'::regclass
+          AND i.indisunique
+          AND i.indnkeyatts = 1
+          AND i.indpred IS NULL
+          AND a.attname = 'user_id'
+    ) THEN
+        CREATE UNIQUE INDEX user_sessions_user_id_unique ON user_sessions (user_id);
+    END IF;
+END $$;
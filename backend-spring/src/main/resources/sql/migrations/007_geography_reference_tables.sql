@@ -0,0 +1,106 @@
+-- Migration 007: reference geography tables keyed by census code, with foreign keys from addresses
+-- The geography lists (AddressRepository.findDistinct*) read these small tables instead of scanning addresses.
+-- They are seeded here from the coded rows already in addresses; GeographyImportService loads the full
+-- census village directory on top.
+-- Safe to re-run
+
+CREATE TABLE IF NOT EXISTS states (
+    code         TEXT PRIMARY KEY,
+    name_english TEXT NOT NULL,
+    country      TEXT NOT NULL DEFAULT 'India'
+);
+
+CREATE TABLE IF NOT EXISTS districts (
+    code         TEXT PRIMARY KEY,
+    state_code   TEXT REFERENCES states (code),
+    name_english TEXT NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS subdistricts (
+    code          TEXT PRIMARY KEY,
+    district_code TEXT REFERENCES districts (code),
+    name_english  TEXT NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS pincodes (
+    pincode       TEXT PRIMARY KEY,
+    district_code TEXT REFERENCES districts (code)
+);
+
+CREATE TABLE IF NOT EXISTS villages (
+    code             TEXT PRIMARY KEY,
+    subdistrict_code TEXT REFERENCES subdistricts (code),
+    name_english     TEXT NOT NULL,
+    pincode          TEXT REFERENCES pincodes (pincode)
+);
+
+-- Seed from addresses; where one code was entered with several names the most recent row wins
+INSERT INTO states (code, name_english, country)
+SELECT DISTINCT ON (state_code) state_code, COALESCE(state_name_english, state_code), country
+FROM addresses
+WHERE state_code IS NOT NULL
+ORDER BY state_code, created_at DESC
+ON CONFLICT (code) DO NOTHING;
+
+INSERT INTO districts (code, state_code, name_english)
+SELECT DISTINCT ON (district_code) district_code, state_code, COALESCE(district_name_english, district_code)
+FROM addresses
+WHERE district_code IS NOT NULL
+ORDER BY district_code, created_at DESC
+ON CONFLICT (code) DO NOTHING;
+
+INSERT INTO subdistricts (code, district_code, name_english)
+SELECT DISTINCT ON (subdistrict_code) subdistrict_code, district_code, COALESCE(subdistrict_name_english, subdistrict_code)
+FROM addresses
+WHERE subdistrict_code IS NOT NULL
+ORDER BY subdistrict_code, created_at DESC
+ON CONFLICT (code) DO NOTHING;
+
+INSERT INTO pincodes (pincode, district_code)
+SELECT DISTINCT ON (pincode) pincode, district_code
+FROM addresses
+WHERE pincode IS NOT NULL
+ORDER BY pincode, created_at DESC
+ON CONFLICT (pincode) DO NOTHING;
+
+INSERT INTO villages (code, subdistrict_code, name_english, pincode)
+SELECT DISTINCT ON (village_code) village_code, subdistrict_code, COALESCE(village_name_english, village_code), pincode
+FROM addresses
+WHERE village_code IS NOT NULL
+ORDER BY village_code, created_at DESC
+ON CONFLICT (code) DO NOTHING;
+
+CREATE INDEX IF NOT EXISTS idx_states_country_name ON states (country, name_english);
+CREATE INDEX IF NOT EXISTS idx_districts_state_code ON districts (state_code);
+CREATE INDEX IF NOT EXISTS idx_districts_name ON districts (name_english);
+CREATE INDEX IF NOT EXISTS idx_subdistricts_district_code ON subdistricts (district_code);
+CREATE INDEX IF NOT EXISTS idx_subdistricts_name ON subdistricts (name_english);
+CREATE INDEX IF NOT EXISTS idx_villages_subdistrict_code ON villages (subdistrict_code);
+CREATE INDEX IF NOT EXISTS idx_villages_pincode ON villages (pincode);
+CREATE INDEX IF NOT EXISTS idx_villages_name ON villages (name_english);
+CREATE INDEX IF NOT EXISTS idx_pincodes_district_code ON pincodes (district_code);
+
+-- Every code in addresses now has a reference row, so the constraints validate
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'fk_addresses_state') THEN
+        ALTER TABLE addresses ADD CONSTRAINT fk_addresses_state
+            FOREIGN KEY (state_code) REFERENCES states (code);
+    END IF;
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'fk_addresses_district') THEN
+        ALTER TABLE addresses ADD CONSTRAINT fk_addresses_district
+            FOREIGN KEY (district_code) REFERENCES districts (code);
+    END IF;
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'fk_addresses_subdistrict') THEN
+        ALTER TABLE addresses ADD CONSTRAINT fk_addresses_subdistrict
+            FOREIGN KEY (subdistrict_code) REFERENCES subdistricts (code);
+    END IF;
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'fk_addresses_village') THEN
+        ALTER TABLE addresses ADD CONSTRAINT fk_addresses_village
+            FOREIGN KEY (village_code) REFERENCES villages (code);
+    END IF;
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'fk_addresses_pincode') THEN
+        ALTER TABLE addresses ADD CONSTRAINT fk_addresses_pincode
+            FOREIGN KEY (pincode) REFERENCES pincodes (pincode);
+    END IF;
+END $$;
@@ -0,0 +1,16 @@
+-- Migration 008: composite code index on addresses for the geography filters
+-- Backs the stateCodes/districtCodes/subdistrictCodes/villageCodes filters of DevoteeRepository and
+-- NamhattaRepository (findSummariesWithFilters) and the ReportService drill-downs
+-- (AddressRepository.find*WithAddresses). Names are resolved to codes first and parent codes are always
+-- filled in, so every filter is a prefix of this index; INCLUDE (id) keeps the lookup index-only.
+-- The link-table indexes let the planner go from the matching address ids to devotees and namhattas.
+-- Safe to re-run
+
+CREATE INDEX IF NOT EXISTS idx_addresses_geography_codes
+    ON addresses (state_code, district_code, subdistrict_code, village_code) INCLUDE (id);
+
+CREATE INDEX IF NOT EXISTS idx_devotee_addresses_address_devotee
+    ON devotee_addresses (address_id, devotee_id);
+
+CREATE INDEX IF NOT EXISTS idx_namhatta_addresses_address_namhatta
+    ON namhatta_addresses (address_id, namhatta_id);
@@ -0,0 +1,14 @@
+-- Migration 009: latitude / longitude for pincodes, addresses and namhatta addresses
+-- pincodes holds the gazetteer centroid (GeographyImportService.geocodePincodes); addresses copy it;
+-- namhatta_addresses holds an exact meeting place when one was given. NamhattaLocationIndex reads
+-- COALESCE(namhatta_addresses, addresses) to place approved namhattas on the map.
+-- Safe to re-run
+
+ALTER TABLE pincodes ADD COLUMN IF NOT EXISTS latitude DOUBLE PRECISION;
+ALTER TABLE pincodes ADD COLUMN IF NOT EXISTS longitude DOUBLE PRECISION;
+
+ALTER TABLE addresses ADD COLUMN IF NOT EXISTS latitude DOUBLE PRECISION;
+ALTER TABLE addresses ADD COLUMN IF NOT EXISTS longitude DOUBLE PRECISION;
+
+ALTER TABLE namhatta_addresses ADD COLUMN IF NOT EXISTS latitude DOUBLE PRECISION;
+ALTER TABLE namhatta_addresses ADD COLUMN IF NOT EXISTS longitude DOUBLE PRECISION;
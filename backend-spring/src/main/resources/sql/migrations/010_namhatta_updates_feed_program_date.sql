@@ -0,0 +1,9 @@
+-- Migration 010: keyset indexes for the update feed on program_date (/api/updates/feed)
+-- Backs NamhattaUpdateRepository.findFeed ORDER BY program_date DESC NULLS LAST, id DESC
+-- Safe to re-run
+
+CREATE INDEX IF NOT EXISTS idx_namhatta_updates_program_date_id
+    ON namhatta_updates (program_date DESC NULLS LAST, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_namhatta_updates_namhatta_program_date_id
+    ON namhatta_updates (namhatta_id, program_date DESC NULLS LAST, id DESC);
@@ -114,6 +114,57 @@ SELECT
         WHERE tablename = 'addresses' AND indexname LIKE '%pincode%'
     ) THEN 'EXISTS' ELSE 'MISSING' END as status
 
+UNION ALL
+-- Verify indexes added by sql/migrations
+SELECT 
+    'devotees.namhatta_id+devotional_status_id' as index_name,
+    CASE WHEN EXISTS (
+        SELECT 1 FROM pg_indexes 
+        WHERE tablename = 'devotees' AND indexname = 'idx_devotees_namhatta_status'
+    ) THEN 'EXISTS' ELSE 'MISSING' END as status
+UNION ALL
+SELECT 
+    'namhatta_updates.date+id' as index_name,
+    CASE WHEN EXISTS (
+        SELECT 1 FROM pg_indexes 
+        WHERE tablename = 'namhatta_updates' AND indexname = 'idx_namhatta_updates_date_id'
+    ) THEN 'EXISTS' ELSE 'MISSING' END as status
+UNION ALL
+SELECT 
+    'namhatta_updates.namhatta_id+date+id' as index_name,
+    CASE WHEN EXISTS (
+        SELECT 1 FROM pg_indexes 
+        WHERE tablename = 'namhatta_updates' AND indexname = 'idx_namhatta_updates_namhatta_date_id'
+    ) THEN 'EXISTS' ELSE 'MISSING' END as status
+UNION ALL
+SELECT 
+    'namhatta_updates.namhatta_id+program_date' as index_name,
+    CASE WHEN EXISTS (
+        SELECT 1 FROM pg_indexes 
+        WHERE tablename = 'namhatta_updates' AND indexname = 'idx_namhatta_updates_namhatta_program_date'
+    ) THEN 'EXISTS' ELSE 'MISSING' END as status
+UNION ALL
+SELECT 
+    'namhatta_updates.program_date+id' as index_name,
+    CASE WHEN EXISTS (
+        SELECT 1 FROM pg_indexes 
+        WHERE tablename = 'namhatta_updates' AND indexname = 'idx_namhatta_updates_program_date_id'
+    ) THEN 'EXISTS' ELSE 'MISSING' END as status
+UNION ALL
+SELECT 
+    'namhatta_updates.namhatta_id+program_date+id' as index_name,
+    CASE WHEN EXISTS (
+        SELECT 1 FROM pg_indexes 
+        WHERE tablename = 'namhatta_updates' AND indexname = 'idx_namhatta_updates_namhatta_program_date_id'
+    ) THEN 'EXISTS' ELSE 'MISSING' END as status
+UNION ALL
+SELECT 
+    'namhatta_update_rollups.level+scope_key+period+bucket_start' as index_name,
+    CASE WHEN EXISTS (
+        SELECT 1 FROM pg_indexes 
+        WHERE tablename = 'namhatta_update_rollups' AND indexname = 'uq_namhatta_update_rollups_bucket'
+    ) THEN 'EXISTS' ELSE 'MISSING' END as status
+
 UNION ALL
 -- Verify indexes on jwt_blacklist table
 SELECT 
@@ -0,0 +1,69 @@
+package com.namhatta.config;
+
+import com.namhatta.service.QueryDiagnosticsService;
+import com.namhatta.support.QueryCountAssertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryCountingInspectorTest {
+
+    private final QueryCountingInspector inspector = new QueryCountingInspector();
+
+    @Test
+    void countsStatementsOnlyWhileContextIsActive() throws Exception {
+        inspector.inspect("select 1");
+
+        int count = QueryCountAssertions.assertMaxQueries(3, () -> {
+            inspector.inspect("select * from devotees where id=?");
+            inspector.inspect("select * from devotees where id=?");
+        });
+
+        assertEquals(2, count);
+        assertNull(RequestQueryContext.current());
+    }
+
+    @Test
+    void assertMaxQueriesReportsMostRepeatedStatement() {
+        AssertionError error = assertThrows(AssertionError.class, () ->
+                QueryCountAssertions.assertMaxQueries(2, () -> {
+                    inspector.inspect("select * from namhattas");
+                    for (int i = 0; i < 5; i++) {
+                        inspector.inspect("select * from devotees where id=?");
+                    }
+                }));
+
+        assertTrue(error.getMessage().contains("6 were executed"));
+        assertTrue(error.getMessage().contains("(5x): select * from devotees where id=?"));
+    }
+
+    @Test
+    void inspectorLeavesSqlUnchanged() {
+        assertEquals("select 1", inspector.inspect("select 1"));
+    }
+
+    @Test
+    void reportGroupsFlaggedRequestsByRouteWorstFirst() {
+        QueryDiagnosticsService service = new QueryDiagnosticsService(20, 1000, 3);
+        assertFalse(service.exceedsThreshold(20, 1000));
+        assertTrue(service.exceedsThreshold(21, 10));
+
+        service.record(flagged("/api/devotees", 25));
+        service.record(flagged("/api/namhattas", 40));
+        service.record(flagged("/api/devotees", 60));
+        service.record(flagged("/api/devotees", 30));
+
+        QueryDiagnosticsService.QueryDiagnosticsReport report = service.getReport(10);
+        assertEquals(3, report.getRecent().size());
+        assertEquals(30, report.getRecent().get(0).getStatementCount());
+        assertEquals("GET /api/devotees", report.getRoutes().get(0).getRoute());
+        assertEquals(60, report.getRoutes().get(0).getMaxStatements());
+        assertEquals(2, report.getRoutes().get(0).getFlaggedCount());
+    }
+
+    private QueryDiagnosticsService.FlaggedRequest flagged(String route, int statements) {
+        return new QueryDiagnosticsService.FlaggedRequest(LocalDateTime.now(), "GET", route, statements, 5, 50, null, 0);
+    }
+}
@@ -0,0 +1,204 @@
+package com.namhatta.config;
+
+import com.namhatta.model.entity.User;
+import com.namhatta.model.enums.UserRole;
+import com.namhatta.security.CustomUserDetails;
+import com.namhatta.support.PostgresTestDatabase;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ReplicaRoutingDataSourceTest {
+
+    private DataSource primary;
+    private DataSource replica;
+    private Connection primaryConnection;
+    private Connection replicaConnection;
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        primary = mock(DataSource.class);
+        replica = mock(DataSource.class);
+        primaryConnection = mock(Connection.class);
+        replicaConnection = mock(Connection.class);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+        when(replicaConnection.isValid(anyInt())).thenReturn(true);
+
+        routingDataSource = new ReplicaRoutingDataSource(primary, replica, Duration.ofSeconds(5), 0,
+                new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransactionUsesReplica() throws SQLException {
+        beginTransaction(true);
+
+        assertSame(replicaConnection, routingDataSource.getConnection());
+    }
+
+    @Test
+    void readWriteAndNonTransactionalWorkUsesPrimary() throws SQLException {
+        assertSame(primaryConnection, routingDataSource.getConnection());
+
+        beginTransaction(false);
+        assertSame(primaryConnection, routingDataSource.getConnection());
+    }
+
+    @Test
+    void userIsPinnedToPrimaryAfterOwnWriteCommits() throws SQLException {
+        authenticate(7L);
+        TransactionSynchronizationManager.initSynchronization();
+        beginTransaction(false);
+        routingDataSource.getConnection().prepareStatement("/* update Devotee */ update devotees set name=? where id=?");
+
+        beginTransaction(true);
+        assertSame(replicaConnection, routingDataSource.getConnection());
+
+        commit();
+        assertSame(primaryConnection, routingDataSource.getConnection());
+
+        authenticate(8L);
+        assertSame(replicaConnection, routingDataSource.getConnection());
+    }
+
+    @Test
+    void readWriteTransactionThatOnlyReadsDoesNotPin() throws SQLException {
+        Statement statement = mock(Statement.class);
+        when(primaryConnection.createStatement()).thenReturn(statement);
+        authenticate(7L);
+        TransactionSynchronizationManager.initSynchronization();
+        beginTransaction(false);
+        Connection connection = routingDataSource.getConnection();
+        connection.prepareStatement("select d1_0.id from devotees d1_0 where d1_0.id=?");
+        connection.createStatement().executeQuery("SELECT 1");
+        commit();
+
+        beginTransaction(true);
+        assertSame(replicaConnection, routingDataSource.getConnection());
+        verify(statement).executeQuery("SELECT 1");
+    }
+
+    @Test
+    void rolledBackWriteDoesNotPin() throws SQLException {
+        Statement statement = mock(Statement.class);
+        when(primaryConnection.createStatement()).thenReturn(statement);
+        authenticate(7L);
+        TransactionSynchronizationManager.initSynchronization();
+        beginTransaction(false);
+        routingDataSource.getConnection().createStatement().executeUpdate("DELETE FROM user_sessions");
+        rollback();
+
+        beginTransaction(true);
+        assertSame(replicaConnection, routingDataSource.getConnection());
+    }
+
+    @Test
+    void caughtUpReplicaOfIdlePrimaryReportsNoLag() throws SQLException {
+        // Evaluate the lag query on a plain server with the replica functions replaced by fixed values:
+        // last replayed transaction an hour ago, and either nothing or something still to replay
+        String idle = ReplicaRoutingDataSource.REPLICATION_LAG_SQL
+                .replace("pg_last_wal_receive_lsn()", "'0/3000060'::pg_lsn")
+                .replace("pg_last_wal_replay_lsn()", "'0/3000060'::pg_lsn")
+                .replace("pg_last_xact_replay_timestamp()", "(now() - interval '1 hour')");
+        String behind = idle.replaceFirst("'0/3000060'::pg_lsn", "'0/3000100'::pg_lsn");
+
+        try (Connection connection = PostgresTestDatabase.dataSource().getConnection()) {
+            assertEquals(0, lag(connection, idle));
+            assertEquals(3600, lag(connection, behind), 1);
+        }
+    }
+
+    @Test
+    void replicaWithinLagLimitStaysHealthy() throws SQLException {
+        Statement statement = mock(Statement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(replicaConnection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(ReplicaRoutingDataSource.REPLICATION_LAG_SQL)).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getDouble(1)).thenReturn(0.0, 45.0);
+        routingDataSource = new ReplicaRoutingDataSource(primary, replica, Duration.ofSeconds(5), 30,
+                new SimpleMeterRegistry());
+
+        routingDataSource.checkReplicaHealth();
+        assertTrue(routingDataSource.isReplicaHealthy());
+
+        routingDataSource.checkReplicaHealth();
+        assertFalse(routingDataSource.isReplicaHealthy());
+    }
+
+    @Test
+    void fallsBackToPrimaryWhenReplicaFailsUntilHealthCheckPasses() throws SQLException {
+        when(replica.getConnection()).thenThrow(new SQLException("replica down")).thenReturn(replicaConnection);
+        beginTransaction(true);
+
+        assertSame(primaryConnection, routingDataSource.getConnection());
+        assertFalse(routingDataSource.isReplicaHealthy());
+        assertSame(primaryConnection, routingDataSource.getConnection());
+
+        routingDataSource.checkReplicaHealth();
+        assertTrue(routingDataSource.isReplicaHealthy());
+        assertSame(replicaConnection, routingDataSource.getConnection());
+    }
+
+    private void commit() {
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    private void rollback() {
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    private static double lag(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(sql)) {
+            resultSet.next();
+            return resultSet.getDouble(1);
+        }
+    }
+
+    private void beginTransaction(boolean readOnly) {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+    }
+
+    private void authenticate(Long userId) {
+        User user = new User();
+        user.setId(userId);
+        user.setUsername("user" + userId);
+        user.setRole(UserRole.DISTRICT_SUPERVISOR);
+        user.setIsActive(true);
+        CustomUserDetails details = new CustomUserDetails(user, List.of());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(details, null, details.getAuthorities()));
+    }
+}
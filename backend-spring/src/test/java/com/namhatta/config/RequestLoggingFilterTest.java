@@ -0,0 +1,63 @@
+package com.namhatta.config;
+
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class RequestLoggingFilterTest {
+
+    private final AccessLogWriter accessLogWriter = mock(AccessLogWriter.class);
+
+    @Test
+    void logsRouteStatusAndBytesWithoutBufferingBody() throws Exception {
+        RequestLoggingFilter filter = new RequestLoggingFilter(accessLogWriter, 1.0);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/namhattas/42");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        byte[] body = "{\"id\":42}".getBytes(StandardCharsets.UTF_8);
+
+        FilterChain chain = (req, res) -> {
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/namhattas/{id}");
+            res.getOutputStream().write(body);
+            // Body reaches the real response immediately, not after the filter returns
+            assertThat(response.getContentAsByteArray()).isEqualTo(body);
+        };
+        filter.doFilter(request, response, chain);
+
+        ArgumentCaptor<AccessLogWriter.AccessLogEntry> entry = ArgumentCaptor.forClass(AccessLogWriter.AccessLogEntry.class);
+        verify(accessLogWriter).submit(entry.capture());
+        assertThat(entry.getValue().getRoute()).isEqualTo("/api/namhattas/{id}");
+        assertThat(entry.getValue().getStatus()).isEqualTo(200);
+        assertThat(entry.getValue().getBytes()).isEqualTo(body.length);
+    }
+
+    @Test
+    void skipsSuccessWhenSampledOutButAlwaysLogsErrors() throws Exception {
+        RequestLoggingFilter filter = new RequestLoggingFilter(accessLogWriter, 0.0);
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/devotees"), new MockHttpServletResponse(),
+                (req, res) -> res.getWriter().write("[]"));
+        verify(accessLogWriter, never()).submit(any());
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/devotees/9"), new MockHttpServletResponse(),
+                (req, res) -> ((jakarta.servlet.http.HttpServletResponse) res).setStatus(404));
+        verify(accessLogWriter, times(1)).submit(any());
+    }
+
+    @Test
+    void ignoresNonApiPaths() throws Exception {
+        RequestLoggingFilter filter = new RequestLoggingFilter(accessLogWriter, 1.0);
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/swagger-ui/index.html"), new MockHttpServletResponse(),
+                (req, res) -> { });
+
+        verifyNoInteractions(accessLogWriter);
+    }
+}
@@ -0,0 +1,67 @@
+package com.namhatta.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.cache.spi.RegionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SecondLevelCacheConfigTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CacheManager cacheManager = new SecondLevelCacheConfig()
+            .hibernateCacheManager(meterRegistry, 100, 60, 1000, 30, 100, 10);
+
+    @AfterEach
+    void tearDown() {
+        cacheManager.close();
+    }
+
+    @Test
+    void createsEveryRegionHibernateNeeds() {
+        for (String region : new String[] {
+                SecondLevelCacheConfig.DEVOTIONAL_STATUS_REGION,
+                SecondLevelCacheConfig.GURUDEV_REGION,
+                SecondLevelCacheConfig.SHRADDHAKUTIR_REGION,
+                SecondLevelCacheConfig.ADDRESS_REGION,
+                RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+                RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME}) {
+            assertNotNull(cacheManager.getCache(region), region);
+        }
+    }
+
+    @Test
+    void publishesHitRatioPerRegion() {
+        Cache<Object, Object> statuses = cacheManager.getCache(SecondLevelCacheConfig.DEVOTIONAL_STATUS_REGION);
+        statuses.put(1L, "Shraddhavan");
+        statuses.get(1L);
+        statuses.get(1L);
+        statuses.get(1L);
+        statuses.get(2L);
+
+        double ratio = meterRegistry.get("namhatta.cache.l2.hit.ratio")
+                .tag("region", SecondLevelCacheConfig.DEVOTIONAL_STATUS_REGION).gauge().value();
+        double hits = meterRegistry.get("namhatta.cache.l2.requests")
+                .tag("region", SecondLevelCacheConfig.DEVOTIONAL_STATUS_REGION).tag("result", "hit")
+                .functionCounter().count();
+
+        assertEquals(0.75, ratio, 0.001);
+        assertEquals(3.0, hits);
+    }
+
+    @Test
+    void regionsArePrivateToEachContext() {
+        CacheManager other = new SecondLevelCacheConfig()
+                .hibernateCacheManager(new SimpleMeterRegistry(), 100, 60, 1000, 30, 100, 10);
+        try {
+            assertNotSame(cacheManager.getCache(SecondLevelCacheConfig.GURUDEV_REGION),
+                    other.getCache(SecondLevelCacheConfig.GURUDEV_REGION));
+        } finally {
+            other.close();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.namhatta.config;
+
+import com.namhatta.exception.ValidationException;
+import com.namhatta.repository.NamhattaUpdateRollupRepository;
+import com.namhatta.service.UpdateRollupService;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class ServiceMetricsAspectTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private UpdateRollupService proxiedService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        AspectJProxyFactory factory = new AspectJProxyFactory(
+                new UpdateRollupService(mock(NamhattaUpdateRollupRepository.class)));
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new ServiceMetricsAspect(meterRegistry));
+        proxiedService = factory.getProxy();
+    }
+
+    @Test
+    void timesSuccessfulServiceCall() {
+        proxiedService.getStats("district", "month", null, null, null);
+
+        Timer timer = meterRegistry.find(ServiceMetricsAspect.METRIC_NAME)
+                .tags("class", "UpdateRollupService", "method", "getStats", "exception", "none")
+                .timer();
+        assertThat(timer).isNotNull();
+        assertThat(timer.count()).isEqualTo(1);
+    }
+
+    @Test
+    void tagsFailedServiceCallWithExceptionType() {
+        assertThatThrownBy(() -> proxiedService.getStats("planet", "month", null, null, null))
+                .isInstanceOf(ValidationException.class);
+
+        Timer timer = meterRegistry.find(ServiceMetricsAspect.METRIC_NAME)
+                .tags("method", "getStats", "exception", "ValidationException")
+                .timer();
+        assertThat(timer).isNotNull();
+        assertThat(timer.count()).isEqualTo(1);
+    }
+}
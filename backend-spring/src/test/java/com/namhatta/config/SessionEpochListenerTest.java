@@ -0,0 +1,34 @@
+package com.namhatta.config;
+
+import com.namhatta.service.SessionEpochService;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class SessionEpochListenerTest {
+
+    private static final String POOLER =
+            "jdbc:postgresql://ep-quiet-bird-123456-pooler.us-east-2.aws.neon.tech/neondb?sslmode=require";
+    private static final String DIRECT =
+            "jdbc:postgresql://ep-quiet-bird-123456.us-east-2.aws.neon.tech/neondb?sslmode=require";
+
+    @Test
+    void poolerHostIsDetected() {
+        assertTrue(SessionEpochListener.isPoolerUrl(POOLER));
+        assertFalse(SessionEpochListener.isPoolerUrl(DIRECT));
+        assertFalse(SessionEpochListener.isPoolerUrl("jdbc:postgresql://localhost:5432/app?application_name=x-pooler"));
+    }
+
+    @Test
+    void startupFailsWhenListeningThroughThePooler() {
+        SessionEpochService sessionEpochService = mock(SessionEpochService.class);
+        DataSourceProperties dataSourceProperties = new DataSourceProperties();
+        dataSourceProperties.setUrl(POOLER);
+
+        assertThrows(IllegalStateException.class,
+                () -> new SessionEpochListener(sessionEpochService, dataSourceProperties, "", 5000, 5000));
+        verify(sessionEpochService, never()).setPublishing(true);
+    }
+}
@@ -0,0 +1,219 @@
+package com.namhatta.loadtest;
+
+import com.namhatta.NamhattaManagementSystemApplication;
+import com.namhatta.dto.DevoteeSummary;
+import com.namhatta.dto.NamhattaSummary;
+import com.namhatta.model.entity.Devotee;
+import com.namhatta.model.entity.Namhatta;
+import com.namhatta.model.entity.User;
+import com.namhatta.model.enums.Gender;
+import com.namhatta.model.enums.NamhattaStatus;
+import com.namhatta.model.enums.UserRole;
+import com.namhatta.repository.DevoteeRepository;
+import com.namhatta.repository.NamhattaRepository;
+import com.namhatta.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Heap allocation per 1000-row list page: managed entities versus constructor projections.
+ *
+ * Each variant loads one page with the list filters and touches every row. The entity variants
+ * are the list endpoints before the switch to DevoteeSummary / NamhattaSummary, kept here as
+ * JPQL over the repositories' filter clauses; the summary variants go through the repositories
+ * as the endpoints do now. Allocation
+ * is read from the current thread's allocated-bytes counter, so JDBC driver and Hibernate work
+ * are included but background threads are not.
+ *
+ * Not a JUnit test; boots the application without the web server against the configured
+ * datasource, so pass the usual Spring arguments, e.g.:
+ *   java -cp target/classes:target/test-classes:$DEPS com.namhatta.loadtest.ListAllocationBenchmark \
+ *       --spring.profiles.active=dev --spring.datasource.url=jdbc:postgresql://localhost:5432/namhatta
+ *
+ * System properties:
+ *   pageSize     rows per page (default 1000)
+ *   warmup       warm-up iterations per variant (default 20)
+ *   iterations   measured iterations per variant (default 50)
+ *   seed         insert this many devotees and namhattas first (default 0; only for scratch databases)
+ */
+public class ListAllocationBenchmark {
+
+    public static void main(String[] args) {
+        int pageSize = Integer.getInteger("pageSize", 1000);
+        int warmup = Integer.getInteger("warmup", 20);
+        int iterations = Integer.getInteger("iterations", 50);
+        int seed = Integer.getInteger("seed", 0);
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(NamhattaManagementSystemApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(args)) {
+            DevoteeRepository devoteeRepository = context.getBean(DevoteeRepository.class);
+            NamhattaRepository namhattaRepository = context.getBean(NamhattaRepository.class);
+            EntityManager entityManager = context.getBean(EntityManager.class);
+            PlatformTransactionManager transactionManager = context.getBean(PlatformTransactionManager.class);
+
+            TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+            TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+            readOnly.setReadOnly(true);
+
+            if (seed > 0) {
+                readWrite.executeWithoutResult(status -> seed(context, seed));
+            }
+
+            Pageable page = PageRequest.of(0, pageSize, Sort.by("id"));
+            System.out.printf("Page size %d, warm-up %d, measured %d iterations%n", pageSize, warmup, iterations);
+            System.out.printf("%-36s %8s %14s %12s %10s%n", "variant", "rows", "bytes/page", "bytes/row", "ms/page");
+
+            report("devotees: entities, read-write tx", warmup, iterations, () -> readWrite.execute(status ->
+                    touchDevotees(devoteeEntities(entityManager, page))));
+            report("devotees: entities, read-only tx", warmup, iterations, () -> readOnly.execute(status ->
+                    touchDevotees(devoteeEntities(entityManager, page))));
+            report("devotees: DevoteeSummary", warmup, iterations, () -> readOnly.execute(status ->
+                    touchDevoteeSummaries(devoteeRepository.findSummariesWithFilters(null, null, null, null, null, null, null, page).getContent())));
+            report("namhattas: entities, read-write tx", warmup, iterations, () -> readWrite.execute(status ->
+                    touchNamhattas(namhattaEntities(entityManager, page))));
+            report("namhattas: entities, read-only tx", warmup, iterations, () -> readOnly.execute(status ->
+                    touchNamhattas(namhattaEntities(entityManager, page))));
+            report("namhattas: NamhattaSummary", warmup, iterations, () -> readOnly.execute(status ->
+                    touchNamhattaSummaries(namhattaRepository.findSummariesWithFilters(null, null, null, null, null, null, null, page).getContent())));
+        }
+    }
+
+    private static void report(String label, int warmup, int iterations, Supplier<Integer> pageLoad) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        int rows = 0;
+        for (int i = 0; i < warmup; i++) {
+            rows = pageLoad.get();
+        }
+        long bytesBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            rows = pageLoad.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        long bytesPerPage = (threads.getThreadAllocatedBytes(threadId) - bytesBefore) / iterations;
+        System.out.printf("%-36s %8d %14d %12d %10.2f%n", label, rows, bytesPerPage,
+                rows > 0 ? bytesPerPage / rows : 0, elapsed / 1_000_000.0 / iterations);
+    }
+
+    private static List<Devotee> devoteeEntities(EntityManager entityManager, Pageable page) {
+        TypedQuery<Devotee> query = entityManager.createQuery(
+                "SELECT d " + DevoteeRepository.SUMMARY_FILTERS + " ORDER BY d.id", Devotee.class);
+        query.setParameter("search", null);
+        query.setParameter("statusId", null);
+        return unfiltered(query, page).getResultList();
+    }
+
+    private static List<Namhatta> namhattaEntities(EntityManager entityManager, Pageable page) {
+        TypedQuery<Namhatta> query = entityManager.createQuery(
+                "SELECT n " + NamhattaRepository.SUMMARY_FILTERS + " ORDER BY n.id", Namhatta.class);
+        query.setParameter("search", null);
+        query.setParameter("status", null);
+        return unfiltered(query, page).getResultList();
+    }
+
+    private static <T> TypedQuery<T> unfiltered(TypedQuery<T> query, Pageable page) {
+        for (String code : List.of("country", "stateCodes", "districtCodes", "subdistrictCodes", "villageCodes")) {
+            query.setParameter(code, null);
+        }
+        return query.setFirstResult((int) page.getOffset()).setMaxResults(page.getPageSize());
+    }
+
+    private static int touchDevotees(List<Devotee> devotees) {
+        int hash = 0;
+        for (Devotee devotee : devotees) {
+            hash += devotee.getId().hashCode() + String.valueOf(devotee.getLegalName()).length();
+        }
+        return hash == Integer.MIN_VALUE ? -1 : devotees.size();
+    }
+
+    private static int touchDevoteeSummaries(List<DevoteeSummary> devotees) {
+        int hash = 0;
+        for (DevoteeSummary devotee : devotees) {
+            hash += devotee.getId().hashCode() + String.valueOf(devotee.getLegalName()).length();
+        }
+        return hash == Integer.MIN_VALUE ? -1 : devotees.size();
+    }
+
+    private static int touchNamhattas(List<Namhatta> namhattas) {
+        int hash = 0;
+        for (Namhatta namhatta : namhattas) {
+            hash += namhatta.getId().hashCode() + String.valueOf(namhatta.getName()).length();
+        }
+        return hash == Integer.MIN_VALUE ? -1 : namhattas.size();
+    }
+
+    private static int touchNamhattaSummaries(List<NamhattaSummary> namhattas) {
+        int hash = 0;
+        for (NamhattaSummary namhatta : namhattas) {
+            hash += namhatta.getId().hashCode() + String.valueOf(namhatta.getName()).length();
+        }
+        return hash == Integer.MIN_VALUE ? -1 : namhattas.size();
+    }
+
+    private static void seed(ConfigurableApplicationContext context, int count) {
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        DevoteeRepository devoteeRepository = context.getBean(DevoteeRepository.class);
+        NamhattaRepository namhattaRepository = context.getBean(NamhattaRepository.class);
+
+        User supervisor = new User();
+        supervisor.setUsername("benchmark-supervisor-" + System.nanoTime());
+        supervisor.setPasswordHash("not-a-login");
+        supervisor.setFullName("Benchmark Supervisor");
+        supervisor.setEmail(supervisor.getUsername() + "@example.invalid");
+        supervisor.setRole(UserRole.DISTRICT_SUPERVISOR);
+        supervisor = userRepository.save(supervisor);
+
+        // Representative payload: the jsonb course list and TEXT comments are what list rows never show
+        String comments = "Regular attendee of weekly programmes. ".repeat(12);
+        // H2 hands jsonb back as a quoted string, so the course list is only seeded on PostgreSQL
+        boolean jsonb = context.getEnvironment().getProperty("spring.datasource.url", "").startsWith("jdbc:postgresql");
+        List<Devotee> devotees = new ArrayList<>(count);
+        List<Namhatta> namhattas = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Devotee devotee = new Devotee();
+            devotee.setLegalName("Benchmark Devotee " + i);
+            devotee.setName("Devotee " + i);
+            devotee.setEmail("devotee" + i + "@example.invalid");
+            devotee.setPhone("90000" + String.format("%05d", i));
+            devotee.setGender(i % 2 == 0 ? Gender.MALE : Gender.FEMALE);
+            devotee.setFatherName("Father " + i);
+            devotee.setMotherName("Mother " + i);
+            devotee.setEducation("Graduate");
+            devotee.setOccupation("Service");
+            if (jsonb) {
+                devotee.setDevotionalCourses(List.of(
+                        Map.of("name", "Bhakti Shastri", "date", "2019-03-01", "institute", "Mayapur Institute"),
+                        Map.of("name", "Bhakti Vaibhava", "date", "2021-08-15", "institute", "Mayapur Institute")));
+            }
+            devotee.setAdditionalComments(comments);
+            devotees.add(devotee);
+
+            Namhatta namhatta = new Namhatta();
+            namhatta.setCode("BENCH-" + System.nanoTime() + "-" + i);
+            namhatta.setName("Benchmark Namhatta " + i);
+            namhatta.setMeetingDay("SUNDAY");
+            namhatta.setMeetingTime("18:00");
+            namhatta.setDistrictSupervisorId(supervisor.getId());
+            namhatta.setStatus(NamhattaStatus.APPROVED);
+            namhattas.add(namhatta);
+        }
+        devoteeRepository.saveAll(devotees);
+        namhattaRepository.saveAll(namhattas);
+    }
+}
@@ -0,0 +1,134 @@
+package com.namhatta.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop HTTP load generator for comparing platform-thread and virtual-thread modes.
+ *
+ * Each simulated client sends its next request as soon as the previous one completes, so the
+ * number of in-flight requests equals the concurrency level. Requests are issued asynchronously
+ * from a handful of HttpClient threads, which lets 5000 clients run from one small JVM.
+ *
+ * Not a JUnit test; run against a started backend, once per threading mode:
+ *   java src/test/java/com/namhatta/loadtest/LoadTestHarness.java
+ *
+ * System properties:
+ *   baseUrl      (default http://localhost:8080)
+ *   path         (default /api/map/countries - public, one blocking query per request)
+ *   token        bearer token for authenticated paths (optional)
+ *   levels       comma-separated concurrency levels (default 50,500,5000)
+ *   warmup       warm-up seconds per level (default 5)
+ *   duration     measured seconds per level (default 30)
+ *
+ * Only GET requests are sent, which the API rate limit does not apply to. Any non-2xx
+ * responses are counted separately and excluded from the latency percentiles.
+ */
+public class LoadTestHarness {
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = System.getProperty("baseUrl", "http://localhost:8080");
+        String path = System.getProperty("path", "/api/map/countries");
+        String token = System.getProperty("token");
+        int[] levels = Arrays.stream(System.getProperty("levels", "50,500,5000").split(","))
+                .map(String::trim).mapToInt(Integer::parseInt).toArray();
+        int warmupSeconds = Integer.getInteger("warmup", 5);
+        int durationSeconds = Integer.getInteger("duration", 30);
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(60))
+                .GET();
+        if (token != null && !token.isEmpty()) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        HttpRequest request = builder.build();
+
+        System.out.printf("Target %s%s, warm-up %ds, measured %ds per level%n", baseUrl, path, warmupSeconds, durationSeconds);
+        System.out.printf("%8s %10s %10s %10s %10s %10s %8s %8s%n",
+                "clients", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms", "non-2xx", "errors");
+
+        for (int clients : levels) {
+            run(client, request, clients, warmupSeconds);
+            Result result = run(client, request, clients, durationSeconds);
+            System.out.printf("%8d %10.1f %10.1f %10.1f %10.1f %10.1f %8d %8d%n",
+                    clients, result.throughput(), result.percentile(0.50), result.percentile(0.90),
+                    result.percentile(0.99), result.percentile(1.0), result.nonSuccess.get(), result.errors.get());
+        }
+    }
+
+    private static Result run(HttpClient client, HttpRequest request, int clients, int seconds) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        Result result = new Result(seconds);
+
+        List<CompletableFuture<Void>> loops = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            loops.add(loop(client, request, deadline, result));
+        }
+        CompletableFuture.allOf(loops.toArray(new CompletableFuture[0])).join();
+        return result;
+    }
+
+    private static CompletableFuture<Void> loop(HttpClient client, HttpRequest request, long deadline, Result result) {
+        if (System.nanoTime() >= deadline) {
+            return CompletableFuture.completedFuture(null);
+        }
+        long start = System.nanoTime();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .handle((response, error) -> {
+                    long elapsed = System.nanoTime() - start;
+                    if (error != null) {
+                        result.errors.incrementAndGet();
+                    } else if (response.statusCode() / 100 != 2) {
+                        result.nonSuccess.incrementAndGet();
+                    } else {
+                        result.record(elapsed);
+                    }
+                    return null;
+                })
+                .thenCompose(ignored -> loop(client, request, deadline, result));
+    }
+
+    private static final class Result {
+        private final int seconds;
+        private final AtomicLong nonSuccess = new AtomicLong();
+        private final AtomicLong errors = new AtomicLong();
+        private long[] latencies = new long[1 << 16];
+        private int count;
+
+        private Result(int seconds) {
+            this.seconds = seconds;
+        }
+
+        private synchronized void record(long nanos) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+        }
+
+        private synchronized double throughput() {
+            return (double) count / seconds;
+        }
+
+        private synchronized double percentile(double quantile) {
+            if (count == 0) {
+                return 0.0;
+            }
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            int index = (int) Math.min(count - 1, Math.ceil(quantile * count) - 1);
+            return sorted[Math.max(index, 0)] / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.namhatta.repository;
+
+import com.namhatta.support.PostgresTestDatabase;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+/**
+ * The same scenarios on PostgreSQL, which types the nullable feed parameters and orders NULLS LAST itself
+ */
+class NamhattaUpdateRepositoryPostgresTest extends NamhattaUpdateRepositoryTest {
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        PostgresTestDatabase.register(registry);
+    }
+}
@@ -0,0 +1,227 @@
+package com.namhatta.repository;
+
+import com.namhatta.config.SecondLevelCacheConfig;
+import com.namhatta.dto.NamhattaUpdateSummary;
+import com.namhatta.dto.UpdateFeedPage;
+import com.namhatta.exception.ValidationException;
+import com.namhatta.model.entity.Address;
+import com.namhatta.model.entity.Namhatta;
+import com.namhatta.model.entity.NamhattaAddress;
+import com.namhatta.model.entity.NamhattaUpdate;
+import com.namhatta.model.entity.User;
+import com.namhatta.model.enums.UserRole;
+import com.namhatta.service.LeaderboardService;
+import com.namhatta.service.NamhattaUpdateService;
+import com.namhatta.service.UpdateRollupService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+@DataJpaTest
+@ActiveProfiles("test")
+// The slice does not pick up configuration classes, and Hibernate needs the cache regions created up front
+@Import({SecondLevelCacheConfig.class, SimpleMeterRegistry.class})
+class NamhattaUpdateRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private NamhattaUpdateRepository namhattaUpdateRepository;
+
+    @Autowired
+    private NamhattaAddressRepository namhattaAddressRepository;
+
+    private NamhattaUpdateService namhattaUpdateService;
+
+    private Namhatta nadia;
+    private Namhatta hooghly;
+    private final List<NamhattaUpdate> updates = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        namhattaUpdateService = new NamhattaUpdateService(namhattaUpdateRepository, namhattaAddressRepository,
+                mock(UpdateRollupService.class), mock(LeaderboardService.class));
+
+        User supervisor = new User();
+        supervisor.setUsername("supervisor");
+        supervisor.setPasswordHash("not-a-login");
+        supervisor.setFullName("District Supervisor");
+        supervisor.setEmail("supervisor@example.invalid");
+        supervisor.setRole(UserRole.DISTRICT_SUPERVISOR);
+        entityManager.persist(supervisor);
+
+        nadia = namhatta("NH-NADIA", supervisor, address("19", "341"));
+        hooghly = namhatta("NH-HOOGHLY", supervisor, address("19", "342"));
+
+        // Three updates share 2024-03-10 so pages have to break ties on id
+        update(nadia, "2024-02-29");
+        update(nadia, "2024-03-01");
+        update(hooghly, "2024-03-10");
+        update(nadia, "2024-03-10");
+        update(hooghly, "2024-03-10");
+        update(nadia, "2024-03-31");
+        update(hooghly, "2024-04-01");
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void feedPagesVisitEveryUpdateOnceInDateThenIdOrder() {
+        List<Long> visited = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            UpdateFeedPage page = namhattaUpdateService.getFeed(cursor, 2, null, null, null, null);
+            page.getUpdates().forEach(update -> visited.add(update.getId()));
+            cursor = page.getNextCursor();
+            assertThat(page.getHasMore()).isEqualTo(cursor != null);
+            pages++;
+        } while (cursor != null);
+
+        List<Long> expected = updates.stream()
+                .sorted(Comparator.comparing(NamhattaUpdate::getProgramDate).thenComparing(NamhattaUpdate::getId).reversed())
+                .map(NamhattaUpdate::getId)
+                .toList();
+        assertThat(visited).containsExactlyElementsOf(expected);
+        assertThat(pages).isEqualTo(4);
+    }
+
+    @Test
+    void feedCursorExcludesItsOwnRowButKeepsLowerIdsOnTheSameDate() {
+        NamhattaUpdate middle = updates.get(3);
+
+        List<NamhattaUpdateSummary> after = namhattaUpdateRepository.findFeed(null, null, null, null,
+                middle.getProgramDate(), middle.getId(), PageRequest.of(0, 10));
+
+        assertThat(after).extracting(NamhattaUpdateSummary::getId)
+                .containsExactly(updates.get(2).getId(), updates.get(1).getId(), updates.get(0).getId());
+    }
+
+    @Test
+    void feedDateFiltersIncludeBothEndsAndCombineWithDistrict() {
+        List<NamhattaUpdateSummary> march = namhattaUpdateRepository.findFeed(null, null, LocalDate.of(2024, 3, 1),
+                LocalDate.of(2024, 3, 31), null, null, PageRequest.of(0, 10));
+        assertThat(march).extracting(NamhattaUpdateSummary::getDate)
+                .containsExactly("2024-03-31", "2024-03-10", "2024-03-10", "2024-03-10", "2024-03-01");
+
+        List<NamhattaUpdateSummary> hooghlyMarch = namhattaUpdateRepository.findFeed(null, "342",
+                LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 31), null, null, PageRequest.of(0, 10));
+        assertThat(hooghlyMarch).extracting(NamhattaUpdateSummary::getNamhattaId)
+                .containsOnly(hooghly.getId())
+                .hasSize(2);
+    }
+
+    @Test
+    void feedFiltersAndPagesOnProgramDateNotTheTextDate() {
+        // The text date of these rows would sort and compare wrongly as a string
+        NamhattaUpdate timestamped = update(nadia, "2024-03-31T23:30:00+05:30", LocalDate.of(2024, 3, 31));
+        NamhattaUpdate dayFirst = update(hooghly, "15/03/2024", LocalDate.of(2024, 3, 15));
+        NamhattaUpdate undated = update(hooghly, "last Sunday", null);
+        entityManager.flush();
+
+        List<Long> march = namhattaUpdateService.getFeed(null, 20, null, null, "2024-03-31", "2024-03-31")
+                .getUpdates().stream().map(NamhattaUpdateSummary::getId).toList();
+        assertThat(march).containsExactly(timestamped.getId(), updates.get(5).getId());
+
+        List<Long> visited = new ArrayList<>();
+        String cursor = null;
+        do {
+            UpdateFeedPage page = namhattaUpdateService.getFeed(cursor, 3, null, null, null, null);
+            page.getUpdates().forEach(update -> visited.add(update.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertThat(visited).hasSize(updates.size());
+        assertThat(visited.indexOf(dayFirst.getId())).isEqualTo(visited.indexOf(updates.get(4).getId()) - 1);
+        assertThat(visited.get(visited.size() - 1)).isEqualTo(undated.getId());
+    }
+
+    @Test
+    void feedRejectsUnparseableDateFilters() {
+        assertThatThrownBy(() -> namhattaUpdateService.getFeed(null, 10, null, null, "March 2024", null))
+                .isInstanceOf(ValidationException.class);
+        assertThatThrownBy(() -> namhattaUpdateService.getFeed(null, 10, null, null, "2024-04-01", "2024-03-01"))
+                .isInstanceOf(ValidationException.class);
+    }
+
+    @Test
+    void rangeQueriesIncludeBothEndsForEveryScope() {
+        LocalDate from = LocalDate.of(2024, 3, 1);
+        LocalDate to = LocalDate.of(2024, 3, 31);
+
+        Page<NamhattaUpdateSummary> byNamhatta = namhattaUpdateService.getUpdatesInRange(nadia.getId(), null, null,
+                from, to, PageRequest.of(0, 10));
+        assertThat(byNamhatta.getContent()).extracting(NamhattaUpdateSummary::getProgramDate)
+                .containsExactly(to, LocalDate.of(2024, 3, 10), from);
+
+        Page<NamhattaUpdateSummary> byDistrict = namhattaUpdateService.getUpdatesInRange(null, "342", null,
+                from, to, PageRequest.of(0, 10));
+        assertThat(byDistrict.getContent()).extracting(NamhattaUpdateSummary::getNamhattaId)
+                .containsOnly(hooghly.getId())
+                .hasSize(2);
+
+        Page<NamhattaUpdateSummary> byState = namhattaUpdateService.getUpdatesInRange(null, null, "19",
+                from, to, PageRequest.of(0, 2));
+        assertThat(byState.getTotalElements()).isEqualTo(5);
+        assertThat(byState.getContent()).extracting(NamhattaUpdateSummary::getProgramDate)
+                .containsExactly(to, LocalDate.of(2024, 3, 10));
+
+        Page<NamhattaUpdateSummary> singleDay = namhattaUpdateService.getUpdatesInRange(null, null, "19",
+                LocalDate.of(2024, 2, 29), LocalDate.of(2024, 2, 29), PageRequest.of(0, 10));
+        assertThat(singleDay.getContent()).extracting(NamhattaUpdateSummary::getId)
+                .containsExactly(updates.get(0).getId());
+    }
+
+    private Address address(String stateCode, String districtCode) {
+        Address address = new Address();
+        address.setStateCode(stateCode);
+        address.setDistrictCode(districtCode);
+        return entityManager.persist(address);
+    }
+
+    private Namhatta namhatta(String code, User supervisor, Address address) {
+        Namhatta namhatta = new Namhatta();
+        namhatta.setCode(code);
+        namhatta.setName(code);
+        namhatta.setDistrictSupervisorId(supervisor.getId());
+        entityManager.persist(namhatta);
+
+        NamhattaAddress link = new NamhattaAddress();
+        link.setNamhattaId(namhatta.getId());
+        link.setAddressId(address.getId());
+        entityManager.persist(link);
+        return namhatta;
+    }
+
+    private void update(Namhatta namhatta, String date) {
+        update(namhatta, date, LocalDate.parse(date));
+    }
+
+    private NamhattaUpdate update(Namhatta namhatta, String date, LocalDate programDate) {
+        NamhattaUpdate update = new NamhattaUpdate();
+        update.setNamhattaId(namhatta.getId());
+        update.setProgramType("Satsang");
+        update.setDate(date);
+        update.setProgramDate(programDate);
+        update.setAttendance(10);
+        updates.add(entityManager.persist(update));
+        return update;
+    }
+}
@@ -0,0 +1,177 @@
+package com.namhatta.repository;
+
+import com.namhatta.config.SecondLevelCacheConfig;
+import com.namhatta.model.entity.Address;
+import com.namhatta.model.entity.Namhatta;
+import com.namhatta.model.entity.NamhattaAddress;
+import com.namhatta.model.entity.NamhattaUpdate;
+import com.namhatta.model.entity.NamhattaUpdateRollup;
+import com.namhatta.model.entity.User;
+import com.namhatta.model.enums.RollupLevel;
+import com.namhatta.model.enums.RollupPeriod;
+import com.namhatta.model.enums.UserRole;
+import com.namhatta.service.UpdateRollupService;
+import com.namhatta.support.PostgresTestDatabase;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The rollup writes are PostgreSQL-only SQL (ON CONFLICT, date_trunc), so these run against a real server
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+// The slice does not pick up configuration classes, and Hibernate needs the cache regions created up front
+@Import({UpdateRollupService.class, SecondLevelCacheConfig.class, SimpleMeterRegistry.class})
+class NamhattaUpdateRollupRepositoryTest {
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        PostgresTestDatabase.register(registry);
+    }
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private NamhattaUpdateRollupRepository rollupRepository;
+
+    @Autowired
+    private UpdateRollupService updateRollupService;
+
+    private Namhatta nadia;
+    private Namhatta hooghly;
+    private Namhatta unplaced;
+    private final List<NamhattaUpdate> updates = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        User supervisor = new User();
+        supervisor.setUsername("supervisor");
+        supervisor.setPasswordHash("not-a-login");
+        supervisor.setFullName("District Supervisor");
+        supervisor.setEmail("supervisor@example.invalid");
+        supervisor.setRole(UserRole.DISTRICT_SUPERVISOR);
+        entityManager.persist(supervisor);
+
+        nadia = namhatta("NH-NADIA", supervisor, address("19", "341"));
+        hooghly = namhatta("NH-HOOGHLY", supervisor, address("19", "342"));
+        unplaced = namhatta("NH-UNPLACED", supervisor, null);
+
+        // 2024-03-10 is a Sunday and 2024-03-11 a Monday, so they fall in different weeks of the same month
+        update(nadia, "2024-03-10", 20);
+        update(nadia, "2024-03-11", 30);
+        update(hooghly, "2024-03-10", 40);
+        update(hooghly, "2024-04-01", 50);
+        update(unplaced, "2024-03-10", 60);
+        entityManager.flush();
+    }
+
+    @Test
+    void rebuildGroupsByWeekAndMonthAtEveryLevel() {
+        updateRollupService.rebuildAll();
+        entityManager.clear();
+
+        List<NamhattaUpdateRollup> rollups = rollupRepository.findAll();
+
+        assertThat(bucket(rollups, RollupLevel.NAMHATTA, String.valueOf(nadia.getId()), RollupPeriod.WEEK, "2024-03-04"))
+                .extracting(NamhattaUpdateRollup::getProgramCount, NamhattaUpdateRollup::getAttendanceSum)
+                .containsExactly(1L, 20L);
+        assertThat(bucket(rollups, RollupLevel.NAMHATTA, String.valueOf(nadia.getId()), RollupPeriod.WEEK, "2024-03-11"))
+                .extracting(NamhattaUpdateRollup::getProgramCount, NamhattaUpdateRollup::getAttendanceSum)
+                .containsExactly(1L, 30L);
+        assertThat(bucket(rollups, RollupLevel.DISTRICT, "341", RollupPeriod.MONTH, "2024-03-01"))
+                .extracting(NamhattaUpdateRollup::getProgramCount, NamhattaUpdateRollup::getAttendanceSum)
+                .containsExactly(2L, 50L);
+        // The namhatta without an address only counts at its own level
+        assertThat(bucket(rollups, RollupLevel.STATE, "19", RollupPeriod.MONTH, "2024-03-01"))
+                .extracting(NamhattaUpdateRollup::getProgramCount, NamhattaUpdateRollup::getAttendanceSum)
+                .containsExactly(3L, 90L);
+        assertThat(bucket(rollups, RollupLevel.STATE, "19", RollupPeriod.WEEK, "2024-04-01"))
+                .extracting(NamhattaUpdateRollup::getProgramCount, NamhattaUpdateRollup::getAttendanceSum)
+                .containsExactly(1L, 50L);
+        assertThat(rollups).filteredOn(rollup -> rollup.getLevel() == RollupLevel.NAMHATTA).hasSize(9);
+    }
+
+    @Test
+    void rebuildMatchesIncrementalUpserts() {
+        for (NamhattaUpdate update : updates) {
+            boolean placed = !update.getNamhattaId().equals(unplaced.getId());
+            String districtCode = !placed ? null : update.getNamhattaId().equals(nadia.getId()) ? "341" : "342";
+            updateRollupService.recordUpdate(update, districtCode, placed ? "19" : null);
+        }
+        entityManager.clear();
+        Set<String> incremental = snapshot(rollupRepository.findAll());
+
+        int rebuilt = updateRollupService.rebuildAll();
+        entityManager.clear();
+
+        assertThat(snapshot(rollupRepository.findAll())).isEqualTo(incremental);
+        assertThat(rebuilt).isEqualTo(incremental.size());
+    }
+
+    private NamhattaUpdateRollup bucket(List<NamhattaUpdateRollup> rollups, RollupLevel level, String scopeKey,
+                                        RollupPeriod period, String bucketStart) {
+        return rollups.stream()
+                .filter(rollup -> rollup.getLevel() == level && rollup.getScopeKey().equals(scopeKey)
+                        && rollup.getPeriod() == period && rollup.getBucketStart().equals(LocalDate.parse(bucketStart)))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private Set<String> snapshot(List<NamhattaUpdateRollup> rollups) {
+        return rollups.stream()
+                .map(rollup -> String.join("|", rollup.getLevel().name(), rollup.getScopeKey(), rollup.getPeriod().name(),
+                        rollup.getBucketStart().toString(), String.valueOf(rollup.getProgramCount()),
+                        String.valueOf(rollup.getAttendanceSum())))
+                .collect(Collectors.toSet());
+    }
+
+    private Address address(String stateCode, String districtCode) {
+        Address address = new Address();
+        address.setStateCode(stateCode);
+        address.setDistrictCode(districtCode);
+        return entityManager.persist(address);
+    }
+
+    private Namhatta namhatta(String code, User supervisor, Address address) {
+        Namhatta namhatta = new Namhatta();
+        namhatta.setCode(code);
+        namhatta.setName(code);
+        namhatta.setDistrictSupervisorId(supervisor.getId());
+        entityManager.persist(namhatta);
+
+        if (address != null) {
+            NamhattaAddress link = new NamhattaAddress();
+            link.setNamhattaId(namhatta.getId());
+            link.setAddressId(address.getId());
+            entityManager.persist(link);
+        }
+        return namhatta;
+    }
+
+    private void update(Namhatta namhatta, String date, int attendance) {
+        NamhattaUpdate update = new NamhattaUpdate();
+        update.setNamhattaId(namhatta.getId());
+        update.setProgramType("Satsang");
+        update.setDate(date);
+        update.setProgramDate(LocalDate.parse(date));
+        update.setAttendance(attendance);
+        updates.add(entityManager.persist(update));
+    }
+}
@@ -0,0 +1,62 @@
+package com.namhatta.service;
+
+import com.namhatta.model.entity.NamhattaAddress;
+import com.namhatta.repository.AddressRepository;
+import com.namhatta.repository.DevoteeAddressRepository;
+import com.namhatta.repository.NamhattaAddressRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AddressServiceTest {
+
+    @Mock private AddressRepository addressRepository;
+    @Mock private DevoteeAddressRepository devoteeAddressRepository;
+    @Mock private NamhattaAddressRepository namhattaAddressRepository;
+
+    @InjectMocks
+    private AddressService addressService;
+
+    @Test
+    void relinkWithoutCoordinatesKeepsTheMeetingPlace() {
+        NamhattaAddress link = link(7L, 22.5256, 88.3654);
+        when(namhattaAddressRepository.findByNamhattaId(1L)).thenReturn(Optional.of(link));
+
+        addressService.linkNamhattaAddress(1L, 7L, null, null, null);
+
+        assertEquals(22.5256, link.getLatitude());
+        assertEquals(88.3654, link.getLongitude());
+        verify(namhattaAddressRepository).save(link);
+    }
+
+    @Test
+    void newCoordinatesOrAnotherAddressReplaceTheMeetingPlace() {
+        NamhattaAddress link = link(7L, 22.5256, 88.3654);
+        when(namhattaAddressRepository.findByNamhattaId(1L)).thenReturn(Optional.of(link));
+
+        addressService.linkNamhattaAddress(1L, 7L, null, 23.4, 88.4);
+        assertEquals(23.4, link.getLatitude());
+
+        // The old point belongs to the old address
+        addressService.linkNamhattaAddress(1L, 8L, null, null, null);
+        assertNull(link.getLatitude());
+        assertNull(link.getLongitude());
+    }
+
+    private static NamhattaAddress link(Long addressId, Double latitude, Double longitude) {
+        NamhattaAddress link = new NamhattaAddress();
+        link.setNamhattaId(1L);
+        link.setAddressId(addressId);
+        link.setLatitude(latitude);
+        link.setLongitude(longitude);
+        return link;
+    }
+}
@@ -0,0 +1,127 @@
+package com.namhatta.service;
+
+import com.namhatta.config.SecondLevelCacheConfig;
+import com.namhatta.dto.DevoteeDTO;
+import com.namhatta.dto.GeographyFilter;
+import com.namhatta.model.entity.Devotee;
+import com.namhatta.model.entity.User;
+import com.namhatta.model.enums.Gender;
+import com.namhatta.model.enums.LeadershipRole;
+import com.namhatta.model.enums.MaritalStatus;
+import com.namhatta.model.enums.UserRole;
+import com.namhatta.repository.DevoteeAddressRepository;
+import com.namhatta.repository.DevoteeRepository;
+import com.namhatta.repository.DevotionalStatusRepository;
+import com.namhatta.repository.GurudevRepository;
+import com.namhatta.repository.NamhattaRepository;
+import com.namhatta.repository.ShraddhakutirRepository;
+import com.namhatta.repository.StatusHistoryRepository;
+import com.namhatta.repository.UserRepository;
+import com.namhatta.security.DistrictAccessValidator;
+import com.namhatta.util.DtoMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * The list reads DevoteeSummary rows while the detail reads the entity; both must carry the same scalar fields
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+// The slice does not pick up configuration classes, and Hibernate needs the cache regions created up front
+@Import({AddressService.class, SecondLevelCacheConfig.class, SimpleMeterRegistry.class})
+class DevoteeListProjectionTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private AddressService addressService;
+
+    @Autowired
+    private DevoteeRepository devoteeRepository;
+
+    @Autowired
+    private DevoteeAddressRepository devoteeAddressRepository;
+
+    @Autowired
+    private DevotionalStatusRepository devotionalStatusRepository;
+
+    @Autowired
+    private ShraddhakutirRepository shraddhakutirRepository;
+
+    @Autowired
+    private NamhattaRepository namhattaRepository;
+
+    private DevoteeService devoteeService;
+
+    @BeforeEach
+    void setUp() {
+        devoteeService = new DevoteeService(devoteeRepository, addressService, devoteeAddressRepository,
+                mock(StatusHistoryRepository.class), mock(DistrictAccessValidator.class), mock(UserRepository.class),
+                mock(PasswordService.class), devotionalStatusRepository, mock(GurudevRepository.class),
+                shraddhakutirRepository, namhattaRepository, mock(SenapotiTreeService.class),
+                new DtoMapper(devoteeRepository, devotionalStatusRepository, namhattaRepository, shraddhakutirRepository));
+    }
+
+    @Test
+    void listRowCarriesTheSameScalarFieldsAsTheDetail() {
+        User appointer = new User();
+        appointer.setUsername("appointer");
+        appointer.setPasswordHash("not-a-login");
+        appointer.setFullName("District Supervisor");
+        appointer.setEmail("appointer@example.invalid");
+        appointer.setRole(UserRole.DISTRICT_SUPERVISOR);
+        entityManager.persist(appointer);
+
+        Devotee devotee = new Devotee();
+        devotee.setLegalName("Ramesh Kumar");
+        devotee.setName("Ramesh");
+        devotee.setDob("1980-05-14");
+        devotee.setEmail("ramesh@example.invalid");
+        devotee.setPhone("9800000000");
+        devotee.setFatherName("Suresh Kumar");
+        devotee.setMotherName("Sita Devi");
+        devotee.setHusbandName("-");
+        devotee.setGender(Gender.MALE);
+        devotee.setBloodGroup("B+");
+        devotee.setMaritalStatus(MaritalStatus.MARRIED);
+        devotee.setInitiatedName("Raghunatha Das");
+        devotee.setHarinamDate("2010-03-01");
+        devotee.setPancharatrikDate("2015-03-01");
+        devotee.setEducation("Graduate");
+        devotee.setOccupation("Teacher");
+        devotee.setAdditionalComments("Leads the Sunday kirtan");
+        devotee.setLeadershipRole(LeadershipRole.CHAKRA_SENAPOTI);
+        devotee.setHasSystemAccess(true);
+        devotee.setAppointedDate("2020-01-01");
+        devotee.setAppointedBy(appointer.getId());
+        entityManager.persist(devotee);
+        entityManager.flush();
+        entityManager.clear();
+
+        List<DevoteeDTO> rows = devoteeService.getDevotees(PageRequest.of(0, 10), null,
+                new GeographyFilter(null, null, null), null, null, null, null).getContent();
+        DevoteeDTO detail = devoteeService.getDevotee(devotee.getId());
+
+        assertThat(rows).hasSize(1);
+        assertThat(rows.get(0).getOccupation()).isEqualTo("Teacher");
+        assertThat(rows.get(0).getMaritalStatus()).isEqualTo("MARRIED");
+        assertThat(rows.get(0))
+                .usingRecursiveComparison()
+                .ignoringFields("devotionalCourses", "additionalComments")
+                .isEqualTo(detail);
+        assertThat(rows.get(0).getAdditionalComments()).isNull();
+    }
+}
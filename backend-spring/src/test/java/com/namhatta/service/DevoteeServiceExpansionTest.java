@@ -0,0 +1,153 @@
+package com.namhatta.service;
+
+import com.namhatta.dto.DevoteeDTO;
+import com.namhatta.dto.DevoteeSummary;
+import com.namhatta.dto.GeographyCodes;
+import com.namhatta.exception.ValidationException;
+import com.namhatta.model.entity.Devotee;
+import com.namhatta.model.entity.DevotionalStatus;
+import com.namhatta.model.entity.Gurudev;
+import com.namhatta.repository.*;
+import com.namhatta.security.DistrictAccessValidator;
+import com.namhatta.util.DtoMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DevoteeServiceExpansionTest {
+
+    @Mock private DevoteeRepository devoteeRepository;
+    @Mock private AddressService addressService;
+    @Mock private DevoteeAddressRepository devoteeAddressRepository;
+    @Mock private StatusHistoryRepository statusHistoryRepository;
+    @Mock private DistrictAccessValidator districtAccessValidator;
+    @Mock private UserRepository userRepository;
+    @Mock private PasswordService passwordService;
+    @Mock private DevotionalStatusRepository devotionalStatusRepository;
+    @Mock private GurudevRepository gurudevRepository;
+    @Mock private ShraddhakutirRepository shraddhakutirRepository;
+    @Mock private NamhattaRepository namhattaRepository;
+    @Mock private SenapotiTreeService senapotiTreeService;
+
+    private DevoteeService devoteeService;
+
+    @BeforeEach
+    void setUp() {
+        devoteeService = new DevoteeService(devoteeRepository, addressService, devoteeAddressRepository,
+                statusHistoryRepository, districtAccessValidator, userRepository, passwordService,
+                devotionalStatusRepository, gurudevRepository, shraddhakutirRepository, namhattaRepository,
+                senapotiTreeService,
+                new DtoMapper(devoteeRepository, devotionalStatusRepository, namhattaRepository, shraddhakutirRepository));
+    }
+
+    @Test
+    void expandResolvesNamesWithOneLookupPerRelation() {
+        Pageable pageable = PageRequest.of(0, 20);
+        Page<DevoteeSummary> page = new PageImpl<>(List.of(
+                summary(1L, 10L, 100L, 5L, null),
+                summary(2L, 10L, 101L, 5L, 1L),
+                summary(3L, 11L, 100L, null, 1L)), pageable, 3);
+        when(addressService.resolveGeographyCodes(any())).thenReturn(new GeographyCodes(null, null, null, null, null));
+        when(devoteeRepository.findSummariesWithFilters(any(), any(), any(), any(), any(), any(), any(), eq(pageable))).thenReturn(page);
+        when(devotionalStatusRepository.findAll()).thenReturn(List.of(status(10L, "Shraddhavan"), status(11L, "Sadhusangi")));
+        when(gurudevRepository.findAll()).thenReturn(List.of(gurudev(5L, "Gurudev A")));
+        when(namhattaRepository.findNamesByIds(anyCollection())).thenReturn(List.of(
+                new Object[] {100L, "Kolkata Namhatta"}, new Object[] {101L, "Howrah Namhatta"}));
+        when(devoteeRepository.findNamesByIds(anyCollection())).thenReturn(List.<Object[]>of(new Object[] {1L, "Devotee One"}));
+
+        Page<DevoteeDTO> result = devoteeService.getDevotees(pageable, null, null, null, null, null,
+                "ADMIN", List.of(), "status, gurudev,namhatta,reportingTo");
+
+        DevoteeDTO second = result.getContent().get(1);
+        assertEquals("Shraddhavan", second.getDevotionalStatusName());
+        assertEquals("Gurudev A", second.getHarinamGurudevName());
+        assertEquals("Howrah Namhatta", second.getNamhattaName());
+        assertEquals("Devotee One", second.getReportingToDevoteeName());
+        assertEquals("Sadhusangi", result.getContent().get(2).getDevotionalStatusName());
+        assertNull(result.getContent().get(2).getHarinamGurudevName());
+
+        verify(namhattaRepository, times(1)).findNamesByIds(argThat((Collection<Long> ids) -> ids.equals(Set.of(100L, 101L))));
+        verify(devoteeRepository, times(1)).findNamesByIds(argThat((Collection<Long> ids) -> ids.equals(Set.of(1L))));
+        verifyNoInteractions(shraddhakutirRepository, devoteeAddressRepository);
+    }
+
+    @Test
+    void availableOfficersAreReadFromProjectionWithoutPerRowLookups() {
+        when(devoteeRepository.findAllSummaries()).thenReturn(List.of(
+                summary(1L, 10L, 100L, null, null), summary(2L, 10L, 100L, null, 1L)));
+
+        List<DevoteeDTO> officers = devoteeService.getAvailableOfficers();
+
+        assertEquals(2, officers.size());
+        assertEquals(1L, officers.get(1).getReportingToDevoteeId());
+        verify(devoteeRepository, never()).findAll();
+        verifyNoInteractions(devoteeAddressRepository);
+    }
+
+    @Test
+    void withoutExpandNoLookupsAreMade() {
+        when(devoteeRepository.findById(1L)).thenReturn(Optional.of(devotee(1L, 10L, 100L, 5L, null)));
+
+        DevoteeDTO dto = devoteeService.getDevotee(1L, null);
+
+        assertNull(dto.getDevotionalStatusName());
+        verifyNoInteractions(devotionalStatusRepository, gurudevRepository, namhattaRepository);
+    }
+
+    @Test
+    void unknownExpandValueIsRejected() {
+        assertThrows(ValidationException.class, () -> devoteeService.getDevotee(1L, "status,address"));
+    }
+
+    private Devotee devotee(Long id, Long statusId, Long namhattaId, Long gurudevId, Long reportingTo) {
+        Devotee devotee = new Devotee();
+        devotee.setId(id);
+        devotee.setLegalName("Devotee " + id);
+        devotee.setDevotionalStatusId(statusId);
+        devotee.setNamhattaId(namhattaId);
+        devotee.setHarinamInitiationGurudevId(gurudevId);
+        devotee.setReportingToDevoteeId(reportingTo);
+        return devotee;
+    }
+
+    private DevoteeSummary summary(Long id, Long statusId, Long namhattaId, Long gurudevId, Long reportingTo) {
+        DevoteeSummary summary = new DevoteeSummary();
+        summary.setId(id);
+        summary.setLegalName("Devotee " + id);
+        summary.setDevotionalStatusId(statusId);
+        summary.setNamhattaId(namhattaId);
+        summary.setHarinamInitiationGurudevId(gurudevId);
+        summary.setReportingToDevoteeId(reportingTo);
+        return summary;
+    }
+
+    private DevotionalStatus status(Long id, String name) {
+        DevotionalStatus status = new DevotionalStatus();
+        status.setId(id);
+        status.setName(name);
+        return status;
+    }
+
+    private Gurudev gurudev(Long id, String name) {
+        Gurudev gurudev = new Gurudev();
+        gurudev.setId(id);
+        gurudev.setName(name);
+        return gurudev;
+    }
+}
@@ -0,0 +1,106 @@
+package com.namhatta.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExpirySweepServiceTest {
+
+    @Mock private DataSource dataSource;
+    @Mock private Connection connection;
+    @Mock private DatabaseMetaData metaData;
+    @Mock private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.getMetaData()).thenReturn(metaData);
+    }
+
+    @Test
+    void deletesInChunksUntilAShortChunk() throws Exception {
+        when(metaData.getDatabaseProductName()).thenReturn("H2");
+        ExpirySweepService sweeper = new ExpirySweepService(dataSource, transactionManager, meterRegistry, 3, 0, 100);
+        Deque<Integer> chunks = new ArrayDeque<>(List.of(3, 3, 1));
+        AtomicInteger calls = new AtomicInteger();
+
+        long deleted = sweeper.sweep("user_sessions", limit -> {
+            assertEquals(3, limit);
+            calls.incrementAndGet();
+            return chunks.pop();
+        });
+
+        assertEquals(7, deleted);
+        assertEquals(3, calls.get());
+        // One short transaction per chunk
+        verify(transactionManager, times(3)).commit(any());
+        assertEquals(7.0, meterRegistry.get("namhatta.expiry.deleted").tag("table", "user_sessions").counter().count());
+        assertEquals(1, meterRegistry.get("namhatta.expiry.sweep").tag("table", "user_sessions").timer().count());
+    }
+
+    @Test
+    void runIsBoundedByMaxChunks() throws Exception {
+        when(metaData.getDatabaseProductName()).thenReturn("H2");
+        ExpirySweepService sweeper = new ExpirySweepService(dataSource, transactionManager, meterRegistry, 10, 0, 4);
+
+        assertEquals(40, sweeper.sweep("jwt_blacklist", limit -> limit));
+    }
+
+    @Test
+    void skipsWhenAnotherInstanceHoldsTheLock() throws Exception {
+        PreparedStatement statement = mock(PreparedStatement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(metaData.getDatabaseProductName()).thenReturn("PostgreSQL");
+        when(connection.prepareStatement("SELECT pg_try_advisory_xact_lock(?)")).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getBoolean(1)).thenReturn(false);
+        ExpirySweepService sweeper = new ExpirySweepService(dataSource, transactionManager, meterRegistry, 10, 0, 4);
+        AtomicInteger calls = new AtomicInteger();
+
+        assertEquals(-1, sweeper.sweep("jwt_blacklist", limit -> calls.incrementAndGet()));
+
+        assertEquals(0, calls.get());
+        verify(connection).setAutoCommit(false);
+        verify(connection).rollback();
+        assertEquals(1.0, meterRegistry.get("namhatta.expiry.skipped").tag("table", "jwt_blacklist").counter().count());
+    }
+
+    @Test
+    void lockIsReleasedAfterTheRun() throws Exception {
+        PreparedStatement statement = mock(PreparedStatement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(metaData.getDatabaseProductName()).thenReturn("PostgreSQL");
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getBoolean(1)).thenReturn(true);
+        ExpirySweepService sweeper = new ExpirySweepService(dataSource, transactionManager, meterRegistry, 10, 0, 4);
+
+        assertEquals(2, sweeper.sweep("user_sessions", limit -> 2));
+
+        verify(connection).rollback();
+        verify(connection).close();
+    }
+}
@@ -0,0 +1,177 @@
+package com.namhatta.service;
+
+import com.namhatta.config.SecondLevelCacheConfig;
+import com.namhatta.dto.DevoteeSummary;
+import com.namhatta.dto.GeographyCodes;
+import com.namhatta.dto.GeographyFilter;
+import com.namhatta.model.entity.Address;
+import com.namhatta.model.entity.Devotee;
+import com.namhatta.model.entity.DevoteeAddress;
+import com.namhatta.model.entity.District;
+import com.namhatta.model.entity.State;
+import com.namhatta.model.entity.Subdistrict;
+import com.namhatta.model.entity.Village;
+import com.namhatta.model.enums.AddressType;
+import com.namhatta.repository.AddressRepository;
+import com.namhatta.repository.DevoteeRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+// The slice does not pick up configuration classes, and Hibernate needs the cache regions created up front
+@Import({AddressService.class, SecondLevelCacheConfig.class, SimpleMeterRegistry.class})
+class GeographyCodeFilterTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private AddressService addressService;
+
+    @Autowired
+    private AddressRepository addressRepository;
+
+    @Autowired
+    private DevoteeRepository devoteeRepository;
+
+    private Devotee bihar;
+    private Devotee maharashtra;
+
+    @BeforeEach
+    void setUp() {
+        // Two districts named Aurangabad, one in Bihar and one in Maharashtra
+        state("10", "Bihar");
+        state("27", "Maharashtra");
+        district("101", "10", "Aurangabad");
+        district("515", "27", "Aurangabad");
+        subdistrict("01001", "101", "Obra");
+        subdistrict("04001", "515", "Paithan");
+        village("200001", "01001", "Obra Khurd");
+        village("500001", "04001", "Paithan");
+
+        bihar = devotee("Bihar Devotee", address("10", "101", "01001", "200001"));
+        maharashtra = devotee("Maharashtra Devotee", address("27", "515", "04001", "500001"));
+        entityManager.flush();
+    }
+
+    @Test
+    void districtNameSharedByTwoStatesIsNarrowedByState() {
+        GeographyCodes both = addressService.resolveGeographyCodes(new GeographyFilter(null, null, "Aurangabad"));
+        assertThat(both.getDistrictCodes()).containsExactlyInAnyOrder("101", "515");
+        assertThat(both.getStateCodes()).containsExactlyInAnyOrder("10", "27");
+        assertThat(devoteeIds(both)).containsExactlyInAnyOrder(bihar.getId(), maharashtra.getId());
+
+        GeographyCodes one = addressService.resolveGeographyCodes(new GeographyFilter(null, "Maharashtra", "Aurangabad"));
+        assertThat(one.getDistrictCodes()).containsExactly("515");
+        assertThat(devoteeIds(one)).containsExactly(maharashtra.getId());
+    }
+
+    @Test
+    void villageCodeAloneFillsInParentCodes() {
+        GeographyFilter filter = new GeographyFilter();
+        filter.setVillageCode("200001");
+
+        GeographyCodes codes = addressService.resolveGeographyCodes(filter);
+
+        assertThat(codes.getSubdistrictCodes()).containsExactly("01001");
+        assertThat(codes.getDistrictCodes()).containsExactly("101");
+        assertThat(codes.getStateCodes()).containsExactly("10");
+        assertThat(devoteeIds(codes)).containsExactly(bihar.getId());
+    }
+
+    @Test
+    void unknownNameMatchesNothingAndNoFilterMatchesAll() {
+        assertThat(addressService.resolveGeographyCodes(new GeographyFilter(null, "Atlantis", null)).matchesNothing()).isTrue();
+
+        GeographyCodes none = addressService.resolveGeographyCodes(new GeographyFilter());
+        assertThat(none.matchesNothing()).isFalse();
+        assertThat(devoteeIds(none)).containsExactlyInAnyOrder(bihar.getId(), maharashtra.getId());
+    }
+
+    @Test
+    void drillDownsListOnlyAreasWithAddresses() {
+        entityManager.persist(subdistrictEntity("04002", "515", "Gangapur"));
+
+        List<Object[]> subdistricts = addressRepository.findSubdistrictsWithAddresses(List.of("27"), List.of("515"));
+
+        assertThat(subdistricts).extracting(row -> row[0]).containsExactly("04001");
+        assertThat(subdistricts).extracting(row -> row[1]).containsExactly("Paithan");
+    }
+
+    private List<Long> devoteeIds(GeographyCodes codes) {
+        return devoteeRepository.findSummariesWithFilters(null, codes.getCountry(), codes.getStateCodes(),
+                        codes.getDistrictCodes(), codes.getSubdistrictCodes(), codes.getVillageCodes(), null,
+                        PageRequest.of(0, 10))
+                .map(DevoteeSummary::getId)
+                .getContent();
+    }
+
+    private void state(String code, String name) {
+        State state = new State();
+        state.setCode(code);
+        state.setNameEnglish(name);
+        entityManager.persist(state);
+    }
+
+    private void district(String code, String stateCode, String name) {
+        District district = new District();
+        district.setCode(code);
+        district.setStateCode(stateCode);
+        district.setNameEnglish(name);
+        entityManager.persist(district);
+    }
+
+    private void subdistrict(String code, String districtCode, String name) {
+        entityManager.persist(subdistrictEntity(code, districtCode, name));
+    }
+
+    private Subdistrict subdistrictEntity(String code, String districtCode, String name) {
+        Subdistrict subdistrict = new Subdistrict();
+        subdistrict.setCode(code);
+        subdistrict.setDistrictCode(districtCode);
+        subdistrict.setNameEnglish(name);
+        return subdistrict;
+    }
+
+    private void village(String code, String subdistrictCode, String name) {
+        Village village = new Village();
+        village.setCode(code);
+        village.setSubdistrictCode(subdistrictCode);
+        village.setNameEnglish(name);
+        entityManager.persist(village);
+    }
+
+    private Address address(String stateCode, String districtCode, String subdistrictCode, String villageCode) {
+        Address address = new Address();
+        address.setStateCode(stateCode);
+        address.setDistrictCode(districtCode);
+        address.setSubdistrictCode(subdistrictCode);
+        address.setVillageCode(villageCode);
+        return entityManager.persist(address);
+    }
+
+    private Devotee devotee(String legalName, Address address) {
+        Devotee devotee = new Devotee();
+        devotee.setLegalName(legalName);
+        entityManager.persist(devotee);
+
+        DevoteeAddress link = new DevoteeAddress();
+        link.setDevoteeId(devotee.getId());
+        link.setAddressId(address.getId());
+        link.setAddressType(AddressType.PRESENT);
+        entityManager.persist(link);
+        return devotee;
+    }
+}
@@ -0,0 +1,16 @@
+package com.namhatta.service;
+
+import com.namhatta.support.PostgresTestDatabase;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+/**
+ * The same scenarios through the PostgreSQL path (COPY into a staging table, then ON CONFLICT upserts)
+ */
+class GeographyImportServicePostgresTest extends GeographyImportServiceTest {
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        PostgresTestDatabase.register(registry);
+    }
+}
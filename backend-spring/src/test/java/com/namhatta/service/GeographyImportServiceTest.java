@@ -0,0 +1,172 @@
+package com.namhatta.service;
+
+import com.namhatta.config.SecondLevelCacheConfig;
+import com.namhatta.dto.AddressDTO;
+import com.namhatta.dto.GeocodingResult;
+import com.namhatta.dto.GeographyImportResult;
+import com.namhatta.exception.ValidationException;
+import com.namhatta.model.entity.Address;
+import com.namhatta.repository.AddressRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.io.StringReader;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(properties = "geography.import.batch-size=2")
+@ActiveProfiles("test")
+@RecordApplicationEvents
+// The slice does not pick up configuration classes, and Hibernate needs the cache regions created up front
+@Import({GeographyImportService.class, SecondLevelCacheConfig.class, SimpleMeterRegistry.class})
+class GeographyImportServiceTest {
+
+    private static final String DIRECTORY =
+            "State Code,State Name,District Code,District Name,Sub-District Code,Sub-District Name,Village Code,Village Name,Pincode\n" +
+            "19,West Bengal,341,Nadia,01234,Krishnanagar - I,300001,Bhaluka,741101\n" +
+            "19,West Bengal,341,Nadia,01234,Krishnanagar - I,300002,\"Dogachhi, Uttar\",741101\n" +
+            "19,West Bengal,341,Nadia,01235,Nabadwip,300003,Mayapur,741313\n" +
+            "19,West Bengal,342,Hooghly,01240,Chinsurah,300004,Bandel,712123\n" +
+            "19,West Bengal,342,Hooghly,01240,Chinsurah,,Missing Code,712123\n";
+
+    @Autowired
+    private GeographyImportService geographyImportService;
+
+    @Autowired
+    private AddressRepository addressRepository;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void importFillsReferenceTablesBehindGeographyLists() throws Exception {
+        GeographyImportResult result = geographyImportService.importCensusDirectory(new StringReader(DIRECTORY));
+
+        assertThat(result.getRowsRead()).isEqualTo(5);
+        assertThat(result.getRowsSkipped()).isEqualTo(1);
+        assertThat(result.getVillages()).isEqualTo(4);
+        assertThat(result.getDistricts()).isEqualTo(2);
+        assertThat(result.getSubdistricts()).isEqualTo(3);
+        assertThat(result.getPincodes()).isEqualTo(3);
+
+        assertThat(addressRepository.findDistinctCountries()).containsExactly("India");
+        assertThat(addressRepository.findDistinctStatesByCountry("India")).containsExactly("West Bengal");
+        assertThat(addressRepository.findDistinctDistrictsByState("West Bengal")).containsExactly("Hooghly", "Nadia");
+        assertThat(addressRepository.findDistinctSubDistricts("Nadia", null)).containsExactly("Krishnanagar - I", "Nabadwip");
+        assertThat(addressRepository.findDistinctSubDistricts(null, "741313")).containsExactly("Nabadwip");
+        assertThat(addressRepository.findDistinctVillages("Krishnanagar - I", null)).containsExactly("Bhaluka", "Dogachhi, Uttar");
+        assertThat(addressRepository.findDistinctPincodes(null, "Nadia", null)).containsExactly("741101", "741313");
+        assertThat(addressRepository.findDistinctPincodes("Bandel", null, null)).containsExactly("712123");
+
+        List<Object[]> districts = addressRepository.findDistinctDistricts();
+        assertThat(districts).extracting(row -> row[0]).containsExactly("342", "341");
+
+        assertThat(events.stream(GeographyImportService.GeographyImportedEvent.class)).hasSize(1);
+    }
+
+    @Test
+    void pincodeLookupsReadTheVillageDirectory() throws Exception {
+        geographyImportService.importCensusDirectory(new StringReader(DIRECTORY));
+
+        List<AddressDTO> byPincode = addressRepository.findReferenceVillagesByPincode("741101");
+        assertThat(byPincode).extracting(AddressDTO::getVillageNameEnglish).containsExactly("Bhaluka", "Dogachhi, Uttar");
+        assertThat(byPincode.get(0).getDistrictNameEnglish()).isEqualTo("Nadia");
+        assertThat(byPincode.get(0).getStateNameEnglish()).isEqualTo("West Bengal");
+        assertThat(byPincode.get(0).getId()).isNull();
+
+        Page<AddressDTO> prefix = addressRepository.searchReferencePincodes("India", "7411", PageRequest.of(0, 10));
+        assertThat(prefix.getTotalElements()).isEqualTo(2);
+        Page<AddressDTO> byName = addressRepository.searchReferencePincodes("India", "Hoog", PageRequest.of(0, 10));
+        assertThat(byName.getContent()).extracting(AddressDTO::getPincode).containsExactly("712123");
+    }
+
+    @Test
+    void reimportUpdatesRowsInPlace() throws Exception {
+        geographyImportService.importCensusDirectory(new StringReader(DIRECTORY));
+        GeographyImportResult result = geographyImportService.importCensusDirectory(new StringReader(
+                "village_code,village_name_english,subdistrict_code,pincode\n" +
+                "300003,Sridham Mayapur,01235,741313\n"));
+
+        assertThat(result.getVillages()).isEqualTo(1);
+        assertThat(addressRepository.findDistinctVillages("Nabadwip", null)).containsExactly("Sridham Mayapur");
+    }
+
+    @Test
+    void reimportWithoutCountryKeepsTheStoredOne() throws Exception {
+        geographyImportService.importCensusDirectory(new StringReader(
+                "Country,State Code,State Name,Village Code,Village Name\n" +
+                "Bharat,19,West Bengal,300001,Bhaluka\n"));
+        geographyImportService.importCensusDirectory(new StringReader(DIRECTORY));
+
+        assertThat(addressRepository.findDistinctCountries()).containsExactly("Bharat");
+        assertThat(addressRepository.findDistinctStatesByCountry("Bharat")).containsExactly("West Bengal");
+    }
+
+    @Test
+    void rowsUnderAnUnknownParentAreSkippedAndCounted() throws Exception {
+        // State 27 has no name in the file and was never loaded, so district 500 and everything below it is orphaned
+        GeographyImportResult result = geographyImportService.importCensusDirectory(new StringReader(DIRECTORY +
+                "27,,500,Pune,04000,Haveli,400001,Wagholi,412207\n" +
+                "19,West Bengal,341,Nadia,01234,Krishnanagar - I,300005,Ghurni,741103\n"));
+
+        assertThat(result.getOrphansSkipped()).isEqualTo(4);
+        assertThat(result.getDistricts()).isEqualTo(2);
+        assertThat(result.getSubdistricts()).isEqualTo(3);
+        assertThat(result.getPincodes()).isEqualTo(4);
+        assertThat(result.getVillages()).isEqualTo(5);
+        assertThat(addressRepository.findDistinctVillages("Krishnanagar - I", null)).contains("Ghurni");
+        assertThat(addressRepository.findDistinctDistricts()).extracting(row -> row[0]).doesNotContain("500");
+    }
+
+    @Test
+    void geocodingAveragesGazetteerPlacesOntoPincodesAndAddresses() throws Exception {
+        geographyImportService.importCensusDirectory(new StringReader(DIRECTORY));
+        Address address = new Address();
+        address.setCountry("India");
+        address.setPincode("741313");
+        Long addressId = addressRepository.saveAndFlush(address).getId();
+
+        // GeoNames postal code dump: two places share 741313, 999999 is not in the directory, one row is broken
+        GeocodingResult result = geographyImportService.geocodePincodes(new StringReader(
+                "IN\t741313\tMayapur\tWest Bengal\t28\tNadia\t\t\t\t23.42\t88.38\t4\n" +
+                "IN\t741313\tBamanpukur\tWest Bengal\t28\tNadia\t\t\t\t23.44\t88.40\t4\n" +
+                "IN\t999999\tNowhere\tWest Bengal\t28\tNadia\t\t\t\t22.00\t88.00\t4\n" +
+                "IN\t741101\tBroken\n"));
+
+        assertThat(result.getRowsRead()).isEqualTo(4);
+        assertThat(result.getRowsSkipped()).isEqualTo(1);
+        assertThat(result.getPincodes()).isEqualTo(1);
+        assertThat(result.getAddresses()).isEqualTo(1);
+        assertThat(addressRepository.findPincodeCoordinates("741313").get(0)[0]).isEqualTo(23.43);
+
+        entityManager.clear();
+        Address geocoded = addressRepository.findById(addressId).orElseThrow();
+        assertThat(geocoded.getLatitude()).isEqualTo(23.43);
+        assertThat(geocoded.getLongitude()).isEqualTo(88.39);
+
+        GeocodingResult csv = geographyImportService.geocodePincodes(new StringReader(
+                "Pincode,Lat,Lng\n712123,22.91,88.39\n"));
+        assertThat(csv.getPincodes()).isEqualTo(1);
+        assertThat(addressRepository.findPincodeCoordinates("712123")).hasSize(1);
+    }
+
+    @Test
+    void fileWithoutVillageColumnsIsRejected() {
+        assertThatThrownBy(() -> geographyImportService.importCensusDirectory(new StringReader("state,district\n")))
+                .isInstanceOf(ValidationException.class);
+    }
+}
@@ -0,0 +1,79 @@
+package com.namhatta.service;
+
+import com.namhatta.exception.ValidationException;
+import com.namhatta.model.entity.NamhattaUpdate;
+import com.namhatta.repository.NamhattaUpdateRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+
+@ExtendWith(MockitoExtension.class)
+class LeaderboardServiceTest {
+
+    @Mock
+    private NamhattaUpdateRepository namhattaUpdateRepository;
+
+    private LeaderboardService leaderboardService;
+
+    @BeforeEach
+    void setUp() {
+        leaderboardService = new LeaderboardService(namhattaUpdateRepository, 2);
+
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[] { 1L, "D-101", "S-10", 50L, 0L, 0L, 5L, 0L, 0L, 0L });
+        rows.add(new Object[] { 2L, "D-101", "S-10", 30L, 0L, 0L, 9L, 0L, 0L, 0L });
+        rows.add(new Object[] { 3L, "D-202", "S-10", 40L, 0L, 0L, 1L, 0L, 0L, 0L });
+        lenient().when(namhattaUpdateRepository.sumActivityByNamhatta(any(), any())).thenReturn(rows);
+    }
+
+    @Test
+    void getLeaderboard_KeepsOnlyTopK() {
+        LeaderboardService.Leaderboard board = leaderboardService.getLeaderboard("attendance", "month", null, null, 10);
+
+        assertThat(board.getEntries()).extracting(LeaderboardService.LeaderboardEntry::getNamhattaId)
+                .containsExactly(1L, 3L);
+        assertThat(board.getEntries().get(0).getRank()).isEqualTo(1);
+    }
+
+    @Test
+    void getLeaderboard_PerDistrict() {
+        LeaderboardService.Leaderboard board =
+                leaderboardService.getLeaderboard("book_distribution", "week", "D-101", null, null);
+
+        assertThat(board.getEntries()).extracting(LeaderboardService.LeaderboardEntry::getNamhattaId)
+                .containsExactly(2L, 1L);
+    }
+
+    @Test
+    void recordUpdate_EvictedNamhattaCanReenter() {
+        leaderboardService.rebuildAll();
+
+        NamhattaUpdate update = new NamhattaUpdate();
+        update.setNamhattaId(2L);
+        update.setProgramDate(LocalDate.now());
+        update.setAttendance(25);
+        leaderboardService.recordUpdate(update, "D-101", "S-10");
+
+        LeaderboardService.Leaderboard board = leaderboardService.getLeaderboard("attendance", "month", null, null, 10);
+        assertThat(board.getEntries()).extracting(LeaderboardService.LeaderboardEntry::getNamhattaId)
+                .containsExactly(2L, 1L);
+        assertThat(board.getEntries().get(0).getValue()).isEqualTo(55L);
+    }
+
+    @Test
+    void getLeaderboard_InvalidMetric_ThrowsValidationException() {
+        assertThatThrownBy(() -> leaderboardService.getLeaderboard("donations", "week", null, null, null))
+                .isInstanceOf(ValidationException.class);
+    }
+}
@@ -0,0 +1,138 @@
+package com.namhatta.service;
+
+import com.namhatta.dto.LoginRequest;
+import com.namhatta.model.entity.User;
+import com.namhatta.model.entity.UserSession;
+import com.namhatta.model.enums.UserRole;
+import com.namhatta.repository.UserRepository;
+import com.namhatta.repository.UserSessionRepository;
+import com.namhatta.support.PostgresTestDatabase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Many simultaneous logins of one user against PostgreSQL: the session upsert must neither fail on the
+ * unique user_id index nor leave more than one session, and exactly one of the issued tokens stays valid.
+ * Runs on the embedded PostgreSQL server, since the upsert is PostgreSQL SQL.
+ */
+@SpringBootTest(properties = "session.validation-mode=DATABASE")
+@ActiveProfiles("test")
+public class LoginConcurrencyTest {
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        PostgresTestDatabase.register(registry);
+    }
+
+    private static final int THREADS = 8;
+    private static final int LOGINS_PER_THREAD = 5;
+    private static final String PASSWORD = "Secret123";
+
+    @Autowired
+    private AuthenticationService authenticationService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserSessionRepository userSessionRepository;
+
+    @Autowired
+    private PasswordService passwordService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setUsername("login-race-" + System.nanoTime());
+        user.setPasswordHash(passwordService.hashPassword(PASSWORD));
+        user.setFullName("Login Race");
+        user.setEmail(user.getUsername() + "@test.invalid");
+        user.setRole(UserRole.OFFICE);
+        user.setIsActive(true);
+        user = userRepository.save(user);
+    }
+
+    @AfterEach
+    void tearDown() {
+        userSessionRepository.deleteByUserId(user.getId());
+        userRepository.deleteById(user.getId());
+    }
+
+    @Test
+    void concurrentLoginsLeaveExactlyOneValidSession() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<String>>> results = new ArrayList<>();
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    List<String> tokens = new ArrayList<>();
+                    for (int i = 0; i < LOGINS_PER_THREAD; i++) {
+                        tokens.add(authenticationService.login(loginRequest()).getToken());
+                    }
+                    return tokens;
+                }));
+            }
+            start.countDown();
+
+            List<String> tokens = new ArrayList<>();
+            for (Future<List<String>> result : results) {
+                // Any login failing (e.g. a duplicate key on user_id) surfaces here
+                tokens.addAll(result.get());
+            }
+            assertEquals(THREADS * LOGINS_PER_THREAD, tokens.size());
+
+            Optional<UserSession> session = userSessionRepository.findByUserId(user.getId());
+            assertTrue(session.isPresent());
+            assertEquals(1, userSessionRepository.findAll().stream()
+                    .filter(s -> s.getUserId().equals(user.getId()))
+                    .count());
+
+            long valid = tokens.stream().filter(this::isValid).count();
+            assertEquals(1, valid, "exactly the last committed login's token stays valid");
+
+            // A later sequential login replaces the survivor
+            String last = authenticationService.login(loginRequest()).getToken();
+            assertTrue(isValid(last));
+            assertEquals(0, tokens.stream().filter(this::isValid).count());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private LoginRequest loginRequest() {
+        LoginRequest request = new LoginRequest();
+        request.setUsername(user.getUsername());
+        request.setPassword(PASSWORD);
+        return request;
+    }
+
+    private boolean isValid(String token) {
+        try {
+            authenticationService.verifyToken(token);
+            return true;
+        } catch (BadCredentialsException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.namhatta.service;
+
+import com.namhatta.exception.ValidationException;
+import com.namhatta.model.enums.NamhattaStatus;
+import com.namhatta.repository.NamhattaAddressRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.offset;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class NamhattaLocationIndexTest {
+
+    private static final String WORLD = "-180,-85,180,85";
+
+    @Mock
+    private NamhattaAddressRepository namhattaAddressRepository;
+
+    private NamhattaLocationIndex index;
+
+    @BeforeEach
+    void setUp() {
+        List<Object[]> rows = new ArrayList<>();
+        // Two namhattas a few hundred metres apart in Mayapur, one in Kolkata, one in Vrindavan
+        rows.add(new Object[] { 1L, "Mayapur East", 23.4231, 88.3884 });
+        rows.add(new Object[] { 2L, "Mayapur West", 23.4250, 88.3850 });
+        rows.add(new Object[] { 3L, "Kolkata", 22.5726, 88.3639 });
+        rows.add(new Object[] { 4L, "Vrindavan", 27.5650, 77.6593 });
+        when(namhattaAddressRepository.findLocationsByStatus(NamhattaStatus.APPROVED)).thenReturn(rows);
+
+        index = new NamhattaLocationIndex(namhattaAddressRepository, 16);
+        index.rebuild();
+    }
+
+    @Test
+    void getClusters_MergesNearbyNamhattasAtLowZoom() {
+        List<NamhattaLocationIndex.Cluster> clusters = index.getClusters(WORLD, 4);
+
+        // Bengal in one 64 px cell, Vrindavan in another
+        assertThat(clusters).extracting(NamhattaLocationIndex.Cluster::getCount).containsExactlyInAnyOrder(3, 1);
+        NamhattaLocationIndex.Cluster bengal = clusters.stream().filter(c -> c.getCount() == 3).findFirst().orElseThrow();
+        assertThat(bengal.getNamhattaId()).isNull();
+        assertThat(bengal.getLatitude()).isCloseTo((23.4231 + 23.4250 + 22.5726) / 3, offset(1e-9));
+    }
+
+    @Test
+    void getClusters_SplitsAtHighZoom() {
+        List<NamhattaLocationIndex.Cluster> clusters = index.getClusters("88.38,23.42,88.39,23.43", 20);
+
+        assertThat(clusters).extracting(NamhattaLocationIndex.Cluster::getNamhattaId).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(clusters).extracting(NamhattaLocationIndex.Cluster::getName)
+                .containsExactlyInAnyOrder("Mayapur East", "Mayapur West");
+    }
+
+    @Test
+    void getClusters_CountsAddUpAtEveryZoom() {
+        for (int zoom = 0; zoom <= 16; zoom++) {
+            assertThat(index.getClusters(WORLD, zoom).stream().mapToInt(NamhattaLocationIndex.Cluster::getCount).sum())
+                    .as("zoom %d", zoom)
+                    .isEqualTo(4);
+        }
+    }
+
+    @Test
+    void getClusters_OnlyReturnsTheViewport() {
+        List<NamhattaLocationIndex.Cluster> clusters = index.getClusters("77,27,78,28", 10);
+
+        assertThat(clusters).extracting(NamhattaLocationIndex.Cluster::getNamhattaId).containsExactly(4L);
+        assertThat(index.getClusters("-10,40,10,60", 10)).isEmpty();
+    }
+
+    @Test
+    void findNearest_OrdersByGreatCircleDistance() {
+        List<NamhattaLocationIndex.NearbyNamhatta> nearest = index.findNearest(23.4240, 88.3870, 3);
+
+        assertThat(nearest).extracting(NamhattaLocationIndex.NearbyNamhatta::getNamhattaId).containsExactly(1L, 2L, 3L);
+        // Mayapur to Kolkata is about 95 km
+        assertThat(nearest.get(2).getDistanceKm()).isBetween(90.0, 100.0);
+        assertThat(index.findNearest(23.4240, 88.3870, 100)).hasSize(4);
+    }
+
+    @Test
+    void findNearest_MatchesBruteForce() {
+        // Many namhattas share a pincode centroid, so duplicates are included on purpose
+        Random random = new Random(7);
+        List<Object[]> rows = new ArrayList<>();
+        for (long id = 1; id <= 2000; id++) {
+            double latitude = id % 10 == 0 ? 22.5 : 8 + random.nextDouble() * 27;
+            double longitude = id % 10 == 0 ? 88.3 : 68 + random.nextDouble() * 29;
+            rows.add(new Object[] { id, "N" + id, latitude, longitude });
+        }
+        when(namhattaAddressRepository.findLocationsByStatus(NamhattaStatus.APPROVED)).thenReturn(rows);
+        index.rebuild();
+
+        for (int i = 0; i < 50; i++) {
+            double latitude = 8 + random.nextDouble() * 27;
+            double longitude = 68 + random.nextDouble() * 29;
+            List<Double> expected = rows.stream()
+                    .map(row -> haversineKm(latitude, longitude, (Double) row[2], (Double) row[3]))
+                    .sorted()
+                    .limit(10)
+                    .toList();
+
+            assertThat(index.findNearest(latitude, longitude, 10))
+                    .extracting(NamhattaLocationIndex.NearbyNamhatta::getDistanceKm)
+                    .zipSatisfy(expected, (actual, exact) -> assertThat(actual).isCloseTo(exact, offset(0.01)));
+        }
+    }
+
+    @Test
+    void getClusters_RejectsMalformedBbox() {
+        assertThatThrownBy(() -> index.getClusters("88,23,89", 5)).isInstanceOf(ValidationException.class);
+        assertThatThrownBy(() -> index.getClusters("88,24,89,23", 5)).isInstanceOf(ValidationException.class);
+    }
+
+    private static double haversineKm(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * 6371.0088 * Math.asin(Math.sqrt(a));
+    }
+}
@@ -0,0 +1,123 @@
+package com.namhatta.service;
+
+import com.namhatta.dto.GeographyCodes;
+import com.namhatta.dto.NamhattaDTO;
+import com.namhatta.dto.NamhattaSummary;
+import com.namhatta.exception.ValidationException;
+import com.namhatta.model.entity.Namhatta;
+import com.namhatta.model.entity.NamhattaAddress;
+import com.namhatta.repository.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NamhattaServiceOfficerExpansionTest {
+
+    @Mock private NamhattaRepository namhattaRepository;
+    @Mock private AddressService addressService;
+    @Mock private NamhattaAddressRepository namhattaAddressRepository;
+    @Mock private DevoteeRepository devoteeRepository;
+    @Mock private NamhattaUpdateRepository namhattaUpdateRepository;
+    @Mock private UserRepository userRepository;
+    @Mock private StatusHistoryRepository statusHistoryRepository;
+
+    @InjectMocks
+    private NamhattaService namhattaService;
+
+    @Test
+    void officersForWholePageAreLoadedWithOneQueryPerTable() {
+        Pageable pageable = PageRequest.of(0, 10);
+        NamhattaSummary first = summary(1L, 11L, 12L, 100L);
+        first.setSecretaryId(13L);
+        NamhattaSummary second = summary(2L, 11L, 21L, 100L);
+        Page<NamhattaSummary> page = new PageImpl<>(List.of(first, second), pageable, 2);
+        when(addressService.resolveGeographyCodes(any())).thenReturn(new GeographyCodes(null, null, null, null, null));
+        when(namhattaRepository.findSummariesWithFilters(any(), any(), any(), any(), any(), any(), any(), eq(pageable))).thenReturn(page);
+        when(devoteeRepository.findNamesByIds(anyCollection())).thenReturn(List.of(
+                new Object[] {11L, "Mala Senapoti"}, new Object[] {12L, "President One"},
+                new Object[] {13L, "Secretary One"}, new Object[] {21L, "President Two"}));
+        when(userRepository.findNamesByIds(anyCollection())).thenReturn(List.<Object[]>of(new Object[] {100L, "Supervisor"}));
+
+        Page<NamhattaDTO> result = namhattaService.getNamhattas(pageable, null, null, null, null, null, "officers");
+
+        NamhattaDTO dto = result.getContent().get(0);
+        assertEquals("Mala Senapoti", dto.getMalaSenapotiName());
+        assertEquals("President One", dto.getPresidentName());
+        assertEquals("Secretary One", dto.getSecretaryName());
+        assertEquals("Supervisor", dto.getDistrictSupervisorName());
+        assertNull(dto.getAccountantName());
+        assertEquals("President Two", result.getContent().get(1).getPresidentName());
+
+        verify(devoteeRepository, times(1)).findNamesByIds(argThat((Collection<Long> ids) -> ids.equals(Set.of(11L, 12L, 13L, 21L))));
+        verify(userRepository, times(1)).findNamesByIds(argThat((Collection<Long> ids) -> ids.equals(Set.of(100L))));
+        verify(devoteeRepository, never()).findById(any());
+    }
+
+    @Test
+    void withoutExpandOnlyIdsAreReturned() {
+        when(namhattaRepository.findById(1L)).thenReturn(Optional.of(namhatta(1L, 11L, 12L, 100L)));
+
+        NamhattaDTO dto = namhattaService.getNamhatta(1L, null);
+
+        assertEquals(11L, dto.getMalaSenapotiId());
+        assertNull(dto.getMalaSenapotiName());
+        verifyNoInteractions(devoteeRepository, userRepository);
+    }
+
+    @Test
+    void singleNamhattaCarriesItsMeetingPlace() {
+        NamhattaAddress link = new NamhattaAddress();
+        link.setLatitude(22.5256);
+        link.setLongitude(88.3654);
+        when(namhattaRepository.findById(1L)).thenReturn(Optional.of(namhatta(1L, 11L, 12L, 100L)));
+        when(namhattaAddressRepository.findByNamhattaId(1L)).thenReturn(Optional.of(link));
+
+        NamhattaDTO dto = namhattaService.getNamhatta(1L, null);
+
+        assertEquals(22.5256, dto.getLatitude());
+        assertEquals(88.3654, dto.getLongitude());
+    }
+
+    @Test
+    void unknownExpandValueIsRejected() {
+        assertThrows(ValidationException.class, () -> namhattaService.getNamhatta(1L, "officers,devotees"));
+    }
+
+    private Namhatta namhatta(Long id, Long malaSenapotiId, Long presidentId, Long supervisorId) {
+        Namhatta namhatta = new Namhatta();
+        namhatta.setId(id);
+        namhatta.setCode("NH-" + id);
+        namhatta.setName("Namhatta " + id);
+        namhatta.setMalaSenapotiId(malaSenapotiId);
+        namhatta.setPresidentId(presidentId);
+        namhatta.setDistrictSupervisorId(supervisorId);
+        return namhatta;
+    }
+
+    private NamhattaSummary summary(Long id, Long malaSenapotiId, Long presidentId, Long supervisorId) {
+        NamhattaSummary summary = new NamhattaSummary();
+        summary.setId(id);
+        summary.setCode("NH-" + id);
+        summary.setName("Namhatta " + id);
+        summary.setMalaSenapotiId(malaSenapotiId);
+        summary.setPresidentId(presidentId);
+        summary.setDistrictSupervisorId(supervisorId);
+        return summary;
+    }
+}
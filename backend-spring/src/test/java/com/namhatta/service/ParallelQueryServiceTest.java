@@ -0,0 +1,116 @@
+package com.namhatta.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ParallelQueryServiceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private ParallelQueryService parallelQueryService;
+
+    @BeforeEach
+    void setUp() {
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        parallelQueryService = new ParallelQueryService(transactionManager, meterRegistry, 3, 10, 500);
+    }
+
+    @AfterEach
+    void tearDown() {
+        parallelQueryService.shutdown();
+    }
+
+    @Test
+    void submit_RunsQueriesConcurrently() {
+        CountDownLatch allStarted = new CountDownLatch(3);
+        ParallelQueryService.Batch batch = parallelQueryService.newBatch();
+
+        ParallelQueryService.QueryHandle<Boolean> first = batch.submit("first", () -> awaitOthers(allStarted), false);
+        ParallelQueryService.QueryHandle<Boolean> second = batch.submit("second", () -> awaitOthers(allStarted), false);
+        ParallelQueryService.QueryHandle<Boolean> third = batch.submit("third", () -> awaitOthers(allStarted), false);
+
+        assertThat(first.get()).isTrue();
+        assertThat(second.get()).isTrue();
+        assertThat(third.get()).isTrue();
+        assertThat(batch.isPartial()).isFalse();
+    }
+
+    @Test
+    void get_FailedQuery_ReturnsFallbackAndMarksPartial() {
+        ParallelQueryService.Batch batch = parallelQueryService.newBatch();
+
+        ParallelQueryService.QueryHandle<Long> ok = batch.submit("ok", () -> 5L, 0L);
+        ParallelQueryService.QueryHandle<Long> failing = batch.submit("failing", () -> {
+            throw new IllegalStateException("connection reset");
+        }, 0L);
+
+        assertThat(ok.get()).isEqualTo(5L);
+        assertThat(failing.get()).isEqualTo(0L);
+        assertThat(batch.getUnavailable()).containsExactly("failing");
+        assertThat(fallbacks("failing", "failed")).isEqualTo(1.0);
+    }
+
+    @Test
+    void get_NoConnectionAvailable_IsCountedSeparately() {
+        when(transactionManager.getTransaction(any()))
+                .thenThrow(new CannotCreateTransactionException("Connection is not available, request timed out"));
+        ParallelQueryService.Batch batch = parallelQueryService.newBatch();
+
+        ParallelQueryService.QueryHandle<Long> starved = batch.submit("starved", () -> 5L, 0L);
+
+        assertThat(starved.get()).isEqualTo(0L);
+        assertThat(batch.getUnavailable()).containsExactly("starved");
+        assertThat(fallbacks("starved", "no_connection")).isEqualTo(1.0);
+    }
+
+    @Test
+    void get_SlowQuery_TimesOutWithFallback() {
+        ParallelQueryService.Batch batch = parallelQueryService.newBatch();
+
+        ParallelQueryService.QueryHandle<Long> slow = batch.submit("slow", () -> {
+            sleep(2000);
+            return 1L;
+        }, -1L);
+
+        long start = System.nanoTime();
+        assertThat(slow.get()).isEqualTo(-1L);
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(1500);
+        assertThat(batch.getUnavailable()).containsExactly("slow");
+        assertThat(fallbacks("slow", "timeout")).isEqualTo(1.0);
+    }
+
+    private double fallbacks(String query, String reason) {
+        return meterRegistry.get("query.fanout.fallbacks").tag("query", query).tag("reason", reason).counter().count();
+    }
+
+    private boolean awaitOthers(CountDownLatch latch) {
+        latch.countDown();
+        try {
+            return latch.await(400, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
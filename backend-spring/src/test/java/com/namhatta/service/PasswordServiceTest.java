@@ -0,0 +1,90 @@
+package com.namhatta.service;
+
+import com.namhatta.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordServiceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private PasswordService passwordService;
+
+    @AfterEach
+    void tearDown() {
+        if (passwordService != null) {
+            passwordService.shutdown();
+        }
+    }
+
+    @Test
+    void hashesAtConfiguredCostAndVerifies() {
+        passwordService = new PasswordService(meterRegistry, 4, 1, 10, 10000);
+
+        String hash = passwordService.hashPassword("Secret123");
+
+        assertTrue(hash.startsWith("$2a$04$"));
+        assertTrue(passwordService.verifyPassword("Secret123", hash));
+        assertFalse(passwordService.verifyPassword("Wrong123", hash));
+        assertEquals(1, meterRegistry.get("namhatta.password.bcrypt").tag("operation", "hash").timer().count());
+        assertEquals(2, meterRegistry.get("namhatta.password.bcrypt").tag("operation", "verify").timer().count());
+    }
+
+    @Test
+    void hashesAtAnotherCostNeedRehash() {
+        passwordService = new PasswordService(meterRegistry, 5, 1, 10, 10000);
+
+        assertTrue(passwordService.needsRehash("$2a$10$Cx1VCTqOh4KQLLNeoTBby.xUry.w0Es6pSxfekeC6dUo0NE8T9xiO"));
+        assertTrue(passwordService.needsRehash("$2b$04$Cx1VCTqOh4KQLLNeoTBby.xUry.w0Es6pSxfekeC6dUo0NE8T9xiO"));
+        assertFalse(passwordService.needsRehash(passwordService.hashPassword("Secret123")));
+        assertFalse(passwordService.needsRehash("not-a-bcrypt-hash"));
+        assertFalse(passwordService.needsRehash(null));
+    }
+
+    @Test
+    void saturatedQueueIsRejectedWithoutWaiting() throws Exception {
+        // One worker, one queue slot: of four simultaneous slow hashes at least two must be refused
+        passwordService = new PasswordService(meterRegistry, 13, 1, 1, 60000);
+        ExecutorService callers = Executors.newFixedThreadPool(4);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<CompletableFuture<String>> results = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                results.add(CompletableFuture.supplyAsync(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return passwordService.hashPassword("Secret123");
+                }, callers));
+            }
+            start.countDown();
+
+            int refused = 0;
+            for (CompletableFuture<String> result : results) {
+                try {
+                    result.join();
+                } catch (CompletionException e) {
+                    ServiceUnavailableException cause = assertInstanceOf(ServiceUnavailableException.class, e.getCause());
+                    assertTrue(cause.getRetryAfterSeconds() > 0);
+                    refused++;
+                }
+            }
+            assertTrue(refused >= 2, "refused " + refused);
+            assertEquals(refused, meterRegistry.get("namhatta.password.rejected").counter().count());
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+}
@@ -5,18 +5,19 @@ import com.namhatta.dto.PromoteDevoteeRequest;
 import com.namhatta.dto.DemoteDevoteeRequest;
 import com.namhatta.dto.TransferSubordinatesRequest;
 import com.namhatta.dto.RoleChangeResult;
-import com.namhatta.exception.CircularReferenceException;
-import com.namhatta.exception.ValidationException;
 import com.namhatta.model.entity.Devotee;
 import com.namhatta.model.entity.RoleChangeHistory;
 import com.namhatta.model.enums.LeadershipRole;
 import com.namhatta.repository.DevoteeRepository;
+import com.namhatta.repository.DevotionalStatusRepository;
+import com.namhatta.repository.NamhattaRepository;
 import com.namhatta.repository.RoleChangeHistoryRepository;
+import com.namhatta.repository.ShraddhakutirRepository;
+import com.namhatta.util.DtoMapper;
 import com.namhatta.util.RoleHierarchyRules;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -42,7 +43,18 @@ class RoleManagementServiceTest {
     @Mock
     private RoleHierarchyRules roleHierarchyRules;
 
-    @InjectMocks
+    @Mock
+    private SenapotiTreeService senapotiTreeService;
+
+    @Mock
+    private DevotionalStatusRepository devotionalStatusRepository;
+
+    @Mock
+    private NamhattaRepository namhattaRepository;
+
+    @Mock
+    private ShraddhakutirRepository shraddhakutirRepository;
+
     private RoleManagementService roleManagementService;
 
     private Devotee devotee;
@@ -50,6 +62,12 @@ class RoleManagementServiceTest {
 
     @BeforeEach
     void setUp() {
+        // A real mapper, so results carry the devotee; its name lookups go to the mocked repositories
+        DtoMapper dtoMapper = new DtoMapper(devoteeRepository, devotionalStatusRepository, namhattaRepository,
+                shraddhakutirRepository);
+        roleManagementService = new RoleManagementService(devoteeRepository, roleChangeHistoryRepository,
+                roleHierarchyRules, dtoMapper, senapotiTreeService);
+
         devotee = new Devotee();
         devotee.setId(1L);
         devotee.setName("Test Devotee");
@@ -68,7 +86,7 @@ class RoleManagementServiceTest {
         PromoteDevoteeRequest request = new PromoteDevoteeRequest();
         request.setDevoteeId(1L);
         request.setTargetRole(LeadershipRole.CHAKRA_SENAPOTI);
-        request.setNewSupervisorId(3L);
+        request.setNewReportingToId(3L);
         request.setReason("Good performance");
         request.setDistrictCode("TEST_DIST");
 
@@ -89,6 +107,7 @@ class RoleManagementServiceTest {
         assertThat(result.getDevotee()).isNotNull();
         verify(devoteeRepository).save(devotee);
         verify(roleChangeHistoryRepository).save(any(RoleChangeHistory.class));
+        verify(senapotiTreeService).invalidateAll();
     }
 
     @Test
@@ -96,17 +115,20 @@ class RoleManagementServiceTest {
         PromoteDevoteeRequest request = new PromoteDevoteeRequest();
         request.setDevoteeId(1L);
         request.setTargetRole(LeadershipRole.MAHA_CHAKRA_SENAPOTI);
-        request.setNewSupervisorId(1L);
+        request.setNewReportingToId(1L);
         request.setReason("Test");
         request.setDistrictCode("TEST_DIST");
 
         when(devoteeRepository.findById(1L)).thenReturn(Optional.of(devotee));
+        when(roleHierarchyRules.canPromote(LeadershipRole.UPA_CHAKRA_SENAPOTI, LeadershipRole.MAHA_CHAKRA_SENAPOTI))
+                .thenReturn(true);
 
         assertThatThrownBy(() -> roleManagementService.promoteDevotee(request, 100L))
-                .isInstanceOf(CircularReferenceException.class)
+                .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("circular");
 
         verify(devoteeRepository, never()).save(any());
+        verify(senapotiTreeService, never()).invalidateAll();
     }
 
     @Test
@@ -114,34 +136,34 @@ class RoleManagementServiceTest {
         PromoteDevoteeRequest request = new PromoteDevoteeRequest();
         request.setDevoteeId(1L);
         request.setTargetRole(LeadershipRole.CHAKRA_SENAPOTI);
-        request.setNewSupervisorId(3L);
+        request.setNewReportingToId(3L);
         request.setReason("Test");
         request.setDistrictCode("TEST_DIST");
 
-        Devotee newSupervisor = new Devotee();
-        newSupervisor.setId(3L);
-        newSupervisor.setLeadershipRole(LeadershipRole.UPA_CHAKRA_SENAPOTI);
-
         when(devoteeRepository.findById(1L)).thenReturn(Optional.of(devotee));
-        when(devoteeRepository.findById(3L)).thenReturn(Optional.of(newSupervisor));
         when(roleHierarchyRules.canPromote(LeadershipRole.UPA_CHAKRA_SENAPOTI, LeadershipRole.CHAKRA_SENAPOTI))
                 .thenReturn(false);
 
         assertThatThrownBy(() -> roleManagementService.promoteDevotee(request, 100L))
-                .isInstanceOf(ValidationException.class);
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("not allowed by hierarchy rules");
 
         verify(devoteeRepository, never()).save(any());
+        verify(senapotiTreeService, never()).invalidateAll();
     }
 
     @Test
     void demoteDevotee_WithValidDemotion_ShouldSucceed() {
         DemoteDevoteeRequest request = new DemoteDevoteeRequest();
         request.setDevoteeId(1L);
-        request.setTargetRole(null);
+        request.setTargetRole(LeadershipRole.UPA_CHAKRA_SENAPOTI);
         request.setReason("Performance issues");
         request.setDistrictCode("TEST_DIST");
+        devotee.setLeadershipRole(LeadershipRole.CHAKRA_SENAPOTI);
 
         when(devoteeRepository.findById(1L)).thenReturn(Optional.of(devotee));
+        when(roleHierarchyRules.canDemote(LeadershipRole.CHAKRA_SENAPOTI, LeadershipRole.UPA_CHAKRA_SENAPOTI))
+                .thenReturn(true);
         when(devoteeRepository.findByReportingToDevoteeId(1L)).thenReturn(List.of());
         when(devoteeRepository.save(any(Devotee.class))).thenReturn(devotee);
         when(roleChangeHistoryRepository.save(any(RoleChangeHistory.class))).thenReturn(new RoleChangeHistory());
@@ -153,35 +175,40 @@ class RoleManagementServiceTest {
 
         verify(devoteeRepository).save(devotee);
         verify(roleChangeHistoryRepository).save(any(RoleChangeHistory.class));
+        verify(senapotiTreeService).invalidateAll();
     }
 
     @Test
     void demoteDevotee_WithSubordinates_ShouldRequireTransfer() {
         DemoteDevoteeRequest request = new DemoteDevoteeRequest();
         request.setDevoteeId(1L);
-        request.setTargetRole(null);
+        request.setTargetRole(LeadershipRole.UPA_CHAKRA_SENAPOTI);
         request.setReason("Test");
         request.setDistrictCode("TEST_DIST");
+        devotee.setLeadershipRole(LeadershipRole.CHAKRA_SENAPOTI);
 
         Devotee subordinate = new Devotee();
         subordinate.setId(5L);
         subordinate.setReportingToDevoteeId(1L);
 
         when(devoteeRepository.findById(1L)).thenReturn(Optional.of(devotee));
+        when(roleHierarchyRules.canDemote(LeadershipRole.CHAKRA_SENAPOTI, LeadershipRole.UPA_CHAKRA_SENAPOTI))
+                .thenReturn(true);
         when(devoteeRepository.findByReportingToDevoteeId(1L)).thenReturn(List.of(subordinate));
 
         assertThatThrownBy(() -> roleManagementService.demoteDevotee(request, 100L))
-                .isInstanceOf(ValidationException.class)
+                .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("subordinates");
 
         verify(devoteeRepository, never()).save(any());
+        verify(senapotiTreeService, never()).invalidateAll();
     }
 
     @Test
     void transferSubordinates_WithValidTransfer_ShouldSucceed() {
         TransferSubordinatesRequest request = new TransferSubordinatesRequest();
         request.setFromDevoteeId(1L);
-        request.setToDevoteeId(2L);
+        request.setToDevoteeId(6L);
         request.setSubordinateIds(Arrays.asList(3L, 4L));
         request.setReason("Reorganization");
 
@@ -193,18 +220,26 @@ class RoleManagementServiceTest {
         subordinate2.setId(4L);
         subordinate2.setReportingToDevoteeId(1L);
 
+        Devotee peer = new Devotee();
+        peer.setId(6L);
+        peer.setLeadershipRole(LeadershipRole.UPA_CHAKRA_SENAPOTI);
+        peer.setReportingToDevoteeId(2L);
+
+        when(devoteeRepository.findByReportingToDevoteeId(1L)).thenReturn(List.of(subordinate1, subordinate2));
         when(devoteeRepository.findById(1L)).thenReturn(Optional.of(devotee));
         when(devoteeRepository.findById(2L)).thenReturn(Optional.of(supervisor));
         when(devoteeRepository.findById(3L)).thenReturn(Optional.of(subordinate1));
         when(devoteeRepository.findById(4L)).thenReturn(Optional.of(subordinate2));
+        when(devoteeRepository.findById(6L)).thenReturn(Optional.of(peer));
         when(devoteeRepository.save(any(Devotee.class))).thenAnswer(i -> i.getArguments()[0]);
 
         roleManagementService.transferSubordinates(request, 100L);
 
-        assertThat(subordinate1.getReportingToDevoteeId()).isEqualTo(2L);
-        assertThat(subordinate2.getReportingToDevoteeId()).isEqualTo(2L);
+        assertThat(subordinate1.getReportingToDevoteeId()).isEqualTo(6L);
+        assertThat(subordinate2.getReportingToDevoteeId()).isEqualTo(6L);
 
         verify(devoteeRepository, times(2)).save(any(Devotee.class));
+        verify(senapotiTreeService).invalidateAll();
     }
 
     @Test
@@ -220,6 +255,7 @@ class RoleManagementServiceTest {
         assertThat(result.getDevotee()).isNotNull();
 
         verify(devoteeRepository).save(devotee);
+        verify(senapotiTreeService).invalidateAll();
     }
 
     @Test
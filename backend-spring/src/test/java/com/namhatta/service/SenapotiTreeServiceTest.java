@@ -0,0 +1,97 @@
+package com.namhatta.service;
+
+import com.namhatta.model.enums.LeadershipRole;
+import com.namhatta.repository.DevoteeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static com.namhatta.model.enums.LeadershipRole.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SenapotiTreeServiceTest {
+
+    @Mock
+    private DevoteeRepository devoteeRepository;
+
+    private SenapotiTreeService senapotiTreeService;
+
+    private final List<Object[]> rows = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        senapotiTreeService = new SenapotiTreeService(devoteeRepository, 10, 300);
+
+        // 1 -> 2 -> {3, 4} -> 5 under 3; 6 reports to a leader outside the district
+        rows.add(leader(1L, MALA_SENAPOTI, null));
+        rows.add(leader(2L, MAHA_CHAKRA_SENAPOTI, 1L));
+        rows.add(leader(3L, CHAKRA_SENAPOTI, 2L));
+        rows.add(leader(4L, CHAKRA_SENAPOTI, 2L));
+        rows.add(leader(5L, UPA_CHAKRA_SENAPOTI, 3L));
+        rows.add(leader(6L, CHAKRA_SENAPOTI, 99L));
+    }
+
+    @Test
+    void getTree_NestsLeadersWithSubtreeSizesAndRoleCounts() {
+        when(devoteeRepository.findLeadersByDistrictCode("341")).thenReturn(rows);
+
+        SenapotiTreeService.DistrictTree tree = senapotiTreeService.getTree("341");
+
+        assertThat(tree.getTotalLeaders()).isEqualTo(6);
+        assertThat(tree.getRoleCounts()).isEqualTo(Map.of(
+                MALA_SENAPOTI, 1, MAHA_CHAKRA_SENAPOTI, 1, CHAKRA_SENAPOTI, 3, UPA_CHAKRA_SENAPOTI, 1));
+        assertThat(tree.getRoots()).extracting(SenapotiTreeService.LeaderNode::getDevoteeId).containsExactly(1L, 6L);
+
+        SenapotiTreeService.LeaderNode mala = tree.getRoots().get(0);
+        assertThat(mala.getSubtreeSize()).isEqualTo(5);
+        assertThat(mala.getRoleCounts()).containsEntry(CHAKRA_SENAPOTI, 2).containsEntry(UPA_CHAKRA_SENAPOTI, 1);
+
+        SenapotiTreeService.LeaderNode mahaChakra = mala.getSubordinates().get(0);
+        assertThat(mahaChakra.getSubordinates()).extracting(SenapotiTreeService.LeaderNode::getDevoteeId)
+                .containsExactly(3L, 4L);
+        assertThat(mahaChakra.getSubordinates().get(0).getSubtreeSize()).isEqualTo(2);
+        assertThat(mahaChakra.getSubordinates().get(1).getRoleCounts()).isEqualTo(Map.of(CHAKRA_SENAPOTI, 1));
+    }
+
+    @Test
+    void getTree_CutsReportingCycles() {
+        rows.add(leader(7L, CHAKRA_SENAPOTI, 8L));
+        rows.add(leader(8L, CHAKRA_SENAPOTI, 7L));
+        rows.add(leader(9L, UPA_CHAKRA_SENAPOTI, 8L));
+        when(devoteeRepository.findLeadersByDistrictCode("341")).thenReturn(rows);
+
+        SenapotiTreeService.DistrictTree tree = senapotiTreeService.getTree("341");
+
+        assertThat(tree.getRoots()).hasSize(3);
+        assertThat(tree.getRoots().stream().mapToInt(SenapotiTreeService.LeaderNode::getSubtreeSize).sum())
+                .isEqualTo(9);
+    }
+
+    @Test
+    void getTree_IsCachedUntilInvalidated() {
+        when(devoteeRepository.findLeadersByDistrictCode("341")).thenReturn(rows);
+
+        SenapotiTreeService.DistrictTree first = senapotiTreeService.getTree("341");
+        assertThat(senapotiTreeService.getTree("341")).isSameAs(first);
+        verify(devoteeRepository, times(1)).findLeadersByDistrictCode("341");
+
+        senapotiTreeService.invalidateAll();
+
+        assertThat(senapotiTreeService.getTree("341")).isNotSameAs(first);
+        verify(devoteeRepository, times(2)).findLeadersByDistrictCode("341");
+    }
+
+    private static Object[] leader(Long id, LeadershipRole role, Long reportingTo) {
+        return new Object[] { id, "Leader " + id, role, reportingTo };
+    }
+}
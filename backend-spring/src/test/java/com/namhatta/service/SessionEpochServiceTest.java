@@ -0,0 +1,115 @@
+package com.namhatta.service;
+
+import com.namhatta.model.enums.SessionValidationMode;
+import com.namhatta.repository.UserRepository;
+import com.namhatta.repository.UserSessionRepository;
+import com.namhatta.security.JwtTokenProvider;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SessionEpochServiceTest {
+
+    @Mock private UserRepository userRepository;
+    @Mock private JdbcTemplate jdbcTemplate;
+    @Mock private UserSessionRepository userSessionRepository;
+    @Mock private ExpirySweepService expirySweepService;
+
+    private SessionEpochService sessionEpochService;
+
+    @BeforeEach
+    void setUp() {
+        sessionEpochService = new SessionEpochService(userRepository, jdbcTemplate, new SimpleMeterRegistry(), 100, 300);
+    }
+
+    @Test
+    void epochIsLoadedOnceThenCheckedInMemory() {
+        when(userRepository.findSessionEpochById(1L)).thenReturn(Optional.of(3L));
+
+        assertTrue(sessionEpochService.isCurrent(1L, 3L));
+        assertTrue(sessionEpochService.isCurrent(1L, 3L));
+        assertFalse(sessionEpochService.isCurrent(1L, 2L));
+        assertFalse(sessionEpochService.isCurrent(1L, null));
+
+        verify(userRepository, times(1)).findSessionEpochById(1L);
+    }
+
+    @Test
+    void loginElsewhereInvalidatesOlderTokensAndIsPublished() {
+        when(userRepository.findSessionEpochById(1L)).thenReturn(Optional.of(3L));
+        assertTrue(sessionEpochService.isCurrent(1L, 3L));
+
+        when(userRepository.findSessionEpochById(1L)).thenReturn(Optional.of(4L));
+        sessionEpochService.setPublishing(true);
+        long epoch = sessionEpochService.advance(1L);
+
+        assertEquals(4L, epoch);
+        assertFalse(sessionEpochService.isCurrent(1L, 3L));
+        assertTrue(sessionEpochService.isCurrent(1L, 4L));
+        verify(userRepository).incrementSessionEpoch(1L);
+        verify(jdbcTemplate).query(eq("SELECT pg_notify(?, ?)"), any(ResultSetExtractor.class),
+                eq(SessionEpochService.CHANNEL), eq("1:4"));
+    }
+
+    @Test
+    void newerTokenEpochRereadsInsteadOfRejecting() {
+        when(userRepository.findSessionEpochById(1L)).thenReturn(Optional.of(3L), Optional.of(4L));
+        assertTrue(sessionEpochService.isCurrent(1L, 3L));
+
+        // Login on another instance whose notification has not arrived yet
+        assertTrue(sessionEpochService.isCurrent(1L, 4L));
+        assertFalse(sessionEpochService.isCurrent(1L, 3L));
+        assertTrue(sessionEpochService.isCurrent(1L, 4L));
+        assertFalse(sessionEpochService.isCurrent(1L, 9L));
+
+        verify(userRepository, times(3)).findSessionEpochById(1L);
+    }
+
+    @Test
+    void notificationsOnlyMoveEpochsForward() {
+        sessionEpochService.applyNotification("7:5");
+        sessionEpochService.applyNotification("7:4");
+        sessionEpochService.applyNotification("garbage");
+
+        assertTrue(sessionEpochService.isCurrent(7L, 5L));
+        verify(userRepository, never()).findSessionEpochById(any());
+    }
+
+    @Test
+    void epochModeSkipsUserSessionsTable() {
+        SessionService sessionService = new SessionService(userSessionRepository, sessionEpochService,
+                SessionValidationMode.EPOCH, expirySweepService, "");
+        when(userRepository.findSessionEpochById(1L)).thenReturn(Optional.of(1L));
+
+        SessionService.SessionGrant grant = sessionService.openSession(1L);
+
+        assertNull(grant.getSessionToken());
+        assertEquals(1L, grant.getSessionEpoch());
+        assertTrue(sessionService.validateSession(1L, null, 1L));
+        sessionService.removeSession(1L);
+        verify(userRepository, times(2)).incrementSessionEpoch(1L);
+        verifyNoInteractions(userSessionRepository, jdbcTemplate);
+    }
+
+    @Test
+    void epochClaimRoundTripsThroughJwt() {
+        JwtTokenProvider provider = new JwtTokenProvider("test-secret-key-for-session-epoch-claims-0123456789");
+        String token = provider.generateToken(1L, "user", "ADMIN", List.of(), null, 12L);
+
+        assertEquals(12L, provider.getClaimsFromToken(token).get("sessionEpoch", Long.class));
+        assertNull(provider.getClaimsFromToken(token).get("sessionToken", String.class));
+    }
+}
@@ -0,0 +1,85 @@
+package com.namhatta.service;
+
+import com.namhatta.exception.ValidationException;
+import com.namhatta.model.entity.NamhattaUpdate;
+import com.namhatta.model.entity.NamhattaUpdateRollup;
+import com.namhatta.model.enums.RollupLevel;
+import com.namhatta.model.enums.RollupPeriod;
+import com.namhatta.repository.NamhattaUpdateRollupRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UpdateRollupServiceTest {
+
+    @Mock
+    private NamhattaUpdateRollupRepository rollupRepository;
+
+    @InjectMocks
+    private UpdateRollupService updateRollupService;
+
+    @Test
+    void recordUpdate_IncrementsEveryLevelAndPeriod() {
+        NamhattaUpdate update = new NamhattaUpdate();
+        update.setNamhattaId(7L);
+        update.setProgramDate(LocalDate.of(2025, 1, 15)); // Wednesday
+        update.setAttendance(25);
+
+        updateRollupService.recordUpdate(update, "D-101", "S-10");
+
+        verify(rollupRepository).incrementBucket(eq("NAMHATTA"), eq("7"), eq("WEEK"), eq(LocalDate.of(2025, 1, 13)),
+                eq(25L), eq(0L), eq(0L), eq(0L), eq(0L), eq(0L), eq(0L));
+        verify(rollupRepository).incrementBucket(eq("DISTRICT"), eq("D-101"), eq("MONTH"), eq(LocalDate.of(2025, 1, 1)),
+                eq(25L), anyLong(), anyLong(), anyLong(), anyLong(), anyLong(), anyLong());
+        verify(rollupRepository, times(6)).incrementBucket(anyString(), anyString(), anyString(), any(),
+                anyLong(), anyLong(), anyLong(), anyLong(), anyLong(), anyLong(), anyLong());
+    }
+
+    @Test
+    void recordUpdate_WithoutAddress_OnlyNamhattaLevel() {
+        NamhattaUpdate update = new NamhattaUpdate();
+        update.setNamhattaId(7L);
+        update.setProgramDate(LocalDate.of(2025, 1, 15));
+        update.setAttendance(10);
+
+        updateRollupService.recordUpdate(update, null, null);
+
+        verify(rollupRepository, times(2)).incrementBucket(eq("NAMHATTA"), eq("7"), anyString(), any(),
+                anyLong(), anyLong(), anyLong(), anyLong(), anyLong(), anyLong(), anyLong());
+        verifyNoMoreInteractions(rollupRepository);
+    }
+
+    @Test
+    void getStats_ComputesAverageAttendance() {
+        NamhattaUpdateRollup rollup = new NamhattaUpdateRollup();
+        rollup.setScopeKey("D-101");
+        rollup.setBucketStart(LocalDate.of(2025, 1, 1));
+        rollup.setProgramCount(4L);
+        rollup.setAttendanceSum(100L);
+        when(rollupRepository.findBuckets(RollupLevel.DISTRICT, RollupPeriod.MONTH, "D-101",
+                LocalDate.of(2025, 1, 1), null)).thenReturn(List.of(rollup));
+
+        List<UpdateRollupService.RollupBucket> stats =
+                updateRollupService.getStats("district", "month", "D-101", LocalDate.of(2025, 1, 20), null);
+
+        assertThat(stats).hasSize(1);
+        assertThat(stats.get(0).getAverageAttendance()).isEqualTo(25.0);
+    }
+
+    @Test
+    void getStats_InvalidLevel_ThrowsValidationException() {
+        assertThatThrownBy(() -> updateRollupService.getStats("country", "week", null, null, null))
+                .isInstanceOf(ValidationException.class);
+    }
+}
@@ -0,0 +1,61 @@
+package com.namhatta.support;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.test.context.DynamicPropertyRegistry;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * A real PostgreSQL server for tests of native SQL that H2 cannot stand in for, e.g.
+ *   @DynamicPropertySource
+ *   static void postgres(DynamicPropertyRegistry registry) { PostgresTestDatabase.register(registry); }
+ * The server is started from bundled binaries on first use, shared by every test class in the JVM and
+ * stopped when the JVM exits. Combine with the test profile, which keeps the datasource in @DataJpaTest slices.
+ */
+public final class PostgresTestDatabase {
+
+    private static EmbeddedPostgres server;
+
+    private PostgresTestDatabase() {
+    }
+
+    /**
+     * Point the Spring datasource at the shared server's postgres database
+     */
+    public static void register(DynamicPropertyRegistry registry) {
+        EmbeddedPostgres postgres = server();
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+        registry.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.PostgreSQLDialect");
+        registry.add("datasource.replica.enabled", () -> "false");
+    }
+
+    /**
+     * The shared server's postgres database, for tests that talk JDBC without a Spring context
+     */
+    public static DataSource dataSource() {
+        return server().getPostgresDatabase();
+    }
+
+    private static synchronized EmbeddedPostgres server() {
+        if (server == null) {
+            try {
+                server = EmbeddedPostgres.start();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not start embedded PostgreSQL", e);
+            }
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    server.close();
+                } catch (IOException ignored) {
+                    // The JVM is exiting
+                }
+            }));
+        }
+        return server;
+    }
+}
@@ -0,0 +1,43 @@
+package com.namhatta.support;
+
+import com.namhatta.config.RequestQueryContext;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Guards against N+1 regressions in repository and service tests, e.g.
+ *   QueryCountAssertions.assertMaxQueries(3, () -> namhattaService.getAllNamhattas(...));
+ * Relies on QueryCountingInspector being configured, which application.properties does for every profile.
+ */
+public final class QueryCountAssertions {
+
+    @FunctionalInterface
+    public interface QueryBlock {
+        void run() throws Exception;
+    }
+
+    private QueryCountAssertions() {
+    }
+
+    /**
+     * Runs the block and fails if it issued more than max SQL statements on the calling thread
+     */
+    public static int assertMaxQueries(int max, QueryBlock block) throws Exception {
+        RequestQueryContext context = RequestQueryContext.start();
+        try {
+            block.run();
+        } finally {
+            RequestQueryContext.stop();
+        }
+
+        int count = context.getStatementCount();
+        if (count > max) {
+            Map.Entry<String, Integer> repeated = context.getMostRepeatedStatement();
+            fail("Expected at most " + max + " SQL statements but " + count + " were executed"
+                    + (repeated != null ? "; most repeated (" + repeated.getValue() + "x): " + repeated.getKey() : ""));
+        }
+        return count;
+    }
+}
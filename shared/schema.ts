@@ -1,4 +1,4 @@
-import { pgTable, text, integer, serial, timestamp, jsonb, boolean, unique } from "drizzle-orm/pg-core";
+import { pgTable, text, integer, serial, timestamp, jsonb, boolean, unique, date, bigint } from "drizzle-orm/pg-core";
 import { createInsertSchema } from "drizzle-zod";
 import { z } from "zod";
 
@@ -98,6 +98,7 @@ export const namhattaUpdates = pgTable("namhatta_updates", {
   namhattaId: integer("namhatta_id").notNull(),
   programType: text("program_type").notNull(),
   date: text("date").notNull(),
+  programDate: date("program_date"), // Typed copy of date, maintained by the Spring backend
   attendance: integer("attendance").notNull(),
   prasadDistribution: integer("prasad_distribution"),
   nagarKirtan: integer("nagar_kirtan").default(0),
@@ -112,6 +113,26 @@ export const namhattaUpdates = pgTable("namhatta_updates", {
   createdAt: timestamp("created_at").defaultNow(),
 });
 
+// Weekly/monthly activity rollups per namhatta, district or state (maintained by the Spring backend)
+export const namhattaUpdateRollups = pgTable("namhatta_update_rollups", {
+  id: serial("id").primaryKey(),
+  level: text("level").notNull(), // NAMHATTA, DISTRICT or STATE
+  scopeKey: text("scope_key").notNull(), // Namhatta id, district code or state code
+  period: text("period").notNull(), // WEEK or MONTH
+  bucketStart: date("bucket_start").notNull(),
+  programCount: bigint("program_count", { mode: "number" }).notNull().default(0),
+  attendanceSum: bigint("attendance_sum", { mode: "number" }).notNull().default(0),
+  prasadDistributionSum: bigint("prasad_distribution_sum", { mode: "number" }).notNull().default(0),
+  nagarKirtanSum: bigint("nagar_kirtan_sum", { mode: "number" }).notNull().default(0),
+  bookDistributionSum: bigint("book_distribution_sum", { mode: "number" }).notNull().default(0),
+  chantingSum: bigint("chanting_sum", { mode: "number" }).notNull().default(0),
+  aratiSum: bigint("arati_sum", { mode: "number" }).notNull().default(0),
+  bhagwatPathSum: bigint("bhagwat_path_sum", { mode: "number" }).notNull().default(0),
+  updatedAt: timestamp("updated_at").defaultNow().notNull(),
+}, (table) => ({
+  uniqueBucket: unique("uq_namhatta_update_rollups_bucket").on(table.level, table.scopeKey, table.period, table.bucketStart),
+}));
+
 // Gurudevs table
 export const gurudevs = pgTable("gurudevs", {
   id: serial("id").primaryKey(),